@@ -0,0 +1,95 @@
+package org.jooby;
+
+import static org.junit.Assert.assertTrue;
+
+import org.jooby.test.ServerFeature;
+import org.junit.Test;
+
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValueFactory;
+
+public class AssetCacheFeature extends ServerFeature {
+
+  {
+    use(ConfigFactory.empty()
+        .withValue("assets.cache.maxSize", ConfigValueFactory.fromAnyRef("1m")));
+
+    assets("/assets/**");
+  }
+
+  @Test
+  public void identity() throws Exception {
+    request()
+        .get("/assets/jquery-ui.css")
+        .header("Accept-Encoding", "identity")
+        .expect(200)
+        .header("Content-Type", "text/css;charset=UTF-8")
+        .header("Content-Length", 25272)
+        .header("Vary", "Accept-Encoding")
+        .header("Content-Encoding", (String) null);
+  }
+
+  @Test
+  public void gzip() throws Exception {
+    // client decompress the body and drops the Content-Encoding header
+    request()
+        .get("/assets/jquery-ui.css")
+        .header("Accept-Encoding", "gzip")
+        .expect(200)
+        .header("Content-Type", "text/css;charset=UTF-8")
+        .header("Vary", "Accept-Encoding")
+        .header("Content-Length", (String) null)
+        .expect(rsp -> assertTrue(rsp.startsWith("/*! jQuery UI")));
+  }
+
+  @Test
+  public void notModified() throws Exception {
+    request()
+        .get("/assets/file.js")
+        .expect(200)
+        .header("Content-Length", 15)
+        .header("Vary", (String) null)
+        .header("ETag", etag -> {
+          request()
+              .get("/assets/file.js")
+              .header("If-None-Match", etag)
+              .expect(304)
+              .empty();
+        });
+  }
+
+  @Test
+  public void notModifiedSince() throws Exception {
+    request()
+        .get("/assets/file.js")
+        .expect(200)
+        .header("Last-Modified", lastModified -> {
+          request()
+              .get("/assets/file.js")
+              .header("If-Modified-Since", lastModified)
+              .expect(304)
+              .empty();
+        });
+  }
+
+  @Test
+  public void byteRange() throws Exception {
+    request()
+        .get("/assets/jquery-ui.css")
+        .header("Accept-Encoding", "gzip")
+        .header("Range", "bytes=0-4")
+        .expect(206)
+        .header("Accept-Ranges", "bytes")
+        .header("Content-Range", "bytes 0-4/25272")
+        .header("Content-Length", 5)
+        .expect("/*! j");
+  }
+
+  @Test
+  public void missing() throws Exception {
+    request()
+        .get("/assets/missing.js")
+        .expect(404);
+  }
+
+}
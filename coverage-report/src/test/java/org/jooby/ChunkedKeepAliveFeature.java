@@ -0,0 +1,92 @@
+package org.jooby;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import org.jooby.netty.Netty;
+import org.jooby.test.OnServer;
+import org.jooby.test.ServerFeature;
+import org.junit.Test;
+
+@OnServer(Netty.class)
+public class ChunkedKeepAliveFeature extends ServerFeature {
+
+  /** Rendered with {@link Renderer.Context#stream(Renderer.BodyWriter)}. */
+  private static class Chunks {
+    private final int count;
+
+    Chunks(final int count) {
+      this.count = count;
+    }
+  }
+
+  {
+    renderer((value, ctx) -> {
+      if (value instanceof Chunks) {
+        ctx.type(MediaType.plain).stream(out -> {
+          for (int i = 0; i < ((Chunks) value).count; i++) {
+            out.write(("chunk" + i + ";").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+          }
+        });
+      }
+    });
+
+    get("/chunks", () -> new Chunks(3));
+
+    get("/hello", () -> "hello");
+  }
+
+  @Test
+  public void keepAliveAfterChunkedResponse() throws Exception {
+    try (Socket client = new Socket("localhost", port)) {
+      client.setSoTimeout(5000);
+      OutputStream output = client.getOutputStream();
+      InputStream input = client.getInputStream();
+
+      output.write(get("/chunks"));
+      output.flush();
+      String chunked = readUntil(input, "0\r\n\r\n");
+      assertTrue(chunked, chunked.startsWith("HTTP/1.1 200"));
+      assertTrue(chunked, chunked.toLowerCase().contains("transfer-encoding: chunked"));
+      assertTrue(chunked, chunked.toLowerCase().contains("connection: keep-alive"));
+      assertTrue(chunked, chunked.contains("chunk2;"));
+
+      // same connection
+      output.write(get("/hello"));
+      output.flush();
+      String hello = readUntil(input, "hello");
+      assertTrue(hello, hello.startsWith("HTTP/1.1 200"));
+      assertEquals("hello", hello.substring(hello.length() - 5));
+    }
+  }
+
+  private static byte[] get(final String path) {
+    return ("GET " + path + " HTTP/1.1\r\nHost: localhost\r\n\r\n")
+        .getBytes(StandardCharsets.UTF_8);
+  }
+
+  /** Read until the given suffix, fails if the server closes the connection before. */
+  private static String readUntil(final InputStream input, final String suffix)
+      throws IOException {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    while (true) {
+      int b = input.read();
+      if (b == -1) {
+        throw new IOException("Connection closed after: " + buffer.toString("UTF-8"));
+      }
+      buffer.write(b);
+      String text = buffer.toString("UTF-8");
+      if (text.endsWith(suffix)) {
+        return text;
+      }
+    }
+  }
+}
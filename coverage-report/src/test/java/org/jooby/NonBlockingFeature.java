@@ -0,0 +1,105 @@
+package org.jooby;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.jooby.mvc.GET;
+import org.jooby.mvc.NonBlocking;
+import org.jooby.mvc.Path;
+import org.jooby.netty.Netty;
+import org.jooby.test.OnServer;
+import org.jooby.test.ServerFeature;
+import org.jooby.undertow.Undertow;
+import org.junit.Test;
+
+@OnServer({Netty.class, Undertow.class })
+public class NonBlockingFeature extends ServerFeature {
+
+  @Path("/mvc")
+  public static class Resource {
+
+    @GET
+    @Path("/io")
+    @NonBlocking
+    public String io() {
+      return Thread.currentThread().getName();
+    }
+
+    @GET
+    @Path("/worker")
+    public String worker() {
+      return Thread.currentThread().getName();
+    }
+  }
+
+  {
+    get("/io", () -> Thread.currentThread().getName()).nonBlocking();
+
+    get("/worker", () -> Thread.currentThread().getName());
+
+    // all the routes must be non-blocking
+    use("/mixed/**", (req, rsp, chain) -> chain.next(req, rsp));
+
+    get("/mixed/io", () -> Thread.currentThread().getName()).nonBlocking();
+
+    with(() -> {
+      use("/group/**", (req, rsp, chain) -> chain.next(req, rsp));
+
+      get("/group/io", () -> Thread.currentThread().getName());
+    }).nonBlocking();
+
+    use(Resource.class);
+  }
+
+  @Test
+  public void io() throws Exception {
+    request()
+        .get("/io")
+        .expect(name -> assertTrue(name, io(name)));
+  }
+
+  @Test
+  public void worker() throws Exception {
+    request()
+        .get("/worker")
+        .expect(name -> assertFalse(name, io(name)));
+  }
+
+  @Test
+  public void mixed() throws Exception {
+    request()
+        .get("/mixed/io")
+        .expect(name -> assertFalse(name, io(name)));
+  }
+
+  @Test
+  public void group() throws Exception {
+    request()
+        .get("/group/io")
+        .expect(name -> assertTrue(name, io(name)));
+  }
+
+  @Test
+  public void mvc() throws Exception {
+    request()
+        .get("/mvc/io")
+        .expect(name -> assertTrue(name, io(name)));
+
+    request()
+        .get("/mvc/worker")
+        .expect(name -> assertFalse(name, io(name)));
+  }
+
+  @Test
+  public void notFound() throws Exception {
+    request()
+        .get("/missing")
+        .expect(404);
+  }
+
+  private static boolean io(final String name) {
+    // worker threads are: netty task-N or utow task-N
+    return !name.contains("task");
+  }
+
+}
@@ -0,0 +1,90 @@
+package org.jooby;
+
+import java.util.Arrays;
+
+import org.jooby.netty.Netty;
+import org.jooby.test.OnServer;
+import org.jooby.test.ServerFeature;
+import org.junit.Test;
+
+import com.google.common.base.Strings;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValueFactory;
+
+@OnServer(Netty.class)
+public class StreamingBodyFeature extends ServerFeature {
+
+  private static final int SIZE = 1024 * 1024;
+
+  {
+    use(ConfigFactory.empty()
+        // only streamed bodies can go over it
+        .withValue("netty.http.MaxContentLength", ConfigValueFactory.fromAnyRef("64k"))
+        .withValue("netty.http.StreamingBuffer", ConfigValueFactory.fromAnyRef("16k"))
+        .withValue("netty.http.Streaming",
+            ConfigValueFactory.fromIterable(Arrays.asList("/stream/**"))));
+
+    post("/stream/body", req -> req.body().to(byte[].class).length);
+
+    post("/stream/text", req -> req.body().value());
+
+    post("/stream/upload", req -> {
+      try (Upload upload = req.file("file")) {
+        return upload.file().length() + ":" + req.param("name").value();
+      }
+    });
+
+    post("/stream/ignore", req -> "ignored");
+
+    post("/body", req -> req.body().to(byte[].class).length);
+  }
+
+  @Test
+  public void largeBody() throws Exception {
+    request()
+        .post("/stream/body")
+        .body(Strings.repeat("x", SIZE), null)
+        .expect(String.valueOf(SIZE));
+  }
+
+  @Test
+  public void smallBody() throws Exception {
+    request()
+        .post("/stream/text")
+        .body("hello", "text/plain")
+        .expect("hello");
+  }
+
+  @Test
+  public void largeUpload() throws Exception {
+    request()
+        .post("/stream/upload")
+        .multipart()
+        .add("name", "big")
+        .file("file", new byte[SIZE], "application/octet-stream", "big.bin")
+        .expect(SIZE + ":big");
+  }
+
+  @Test
+  public void notStreamed() throws Exception {
+    request()
+        .post("/body")
+        .body(Strings.repeat("x", SIZE), null)
+        .expect(413);
+  }
+
+  @Test
+  public void ignoreBody() throws Exception {
+    request()
+        .post("/stream/ignore")
+        .body(Strings.repeat("x", SIZE), null)
+        .expect("ignored");
+
+    // connection is still usable
+    request()
+        .post("/stream/text")
+        .body("after", "text/plain")
+        .expect("after");
+  }
+
+}
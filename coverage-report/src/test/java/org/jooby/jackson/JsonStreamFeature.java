@@ -0,0 +1,72 @@
+package org.jooby.jackson;
+
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.jooby.json.Jackson;
+import org.jooby.test.ServerFeature;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.TypeLiteral;
+
+public class JsonStreamFeature extends ServerFeature {
+
+  {
+    use(new Jackson().stream(1024));
+
+    get("/members", req -> members(req.param("size").intValue()));
+
+    post("/members", req -> req.body().to(new TypeLiteral<List<Map<String, Object>>>() {
+    }).size());
+  }
+
+  private static List<Map<String, Object>> members(final int size) {
+    return IntStream.range(0, size)
+        .mapToObj(i -> ImmutableMap.<String, Object> of("id", i, "name", "member" + i))
+        .collect(Collectors.toList());
+  }
+
+  private static String json(final int size) {
+    return IntStream.range(0, size)
+        .mapToObj(i -> "{\"id\":" + i + ",\"name\":\"member" + i + "\"}")
+        .collect(Collectors.joining(",", "[", "]"));
+  }
+
+  @Test
+  public void small() throws URISyntaxException, Exception {
+    String json = json(2);
+    request()
+        .get("/members?size=2")
+        .expect(json)
+        .header("Content-Type", "application/json;charset=UTF-8")
+        .header("Content-Length", json.length());
+  }
+
+  @Test
+  public void large() throws URISyntaxException, Exception {
+    String json = json(5000);
+    request()
+        .get("/members?size=5000")
+        .expect(json)
+        .header("Content-Type", "application/json;charset=UTF-8")
+        .header("Transfer-Encoding", "chunked");
+  }
+
+  @Test
+  public void body() throws URISyntaxException, Exception {
+    request()
+        .post("/members")
+        .body(json(5000), "application/json")
+        .expect("5000");
+
+    request()
+        .post("/members")
+        .body(json(2), "application/json")
+        .expect("2");
+  }
+
+}
@@ -0,0 +1,54 @@
+package org.jooby.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.jooby.test.ServerFeature;
+import org.junit.Test;
+
+import com.codahale.metrics.MetricRegistry;
+
+public class RouteTimerFeature extends ServerFeature {
+
+  {
+    use(new Metrics().request());
+
+    get("/pets/:id", req -> req.param("id").value());
+
+    get("/pets", req -> "pets");
+
+    get("/timers", req -> {
+      Map<String, Long> timers = new TreeMap<>();
+      req.require(MetricRegistry.class).getTimers().forEach((name, timer) -> {
+        if (name.startsWith("routes.")) {
+          timers.put(name, timer.getCount());
+        }
+      });
+      return timers.toString();
+    });
+  }
+
+  @Test
+  public void timerPerRoute() throws Exception {
+    request()
+        .get("/pets/1")
+        .expect("1");
+
+    request()
+        .get("/pets/2")
+        .expect("2");
+
+    request()
+        .get("/pets")
+        .expect("pets");
+
+    request()
+        .get("/missing")
+        .expect(404);
+
+    request()
+        .get("/timers")
+        .expect("{routes.GET /pets=1, routes.GET /pets/:id=2}");
+  }
+
+}
@@ -20,6 +20,15 @@ public class CleanCSSTest {
             ConfigFactory.empty()));
   }
 
+  @Test
+  public void reuseRuntime() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      assertEquals("a{font-weight:700}",
+          new CleanCss().process("/styles.css", "a {\n  font-weight:bold;\n}\n",
+              ConfigFactory.empty()));
+    }
+  }
+
   @Test(expected = AssetException.class)
   public void error() throws Exception {
     assertEquals("a{font-weight:700}",
@@ -23,11 +23,22 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -49,6 +60,31 @@ import com.google.common.io.ByteStreams;
 
 import javaslang.control.Try;
 
+/**
+ * <h1>v8 context</h1>
+ * <p>
+ * Runs javascript processors on a <a href="https://github.com/eclipsesource/J2V8">J2V8</a>
+ * runtime.
+ * </p>
+ *
+ * <h2>runtime pool</h2>
+ * <p>
+ * Creating a V8 runtime and compiling the processor scripts is usually more expensive than
+ * processing a small file. So, {@link #run(String, Callback)} keeps a bounded pool of warm
+ * runtimes per processor (one runtime per available processor at most). A runtime is checked out
+ * for a single call, objects created during the call are released when it is checked back in.
+ * Runtimes that aren't used for a minute are released, so a build doesn't hold them once it is
+ * done. Remaining runtimes are released on JVM shutdown.
+ * </p>
+ * <p>
+ * Warm runtimes compile each script once: {@link #invoke(String, Object...)} reuses the function
+ * produced by the processor script and <code>assets.load</code> is a noop for a library that was
+ * already loaded. Scripts that keep state between calls must use
+ * {@link #isolated(String, Callback)}, which creates a new runtime per call.
+ * </p>
+ *
+ * @author edgar
+ */
 public class V8Context {
 
   public interface Callback {
@@ -57,10 +93,132 @@ public class V8Context {
 
   }
 
+  /**
+   * Bounded pool of runtimes for a processor.
+   */
+  private static class Pool {
+
+    private final String global;
+
+    private final String id;
+
+    private final BlockingQueue<V8Context> idle;
+
+    private final Semaphore permits;
+
+    public Pool(final String global, final String id, final int size) {
+      this.global = global;
+      this.id = id;
+      this.idle = new LinkedBlockingQueue<>(size);
+      this.permits = new Semaphore(size);
+    }
+
+    public V8Context checkout() throws InterruptedException {
+      permits.acquire();
+      try {
+        V8Context ctx = idle.poll();
+        if (ctx == null) {
+          return new V8Context(global, id);
+        }
+        ctx.v8.getLocker().acquire();
+        return ctx;
+      } catch (RuntimeException | Error x) {
+        permits.release();
+        throw x;
+      }
+    }
+
+    public void checkin(final V8Context ctx, final boolean reuse) {
+      try {
+        ctx.reset();
+        if (reuse) {
+          ctx.idleSince = System.currentTimeMillis();
+          ctx.v8.getLocker().release();
+          if (idle.offer(ctx)) {
+            return;
+          }
+          ctx.v8.getLocker().acquire();
+        }
+        ctx.v8.release();
+      } catch (RuntimeException x) {
+        log.debug("release of {} resulted in exception", id, x);
+      } finally {
+        permits.release();
+      }
+    }
+
+    /**
+     * Release runtimes that are idle for the given time or longer.
+     *
+     * @param millis Idle time.
+     */
+    public void evict(final long millis) {
+      long now = System.currentTimeMillis();
+      for (V8Context ctx : idle) {
+        // remove fails if the runtime was just checked out
+        if (now - ctx.idleSince >= millis && idle.remove(ctx)) {
+          release(ctx);
+        }
+      }
+    }
+
+    public void close() {
+      V8Context ctx;
+      while ((ctx = idle.poll()) != null) {
+        release(ctx);
+      }
+    }
+
+    private void release(final V8Context ctx) {
+      try {
+        ctx.v8.getLocker().acquire();
+        ctx.v8.release();
+      } catch (RuntimeException x) {
+        log.debug("release of {} resulted in exception", id, x);
+      }
+    }
+  }
+
+  /** The logging system. */
+  private static final Logger log = LoggerFactory.getLogger(V8Context.class);
+
+  private static final int POOL_SIZE = Runtime.getRuntime().availableProcessors();
+
+  /** Idle time before a pooled runtime is released. */
+  private static final long IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(1);
+
+  private static final Map<String, Pool> pools = new ConcurrentHashMap<>();
+
+  /** Release idle runtimes. */
+  private static final ScheduledExecutorService evictor = Executors
+      .newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "v8-evictor");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+  static {
+    evictor.scheduleWithFixedDelay(() -> evict(IDLE_TIMEOUT), IDLE_TIMEOUT, IDLE_TIMEOUT,
+        TimeUnit.MILLISECONDS);
+    Runtime.getRuntime().addShutdownHook(new Thread(V8Context::close, "v8-shutdown"));
+  }
+
   public final V8 v8;
 
   private String id;
 
+  /** Objects created while running a callback, released on {@link #reset()}. */
+  private final List<Releasable> resources = new ArrayList<>();
+
+  /** Processor functions, compiled once per runtime. */
+  private final Map<String, V8Function> functions = new HashMap<>();
+
+  /** Libraries loaded via <code>assets.load</code>. */
+  private final Set<String> loaded = new HashSet<>();
+
+  /** Last checkin time. */
+  private long idleSince;
+
   private V8Context(final String global, final String id) {
     this(V8.createV8Runtime(global), id);
   }
@@ -74,6 +232,10 @@ public class V8Context {
     assets(v8);
 
     b64(v8);
+
+    // console and assets live as long as the runtime does
+    resources.forEach(v8::registerResource);
+    resources.clear();
   }
 
   public V8Object hash() {
@@ -97,7 +259,12 @@ public class V8Context {
   }
 
   public String invoke(final String path, final Object... args) throws Exception {
-    V8Function fn = register((V8Function) load(path));
+    V8Function fn = functions.get(path);
+    if (fn == null) {
+      fn = (V8Function) v8.executeScript(readFile(path), path, 0);
+      v8.registerResource(fn);
+      functions.put(path, fn);
+    }
     Object value = register(fn.call(v8, array(Arrays.asList(args))));
     if (value instanceof String) {
       return value.toString();
@@ -172,14 +339,59 @@ public class V8Context {
   }
 
   public static String run(final String global, final Callback callback) throws Exception {
+    String id = classname(callback);
+    Pool pool = pools.computeIfAbsent(global + ":" + id, k -> new Pool(global, id, POOL_SIZE));
+    V8Context ctx = pool.checkout();
+    boolean reuse = false;
+    try {
+      String output = callback.call(ctx);
+      reuse = true;
+      return output;
+    } catch (AssetException x) {
+      // problems are reported by the script, runtime is still good
+      reuse = true;
+      throw x;
+    } finally {
+      pool.checkin(ctx, reuse);
+    }
+  }
+
+  public static String isolated(final Callback callback) throws Exception {
+    return isolated(null, callback);
+  }
+
+  public static String isolated(final String global, final Callback callback)
+      throws Exception {
     V8Context ctx = new V8Context(global, classname(callback));
     try {
       return callback.call(ctx);
     } finally {
+      ctx.reset();
       ctx.v8.release();
     }
   }
 
+  /**
+   * Release idle runtimes. Runtimes in use are released when checked in.
+   */
+  public static void close() {
+    pools.values().forEach(Pool::close);
+  }
+
+  /**
+   * Release runtimes that are idle for the given time or longer.
+   *
+   * @param millis Idle time.
+   */
+  static void evict(final long millis) {
+    try {
+      pools.values().forEach(pool -> pool.evict(millis));
+    } catch (RuntimeException x) {
+      // keep the evictor running
+      log.debug("eviction resulted in exception", x);
+    }
+  }
+
   private static String classname(final Callback callback) {
     String logname = callback.getClass().getSimpleName();
     logname = logname.substring(0, logname.indexOf("$"));
@@ -188,11 +400,18 @@ public class V8Context {
 
   private <T> T register(final T value) {
     if (value instanceof Releasable) {
-      v8.registerResource((Releasable) value);
+      resources.add((Releasable) value);
     }
     return value;
   }
 
+  private void reset() {
+    for (int i = resources.size() - 1; i >= 0; i--) {
+      resources.get(i).release();
+    }
+    resources.clear();
+  }
+
   private JavaVoidCallback console(final Consumer<String> log) {
     return (self, args) -> {
       StringBuilder buff = new StringBuilder();
@@ -242,9 +461,15 @@ public class V8Context {
         "exists");
 
     assets.registerJavaMethod((JavaCallback) (receiver, args) -> {
+      String path = args.get(0).toString();
+      if (!loaded.add(path)) {
+        // already loaded by a previous call on this runtime
+        return V8.getUndefined();
+      }
       try {
-        return load(args.get(0).toString());
+        return load(path);
       } catch (Exception ex) {
+        loaded.remove(path);
         // we can't fire exceptions from Java :S
         return V8.getUndefined();
       }
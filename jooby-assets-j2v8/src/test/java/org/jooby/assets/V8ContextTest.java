@@ -0,0 +1,143 @@
+package org.jooby.assets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class V8ContextTest {
+
+  @Test
+  public void concurrentCheckout() throws Exception {
+    int processors = Runtime.getRuntime().availableProcessors();
+    int threads = processors * 2;
+    // V8Context doesn't override hashCode, so these are identity sets
+    Set<V8Context> running = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    Set<V8Context> runtimes = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<String>> results = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        String value = Integer.toString(i);
+        results.add(executor.submit(() -> {
+          start.await();
+          return V8Context.run("v8concurrent", ctx -> {
+            if (!running.add(ctx)) {
+              throw new IllegalStateException("runtime checked out twice");
+            }
+            try {
+              runtimes.add(ctx);
+              return ctx.v8.executeStringScript("'" + value + "'");
+            } finally {
+              running.remove(ctx);
+            }
+          });
+        }));
+      }
+      start.countDown();
+      for (int i = 0; i < threads; i++) {
+        assertEquals(Integer.toString(i), results.get(i).get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertTrue(runtimes.size() <= processors);
+  }
+
+  @Test
+  public void discardAfterFailure() throws Exception {
+    List<V8Context> contexts = new ArrayList<>();
+    try {
+      V8Context.run("v8discard", ctx -> {
+        contexts.add(ctx);
+        throw new IllegalStateException("intentional err");
+      });
+      fail("expected exception");
+    } catch (IllegalStateException x) {
+      assertEquals("intentional err", x.getMessage());
+    }
+    assertTrue(contexts.get(0).v8.isReleased());
+
+    V8Context.run("v8discard", ctx -> {
+      contexts.add(ctx);
+      return "";
+    });
+    assertNotSame(contexts.get(0), contexts.get(1));
+  }
+
+  @Test
+  public void keepAfterProblems() throws Exception {
+    List<V8Context> contexts = new ArrayList<>();
+    try {
+      V8Context.run("v8problems", ctx -> {
+        contexts.add(ctx);
+        throw new AssetException("v8-context-test",
+            new AssetProblem("file.js", 1, 1, "intentional err", null));
+      });
+      fail("expected exception");
+    } catch (AssetException x) {
+      assertEquals(1, x.getProblems().size());
+    }
+    assertFalse(contexts.get(0).v8.isReleased());
+
+    V8Context.run("v8problems", ctx -> {
+      contexts.add(ctx);
+      return "";
+    });
+    assertSame(contexts.get(0), contexts.get(1));
+  }
+
+  @Test
+  public void loadOnce() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      assertEquals("1", V8Context.run("v8load", ctx -> {
+        ctx.v8.executeVoidScript("assets.load('/v8/counter.js')");
+        ctx.v8.executeVoidScript("assets.load('/v8/counter.js')");
+        return String.valueOf(ctx.v8.getInteger("loads"));
+      }));
+    }
+  }
+
+  @Test
+  public void loadPerIsolatedRuntime() throws Exception {
+    for (int i = 0; i < 2; i++) {
+      assertEquals("1", V8Context.isolated("v8isolated", ctx -> {
+        ctx.v8.executeVoidScript("assets.load('/v8/counter.js')");
+        return String.valueOf(ctx.v8.getInteger("loads"));
+      }));
+    }
+  }
+
+  @Test
+  public void evictIdleRuntimes() throws Exception {
+    List<V8Context> contexts = new ArrayList<>();
+    V8Context.run("v8evict", ctx -> {
+      contexts.add(ctx);
+      return "";
+    });
+    V8Context.evict(0);
+    assertTrue(contexts.get(0).v8.isReleased());
+
+    V8Context.run("v8evict", ctx -> {
+      contexts.add(ctx);
+      return "";
+    });
+    assertNotSame(contexts.get(0), contexts.get(1));
+  }
+
+}
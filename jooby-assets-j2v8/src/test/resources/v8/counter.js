@@ -0,0 +1 @@
+var loads = (typeof loads === 'undefined' ? 0 : loads) + 1;
@@ -73,6 +73,12 @@ import com.typesafe.config.Config;
  */
 public class Less extends AssetProcessor {
 
+  @Override
+  public boolean cacheable() {
+    // output depends on imports too
+    return false;
+  }
+
   @Override
   public boolean matches(final MediaType type) {
     return MediaType.css.matches(type);
@@ -94,6 +94,12 @@ public class Less extends AssetProcessor {
     set("sourceMap", null);
   }
 
+  @Override
+  public boolean cacheable() {
+    // output depends on imports too
+    return false;
+  }
+
   @Override
   public boolean matches(final MediaType type) {
     return MediaType.css.matches(type);
@@ -68,6 +68,12 @@ public class Rjs extends AssetProcessor {
     set("optimize", "none");
   }
 
+  @Override
+  public boolean cacheable() {
+    // output depends on modules too
+    return false;
+  }
+
   @Override
   public boolean matches(final MediaType type) {
     return MediaType.js.matches(type);
@@ -76,7 +82,8 @@ public class Rjs extends AssetProcessor {
   @Override
   public String process(final String filename, final String source, final Config conf)
       throws Exception {
-    return V8Context.run(v8 -> {
+    // r.js keeps a module registry in the global scope, don't share runtimes
+    return V8Context.isolated(v8 -> {
       String path = filename.startsWith("/") ? filename.substring(1) : filename;
       return v8.invoke("r.js", source, options(), path);
     });
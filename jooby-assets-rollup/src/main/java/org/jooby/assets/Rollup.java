@@ -71,6 +71,12 @@ import com.typesafe.config.Config;
  */
 public class Rollup extends AssetProcessor {
 
+  @Override
+  public boolean cacheable() {
+    // output depends on modules too
+    return false;
+  }
+
   @Override
   public boolean matches(final MediaType type) {
     return MediaType.js.matches(type);
@@ -193,6 +193,12 @@ public class Sass extends AssetProcessor {
     set("sourceComments", false);
   }
 
+  @Override
+  public boolean cacheable() {
+    // output depends on imports too
+    return false;
+  }
+
   @Override
   public boolean matches(final MediaType type) {
     return MediaType.css.matches(type);
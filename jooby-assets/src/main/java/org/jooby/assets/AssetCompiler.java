@@ -41,6 +41,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -50,11 +53,13 @@ import java.util.stream.Stream;
 import org.jooby.Asset;
 import org.jooby.MediaType;
 import org.jooby.internal.RoutePattern;
+import org.jooby.internal.assets.CompilerCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.CaseFormat;
 import com.google.common.base.Splitter;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.hash.Hashing;
@@ -66,6 +71,7 @@ import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 import com.typesafe.config.ConfigValue;
 
+import javaslang.CheckedFunction1;
 import javaslang.control.Try;
 
 /**
@@ -74,6 +80,20 @@ import javaslang.control.Try;
  * Process static files by validate or modify them in some way.
  * </p>
  *
+ * <h2>parallel and incremental builds</h2>
+ * <p>
+ * Filesets and the files of a fileset are processed in parallel, using a fork-join pool of
+ * <code>assets.compiler.parallelism</code> threads (defaults to number of available processors,
+ * set it to <code>1</code> for sequential builds).
+ * </p>
+ * <p>
+ * The output of each {@link AssetProcessor#cacheable()} processor is saved in the
+ * <code>assets.compiler.cache</code> directory, keyed by processor, options, file name and input.
+ * Unchanged files skip the processor across builds and on live reload. Set it to an empty value
+ * to turn the cache off. Least recently used entries are deleted after a build once the directory
+ * is bigger than <code>assets.compiler.cacheSize</code>.
+ * </p>
+ *
  * @author edgar
  * @see AssetProcessor
  * @see Assets
@@ -100,6 +120,10 @@ public class AssetCompiler {
 
   private ClassLoader loader;
 
+  private final int parallelism;
+
+  private final CompilerCache cache;
+
   public AssetCompiler(final Config conf) throws Exception {
     this(conf.getClass().getClassLoader(), conf);
   }
@@ -121,6 +145,19 @@ public class AssetCompiler {
     } else {
       this.pipeline = Collections.emptyMap();
     }
+    int parallelism = conf.hasPath("assets.compiler.parallelism")
+        ? conf.getInt("assets.compiler.parallelism")
+        : 0;
+    this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    String cachedir = conf.hasPath("assets.compiler.cache")
+        ? conf.getString("assets.compiler.cache").trim()
+        : "";
+    long cachesize = conf.hasPath("assets.compiler.cacheSize")
+        ? conf.getBytes("assets.compiler.cacheSize")
+        : Long.MAX_VALUE;
+    this.cache = cachedir.length() > 0
+        ? new CompilerCache(Paths.get(cachedir), charset, cachesize)
+        : null;
   }
 
   /**
@@ -294,49 +331,66 @@ public class AssetCompiler {
    * @throws Exception If something goes wrong.
    */
   public Map<String, List<File>> build(final String dist, final File dir) throws Exception {
-    Map<String, List<File>> output = new LinkedHashMap<>();
-
     log.info("{} aggregators: {}", dist, aggregators);
     aggregators(aggregators, conf);
 
     List<AssetProcessor> pipeline = pipeline(dist);
     log.info("{} pipeline: {}", dist, pipeline);
-    for (String fset : fileset()) {
-      List<String> files = assets(fset);
-
-      log.info("compiling {}:", fset);
-
-      String css = compile(pipeline, files.stream().filter(styles).iterator(), MediaType.css, "");
-      Path cssSha1 = Paths.get(fset + "." + sha1(css) + ".css");
-      Path pcss = patterns(styles).findFirst()
-          .map(p -> Paths.get(p).resolve(cssSha1))
-          .orElse(cssSha1);
-      File fcss = dir.toPath().resolve(pcss).toFile();
-      fcss.getParentFile().mkdirs();
-      ImmutableList.Builder<File> outputbuilder = ImmutableList.builder();
-      if (css.length() > 0) {
-        Files.write(css, fcss, charset);
-        outputbuilder.add(fcss);
+    log.info("{} parallelism: {}, cache: {}", dist, parallelism, cache);
+    List<String> filesets = new ArrayList<>(fileset());
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      CheckedFunction1<String, List<File>> fn = fset -> build(pipeline, fset, dir);
+      Callable<Try<List<List<File>>>> task = () -> Try.of(() -> invokeAll(filesets, fn));
+      List<List<File>> files = get(pool.submit(task).get());
+      Map<String, List<File>> output = new LinkedHashMap<>();
+      for (int i = 0; i < filesets.size(); i++) {
+        output.put(filesets.get(i), files.get(i));
       }
-
-      String js = compile(pipeline, files.stream().filter(scripts).iterator(), MediaType.js, ";");
-      Path jsSha1 = Paths.get(fset + "." + sha1(js) + ".js");
-      Path pjs = patterns(scripts).findFirst()
-          .map(p -> Paths.get(p).resolve(jsSha1))
-          .orElse(jsSha1);
-      File fjs = dir.toPath().resolve(pjs).toFile();
-      fjs.getParentFile().mkdirs();
-      if (js.length() > 0) {
-        Files.write(js, fjs, charset);
-        outputbuilder.add(fjs);
+      return output;
+    } finally {
+      pool.shutdown();
+      if (cache != null) {
+        cache.trim();
       }
+    }
+  }
+
+  private List<File> build(final List<AssetProcessor> pipeline, final String fset,
+      final File dir) throws Exception {
+    List<String> files = assets(fset);
 
-      List<File> fsoutput = outputbuilder.build();
-      fsoutput.forEach(
-          it -> log.info("{} {} ({})", it.getName(), humanReadableByteCount(it.length()), it));
-      output.put(fset, fsoutput);
+    log.info("compiling {}:", fset);
+
+    String css = compile(pipeline, files.stream().filter(styles), MediaType.css, "");
+    Path cssSha1 = Paths.get(fset + "." + sha1(css) + ".css");
+    Path pcss = patterns(styles).findFirst()
+        .map(p -> Paths.get(p).resolve(cssSha1))
+        .orElse(cssSha1);
+    File fcss = dir.toPath().resolve(pcss).toFile();
+    fcss.getParentFile().mkdirs();
+    ImmutableList.Builder<File> outputbuilder = ImmutableList.builder();
+    if (css.length() > 0) {
+      Files.write(css, fcss, charset);
+      outputbuilder.add(fcss);
     }
-    return output;
+
+    String js = compile(pipeline, files.stream().filter(scripts), MediaType.js, ";");
+    Path jsSha1 = Paths.get(fset + "." + sha1(js) + ".js");
+    Path pjs = patterns(scripts).findFirst()
+        .map(p -> Paths.get(p).resolve(jsSha1))
+        .orElse(jsSha1);
+    File fjs = dir.toPath().resolve(pjs).toFile();
+    fjs.getParentFile().mkdirs();
+    if (js.length() > 0) {
+      Files.write(js, fjs, charset);
+      outputbuilder.add(fjs);
+    }
+
+    List<File> fsoutput = outputbuilder.build();
+    fsoutput.forEach(
+        it -> log.info("{} {} ({})", it.getName(), humanReadableByteCount(it.length()), it));
+    return fsoutput;
   }
 
   private void aggregators(final List<AssetAggregator> aggregators, final Config conf)
@@ -392,13 +446,12 @@ public class AssetCompiler {
 
   }
 
-  private String compile(final List<AssetProcessor> pipeline, final Iterator<String> files,
+  private String compile(final List<AssetProcessor> pipeline, final Stream<String> files,
       final MediaType type, final String sep) throws Exception {
+    List<String> output = invokeAll(files.collect(Collectors.toList()),
+        file -> compile(pipeline, file, type, readFile(loader, file, charset)));
     StringBuilder buff = new StringBuilder();
-    while (files.hasNext()) {
-      String file = files.next();
-      buff.append(compile(pipeline, file, type, readFile(loader, file, charset))).append(sep);
-    }
+    output.forEach(it -> buff.append(it).append(sep));
     return buff.toString();
   }
 
@@ -414,8 +467,21 @@ public class AssetCompiler {
         String pname = processor.name();
         long start = System.currentTimeMillis();
         try {
-          log.debug("    executing: {}", pname);
-          contents = processor.process(filename, contents, conf);
+          if (cache != null && processor.cacheable()) {
+            String key = cache.key(processor, filename, contents);
+            String output = cache.get(key);
+            if (output == null) {
+              log.debug("    executing: {}", pname);
+              output = processor.process(filename, contents, conf);
+              cache.put(key, output);
+            } else {
+              log.debug("    cached: {}", pname);
+            }
+            contents = output;
+          } else {
+            log.debug("    executing: {}", pname);
+            contents = processor.process(filename, contents, conf);
+          }
         } finally {
           long end = System.currentTimeMillis();
           log.debug("    {} took {}ms", pname, end - start);
@@ -425,6 +491,32 @@ public class AssetCompiler {
     return contents;
   }
 
+  /**
+   * Fork one task per item and join them. Must be called from a fork-join pool thread. Output
+   * keeps the order of the input, the first failure (in input order) is rethrown.
+   */
+  private static <I, O> List<O> invokeAll(final List<I> items, final CheckedFunction1<I, O> fn)
+      throws Exception {
+    List<ForkJoinTask<Try<O>>> tasks = new ArrayList<>(items.size());
+    for (I item : items) {
+      tasks.add(ForkJoinTask.<Try<O>> adapt(() -> Try.of(() -> fn.apply(item))).fork());
+    }
+    List<O> output = new ArrayList<>(items.size());
+    for (ForkJoinTask<Try<O>> task : tasks) {
+      output.add(get(task.join()));
+    }
+    return output;
+  }
+
+  private static <T> T get(final Try<T> result) throws Exception {
+    if (result.isFailure()) {
+      Throwable cause = result.getCause();
+      Throwables.propagateIfPossible(cause, Exception.class);
+      throw new IllegalStateException(cause);
+    }
+    return result.get();
+  }
+
   private String sha1(final String source) {
     return BaseEncoding.base16()
         .encode(Hashing
@@ -152,6 +152,19 @@ public abstract class AssetProcessor extends AssetOptions {
     return this;
   }
 
+  /**
+   * True, when the output depends on the file's name, the source and the processor options only.
+   * The {@link AssetCompiler} keeps the output of a cacheable processor in a persistent cache and
+   * skips it while none of them change.
+   *
+   * Processors that read other files (imports, modules, etc.) must return <code>false</code>.
+   *
+   * @return True, when the output can be cached. Default is: <code>true</code>.
+   */
+  public boolean cacheable() {
+    return true;
+  }
+
   public abstract boolean matches(final MediaType type);
 
   public abstract String process(String filename, String source, Config conf) throws Exception;
@@ -83,6 +83,12 @@ public class Props extends AssetProcessor {
     set("ignoreMissing", false);
   }
 
+  @Override
+  public boolean cacheable() {
+    // output depends on application properties too
+    return false;
+  }
+
   @Override
   public boolean matches(final MediaType type) {
     return true;
@@ -0,0 +1,205 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal.assets;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.jooby.assets.AssetProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.typesafe.config.ConfigRenderOptions;
+import com.typesafe.config.ConfigValueFactory;
+
+/**
+ * Content-addressed cache of {@link AssetProcessor} output. Entries are keyed by a hash of the
+ * processor (name, class, version and options), the file name and the processor input. Entries
+ * are never invalidated: a change in any of them produces a new key.
+ *
+ * Entries are written to a temporary file and moved into place, so concurrent builds (or threads)
+ * can share the directory. IO errors are logged and treated as cache misses.
+ *
+ * A hit updates the last modified time of the entry, {@link #trim()} deletes least recently used
+ * entries once the directory is bigger than <code>maxSize</code>.
+ */
+public class CompilerCache {
+
+  /** Bump it when the key or entry format changes. */
+  private static final String VERSION = "1";
+
+  /** The logging system. */
+  private final Logger log = LoggerFactory.getLogger(getClass());
+
+  private final Path dir;
+
+  private final Charset charset;
+
+  private final long maxSize;
+
+  public CompilerCache(final Path dir, final Charset charset, final long maxSize) {
+    this.dir = requireNonNull(dir, "Cache directory is required.");
+    this.charset = requireNonNull(charset, "Charset is required.");
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Compute a cache key.
+   *
+   * @param processor Asset processor.
+   * @param filename File's name.
+   * @param source Processor input.
+   * @return Cache key.
+   */
+  public String key(final AssetProcessor processor, final String filename, final String source) {
+    Class<?> type = processor.getClass();
+    Package pkg = type.getPackage();
+    String version = pkg == null ? null : pkg.getImplementationVersion();
+    String options = ConfigValueFactory.fromMap(processor.options())
+        .render(ConfigRenderOptions.concise());
+    Hasher hasher = Hashing.sha256().newHasher()
+        .putString(VERSION, charset)
+        .putString(processor.name(), charset)
+        .putString(type.getName(), charset)
+        .putString(String.valueOf(version), charset)
+        .putString(options, charset)
+        .putString(filename, charset)
+        .putString(source, charset);
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Get a cached output.
+   *
+   * @param key Cache key.
+   * @return Processor output or <code>null</code>.
+   */
+  public String get(final String key) {
+    try {
+      Path path = path(key);
+      String output = new String(Files.readAllBytes(path), charset);
+      Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+      return output;
+    } catch (NoSuchFileException x) {
+      return null;
+    } catch (IOException x) {
+      log.debug("unable to read cache entry: {}", key, x);
+      return null;
+    }
+  }
+
+  /**
+   * Save a processor output.
+   *
+   * @param key Cache key.
+   * @param output Processor output.
+   */
+  public void put(final String key, final String output) {
+    Path path = path(key);
+    Path tmp = null;
+    try {
+      Files.createDirectories(path.getParent());
+      tmp = Files.createTempFile(path.getParent(), key, ".tmp");
+      Files.write(tmp, output.getBytes(charset));
+      try {
+        Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException x) {
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException x) {
+      log.debug("unable to write cache entry: {}", key, x);
+      if (tmp != null) {
+        tmp.toFile().delete();
+      }
+    }
+  }
+
+  /**
+   * Delete least recently used entries until the cache directory is smaller than
+   * <code>maxSize</code>.
+   */
+  public void trim() {
+    if (!Files.exists(dir)) {
+      return;
+    }
+    try (Stream<Path> walk = Files.walk(dir)) {
+      List<Entry> entries = walk
+          .filter(Files::isRegularFile)
+          .map(Entry::new)
+          .sorted(Comparator.comparing(e -> e.lastModified))
+          .collect(Collectors.toList());
+      long size = entries.stream().mapToLong(e -> e.size).sum();
+      for (int i = 0; i < entries.size() && size > maxSize; i++) {
+        Entry entry = entries.get(i);
+        if (Files.deleteIfExists(entry.path)) {
+          size -= entry.size;
+        }
+      }
+    } catch (IOException | UncheckedIOException x) {
+      log.debug("unable to trim cache: {}", dir, x);
+    }
+  }
+
+  private static class Entry {
+
+    private final Path path;
+
+    private final FileTime lastModified;
+
+    private final long size;
+
+    public Entry(final Path path) {
+      try {
+        BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        this.path = path;
+        this.lastModified = attrs.lastModifiedTime();
+        this.size = attrs.size();
+      } catch (IOException x) {
+        throw new UncheckedIOException(x);
+      }
+    }
+  }
+
+  private Path path(final String key) {
+    // two levels, keep directories small
+    return dir.resolve(key.substring(0, 2)).resolve(key.substring(2));
+  }
+
+  @Override
+  public String toString() {
+    return dir.toString();
+  }
+
+}
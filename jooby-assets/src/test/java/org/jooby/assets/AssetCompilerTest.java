@@ -19,7 +19,9 @@ import java.util.stream.Collectors;
 import org.jooby.Asset;
 import org.jooby.MediaType;
 import org.jooby.internal.URLAsset;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
@@ -32,6 +34,9 @@ import javaslang.control.Try;
 
 public class AssetCompilerTest {
 
+  @Rule
+  public TemporaryFolder tmp = new TemporaryFolder();
+
   @Test
   public void newCompiler() throws Exception {
     assertEquals("{home=[/assets/index.js, /assets/index.css]}",
@@ -142,6 +147,40 @@ public class AssetCompilerTest {
         compile(new AssetCompiler(conf("assets-test.conf", "dev")), "/assets/index.css"));
   }
 
+  @Test
+  public void cache() throws Exception {
+    File cachedir = tmp.newFolder("cache");
+    Config conf = conf("assets-cache.conf", "dev")
+        .withValue("assets.compiler.cache", ConfigValueFactory.fromAnyRef(cachedir.toString()));
+    CacheProcessorTest.calls.set(0);
+
+    assertEquals("cache-processor-test:", compile(new AssetCompiler(conf), "/assets/index.js"));
+    assertEquals(1, CacheProcessorTest.calls.get());
+
+    // new compiler, same input
+    assertEquals("cache-processor-test:", compile(new AssetCompiler(conf), "/assets/index.js"));
+    assertEquals(1, CacheProcessorTest.calls.get());
+
+    // options changed
+    Config foo = conf.withValue("assets.cache-processor-test.foo",
+        ConfigValueFactory.fromAnyRef("baz"));
+    assertEquals("cache-processor-test:", compile(new AssetCompiler(foo), "/assets/index.js"));
+    assertEquals(2, CacheProcessorTest.calls.get());
+  }
+
+  @Test
+  public void sequentialBundle() throws Exception {
+    File dir = tmp.newFolder("public");
+    Map<String, List<File>> files = new AssetCompiler(conf("assets-compile-all.conf", "dev")
+        .withValue("assets.compiler.parallelism", ConfigValueFactory.fromAnyRef(1)))
+            .build("dev", dir);
+    assertEquals(Sets.newHashSet("all.0a36d8bd.css", "all.9a92930a.js"),
+        files.values().stream()
+            .flatMap(List::stream)
+            .map(File::getName)
+            .collect(Collectors.toSet()));
+  }
+
   @Test
   public void bundle() throws Exception {
     File dir = Paths.get("target", "public").toFile();
@@ -0,0 +1,25 @@
+package org.jooby.assets;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jooby.MediaType;
+
+import com.typesafe.config.Config;
+
+public class CacheProcessorTest extends AssetProcessor {
+
+  static final AtomicInteger calls = new AtomicInteger();
+
+  @Override
+  public boolean matches(final MediaType type) {
+    return type.matches(MediaType.js);
+  }
+
+  @Override
+  public String process(final String filename, final String source, final Config conf)
+      throws Exception {
+    calls.incrementAndGet();
+    return name() + ":" + source;
+  }
+
+}
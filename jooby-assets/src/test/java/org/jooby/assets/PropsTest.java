@@ -1,6 +1,7 @@
 package org.jooby.assets;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -21,6 +22,11 @@ public class PropsTest {
     assertTrue(new Props().matches(MediaType.html));
   }
 
+  @Test
+  public void cacheable() throws Exception {
+    assertFalse(new Props().cacheable());
+  }
+
   @Test
   public void props() throws Exception {
     assertEquals("$.ajax(http://foo.com);",
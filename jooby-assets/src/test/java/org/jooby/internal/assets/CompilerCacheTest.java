@@ -0,0 +1,64 @@
+package org.jooby.internal.assets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CompilerCacheTest {
+
+  @Rule
+  public TemporaryFolder tmp = new TemporaryFolder();
+
+  @Test
+  public void putAndGet() throws Exception {
+    CompilerCache cache = new CompilerCache(tmp.getRoot().toPath(), StandardCharsets.UTF_8,
+        Long.MAX_VALUE);
+    assertNull(cache.get("abcdef"));
+    cache.put("abcdef", "output");
+    assertEquals("output", cache.get("abcdef"));
+  }
+
+  @Test
+  public void trimLeastRecentlyUsed() throws Exception {
+    Path dir = tmp.getRoot().toPath();
+    CompilerCache cache = new CompilerCache(dir, StandardCharsets.UTF_8, 10);
+    cache.put("aa0001", "12345");
+    cache.put("bb0002", "12345");
+    cache.put("cc0003", "12345");
+    long now = System.currentTimeMillis();
+    touch(dir, "aa0001", now - 30000);
+    touch(dir, "bb0002", now - 20000);
+    touch(dir, "cc0003", now - 10000);
+
+    // hit makes aa0001 the most recently used entry
+    assertEquals("12345", cache.get("aa0001"));
+
+    cache.trim();
+
+    assertEquals("12345", cache.get("aa0001"));
+    assertNull(cache.get("bb0002"));
+    assertEquals("12345", cache.get("cc0003"));
+  }
+
+  @Test
+  public void trimMissingDir() throws Exception {
+    new CompilerCache(new File(tmp.getRoot(), "missing").toPath(), StandardCharsets.UTF_8, 0)
+        .trim();
+  }
+
+  private static void touch(final Path dir, final String key, final long millis)
+      throws Exception {
+    Files.setLastModifiedTime(dir.resolve(key.substring(0, 2)).resolve(key.substring(2)),
+        FileTime.fromMillis(millis));
+  }
+
+}
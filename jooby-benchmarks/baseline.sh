@@ -0,0 +1,58 @@
+#!/bin/sh
+# Per-server allocation of a baseline revision and of the working tree.
+#
+#   ./baseline.sh [revision]
+#
+# Default revision is the parent of the commit that added this module, that is: before any of
+# the allocation work. Both trees run the same ServerBenchmark with -prof gc, results are kept
+# in target/baseline.
+set -e
+
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+BENCH=$ROOT/jooby-benchmarks
+BASE=${1:-$(git -C "$ROOT" log --diff-filter=A --format=%H -- jooby-benchmarks/pom.xml | tail -1)~1}
+OUT=$BENCH/target/baseline
+TREE=$OUT/tree
+SRC=src/main/java/org/jooby/benchmarks
+
+rm -rf "$OUT"
+mkdir -p "$OUT"
+
+# baseline tree, with the server benchmark only: the other suites use newer APIs
+git -C "$ROOT" worktree add --detach "$TREE" "$BASE"
+trap 'git -C "$ROOT" worktree remove --force "$TREE"' EXIT
+cp "$ROOT/pom.xml" "$TREE/"
+mkdir -p "$TREE/jooby-benchmarks/$SRC"
+cp "$BENCH/pom.xml" "$TREE/jooby-benchmarks/"
+cp -r "$BENCH/src/main/resources" "$TREE/jooby-benchmarks/src/main/"
+for name in Apps NoServer ServerBenchmark; do
+  cp "$BENCH/$SRC/$name.java" "$TREE/jooby-benchmarks/$SRC/"
+done
+(cd "$TREE" && mvn -q -pl jooby-benchmarks -am install -DskipTests)
+cp "$TREE/jooby-benchmarks/target/benchmarks.jar" "$OUT/before.jar"
+
+# working tree, installs its own snapshots over the baseline ones
+(cd "$ROOT" && mvn -q -pl jooby-benchmarks -am install -DskipTests)
+cp "$BENCH/target/benchmarks.jar" "$OUT/after.jar"
+
+for run in before after; do
+  java -jar "$OUT/$run.jar" ServerBenchmark -prof gc -rf csv -rff "$OUT/$run.csv"
+done
+
+echo
+echo "baseline: $(git -C "$ROOT" rev-parse --short "$BASE")"
+printf "%-9s %-7s %10s %10s\n" server request before after
+awk -F, '
+  FNR == 1 { run++; next }
+  $1 ~ /gc\.alloc\.rate\.norm/ {
+    gsub(/"/, "")
+    request = $1
+    sub(/.*ServerBenchmark\./, "", request)
+    sub(/:.*/, "", request)
+    key = sprintf("%-9s %-7s", $NF, request)
+    if (run == 1) {
+      before[key] = $5
+    } else {
+      printf "%s %10.0f %10.0f\n", key, before[key], $5
+    }
+  }' "$OUT/before.csv" "$OUT/after.csv"
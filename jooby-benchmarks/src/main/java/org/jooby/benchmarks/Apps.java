@@ -0,0 +1,84 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.benchmarks;
+
+import org.jooby.Jooby;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValueFactory;
+
+/**
+ * Start applications for benchmarks.
+ */
+public class Apps {
+
+  /** Server name to module class. */
+  public static String server(final String name) {
+    switch (name) {
+      case "netty":
+        return "org.jooby.netty.Netty";
+      case "undertow":
+        return "org.jooby.undertow.Undertow";
+      case "jetty":
+        return "org.jooby.jetty.Jetty";
+      default:
+        throw new IllegalArgumentException("Unknown server: " + name);
+    }
+  }
+
+  /**
+   * Start an application on the given server and port. Application runs in <code>prod</code>
+   * mode and doesn't block the caller thread.
+   *
+   * @param app Application to start.
+   * @param server Server name: <code>netty</code>, <code>undertow</code> or <code>jetty</code>.
+   * @param port Server port.
+   * @return Started application.
+   */
+  public static Jooby start(final Jooby app, final String server, final int port) {
+    app.use(conf(port).withValue("server.module", ConfigValueFactory.fromAnyRef(server(server))));
+    app.throwBootstrapException();
+    app.start();
+    return app;
+  }
+
+  /**
+   * Start an application without a HTTP server. Requests must be dispatched via
+   * {@link org.jooby.spi.HttpHandler}.
+   *
+   * @param app Application to start.
+   * @return Started application.
+   */
+  public static Jooby start(final Jooby app) {
+    app.use(conf(0));
+    app.server(NoServer.class);
+    app.throwBootstrapException();
+    app.start();
+    return app;
+  }
+
+  private static Config conf(final int port) {
+    return ConfigFactory.empty()
+        .withValue("server.join", ConfigValueFactory.fromAnyRef(false))
+        .withValue("application.env", ConfigValueFactory.fromAnyRef("prod"))
+        .withValue("application.port", ConfigValueFactory.fromAnyRef(port));
+  }
+
+}
@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jooby.Jooby;
+import org.jooby.spi.HttpHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Request dispatch through {@link HttpHandler} without network I/O. Run it with
+ * <code>-prof gc</code> to get allocation per request (<code>gc.alloc.rate.norm</code>).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class HttpHandlerBenchmark {
+
+  @State(Scope.Thread)
+  public static class Exchange {
+    StubResponse rsp = new StubResponse();
+  }
+
+  @Param({"/", "/users/123", "/api/r49/123" })
+  public String path;
+
+  private Jooby app;
+
+  private HttpHandler handler;
+
+  private StubRequest req;
+
+  @Setup
+  public void setup() {
+    app = Apps.start(new Jooby() {
+      {
+        get("/", () -> "Hello World!");
+
+        get("/users/:id", req -> req.param("id").value());
+
+        // a larger route table: request hits the last one
+        for (int i = 0; i < 50; i++) {
+          get("/api/r" + i + "/:id", req -> req.param("id").value());
+        }
+      }
+    });
+    handler = app.require(HttpHandler.class);
+    req = new StubRequest("GET", path);
+  }
+
+  @TearDown
+  public void stop() {
+    app.stop();
+  }
+
+  @Benchmark
+  public long dispatch(final Exchange exchange) throws Exception {
+    StubResponse rsp = exchange.rsp.recycle();
+    handler.handle(req, rsp);
+    return rsp.length();
+  }
+
+}
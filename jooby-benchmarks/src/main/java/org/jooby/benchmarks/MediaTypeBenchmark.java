@@ -0,0 +1,83 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.benchmarks;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.jooby.MediaType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Content negotiation: <code>Accept</code> parsing and {@link MediaType#matcher(List)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MediaTypeBenchmark {
+
+  @Param({"*/*", "application/json",
+      "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8" })
+  public String accept;
+
+  private List<MediaType> types;
+
+  private List<MediaType> produces;
+
+  @Setup
+  public void setup() {
+    types = MediaType.parse(accept);
+    produces = MediaType.valueOf("application/json", "text/html");
+  }
+
+  @Benchmark
+  public List<MediaType> parse() {
+    return MediaType.parse(accept);
+  }
+
+  @Benchmark
+  public boolean matches() {
+    return MediaType.matcher(types).matches(MediaType.json);
+  }
+
+  @Benchmark
+  public Optional<MediaType> first() {
+    return MediaType.matcher(types).first(produces);
+  }
+
+  @Benchmark
+  public List<MediaType> filter() {
+    return MediaType.matcher(types).filter(produces);
+  }
+
+}
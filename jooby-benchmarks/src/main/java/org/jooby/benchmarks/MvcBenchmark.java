@@ -0,0 +1,144 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.benchmarks;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.jooby.Jooby;
+import org.jooby.mvc.GET;
+import org.jooby.mvc.Path;
+import org.jooby.spi.HttpHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * MVC route with many parameters of different types, dispatched through {@link HttpHandler}.
+ * Most of the time goes to parameter conversion. An MVC route without parameters and the
+ * equivalent lambda route measure the cost of the MVC invocation itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MvcBenchmark {
+
+  public enum Letter {
+    A, B, C
+  }
+
+  @Path("/search")
+  public static class Search {
+
+    @GET
+    public String search(final String q, final int page, final Optional<Integer> size,
+        final List<String> tag, final boolean desc, final long since, final double score,
+        final Letter letter) {
+      return q;
+    }
+
+    @GET
+    @Path("/ping")
+    public String ping() {
+      return "pong";
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Exchange {
+    StubResponse rsp = new StubResponse();
+  }
+
+  private Jooby app;
+
+  private HttpHandler handler;
+
+  private StubRequest req;
+
+  private StubRequest ping;
+
+  private StubRequest lambda;
+
+  @Setup
+  public void setup() {
+    app = Apps.start(new Jooby() {
+      {
+        use(Search.class);
+
+        get("/lambda", () -> "pong");
+      }
+    });
+    handler = app.require(HttpHandler.class);
+    req = new StubRequest("GET", "/search", ImmutableMap.of(),
+        ImmutableMap.<String, List<String>> builder()
+        .put("q", ImmutableList.of("jooby"))
+        .put("page", ImmutableList.of("3"))
+        .put("size", ImmutableList.of("20"))
+        .put("tag", ImmutableList.of("java", "web"))
+        .put("desc", ImmutableList.of("true"))
+        .put("since", ImmutableList.of("1480000000000"))
+        .put("score", ImmutableList.of("0.75"))
+        .put("letter", ImmutableList.of("B"))
+        .build(), new byte[0]);
+    ping = new StubRequest("GET", "/search/ping");
+    lambda = new StubRequest("GET", "/lambda");
+  }
+
+  @TearDown
+  public void stop() {
+    app.stop();
+  }
+
+  @Benchmark
+  public long dispatch(final Exchange exchange) throws Exception {
+    StubResponse rsp = exchange.rsp.recycle();
+    handler.handle(req, rsp);
+    return rsp.length();
+  }
+
+  @Benchmark
+  public long noargs(final Exchange exchange) throws Exception {
+    StubResponse rsp = exchange.rsp.recycle();
+    handler.handle(ping, rsp);
+    return rsp.length();
+  }
+
+  @Benchmark
+  public long lambda(final Exchange exchange) throws Exception {
+    StubResponse rsp = exchange.rsp.recycle();
+    handler.handle(lambda, rsp);
+    return rsp.length();
+  }
+
+}
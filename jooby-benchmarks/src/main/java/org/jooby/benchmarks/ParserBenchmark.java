@@ -0,0 +1,117 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.benchmarks;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.jooby.Jooby;
+import org.jooby.MediaType;
+import org.jooby.internal.StrParamReferenceImpl;
+import org.jooby.internal.parser.ParserExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.TypeLiteral;
+
+/**
+ * Parameter conversion via {@link ParserExecutor} using the built-in parsers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ParserBenchmark {
+
+  public enum Letter {
+    A, B, C
+  }
+
+  @Param({"String", "int", "Optional<Integer>", "List<Integer>", "enum", "LocalDate" })
+  public String type;
+
+  private Jooby app;
+
+  private ParserExecutor parser;
+
+  private TypeLiteral<?> literal;
+
+  private StrParamReferenceImpl data;
+
+  @Setup
+  public void setup() {
+    app = Apps.start(new Jooby());
+    parser = app.require(ParserExecutor.class);
+    switch (type) {
+      case "String":
+        parse(TypeLiteral.get(String.class), "value");
+        break;
+      case "int":
+        parse(TypeLiteral.get(int.class), "123");
+        break;
+      case "Optional<Integer>":
+        parse(new TypeLiteral<Optional<Integer>>() {
+        }, "123");
+        break;
+      case "List<Integer>":
+        parse(new TypeLiteral<List<Integer>>() {
+        }, "1", "2", "3");
+        break;
+      case "enum":
+        parse(TypeLiteral.get(Letter.class), "B");
+        break;
+      case "LocalDate":
+        parse(TypeLiteral.get(LocalDate.class), "31-Dec-2016");
+        break;
+      default:
+        throw new IllegalArgumentException(type);
+    }
+  }
+
+  private void parse(final TypeLiteral<?> literal, final String... values) {
+    this.literal = literal;
+    this.data = new StrParamReferenceImpl("parameter", "p", ImmutableList.copyOf(values));
+  }
+
+  @TearDown
+  public void stop() {
+    app.stop();
+  }
+
+  @Benchmark
+  public Object convert() throws Throwable {
+    return parser.convert(literal, MediaType.plain, data);
+  }
+
+}
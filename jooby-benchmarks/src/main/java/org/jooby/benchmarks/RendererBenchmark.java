@@ -0,0 +1,125 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.jooby.Jooby;
+import org.jooby.MediaType;
+import org.jooby.Renderer;
+import org.jooby.internal.AbstractRendererContext;
+import org.jooby.internal.HttpRendererContext;
+import org.jooby.internal.RendererCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+
+/**
+ * Renderer lookup and rendering via {@link AbstractRendererContext} using the built-in renderers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RendererBenchmark {
+
+  @State(Scope.Thread)
+  public static class Exchange {
+    StubResponse rsp = new StubResponse();
+  }
+
+  @Param({"String", "byte[]", "Object" })
+  public String type;
+
+  @Param({"*/*", "text/html" })
+  public String accept;
+
+  /** Renderer cache size, 0 for none. */
+  @Param({"0", "64" })
+  public int cache;
+
+  private Jooby app;
+
+  private List<Renderer> renderers;
+
+  private List<MediaType> produces;
+
+  private RendererCache rendererCache;
+
+  private Object value;
+
+  @Setup
+  public void setup() {
+    app = Apps.start(new Jooby());
+    Set<Renderer> renderers = app.require(Key.get(new TypeLiteral<Set<Renderer>>() {
+    }));
+    this.renderers = ImmutableList.copyOf(renderers);
+    this.produces = MediaType.parse(accept);
+    this.rendererCache = cache > 0 ? new RendererCache(cache) : null;
+    switch (type) {
+      case "String":
+        value = "Hello World!";
+        break;
+      case "byte[]":
+        value = "Hello World!".getBytes(StandardCharsets.UTF_8);
+        break;
+      case "Object":
+        value = new StringBuilder("Hello World!");
+        break;
+      default:
+        throw new IllegalArgumentException(type);
+    }
+  }
+
+  @TearDown
+  public void stop() {
+    app.stop();
+  }
+
+  @Benchmark
+  public long render(final Exchange exchange) throws Exception {
+    StubResponse rsp = exchange.rsp.recycle();
+    new HttpRendererContext(renderers, rendererCache, rsp, len -> {
+    }, type -> {
+    }, Collections.emptyMap(), produces, StandardCharsets.UTF_8, Optional.empty(), 16 * 1024)
+        .render(value);
+    return rsp.length();
+  }
+
+}
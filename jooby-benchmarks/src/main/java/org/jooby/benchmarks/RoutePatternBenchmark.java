@@ -0,0 +1,97 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jooby.internal.RouteMatcher;
+import org.jooby.internal.RoutePattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Path matching of {@link RoutePattern} for the supported pattern syntax.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RoutePatternBenchmark {
+
+  @Param({"static", "var", "curly", "regex", "glob", "deep-glob", "miss" })
+  public String kind;
+
+  private RoutePattern pattern;
+
+  private String path;
+
+  @Setup
+  public void setup() {
+    switch (kind) {
+      case "static":
+        pattern("/api/users/me", "/api/users/me");
+        break;
+      case "var":
+        pattern("/api/users/:id/posts/:post", "/api/users/123/posts/456");
+        break;
+      case "curly":
+        pattern("/api/users/{id}/posts/{post}", "/api/users/123/posts/456");
+        break;
+      case "regex":
+        pattern("/api/users/{id:\\d+}", "/api/users/123");
+        break;
+      case "glob":
+        pattern("/assets/*/*.js", "/assets/js/index.js");
+        break;
+      case "deep-glob":
+        pattern("/assets/**", "/assets/js/lib/jquery/jquery.min.js");
+        break;
+      case "miss":
+        pattern("/api/users/:id/posts", "/api/users/123/comments");
+        break;
+      default:
+        throw new IllegalArgumentException(kind);
+    }
+  }
+
+  private void pattern(final String pattern, final String path) {
+    this.pattern = new RoutePattern("GET", pattern);
+    this.path = "GET" + path;
+  }
+
+  @Benchmark
+  public RouteMatcher matcher() {
+    RouteMatcher matcher = pattern.matcher(path);
+    matcher.matches();
+    matcher.vars();
+    return matcher;
+  }
+
+}
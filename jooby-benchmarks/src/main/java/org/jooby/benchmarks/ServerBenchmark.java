@@ -0,0 +1,163 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.jooby.Jooby;
+import org.jooby.json.Jackson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * End-to-end requests over loopback for each server, covering the server specific
+ * {@link org.jooby.spi.NativeRequest} and {@link org.jooby.spi.NativeResponse} adapters. Client
+ * and server run in the same JVM, so allocation reported by <code>-prof gc</code> includes the
+ * {@link HttpURLConnection} client.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ServerBenchmark {
+
+  @State(Scope.Thread)
+  public static class Buffer {
+    byte[] bytes = new byte[1024];
+  }
+
+  private static final byte[] FORM = "name=jooby&version=1.0.1&tags=web&tags=java"
+      .getBytes(StandardCharsets.UTF_8);
+
+  @Param({"netty", "undertow", "jetty" })
+  public String server;
+
+  private Jooby app;
+
+  private URL hello;
+
+  private URL params;
+
+  private URL form;
+
+  private URL json;
+
+  @Setup
+  public void setup() throws IOException {
+    int port = 9080;
+    app = Apps.start(new Jooby() {
+      {
+        get("/", () -> "Hello World!");
+
+        get("/params", req -> req.param("q").value() + req.param("page").intValue(1)
+            + req.header("User-Agent").value(""));
+
+        post("/form", req -> req.param("name").value() + req.param("tags").toList().size());
+
+        use(new Jackson());
+
+        // ~4k of json
+        List<Map<String, Object>> members = IntStream.range(0, 100)
+            .mapToObj(i -> ImmutableMap.<String, Object> of("id", i, "name", "member" + i))
+            .collect(Collectors.toList());
+        get("/json", () -> members);
+      }
+    }, server, port);
+    String base = "http://localhost:" + port;
+    hello = new URL(base + "/");
+    params = new URL(base + "/params?q=jooby&page=2");
+    form = new URL(base + "/form");
+    json = new URL(base + "/json");
+  }
+
+  @TearDown
+  public void stop() {
+    app.stop();
+  }
+
+  @Benchmark
+  public int hello(final Buffer buffer) throws IOException {
+    return get(hello, buffer);
+  }
+
+  @Benchmark
+  public int params(final Buffer buffer) throws IOException {
+    return get(params, buffer);
+  }
+
+  @Benchmark
+  public int json(final Buffer buffer) throws IOException {
+    return get(json, buffer);
+  }
+
+  @Benchmark
+  public int form(final Buffer buffer) throws IOException {
+    HttpURLConnection connection = (HttpURLConnection) form.openConnection();
+    connection.setRequestMethod("POST");
+    connection.setDoOutput(true);
+    connection.setFixedLengthStreamingMode(FORM.length);
+    connection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
+    try (OutputStream out = connection.getOutputStream()) {
+      out.write(FORM);
+    }
+    return read(connection, buffer);
+  }
+
+  private static int get(final URL url, final Buffer buffer) throws IOException {
+    return read((HttpURLConnection) url.openConnection(), buffer);
+  }
+
+  private static int read(final HttpURLConnection connection, final Buffer buffer)
+      throws IOException {
+    int len = 0;
+    // read the whole body, so the connection goes back to the keep-alive cache
+    try (InputStream in = connection.getInputStream()) {
+      int n;
+      while ((n = in.read(buffer.bytes)) != -1) {
+        len += n;
+      }
+    }
+    return connection.getResponseCode() + len;
+  }
+
+}
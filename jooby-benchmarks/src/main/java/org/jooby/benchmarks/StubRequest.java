@@ -0,0 +1,152 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+import org.jooby.Cookie;
+import org.jooby.spi.NativeRequest;
+import org.jooby.spi.NativeUpload;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * In memory {@link NativeRequest}.
+ */
+public class StubRequest implements NativeRequest {
+
+  private final String method;
+
+  private final String path;
+
+  private final Map<String, List<String>> headers;
+
+  private final Map<String, List<String>> params;
+
+  private final byte[] body;
+
+  public StubRequest(final String method, final String path,
+      final Map<String, List<String>> headers, final Map<String, List<String>> params,
+      final byte[] body) {
+    this.method = method;
+    this.path = path;
+    this.headers = headers;
+    this.params = params;
+    this.body = body;
+  }
+
+  public StubRequest(final String method, final String path) {
+    this(method, path, ImmutableMap.of(), ImmutableMap.of(), new byte[0]);
+  }
+
+  @Override
+  public String method() {
+    return method;
+  }
+
+  @Override
+  public String path() {
+    return path;
+  }
+
+  @Override
+  public String rawPath() {
+    return path;
+  }
+
+  @Override
+  public Optional<String> queryString() {
+    return Optional.empty();
+  }
+
+  @Override
+  public List<String> paramNames() throws Exception {
+    return ImmutableList.copyOf(params.keySet());
+  }
+
+  @Override
+  public List<String> params(final String name) throws Exception {
+    return params.getOrDefault(name, Collections.emptyList());
+  }
+
+  @Override
+  public List<String> headers(final String name) {
+    return headers.getOrDefault(name.toLowerCase(), Collections.emptyList());
+  }
+
+  @Override
+  public Optional<String> header(final String name) {
+    List<String> values = headers(name);
+    return values.isEmpty() ? Optional.empty() : Optional.of(values.get(0));
+  }
+
+  @Override
+  public List<String> headerNames() {
+    return ImmutableList.copyOf(headers.keySet());
+  }
+
+  @Override
+  public List<Cookie> cookies() {
+    return Collections.emptyList();
+  }
+
+  @Override
+  public List<NativeUpload> files(final String name) throws IOException {
+    return Collections.emptyList();
+  }
+
+  @Override
+  public InputStream in() throws IOException {
+    return new ByteArrayInputStream(body);
+  }
+
+  @Override
+  public String ip() {
+    return "127.0.0.1";
+  }
+
+  @Override
+  public String protocol() {
+    return "HTTP/1.1";
+  }
+
+  @Override
+  public boolean secure() {
+    return false;
+  }
+
+  @Override
+  public <T> T upgrade(final Class<T> type) throws Exception {
+    throw new UnsupportedOperationException(type.getName());
+  }
+
+  @Override
+  public void startAsync(final Executor executor, final Runnable runnable) {
+    executor.execute(runnable);
+  }
+
+}
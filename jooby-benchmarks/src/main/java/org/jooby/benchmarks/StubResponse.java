@@ -0,0 +1,148 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.benchmarks;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.jooby.spi.NativeResponse;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * In memory {@link NativeResponse}. Body is consumed and discarded, only the number of bytes is
+ * kept.
+ */
+public class StubResponse implements NativeResponse {
+
+  private final Map<String, List<String>> headers = new HashMap<>();
+
+  private int status = 200;
+
+  private boolean committed;
+
+  private long length;
+
+  @Override
+  public Optional<String> header(final String name) {
+    List<String> values = headers(name);
+    return values.isEmpty() ? Optional.empty() : Optional.of(values.get(0));
+  }
+
+  @Override
+  public List<String> headers(final String name) {
+    return headers.getOrDefault(name.toLowerCase(), new ArrayList<>());
+  }
+
+  @Override
+  public void header(final String name, final Iterable<String> values) {
+    List<String> list = new ArrayList<>();
+    values.forEach(list::add);
+    headers.put(name.toLowerCase(), list);
+  }
+
+  @Override
+  public void header(final String name, final String value) {
+    List<String> list = new ArrayList<>(1);
+    list.add(value);
+    headers.put(name.toLowerCase(), list);
+  }
+
+  @Override
+  public void send(final byte[] bytes) throws Exception {
+    length += bytes.length;
+    committed = true;
+  }
+
+  @Override
+  public void send(final ByteBuffer buffer) throws Exception {
+    length += buffer.remaining();
+    committed = true;
+  }
+
+  @Override
+  public void send(final InputStream stream) throws Exception {
+    length += ByteStreams.copy(stream, ByteStreams.nullOutputStream());
+    committed = true;
+  }
+
+  @Override
+  public void send(final FileChannel channel) throws Exception {
+    send(channel, 0, channel.size());
+  }
+
+  @Override
+  public void send(final FileChannel channel, final long possition, final long count)
+      throws Exception {
+    length += count;
+    committed = true;
+  }
+
+  @Override
+  public int statusCode() {
+    return status;
+  }
+
+  @Override
+  public void statusCode(final int code) {
+    this.status = code;
+  }
+
+  @Override
+  public boolean committed() {
+    return committed;
+  }
+
+  @Override
+  public void end() {
+    committed = true;
+  }
+
+  @Override
+  public void reset() {
+    headers.clear();
+    length = 0;
+    status = 200;
+  }
+
+  /**
+   * Clear state so the response can be reused.
+   *
+   * @return This response.
+   */
+  public StubResponse recycle() {
+    reset();
+    committed = false;
+    return this;
+  }
+
+  /**
+   * @return Number of bytes sent.
+   */
+  public long length() {
+    return length;
+  }
+
+}
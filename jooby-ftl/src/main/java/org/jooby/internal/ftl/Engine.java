@@ -21,7 +21,6 @@ package org.jooby.internal.ftl;
 import static java.util.Objects.requireNonNull;
 
 import java.io.FileNotFoundException;
-import java.io.StringWriter;
 import java.nio.charset.Charset;
 import java.util.HashMap;
 import java.util.Map;
@@ -69,14 +68,9 @@ public class Engine implements View.Engine {
     hash.putAll(view.model());
     TemplateModel model = new SimpleHash(hash, new FtlWrapper(freemarker.getObjectWrapper()));
 
-    // TODO: remove string writer
-    StringWriter writer = new StringWriter();
-
     // output
-    template.process(model, writer);
     ctx.type(MediaType.html)
-        .send(writer.toString());
-
+        .write(writer -> template.process(model, writer));
   }
 
   private Template template(final String name, final Charset charset) throws Exception {
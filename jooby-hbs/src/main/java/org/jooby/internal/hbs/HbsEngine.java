@@ -61,7 +61,7 @@ public class HbsEngine implements View.Engine {
 
     // rendering it
     ctx.type(MediaType.html)
-        .send(template.apply(context));
+        .write(writer -> template.apply(context, writer));
   }
 
   @Override
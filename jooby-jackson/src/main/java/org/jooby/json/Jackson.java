@@ -18,6 +18,7 @@
  */
 package org.jooby.json;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
 import java.text.SimpleDateFormat;
@@ -114,6 +115,24 @@ import com.typesafe.config.Config;
  *
  * This is useful when your jackson module require some dependencies.
  *
+ * <h2>streaming</h2>
+ * <p>
+ * By default, JSON responses and bodies are fully buffered as a byte array. For large payloads
+ * set a threshold (in bytes):
+ * </p>
+ *
+ * <pre>
+ * {
+ *   use(new Jackson().stream(1024 * 1024));
+ * }
+ * </pre>
+ *
+ * <p>
+ * Responses larger than the threshold are serialized straight into the server output and sent
+ * with <code>Transfer-Encoding: chunked</code>. Smaller responses are sent with a
+ * <code>Content-Length</code>. Bodies larger than the threshold are read from an input stream.
+ * </p>
+ *
  * @author edgar
  * @since 0.6.0
  */
@@ -136,6 +155,8 @@ public class Jackson implements Jooby.Module {
 
   private List<Consumer<Multibinder<Module>>> modules = new ArrayList<>();
 
+  private long threshold = Long.MAX_VALUE;
+
   /**
    * Creates a new {@link Jackson} module and use the provided {@link ObjectMapper} instance.
    *
@@ -208,6 +229,19 @@ public class Jackson implements Jooby.Module {
     return this;
   }
 
+  /**
+   * Stream JSON responses and bodies larger than the given threshold, instead of buffering them
+   * as a byte array. Default is: off.
+   *
+   * @param threshold Threshold in bytes.
+   * @return This module.
+   */
+  public Jackson stream(final long threshold) {
+    checkArgument(threshold >= 0, "Threshold must be >= 0: %s", threshold);
+    this.threshold = threshold;
+    return this;
+  }
+
   @Override
   public void configure(final Env env, final Config config, final Binder binder) {
     // provided or default mapper.
@@ -240,8 +274,8 @@ public class Jackson implements Jooby.Module {
     binder.bind(PostConfigurer.class).asEagerSingleton();
 
     // json parser & renderer
-    JacksonParser parser = new JacksonParser(mapper, type);
-    JacksonRenderer renderer = new JacksonRenderer(mapper, type);
+    JacksonParser parser = new JacksonParser(mapper, type, threshold);
+    JacksonRenderer renderer = new JacksonRenderer(mapper, type, threshold);
 
     Multibinder.newSetBinder(binder, Renderer.class)
         .addBinding()
@@ -18,12 +18,19 @@
  */
 package org.jooby.json;
 
+import java.io.InputStream;
+import java.util.Optional;
+
 import org.jooby.MediaType;
 import org.jooby.MediaType.Matcher;
 import org.jooby.Parser;
 
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.inject.TypeLiteral;
 
 class JacksonParser implements Parser {
@@ -32,9 +39,24 @@ class JacksonParser implements Parser {
 
   private Matcher matcher;
 
-  public JacksonParser(final ObjectMapper mapper, final MediaType type) {
+  private long threshold;
+
+  /** Max number of cached readers. */
+  private static final int MAX_SIZE = 512;
+
+  /** Reader per type, empty when the type can't be deserialized. */
+  private LoadingCache<TypeLiteral<?>, Optional<ObjectReader>> readers = CacheBuilder.newBuilder()
+      .maximumSize(MAX_SIZE)
+      .build(CacheLoader.from(this::reader));
+
+  public JacksonParser(final ObjectMapper mapper, final MediaType type, final long threshold) {
     this.mapper = mapper;
     this.matcher = MediaType.matcher(type);
+    this.threshold = threshold;
+  }
+
+  public JacksonParser(final ObjectMapper mapper, final MediaType type) {
+    this(mapper, type, Long.MAX_VALUE);
   }
 
   @Override
@@ -45,15 +67,34 @@ class JacksonParser implements Parser {
       return ctx.next();
     }
 
-    JavaType javaType = mapper.constructType(type.getType());
-    if (matcher.matches(ctype) && mapper.canDeserialize(javaType)) {
-      return ctx
-          .ifparam(values -> mapper.readValue(values.iterator().next(), javaType))
-          .ifbody(body -> mapper.readValue(body.bytes(), javaType));
+    if (matcher.matches(ctype)) {
+      Optional<ObjectReader> reader = readers.getUnchecked(type);
+      if (reader.isPresent()) {
+        ObjectReader json = reader.get();
+        return ctx
+            .ifparam(values -> json.readValue(values.iterator().next()))
+            .ifbody(body -> {
+              if (body.length() > threshold) {
+                // large body: don't load it in memory
+                try (InputStream in = body.stream()) {
+                  return json.readValue(in);
+                }
+              }
+              return json.readValue(body.bytes());
+            });
+      }
     }
     return ctx.next();
   }
 
+  private Optional<ObjectReader> reader(final TypeLiteral<?> type) {
+    JavaType javaType = mapper.constructType(type.getType());
+    if (mapper.canDeserialize(javaType)) {
+      return Optional.of(mapper.readerFor(javaType));
+    }
+    return Optional.empty();
+  }
+
   @Override
   public String toString() {
     return "json";
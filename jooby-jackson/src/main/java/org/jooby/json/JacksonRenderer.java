@@ -18,31 +18,138 @@
  */
 package org.jooby.json;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+
 import org.jooby.MediaType;
 import org.jooby.Renderer;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 
 class JacksonRenderer implements Renderer {
 
+  /**
+   * Buffers the output until it gets larger than the threshold. Small outputs are sent with a
+   * Content-Length at the end, large outputs are written through to the server.
+   */
+  private static class Spill extends OutputStream {
+
+    private final Context ctx;
+
+    private final OutputStream out;
+
+    private final long threshold;
+
+    private ByteArrayOutputStream buffer = new ByteArrayOutputStream(512);
+
+    public Spill(final Context ctx, final OutputStream out, final long threshold) {
+      this.ctx = ctx;
+      this.out = out;
+      this.threshold = threshold;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+      write(new byte[]{(byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] bytes, final int off, final int len) throws IOException {
+      if (buffer == null) {
+        out.write(bytes, off, len);
+      } else if (buffer.size() + len > threshold) {
+        // too large, write through from now on
+        buffer.writeTo(out);
+        buffer = null;
+        out.write(bytes, off, len);
+      } else {
+        buffer.write(bytes, off, len);
+      }
+    }
+
+    @Override
+    public void flush() throws IOException {
+      if (buffer == null) {
+        out.flush();
+      }
+    }
+
+    @Override
+    public void close() {
+      // jackson closes the target (on failures too), the server output is closed by the caller
+    }
+
+    /**
+     * Send a small output once the value was fully written.
+     *
+     * @throws IOException If the write fails.
+     */
+    public void end() throws IOException {
+      if (buffer != null) {
+        ctx.length(buffer.size());
+        buffer.writeTo(out);
+        buffer = null;
+      }
+    }
+  }
+
   private ObjectMapper mapper;
 
   private MediaType type;
 
-  public JacksonRenderer(final ObjectMapper mapper, final MediaType type) {
+  private long threshold;
+
+  /** Max number of cached writers. */
+  private static final int MAX_SIZE = 512;
+
+  /** Writer per value type, empty when the type can't be serialized. */
+  private LoadingCache<Class<?>, Optional<ObjectWriter>> writers = CacheBuilder.newBuilder()
+      .maximumSize(MAX_SIZE)
+      .build(CacheLoader.from(this::writer));
+
+  public JacksonRenderer(final ObjectMapper mapper, final MediaType type, final long threshold) {
     this.mapper = mapper;
     this.type = type;
+    this.threshold = threshold;
+  }
+
+  public JacksonRenderer(final ObjectMapper mapper, final MediaType type) {
+    this(mapper, type, Long.MAX_VALUE);
   }
 
   @Override
   public void render(final Object value, final Context ctx) throws Exception {
-    if (ctx.accepts(type) && mapper.canSerialize(value.getClass())) {
-      ctx.type(type);
-      // use UTF-8 and get byte version
-      byte[] bytes = mapper.writeValueAsBytes(value);
-      ctx.length(bytes.length)
-          .send(bytes);
+    if (ctx.accepts(type)) {
+      Optional<ObjectWriter> writer = writers.getUnchecked(value.getClass());
+      if (writer.isPresent()) {
+        ctx.type(type);
+        ObjectWriter json = writer.get();
+        if (threshold == Long.MAX_VALUE) {
+          // UTF-8 straight into the server buffer (if any)
+          ctx.send(out -> json.writeValue(out, value));
+        } else {
+          // small response with Content-Length, large one in chunks straight into the server
+          ctx.stream(out -> {
+            Spill spill = new Spill(ctx, out, threshold);
+            json.writeValue(spill, value);
+            spill.end();
+          });
+        }
+      }
+    }
+  }
+
+  private Optional<ObjectWriter> writer(final Class<?> type) {
+    if (mapper.canSerialize(type)) {
+      return Optional.of(mapper.writerFor(type));
     }
+    return Optional.empty();
   }
 
   @Override
@@ -0,0 +1,87 @@
+package org.jooby.json;
+
+import static org.easymock.EasyMock.expect;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.jooby.MediaType;
+import org.jooby.Renderer;
+import org.jooby.test.MockUnit;
+import org.jooby.test.MockUnit.Block;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+
+public class JacksonRendererTest {
+
+  private Block json = unit -> {
+    Renderer.Context ctx = unit.get(Renderer.Context.class);
+    expect(ctx.accepts(MediaType.json)).andReturn(true);
+    expect(ctx.type(MediaType.json)).andReturn(ctx);
+  };
+
+  @Test
+  public void buffered() throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new MockUnit(Renderer.Context.class)
+        .expect(json)
+        .expect(unit -> {
+          Renderer.Context ctx = unit.get(Renderer.Context.class);
+          ctx.send(unit.capture(Renderer.BodyWriter.class));
+        })
+        .run(unit -> {
+          new JacksonRenderer(new ObjectMapper(), MediaType.json)
+              .render(ImmutableList.of(1, 2, 3), unit.get(Renderer.Context.class));
+        }, unit -> {
+          unit.captured(Renderer.BodyWriter.class).get(0).write(output);
+          assertEquals("[1,2,3]", output.toString("UTF-8"));
+        });
+  }
+
+  @Test
+  public void smallResponseUnderThreshold() throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new MockUnit(Renderer.Context.class)
+        .expect(json)
+        .expect(unit -> {
+          Renderer.Context ctx = unit.get(Renderer.Context.class);
+          ctx.stream(unit.capture(Renderer.BodyWriter.class));
+          expect(ctx.length(7)).andReturn(ctx);
+        })
+        .run(unit -> {
+          new JacksonRenderer(new ObjectMapper(), MediaType.json, 16)
+              .render(ImmutableList.of(1, 2, 3), unit.get(Renderer.Context.class));
+        }, unit -> {
+          unit.captured(Renderer.BodyWriter.class).get(0).write(output);
+          assertEquals("[1,2,3]", output.toString("UTF-8"));
+        });
+  }
+
+  @Test
+  public void largeResponseIsWrittenThrough() throws Exception {
+    String expected = IntStream.range(0, 100)
+        .mapToObj(Integer::toString)
+        .collect(Collectors.joining(",", "[", "]"));
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new MockUnit(Renderer.Context.class)
+        .expect(json)
+        .expect(unit -> {
+          Renderer.Context ctx = unit.get(Renderer.Context.class);
+          ctx.stream(unit.capture(Renderer.BodyWriter.class));
+        })
+        .run(unit -> {
+          new JacksonRenderer(new ObjectMapper(), MediaType.json, 16)
+              .render(IntStream.range(0, 100).boxed().collect(Collectors.toList()),
+                  unit.get(Renderer.Context.class));
+        }, unit -> {
+          // no length, the response is chunked
+          unit.captured(Renderer.BodyWriter.class).get(0).write(output);
+          assertEquals(expected, output.toString("UTF-8"));
+        });
+  }
+
+}
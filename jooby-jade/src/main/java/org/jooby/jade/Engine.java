@@ -54,8 +54,8 @@ class Engine implements View.Engine {
     hash.putAll(ctx.locals());
     hash.putAll(view.model());
 
-    String output = jadeConfiguration.renderTemplate(template, hash);
-    ctx.type(MediaType.html).send(output);
+    ctx.type(MediaType.html)
+        .write(writer -> jadeConfiguration.renderTemplate(template, hash, writer));
   }
 
   @Override
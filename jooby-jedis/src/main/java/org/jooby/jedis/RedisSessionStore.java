@@ -20,7 +20,9 @@ package org.jooby.jedis;
 
 import static java.util.Objects.requireNonNull;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
@@ -33,7 +35,12 @@ import org.jooby.Session.Builder;
 
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.Transaction;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 import com.typesafe.config.ConfigValueFactory;
@@ -92,30 +99,118 @@ import com.typesafe.config.ConfigValueFactory;
  * It's possible to change the default key setting the <code>jedis.sesssion.prefix</code> properties
  * </p>
  *
+ * <h2>round trips</h2>
+ * <p>
+ * Loading a session and refreshing its expiration are sent together in a single pipeline. The
+ * store keeps a snapshot of the last loaded or saved attributes, so a save only writes the
+ * attributes that changed (and removes the ones that were removed). Sessions without a snapshot
+ * are rewritten inside a <code>MULTI</code> transaction.
+ * </p>
+ *
+ * <h3>near cache</h3>
+ * <p>
+ * The near cache is off by default. When set, sessions are served from local memory for the given
+ * amount of time without talking to Redis:
+ * </p>
+ *
+ * <pre>
+ * jedis.session.nearCache.ttl = 5s
+ * jedis.session.nearCache.maxSize = 10000
+ * </pre>
+ *
+ * <p>
+ * Once the <code>ttl</code> elapsed, the session is revalidated by comparing the
+ * <code>_savedAt</code> field (a single <code>HGET</code>) and reloaded only if another server
+ * saved it in the meantime. Changes made by other servers might be unseen up to <code>ttl</code>,
+ * so keep it short or use sticky sessions. Expiration is refreshed on revalidation and when a
+ * session is saved. A session served from the near cache for half of the session timeout gets its
+ * expiration refreshed (a single <code>EXPIRE</code>), so it doesn't lapse in Redis while in use.
+ * </p>
+ *
  * @author edgar
  * @since 0.5.0
  */
 @Singleton
 public class RedisSessionStore implements Session.Store {
 
+  /** Last known state of a session. */
+  private static class Snapshot {
+
+    private final Map<String, String> hash;
+
+    private volatile long checkedAt;
+
+    /** Last time the expiration was refreshed in redis. */
+    private volatile long touchedAt;
+
+    public Snapshot(final Map<String, String> hash, final long checkedAt) {
+      this.hash = hash;
+      this.checkedAt = checkedAt;
+      this.touchedAt = checkedAt;
+    }
+  }
+
+  private static final String CREATED_AT = "_createdAt";
+
+  private static final String ACCESSED_AT = "_accessedAt";
+
+  private static final String SAVED_AT = "_savedAt";
+
+  private static final int MAX_SIZE = 10000;
+
   private JedisPool pool;
 
   private int timeout;
 
   private String prefix;
 
+  private long ttl;
+
+  private Cache<String, Snapshot> snapshots;
+
   /**
    * Creates a new {@link RedisSessionStore}.
    *
    * @param pool Jedis pool.
    * @param prefix Session key prefix on redis.
    * @param timeout Session timeout in seconds.
+   * @param ttl Near cache time to live in millis or <code>0</code> to turn it off.
+   * @param maxSize Max number of sessions to keep in memory.
    */
   public RedisSessionStore(final JedisPool pool, final String prefix,
-      final int timeout) {
+      final int timeout, final long ttl, final int maxSize) {
     this.pool = requireNonNull(pool, "Jedis pool is required.");
     this.timeout = timeout;
     this.prefix = requireNonNull(prefix, "Prefix is required.");
+    this.ttl = Math.max(0, ttl);
+    this.snapshots = CacheBuilder.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterAccess(timeout > 0 ? timeout : TimeUnit.MINUTES.toSeconds(30),
+            TimeUnit.SECONDS)
+        .build();
+  }
+
+  /**
+   * Creates a new {@link RedisSessionStore}.
+   *
+   * @param pool Jedis pool.
+   * @param prefix Session key prefix on redis.
+   * @param timeout Session timeout in seconds.
+   */
+  public RedisSessionStore(final JedisPool pool, final String prefix,
+      final int timeout) {
+    this(pool, prefix, timeout, 0, MAX_SIZE);
+  }
+
+  /**
+   * Creates a new {@link RedisSessionStore}.
+   *
+   * @param pool Jedis pool.
+   * @param prefix Session key prefix on redis.
+   * @param timeout Session timeout expression, like <code>30m</code>.
+   */
+  public RedisSessionStore(final JedisPool pool, final String prefix, final String timeout) {
+    this(pool, prefix, seconds(timeout));
   }
 
   /**
@@ -124,35 +219,70 @@ public class RedisSessionStore implements Session.Store {
    * @param pool Jedis pool.
    * @param prefix Session key prefix on redis.
    * @param timeout Session timeout expression, like <code>30m</code>.
+   * @param ttl Near cache time to live expression, like <code>5s</code>.
+   * @param maxSize Max number of sessions to keep in memory.
    */
   @Inject
   public RedisSessionStore(final JedisPool pool,
       final @Named("jedis.session.prefix") String prefix,
-      @Named("jedis.session.timeout") final String timeout) {
-    this(pool, prefix, seconds(timeout));
+      @Named("jedis.session.timeout") final String timeout,
+      @Named("jedis.session.nearCache.ttl") final String ttl,
+      @Named("jedis.session.nearCache.maxSize") final int maxSize) {
+    this(pool, prefix, seconds(timeout), duration(ttl, TimeUnit.MILLISECONDS), maxSize);
   }
 
   @Override
   public Session get(final Builder builder) {
+    String id = builder.sessionId();
+    Snapshot snapshot = snapshots.getIfPresent(id);
+    long now = System.currentTimeMillis();
+    if (snapshot != null && now - snapshot.checkedAt < ttl) {
+      // near cache hit
+      if (timeout > 0 && now - snapshot.touchedAt >= TimeUnit.SECONDS.toMillis(timeout) / 2) {
+        // refresh expiration before it lapses in redis
+        if (!touch(id)) {
+          // expired
+          snapshots.invalidate(id);
+          return null;
+        }
+        snapshot.touchedAt = now;
+      }
+      return session(builder, snapshot.hash);
+    }
     Jedis jedis = null;
     try {
       jedis = pool.getResource();
-      String key = key(builder.sessionId());
-      Map<String, String> attrs = jedis.hgetAll(key);
-      if (attrs == null || attrs.size() == 0) {
+      String key = key(id);
+      if (snapshot != null && ttl > 0) {
+        // near cache is stale: revalidate
+        Pipeline pipeline = jedis.pipelined();
+        Response<String> savedAt = pipeline.hget(key, SAVED_AT);
+        touch(pipeline, key);
+        pipeline.sync();
+        String version = savedAt.get();
+        if (version == null) {
+          // expired
+          snapshots.invalidate(id);
+          return null;
+        }
+        if (version.equals(snapshot.hash.get(SAVED_AT))) {
+          snapshot.checkedAt = now;
+          snapshot.touchedAt = now;
+          return session(builder, snapshot.hash);
+        }
+      }
+      Pipeline pipeline = jedis.pipelined();
+      Response<Map<String, String>> response = pipeline.hgetAll(key);
+      touch(pipeline, key);
+      pipeline.sync();
+      Map<String, String> hash = response.get();
+      if (hash == null || hash.size() == 0) {
         // expired
+        snapshots.invalidate(id);
         return null;
       }
-      if (timeout > 0) {
-        // touch session
-        jedis.expire(key, timeout);
-      }
-      return builder
-          .accessedAt(Long.parseLong(attrs.remove("_accessedAt")))
-          .createdAt(Long.parseLong(attrs.remove("_createdAt")))
-          .savedAt(Long.parseLong(attrs.remove("_savedAt")))
-          .set(attrs)
-          .build();
+      snapshots.put(id, new Snapshot(hash, now));
+      return session(builder, hash);
     } finally {
       if (jedis != null) {
         jedis.close();
@@ -162,18 +292,50 @@ public class RedisSessionStore implements Session.Store {
 
   @Override
   public void save(final Session session) {
+    String id = session.id();
+    Snapshot snapshot = snapshots.getIfPresent(id);
+    Map<String, String> hash = hash(session);
     Jedis jedis = null;
     try {
       jedis = pool.getResource();
-      String key = key(session);
-      Map<String, String> attrs = new HashMap<>(session.attributes());
-      attrs.put("_createdAt", Long.toString(session.createdAt()));
-      attrs.put("_accessedAt", Long.toString(session.accessedAt()));
-      attrs.put("_savedAt", Long.toString(session.savedAt()));
-      jedis.hmset(key, attrs);
-      if (timeout > 0) {
-        jedis.expire(key, timeout);
+      String key = key(id);
+      if (snapshot == null) {
+        // unknown state, rewrite it
+        Transaction tx = jedis.multi();
+        tx.del(key);
+        tx.hmset(key, hash);
+        if (timeout > 0) {
+          tx.expire(key, timeout);
+        }
+        tx.exec();
+      } else {
+        Map<String, String> changes = new HashMap<>();
+        hash.forEach((name, value) -> {
+          if (!value.equals(snapshot.hash.get(name))) {
+            changes.put(name, value);
+          }
+        });
+        List<String> removed = new ArrayList<>();
+        snapshot.hash.keySet().forEach(name -> {
+          if (!hash.containsKey(name)) {
+            removed.add(name);
+          }
+        });
+        Pipeline pipeline = jedis.pipelined();
+        if (changes.size() > 0) {
+          pipeline.hmset(key, changes);
+        }
+        if (removed.size() > 0) {
+          pipeline.hdel(key, removed.toArray(new String[removed.size()]));
+        }
+        touch(pipeline, key);
+        pipeline.sync();
       }
+      snapshots.put(id, new Snapshot(hash, System.currentTimeMillis()));
+    } catch (RuntimeException ex) {
+      // we don't know what was written
+      snapshots.invalidate(id);
+      throw ex;
     } finally {
       if (jedis != null) {
         jedis.close();
@@ -183,11 +345,27 @@ public class RedisSessionStore implements Session.Store {
 
   @Override
   public void create(final Session session) {
-    save(session);
+    String id = session.id();
+    Map<String, String> hash = hash(session);
+    Jedis jedis = null;
+    try {
+      jedis = pool.getResource();
+      String key = key(id);
+      Pipeline pipeline = jedis.pipelined();
+      pipeline.hmset(key, hash);
+      touch(pipeline, key);
+      pipeline.sync();
+      snapshots.put(id, new Snapshot(hash, System.currentTimeMillis()));
+    } finally {
+      if (jedis != null) {
+        jedis.close();
+      }
+    }
   }
 
   @Override
   public void delete(final String id) {
+    snapshots.invalidate(id);
     Jedis jedis = null;
     try {
       jedis = pool.getResource();
@@ -200,21 +378,64 @@ public class RedisSessionStore implements Session.Store {
 
   }
 
+  /**
+   * Refresh the expiration of a session.
+   *
+   * @param id Session ID.
+   * @return False if the session doesn't exist.
+   */
+  private boolean touch(final String id) {
+    Jedis jedis = null;
+    try {
+      jedis = pool.getResource();
+      Long updated = jedis.expire(key(id), timeout);
+      return updated != null && updated.longValue() > 0;
+    } finally {
+      if (jedis != null) {
+        jedis.close();
+      }
+    }
+  }
+
+  private void touch(final Pipeline pipeline, final String key) {
+    if (timeout > 0) {
+      pipeline.expire(key, timeout);
+    }
+  }
+
+  private static Session session(final Builder builder, final Map<String, String> hash) {
+    Map<String, String> attrs = new HashMap<>(hash);
+    return builder
+        .accessedAt(Long.parseLong(attrs.remove(ACCESSED_AT)))
+        .createdAt(Long.parseLong(attrs.remove(CREATED_AT)))
+        .savedAt(Long.parseLong(attrs.remove(SAVED_AT)))
+        .set(attrs)
+        .build();
+  }
+
+  private static Map<String, String> hash(final Session session) {
+    Map<String, String> hash = new HashMap<>(session.attributes());
+    hash.put(CREATED_AT, Long.toString(session.createdAt()));
+    hash.put(ACCESSED_AT, Long.toString(session.accessedAt()));
+    hash.put(SAVED_AT, Long.toString(session.savedAt()));
+    return hash;
+  }
+
   private String key(final String id) {
     return prefix + ":" + id;
   }
 
-  private String key(final Session session) {
-    return key(session.id());
+  private static int seconds(final String value) {
+    return (int) duration(value, TimeUnit.SECONDS);
   }
 
-  private static int seconds(final String value) {
+  private static long duration(final String value, final TimeUnit unit) {
     try {
-      return Integer.parseInt(value);
+      return unit.convert(Integer.parseInt(value), TimeUnit.SECONDS);
     } catch (NumberFormatException ex) {
       Config config = ConfigFactory.empty()
           .withValue("timeout", ConfigValueFactory.fromAnyRef(value));
-      return (int) config.getDuration("timeout", TimeUnit.SECONDS);
+      return config.getDuration("timeout", unit);
     }
   }
 }
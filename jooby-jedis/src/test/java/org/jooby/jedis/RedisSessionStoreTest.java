@@ -1,6 +1,7 @@
 package org.jooby.jedis;
 
 import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
 import static org.junit.Assert.assertEquals;
 
 import java.util.Collections;
@@ -8,39 +9,60 @@ import java.util.Map;
 
 import org.jooby.Session;
 import org.jooby.test.MockUnit;
+import org.jooby.test.MockUnit.Block;
 import org.junit.Test;
 
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.Transaction;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 
 public class RedisSessionStoreTest {
 
+  private Map<String, String> attrsToSave = ImmutableMap
+      .of(
+          "x", "X",
+          "_accessedAt", "2",
+          "_createdAt", "1",
+          "_savedAt", "3"
+      );
+
+  private Block session = unit -> {
+    Session session = unit.get(Session.class);
+    expect(session.id()).andReturn("1234");
+    expect(session.attributes()).andReturn(ImmutableMap.of("x", "X"));
+    expect(session.createdAt()).andReturn(1L);
+    expect(session.accessedAt()).andReturn(2L);
+    expect(session.savedAt()).andReturn(3L);
+  };
+
+  private Block builder = unit -> {
+    Session.Builder sb = unit.get(Session.Builder.class);
+    expect(sb.sessionId()).andReturn("1234");
+    expect(sb.accessedAt(2)).andReturn(sb);
+    expect(sb.createdAt(1)).andReturn(sb);
+    expect(sb.savedAt(3)).andReturn(sb);
+    expect(sb.set(ImmutableMap.of("x", "X"))).andReturn(sb);
+    expect(sb.build()).andReturn(unit.get(Session.class));
+  };
+
   @Test
   public void save() throws Exception {
-    Map<String, String> attrs = ImmutableMap.of("x", "X");
-    Map<String, String> attrsToSave = ImmutableMap
-        .of(
-            "x", "X",
-            "_accessedAt", "2",
-            "_createdAt", "1",
-            "_savedAt", "3"
-        );
     new MockUnit(JedisPool.class, Session.class)
+        .expect(session)
         .expect(unit -> {
-          Session session = unit.get(Session.class);
-          expect(session.id()).andReturn("1234");
-          expect(session.attributes()).andReturn(attrs);
-          expect(session.createdAt()).andReturn(1L);
-          expect(session.accessedAt()).andReturn(2L);
-          expect(session.savedAt()).andReturn(3L);
-        })
-        .expect(unit -> {
+          Transaction tx = unit.mock(Transaction.class);
+          expect(tx.del("sessions:1234")).andReturn(null);
+          expect(tx.hmset("sessions:1234", attrsToSave)).andReturn(null);
+          expect(tx.expire("sessions:1234", 1800)).andReturn(null);
+          expect(tx.exec()).andReturn(Collections.emptyList());
+
           Jedis jedis = unit.mock(Jedis.class);
-          expect(jedis.hmset("sessions:1234", attrsToSave)).andReturn("sessions:1234");
-          expect(jedis.expire("sessions:1234", 1800)).andReturn(1L);
+          expect(jedis.multi()).andReturn(tx);
           jedis.close();
 
           JedisPool pool = unit.get(JedisPool.class);
@@ -54,26 +76,16 @@ public class RedisSessionStoreTest {
 
   @Test
   public void saveNoTimeout() throws Exception {
-    Map<String, String> attrs = ImmutableMap.of("x", "X");
-    Map<String, String> attrsToSave = ImmutableMap
-        .of(
-            "x", "X",
-            "_accessedAt", "2",
-            "_createdAt", "1",
-            "_savedAt", "3"
-        );
     new MockUnit(JedisPool.class, Session.class)
+        .expect(session)
         .expect(unit -> {
-          Session session = unit.get(Session.class);
-          expect(session.id()).andReturn("1234");
-          expect(session.attributes()).andReturn(attrs);
-          expect(session.createdAt()).andReturn(1L);
-          expect(session.accessedAt()).andReturn(2L);
-          expect(session.savedAt()).andReturn(3L);
-        })
-        .expect(unit -> {
+          Transaction tx = unit.mock(Transaction.class);
+          expect(tx.del("sessions:1234")).andReturn(null);
+          expect(tx.hmset("sessions:1234", attrsToSave)).andReturn(null);
+          expect(tx.exec()).andReturn(Collections.emptyList());
+
           Jedis jedis = unit.mock(Jedis.class);
-          expect(jedis.hmset("sessions:1234", attrsToSave)).andReturn("sessions:1234");
+          expect(jedis.multi()).andReturn(tx);
           jedis.close();
 
           JedisPool pool = unit.get(JedisPool.class);
@@ -87,27 +99,16 @@ public class RedisSessionStoreTest {
 
   @Test
   public void create() throws Exception {
-    Map<String, String> attrs = ImmutableMap.of("x", "X");
-    Map<String, String> attrsToSave = ImmutableMap
-        .of(
-            "x", "X",
-            "_accessedAt", "2",
-            "_createdAt", "1",
-            "_savedAt", "3"
-        );
     new MockUnit(JedisPool.class, Session.class)
+        .expect(session)
         .expect(unit -> {
-          Session session = unit.get(Session.class);
-          expect(session.id()).andReturn("1234");
-          expect(session.attributes()).andReturn(attrs);
-          expect(session.createdAt()).andReturn(1L);
-          expect(session.accessedAt()).andReturn(2L);
-          expect(session.savedAt()).andReturn(3L);
-        })
-        .expect(unit -> {
+          Pipeline pipeline = unit.mock(Pipeline.class);
+          expect(pipeline.hmset("sessions:1234", attrsToSave)).andReturn(null);
+          expect(pipeline.expire("sessions:1234", 1800)).andReturn(null);
+          pipeline.sync();
+
           Jedis jedis = unit.mock(Jedis.class);
-          expect(jedis.hmset("sessions:1234", attrsToSave)).andReturn("sessions:1234");
-          expect(jedis.expire("sessions:1234", 1800)).andReturn(1L);
+          expect(jedis.pipelined()).andReturn(pipeline);
           jedis.close();
 
           JedisPool pool = unit.get(JedisPool.class);
@@ -121,36 +122,86 @@ public class RedisSessionStoreTest {
 
   @Test
   public void saveTimeoutInSecs() throws Exception {
-    Map<String, String> attrs = ImmutableMap.of("x", "X");
-    Map<String, String> attrsToSave = ImmutableMap
+    new MockUnit(JedisPool.class, Session.class)
+        .expect(session)
+        .expect(unit -> {
+          Transaction tx = unit.mock(Transaction.class);
+          expect(tx.del("sessions:1234")).andReturn(null);
+          expect(tx.hmset("sessions:1234", attrsToSave)).andReturn(null);
+          expect(tx.expire("sessions:1234", 30)).andReturn(null);
+          expect(tx.exec()).andReturn(Collections.emptyList());
+
+          Jedis jedis = unit.mock(Jedis.class);
+          expect(jedis.multi()).andReturn(tx);
+          jedis.close();
+
+          JedisPool pool = unit.get(JedisPool.class);
+          expect(pool.getResource()).andReturn(jedis);
+        })
+        .run(unit -> {
+          new RedisSessionStore(unit.get(JedisPool.class), "sessions", 30)
+              .save(unit.get(Session.class));
+        });
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void saveChanges() throws Exception {
+    Map<String, String> hash = Maps.newHashMap(ImmutableMap
         .of(
             "x", "X",
+            "y", "Y",
             "_accessedAt", "2",
             "_createdAt", "1",
             "_savedAt", "3"
-        );
-    new MockUnit(JedisPool.class, Session.class)
+        ));
+    new MockUnit(JedisPool.class, Session.class, Session.Builder.class)
+        .expect(unit -> {
+          Session.Builder sb = unit.get(Session.Builder.class);
+          expect(sb.sessionId()).andReturn("1234");
+          expect(sb.accessedAt(2)).andReturn(sb);
+          expect(sb.createdAt(1)).andReturn(sb);
+          expect(sb.savedAt(3)).andReturn(sb);
+          expect(sb.set(ImmutableMap.of("x", "X", "y", "Y"))).andReturn(sb);
+          expect(sb.build()).andReturn(unit.get(Session.class));
+        })
         .expect(unit -> {
           Session session = unit.get(Session.class);
           expect(session.id()).andReturn("1234");
-          expect(session.attributes()).andReturn(attrs);
+          expect(session.attributes()).andReturn(ImmutableMap.of("x", "X", "z", "Z"));
           expect(session.createdAt()).andReturn(1L);
-          expect(session.accessedAt()).andReturn(2L);
-          expect(session.savedAt()).andReturn(3L);
+          expect(session.accessedAt()).andReturn(5L);
+          expect(session.savedAt()).andReturn(6L);
         })
         .expect(unit -> {
-          Jedis jedis = unit.mock(Jedis.class);
-          expect(jedis.hmset("sessions:1234", attrsToSave)).andReturn("sessions:1234");
-          expect(jedis.expire("sessions:1234", 30)).andReturn(1L);
+          Response<Map<String, String>> rsp = unit.mock(Response.class);
+          expect(rsp.get()).andReturn(hash);
+
+          Pipeline get = unit.mock(Pipeline.class);
+          expect(get.hgetAll("sessions:1234")).andReturn(rsp);
+          expect(get.expire("sessions:1234", 1800)).andReturn(null);
+          get.sync();
 
+          Pipeline save = unit.mock(Pipeline.class);
+          expect(save.hmset("sessions:1234",
+              ImmutableMap.of("z", "Z", "_accessedAt", "5", "_savedAt", "6"))).andReturn(null);
+          expect(save.hdel("sessions:1234", "y")).andReturn(null);
+          expect(save.expire("sessions:1234", 1800)).andReturn(null);
+          save.sync();
+
+          Jedis jedis = unit.mock(Jedis.class);
+          expect(jedis.pipelined()).andReturn(get).andReturn(save);
           jedis.close();
+          expectLastCall().times(2);
 
           JedisPool pool = unit.get(JedisPool.class);
-          expect(pool.getResource()).andReturn(jedis);
+          expect(pool.getResource()).andReturn(jedis).times(2);
         })
         .run(unit -> {
-          new RedisSessionStore(unit.get(JedisPool.class), "sessions", 30)
-              .save(unit.get(Session.class));
+          RedisSessionStore store = new RedisSessionStore(unit.get(JedisPool.class), "sessions",
+              "30m");
+          store.get(unit.get(Session.Builder.class));
+          store.save(unit.get(Session.class));
         });
   }
 
@@ -174,33 +225,9 @@ public class RedisSessionStoreTest {
 
   @Test
   public void get() throws Exception {
-    Map<String, String> attrs = Maps.newHashMap(ImmutableMap
-        .of(
-            "x", "X",
-            "_accessedAt", "2",
-            "_createdAt", "1",
-            "_savedAt", "3"
-        ));
-
     new MockUnit(JedisPool.class, Session.class, Session.Builder.class)
-        .expect(unit -> {
-          Session.Builder sb = unit.get(Session.Builder.class);
-          expect(sb.sessionId()).andReturn("1234");
-          expect(sb.accessedAt(2)).andReturn(sb);
-          expect(sb.createdAt(1)).andReturn(sb);
-          expect(sb.savedAt(3)).andReturn(sb);
-          expect(sb.set(ImmutableMap.of("x", "X"))).andReturn(sb);
-          expect(sb.build()).andReturn(unit.get(Session.class));
-        })
-        .expect(unit -> {
-          Jedis jedis = unit.mock(Jedis.class);
-          expect(jedis.hgetAll("sessions:1234")).andReturn(attrs);
-          expect(jedis.expire("sessions:1234", 1800)).andReturn(1L);
-          jedis.close();
-
-          JedisPool pool = unit.get(JedisPool.class);
-          expect(pool.getResource()).andReturn(jedis);
-        })
+        .expect(builder)
+        .expect(hgetAll(hash(), true))
         .run(unit -> {
           assertEquals(unit.get(Session.class), new RedisSessionStore(
               unit.get(JedisPool.class), "sessions", "30m")
@@ -210,32 +237,9 @@ public class RedisSessionStoreTest {
 
   @Test
   public void getNoTimeout() throws Exception {
-    Map<String, String> attrs = Maps.newHashMap(ImmutableMap
-        .of(
-            "x", "X",
-            "_accessedAt", "2",
-            "_createdAt", "1",
-            "_savedAt", "3"
-        ));
-
     new MockUnit(JedisPool.class, Session.class, Session.Builder.class)
-        .expect(unit -> {
-          Session.Builder sb = unit.get(Session.Builder.class);
-          expect(sb.sessionId()).andReturn("1234");
-          expect(sb.accessedAt(2)).andReturn(sb);
-          expect(sb.createdAt(1)).andReturn(sb);
-          expect(sb.savedAt(3)).andReturn(sb);
-          expect(sb.set(ImmutableMap.of("x", "X"))).andReturn(sb);
-          expect(sb.build()).andReturn(unit.get(Session.class));
-        })
-        .expect(unit -> {
-          Jedis jedis = unit.mock(Jedis.class);
-          expect(jedis.hgetAll("sessions:1234")).andReturn(attrs);
-          jedis.close();
-
-          JedisPool pool = unit.get(JedisPool.class);
-          expect(pool.getResource()).andReturn(jedis);
-        })
+        .expect(builder)
+        .expect(hgetAll(hash(), false))
         .run(unit -> {
           assertEquals(unit.get(Session.class), new RedisSessionStore(
               unit.get(JedisPool.class), "sessions", "0")
@@ -245,21 +249,12 @@ public class RedisSessionStoreTest {
 
   @Test
   public void getNullExpired() throws Exception {
-    Map<String, String> attrs = null;
-
     new MockUnit(JedisPool.class, Session.Builder.class)
         .expect(unit -> {
           Session.Builder sb = unit.get(Session.Builder.class);
           expect(sb.sessionId()).andReturn("1234");
         })
-        .expect(unit -> {
-          Jedis jedis = unit.mock(Jedis.class);
-          expect(jedis.hgetAll("sessions:1234")).andReturn(attrs);
-          jedis.close();
-
-          JedisPool pool = unit.get(JedisPool.class);
-          expect(pool.getResource()).andReturn(jedis);
-        })
+        .expect(hgetAll(null, true))
         .run(unit -> {
           assertEquals(null, new RedisSessionStore(
               unit.get(JedisPool.class), "sessions", "30m")
@@ -269,25 +264,99 @@ public class RedisSessionStoreTest {
 
   @Test
   public void getEmptyExpired() throws Exception {
-    Map<String, String> attrs = Collections.emptyMap();
-
     new MockUnit(JedisPool.class, Session.Builder.class)
         .expect(unit -> {
           Session.Builder sb = unit.get(Session.Builder.class);
           expect(sb.sessionId()).andReturn("1234");
         })
+        .expect(hgetAll(Collections.emptyMap(), true))
+        .run(unit -> {
+          assertEquals(null, new RedisSessionStore(
+              unit.get(JedisPool.class), "sessions", "30m")
+              .get(unit.get(Session.Builder.class)));
+        });
+  }
+
+  @Test
+  public void nearCache() throws Exception {
+    new MockUnit(JedisPool.class, Session.class, Session.Builder.class)
+        .expect(builder)
+        .expect(builder)
+        .expect(hgetAll(hash(), true))
+        .run(unit -> {
+          RedisSessionStore store = new RedisSessionStore(unit.get(JedisPool.class), "sessions",
+              1800, 60000, 10);
+          assertEquals(unit.get(Session.class), store.get(unit.get(Session.Builder.class)));
+          // no redis
+          assertEquals(unit.get(Session.class), store.get(unit.get(Session.Builder.class)));
+        });
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void nearCacheRevalidate() throws Exception {
+    new MockUnit(JedisPool.class, Session.class, Session.Builder.class)
+        .expect(builder)
+        .expect(builder)
+        .expect(hgetAll(hash(), true))
         .expect(unit -> {
+          Response<String> rsp = unit.mock(Response.class);
+          expect(rsp.get()).andReturn("3");
+
+          Pipeline pipeline = unit.mock(Pipeline.class);
+          expect(pipeline.hget("sessions:1234", "_savedAt")).andReturn(rsp);
+          expect(pipeline.expire("sessions:1234", 1800)).andReturn(null);
+          pipeline.sync();
+
           Jedis jedis = unit.mock(Jedis.class);
-          expect(jedis.hgetAll("sessions:1234")).andReturn(attrs);
+          expect(jedis.pipelined()).andReturn(pipeline);
           jedis.close();
 
           JedisPool pool = unit.get(JedisPool.class);
           expect(pool.getResource()).andReturn(jedis);
         })
         .run(unit -> {
-          assertEquals(null, new RedisSessionStore(
-              unit.get(JedisPool.class), "sessions", "30m")
-              .get(unit.get(Session.Builder.class)));
+          RedisSessionStore store = new RedisSessionStore(unit.get(JedisPool.class), "sessions",
+              1800, 1, 10);
+          assertEquals(unit.get(Session.class), store.get(unit.get(Session.Builder.class)));
+          Thread.sleep(10L);
+          assertEquals(unit.get(Session.class), store.get(unit.get(Session.Builder.class)));
+        });
+  }
+
+  @Test
+  public void nearCacheRefreshExpiration() throws Exception {
+    new MockUnit(JedisPool.class, Session.class, Session.Builder.class)
+        .expect(builder)
+        .expect(builder)
+        .expect(hgetAll(hash(), 1))
+        .expect(expire(1L))
+        .run(unit -> {
+          RedisSessionStore store = new RedisSessionStore(unit.get(JedisPool.class), "sessions",
+              1, 60000, 10);
+          assertEquals(unit.get(Session.class), store.get(unit.get(Session.Builder.class)));
+          // half of the session timeout
+          Thread.sleep(600L);
+          assertEquals(unit.get(Session.class), store.get(unit.get(Session.Builder.class)));
+        });
+  }
+
+  @Test
+  public void nearCacheRefreshExpired() throws Exception {
+    new MockUnit(JedisPool.class, Session.class, Session.Builder.class)
+        .expect(builder)
+        .expect(unit -> {
+          Session.Builder sb = unit.get(Session.Builder.class);
+          expect(sb.sessionId()).andReturn("1234");
+        })
+        .expect(hgetAll(hash(), 1))
+        .expect(expire(0L))
+        .run(unit -> {
+          RedisSessionStore store = new RedisSessionStore(unit.get(JedisPool.class), "sessions",
+              1, 60000, 10);
+          assertEquals(unit.get(Session.class), store.get(unit.get(Session.Builder.class)));
+          Thread.sleep(600L);
+          assertEquals(null, store.get(unit.get(Session.Builder.class)));
         });
   }
 
@@ -299,10 +368,12 @@ public class RedisSessionStoreTest {
           expect(sb.sessionId()).andReturn("1234");
         })
         .expect(unit -> {
-          Jedis jedis = unit.mock(Jedis.class);
-          expect(jedis.hgetAll("sessions:1234"))
+          Pipeline pipeline = unit.mock(Pipeline.class);
+          expect(pipeline.hgetAll("sessions:1234"))
               .andThrow(new IllegalStateException("intentional err"));
 
+          Jedis jedis = unit.mock(Jedis.class);
+          expect(jedis.pipelined()).andReturn(pipeline);
           jedis.close();
 
           JedisPool pool = unit.get(JedisPool.class);
@@ -317,6 +388,10 @@ public class RedisSessionStoreTest {
   @Test(expected = IllegalStateException.class)
   public void shouldNotCloseJedisOnGetPoolErr() throws Exception {
     new MockUnit(JedisPool.class, Session.Builder.class)
+        .expect(unit -> {
+          Session.Builder sb = unit.get(Session.Builder.class);
+          expect(sb.sessionId()).andReturn("1234");
+        })
         .expect(unit -> {
           JedisPool pool = unit.get(JedisPool.class);
           expect(pool.getResource())
@@ -330,27 +405,16 @@ public class RedisSessionStoreTest {
 
   @Test(expected = IllegalStateException.class)
   public void shouldCloseJedisOnSaveErr() throws Exception {
-    Map<String, String> attrs = ImmutableMap.of("x", "X");
-    Map<String, String> attrsToSave = ImmutableMap
-        .of(
-            "x", "X",
-            "_accessedAt", "2",
-            "_createdAt", "1",
-            "_savedAt", "3"
-        );
     new MockUnit(JedisPool.class, Session.class)
+        .expect(session)
         .expect(unit -> {
-          Session session = unit.get(Session.class);
-          expect(session.id()).andReturn("1234");
-          expect(session.attributes()).andReturn(attrs);
-          expect(session.createdAt()).andReturn(1L);
-          expect(session.accessedAt()).andReturn(2L);
-          expect(session.savedAt()).andReturn(3L);
-        })
-        .expect(unit -> {
-          Jedis jedis = unit.mock(Jedis.class);
-          expect(jedis.hmset("sessions:1234", attrsToSave))
+          Transaction tx = unit.mock(Transaction.class);
+          expect(tx.del("sessions:1234")).andReturn(null);
+          expect(tx.hmset("sessions:1234", attrsToSave))
               .andThrow(new IllegalStateException("intentional err"));
+
+          Jedis jedis = unit.mock(Jedis.class);
+          expect(jedis.multi()).andReturn(tx);
           jedis.close();
 
           JedisPool pool = unit.get(JedisPool.class);
@@ -365,6 +429,7 @@ public class RedisSessionStoreTest {
   @Test(expected = IllegalStateException.class)
   public void shouldNotCloseJedisOnSavePoolErr() throws Exception {
     new MockUnit(JedisPool.class, Session.class)
+        .expect(session)
         .expect(unit -> {
 
           JedisPool pool = unit.get(JedisPool.class);
@@ -411,4 +476,50 @@ public class RedisSessionStoreTest {
         });
   }
 
+  private static Map<String, String> hash() {
+    return Maps.newHashMap(ImmutableMap
+        .of(
+            "x", "X",
+            "_accessedAt", "2",
+            "_createdAt", "1",
+            "_savedAt", "3"
+        ));
+  }
+
+  private Block expire(final long updated) {
+    return unit -> {
+      Jedis jedis = unit.mock(Jedis.class);
+      expect(jedis.expire("sessions:1234", 1)).andReturn(updated);
+      jedis.close();
+
+      JedisPool pool = unit.get(JedisPool.class);
+      expect(pool.getResource()).andReturn(jedis);
+    };
+  }
+
+  private Block hgetAll(final Map<String, String> hash, final boolean expire) {
+    return hgetAll(hash, expire ? 1800 : 0);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Block hgetAll(final Map<String, String> hash, final int timeout) {
+    return unit -> {
+      Response<Map<String, String>> rsp = unit.mock(Response.class);
+      expect(rsp.get()).andReturn(hash);
+
+      Pipeline pipeline = unit.mock(Pipeline.class);
+      expect(pipeline.hgetAll("sessions:1234")).andReturn(rsp);
+      if (timeout > 0) {
+        expect(pipeline.expire("sessions:1234", timeout)).andReturn(null);
+      }
+      pipeline.sync();
+
+      Jedis jedis = unit.mock(Jedis.class);
+      expect(jedis.pipelined()).andReturn(pipeline);
+      jedis.close();
+
+      JedisPool pool = unit.get(JedisPool.class);
+      expect(pool.getResource()).andReturn(jedis);
+    };
+  }
 }
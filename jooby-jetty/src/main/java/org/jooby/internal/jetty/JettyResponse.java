@@ -91,6 +91,12 @@ public class JettyResponse extends ServletServletResponse implements Callback {
     end();
   }
 
+  @Override
+  public void abort(final Throwable cause) {
+    // close the connection, no last chunk
+    ((Response) rsp).getHttpChannel().abort(cause);
+  }
+
   @Override
   public void end() {
     if (endRequest) {
@@ -0,0 +1,61 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby;
+
+import java.io.File;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Component;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+import org.jooby.scanner.ClassIndex;
+
+/**
+ * Writes a {@link ClassIndex} of the application classes, used by the scanner module and MVC
+ * routes instead of scanning and reading class files on startup.
+ */
+@Mojo(name = "index", requiresDependencyResolution = ResolutionScope.COMPILE,
+    defaultPhase = LifecyclePhase.PROCESS_CLASSES)
+public class IndexMojo extends AbstractMojo {
+
+  @Component
+  private MavenProject mavenProject;
+
+  @Override
+  public void execute() throws MojoExecutionException, MojoFailureException {
+    Path bindir = new File(mavenProject.getBuild().getOutputDirectory()).toPath();
+    if (!bindir.toFile().exists()) {
+      getLog().debug("nothing to index: " + bindir);
+      return;
+    }
+    try (URLClassLoader loader = new Classpath(mavenProject).toClassLoader()) {
+      int count = ClassIndex.write(loader, bindir);
+      getLog().info("indexed " + count + " classes: " + bindir.resolve(ClassIndex.LOCATION));
+    } catch (Exception ex) {
+      throw new MojoFailureException("Can't write class index of: " + bindir, ex);
+    }
+  }
+
+}
@@ -0,0 +1,129 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal.metrics;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.StreamSupport;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+import org.HdrHistogram.Recorder;
+
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+
+/**
+ * A {@link Reservoir} backed by a HDR histogram. Recording is lock-free and doesn't allocate,
+ * values are merged into the snapshot histogram on {@link #getSnapshot()}.
+ *
+ * @author edgar
+ * @since 1.0.1
+ */
+public class HdrReservoir implements Reservoir {
+
+  private static class HdrSnapshot extends Snapshot {
+
+    private final Histogram histogram;
+
+    HdrSnapshot(final Histogram histogram) {
+      this.histogram = histogram;
+    }
+
+    @Override
+    public double getValue(final double quantile) {
+      return histogram.getValueAtPercentile(quantile * 100.0);
+    }
+
+    /**
+     * One value per recorded bucket, not per recorded sample.
+     */
+    @Override
+    public long[] getValues() {
+      return StreamSupport.stream(histogram.recordedValues().spliterator(), false)
+          .mapToLong(HistogramIterationValue::getValueIteratedTo)
+          .toArray();
+    }
+
+    @Override
+    public int size() {
+      return (int) Math.min(Integer.MAX_VALUE, histogram.getTotalCount());
+    }
+
+    @Override
+    public long getMax() {
+      return histogram.getTotalCount() == 0 ? 0 : histogram.getMaxValue();
+    }
+
+    @Override
+    public double getMean() {
+      return histogram.getTotalCount() == 0 ? 0 : histogram.getMean();
+    }
+
+    @Override
+    public long getMin() {
+      return histogram.getTotalCount() == 0 ? 0 : histogram.getMinValue();
+    }
+
+    @Override
+    public double getStdDev() {
+      return histogram.getTotalCount() == 0 ? 0 : histogram.getStdDeviation();
+    }
+
+    @Override
+    public void dump(final OutputStream output) {
+      PrintWriter writer = new PrintWriter(
+          new OutputStreamWriter(output, StandardCharsets.UTF_8));
+      for (long value : getValues()) {
+        writer.println(value);
+      }
+      writer.flush();
+    }
+  }
+
+  /** Number of significant decimal digits. */
+  private static final int DIGITS = 3;
+
+  private final Recorder recorder = new Recorder(DIGITS);
+
+  /** All the values recorded so far. */
+  private final Histogram total = new Histogram(DIGITS);
+
+  private Histogram interval;
+
+  @Override
+  public int size() {
+    return getSnapshot().size();
+  }
+
+  @Override
+  public void update(final long value) {
+    recorder.recordValue(Math.max(0, value));
+  }
+
+  @Override
+  public synchronized Snapshot getSnapshot() {
+    interval = recorder.getIntervalHistogram(interval);
+    total.add(interval);
+    return new HdrSnapshot(total.copy());
+  }
+
+}
@@ -0,0 +1,124 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal.metrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+/**
+ * Request metrics resolved once per registry, route and status code, so recording a request
+ * doesn't look up or build metric names.
+ *
+ * @author edgar
+ * @since 1.0.1
+ */
+public class RequestMetrics {
+
+  /** Prefix of per route timers. */
+  public static final String ROUTES = "routes.";
+
+  private final MetricRegistry registry;
+
+  private final Counter actives;
+
+  private final Timer request;
+
+  /** Response meters by status code. */
+  private final AtomicReferenceArray<Meter> responses = new AtomicReferenceArray<>(600);
+
+  /** Route timers by verb and pattern. */
+  private final ConcurrentMap<String, ConcurrentMap<String, Timer>> routes =
+      new ConcurrentHashMap<>();
+
+  public RequestMetrics(final MetricRegistry registry) {
+    this.registry = registry;
+    this.actives = registry.counter("request.actives");
+    this.request = timer(registry, "request");
+  }
+
+  public MetricRegistry registry() {
+    return registry;
+  }
+
+  public Timer route(final String method, final String pattern) {
+    ConcurrentMap<String, Timer> timers = routes.get(method);
+    if (timers == null) {
+      timers = routes.computeIfAbsent(method, k -> new ConcurrentHashMap<>());
+    }
+    Timer timer = timers.get(pattern);
+    if (timer == null) {
+      timer = timers.computeIfAbsent(pattern,
+          k -> timer(registry, ROUTES + method + " " + pattern));
+    }
+    return timer;
+  }
+
+  public void start() {
+    actives.inc();
+  }
+
+  public void stop(final Timer route, final int status, final long nanos) {
+    actives.dec();
+    request.update(nanos, TimeUnit.NANOSECONDS);
+    if (route != null) {
+      route.update(nanos, TimeUnit.NANOSECONDS);
+    }
+    response(status).mark();
+  }
+
+  private Meter response(final int status) {
+    if (status < 0 || status >= responses.length()) {
+      return registry.meter("responses." + status);
+    }
+    Meter meter = responses.get(status);
+    if (meter == null) {
+      meter = registry.meter("responses." + status);
+      responses.lazySet(status, meter);
+    }
+    return meter;
+  }
+
+  /**
+   * Get or register a timer backed by a {@link HdrReservoir}.
+   *
+   * @param registry Metric registry.
+   * @param name Timer name.
+   * @return A timer.
+   */
+  public static Timer timer(final MetricRegistry registry, final String name) {
+    Metric metric = registry.getMetrics().get(name);
+    if (metric instanceof Timer) {
+      return (Timer) metric;
+    }
+    try {
+      return registry.register(name, new Timer(new HdrReservoir()));
+    } catch (IllegalArgumentException ex) {
+      // registered by someone else in the meantime
+      return registry.timer(name);
+    }
+  }
+}
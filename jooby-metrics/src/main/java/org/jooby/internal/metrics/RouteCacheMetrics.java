@@ -0,0 +1,57 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import javax.inject.Inject;
+
+import org.jooby.internal.RouteCache;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import com.google.common.cache.CacheStats;
+
+public class RouteCacheMetrics implements MetricSet {
+
+  private final RouteCache cache;
+
+  @Inject
+  public RouteCacheMetrics(final RouteCache cache) {
+    this.cache = cache;
+  }
+
+  @Override
+  public Map<String, Metric> getMetrics() {
+    Map<String, Metric> metrics = new HashMap<>();
+    metrics.put("hits", gauge(CacheStats::hitCount));
+    metrics.put("misses", gauge(CacheStats::missCount));
+    metrics.put("evictions", gauge(CacheStats::evictionCount));
+    metrics.put("hitRate", gauge(CacheStats::hitRate));
+    return metrics;
+  }
+
+  private <T> Gauge<T> gauge(final Function<CacheStats, T> fn) {
+    return () -> fn.apply(cache.stats());
+  }
+
+}
@@ -23,34 +23,78 @@ import org.jooby.Response;
 import org.jooby.Route;
 import org.jooby.Route.Chain;
 import org.jooby.Status;
+import org.jooby.internal.RouteImpl;
+import org.jooby.internal.metrics.RequestMetrics;
 
-import com.codahale.metrics.Counter;
-import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 
 /**
  * Track request information like: active requests, request time and responses.
  *
+ * <p>
+ * Besides the global <code>request</code> timer, there is one timer per route:
+ * <code>routes.[method] [pattern]</code>, like <code>routes.GET /api/pets/:id</code>. Timers use
+ * HDR histograms and stop once the response has been sent (deferred responses included).
+ * </p>
+ *
+ * <p>
+ * The route is resolved when the response completes, so the timer belongs to the route that
+ * handled the request, not to this filter. Requests without a matching route are recorded by the
+ * global timer only.
+ * </p>
+ *
+ * <p>
+ * The registry, timers and response meters are resolved once and reused by subsequent requests.
+ * </p>
+ *
  * @author edgar
  * @since 0.13.0
  */
 public class InstrumentedHandler implements Route.Filter {
 
+  private volatile RequestMetrics metrics;
+
   @Override
   public void handle(final Request req, final Response rsp, final Chain chain) throws Throwable {
-    MetricRegistry registry = req.require(MetricRegistry.class);
-    Counter counter = registry.counter("request.actives");
-    Timer.Context timer = registry.timer("request").time();
-    try {
-      counter.inc();
-      chain.next(req, rsp);
-    } finally {
-      timer.stop();
-      counter.dec();
-      Meter meter = registry.meter("responses." + rsp.status().orElse(Status.OK).value());
-      meter.mark();
+    RequestMetrics metrics = metrics(req);
+    long start = System.nanoTime();
+    metrics.start();
+    rsp.complete((rq, rs, cause) -> {
+      long nanos = System.nanoTime() - start;
+      metrics.stop(timer(metrics, rq.route()), rs.status().orElse(Status.OK).value(), nanos);
+    });
+    chain.next(req, rsp);
+  }
+
+  /**
+   * Timer of the route that handled the request: by the time the response completes the request
+   * points to the last route of the chain.
+   *
+   * @param metrics Request metrics.
+   * @param route Last route executed.
+   * @return A route timer or <code>null</code> when no route matched.
+   */
+  private static Timer timer(final RequestMetrics metrics, final Route route) {
+    if (RouteImpl.fallback(route)) {
+      // not found route, pattern is the requested path
+      return null;
+    }
+    return metrics.route(route.method(), route.pattern());
+  }
+
+  private RequestMetrics metrics(final Request req) {
+    RequestMetrics metrics = this.metrics;
+    if (metrics == null) {
+      synchronized (this) {
+        metrics = this.metrics;
+        if (metrics == null) {
+          metrics = new RequestMetrics(req.require(MetricRegistry.class));
+          this.metrics = metrics;
+        }
+      }
     }
+    return metrics;
   }
 
 }
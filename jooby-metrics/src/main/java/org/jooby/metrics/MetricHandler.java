@@ -30,6 +30,7 @@ import org.jooby.Request;
 import org.jooby.Response;
 import org.jooby.Route.Handler;
 import org.jooby.Status;
+import org.jooby.internal.metrics.RequestMetrics;
 
 import com.codahale.metrics.Counter;
 import com.codahale.metrics.Gauge;
@@ -107,6 +108,10 @@ public class MetricHandler implements Handler {
       if (timers.size() > 0) {
         metrics.put("timers", timers);
       }
+      Map<String, Object> routes = routes(registry.getTimers(filter), durationFactor);
+      if (routes.size() > 0) {
+        metrics.put("routes", routes);
+      }
       // send
       rsp.status(Status.OK)
           .header(CACHE_CONTROL, NO_CACHE)
@@ -161,6 +166,25 @@ public class MetricHandler implements Handler {
     return result;
   }
 
+  private static Map<String, Object> routes(final SortedMap<String, Timer> timers,
+      final double durationFactor) {
+    Map<String, Object> result = new TreeMap<>();
+    timers.forEach((name, timer) -> {
+      if (name.startsWith(RequestMetrics.ROUTES)) {
+        Snapshot snapshot = timer.getSnapshot();
+        Map<String, Object> route = new TreeMap<>();
+        route.put("count", timer.getCount());
+        route.put("mean", snapshot.getMean() * durationFactor);
+        route.put("max", snapshot.getMax() * durationFactor);
+        route.put("p50", snapshot.getMedian() * durationFactor);
+        route.put("p99", snapshot.get99thPercentile() * durationFactor);
+        route.put("p999", snapshot.get999thPercentile() * durationFactor);
+        result.put(name.substring(RequestMetrics.ROUTES.length()), route);
+      }
+    });
+    return result;
+  }
+
   @SuppressWarnings("rawtypes")
   private static Map<String, Object> gauges(final SortedMap<String, Gauge> gauges) {
     Map<String, Object> result = new TreeMap<>();
@@ -34,6 +34,7 @@ import org.jooby.Jooby;
 import org.jooby.Router;
 import org.jooby.internal.metrics.HealthCheckRegistryProvider;
 import org.jooby.internal.metrics.MetricRegistryInitializer;
+import org.jooby.internal.metrics.RouteCacheMetrics;
 
 import com.codahale.metrics.Metric;
 import com.codahale.metrics.MetricRegistry;
@@ -110,6 +111,10 @@ import com.typesafe.config.Config;
  *   use(new Metrics()
  *      .request());
  * </pre>
+ * <p>
+ * Each route gets its own timer. Latency percentiles (p50, p99 and p999) of each route are
+ * available at <code>/sys/metrics/routes</code>.
+ * </p>
  *
  * <h2>thread dump</h2>
  * <p>
@@ -255,6 +260,17 @@ public class Metrics implements Jooby.Module {
     return this;
   }
 
+  /**
+   * Append route cache gauges: <code>routes.cache.hits</code>, <code>routes.cache.misses</code>,
+   * <code>routes.cache.evictions</code> and <code>routes.cache.hitRate</code>. See the
+   * <code>server.routes.CacheKey</code> property.
+   *
+   * @return This metrics module.
+   */
+  public Metrics routeCache() {
+    return metric("routes.cache", RouteCacheMetrics.class);
+  }
+
   /**
    * Append a metric to the {@link MetricRegistry}, this call is identical to
    * {@link MetricRegistry#register(String, Metric)}.
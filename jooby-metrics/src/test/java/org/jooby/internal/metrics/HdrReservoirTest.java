@@ -0,0 +1,49 @@
+package org.jooby.internal.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.codahale.metrics.Snapshot;
+
+public class HdrReservoirTest {
+
+  @Test
+  public void empty() {
+    Snapshot snapshot = new HdrReservoir().getSnapshot();
+    assertEquals(0, snapshot.size());
+    assertEquals(0, snapshot.getMax());
+    assertEquals(0, snapshot.getMin());
+    assertEquals(0D, snapshot.getMean(), 0);
+    assertEquals(0, snapshot.getValues().length);
+  }
+
+  @Test
+  public void percentiles() {
+    HdrReservoir reservoir = new HdrReservoir();
+    for (int i = 1; i <= 1000; i++) {
+      reservoir.update(i);
+    }
+    Snapshot snapshot = reservoir.getSnapshot();
+    assertEquals(1000, snapshot.size());
+    assertEquals(1, snapshot.getMin());
+    assertEquals(1000, snapshot.getMax());
+    assertEquals(500D, snapshot.getMedian(), 1);
+    assertEquals(990D, snapshot.get99thPercentile(), 1);
+    assertEquals(999D, snapshot.get999thPercentile(), 1);
+  }
+
+  @Test
+  public void accumulate() {
+    HdrReservoir reservoir = new HdrReservoir();
+    reservoir.update(7);
+    assertEquals(1, reservoir.size());
+    reservoir.update(9);
+    Snapshot snapshot = reservoir.getSnapshot();
+    assertEquals(2, snapshot.size());
+    assertEquals(9, snapshot.getMax());
+    assertTrue(snapshot.getValues().length == 2);
+  }
+
+}
@@ -0,0 +1,35 @@
+package org.jooby.internal.metrics;
+
+import static org.easymock.EasyMock.expect;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+
+import org.jooby.internal.RouteCache;
+import org.jooby.test.MockUnit;
+import org.junit.Test;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.google.common.cache.CacheStats;
+
+public class RouteCacheMetricsTest {
+
+  @Test
+  public void gauges() throws Exception {
+    new MockUnit(RouteCache.class)
+        .expect(unit -> {
+          RouteCache cache = unit.get(RouteCache.class);
+          expect(cache.stats()).andReturn(new CacheStats(3, 1, 1, 0, 0, 2)).times(4);
+        })
+        .run(unit -> {
+          Map<String, Metric> metrics = new RouteCacheMetrics(unit.get(RouteCache.class))
+              .getMetrics();
+          assertEquals(3L, ((Gauge<?>) metrics.get("hits")).getValue());
+          assertEquals(1L, ((Gauge<?>) metrics.get("misses")).getValue());
+          assertEquals(2L, ((Gauge<?>) metrics.get("evictions")).getValue());
+          assertEquals(0.75, ((Gauge<?>) metrics.get("hitRate")).getValue());
+        });
+  }
+
+}
@@ -2,62 +2,48 @@ package org.jooby.metrics;
 
 import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.expectLastCall;
+import static org.junit.Assert.assertEquals;
 
 import java.io.IOException;
 import java.util.Optional;
 
+import org.jooby.MediaType;
 import org.jooby.Request;
 import org.jooby.Response;
 import org.jooby.Route;
 import org.jooby.Status;
+import org.jooby.internal.RouteImpl;
 import org.jooby.test.MockUnit;
 import org.jooby.test.MockUnit.Block;
 import org.junit.Test;
 
-import com.codahale.metrics.Counter;
-import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
-import com.codahale.metrics.Timer;
-import com.codahale.metrics.Timer.Context;
 
 public class InstrumentedHandlerTest {
 
+  private MetricRegistry metrics = new MetricRegistry();
+
   private Block registry = unit -> {
     Request request = unit.get(Request.class);
-    expect(request.require(MetricRegistry.class))
-        .andReturn(unit.get(MetricRegistry.class));
+    expect(request.require(MetricRegistry.class)).andReturn(metrics);
   };
 
-  private Block counter = unit -> {
-    Counter counter = unit.mock(Counter.class);
-    counter.inc();
-    counter.dec();
-
-    MetricRegistry registry = unit.get(MetricRegistry.class);
-    expect(registry.counter("request.actives")).andReturn(counter);
-  };
-
-  private Block timer = unit -> {
-    Context ctx = unit.mock(Context.class);
-    expect(ctx.stop()).andReturn(1L);
-
-    Timer timer = unit.mock(Timer.class);
-    expect(timer.time()).andReturn(ctx);
+  private Block route = unit -> {
+    Route route = unit.get(Route.class);
+    expect(route.method()).andReturn("GET");
+    expect(route.pattern()).andReturn("/pets/:id");
 
-    MetricRegistry registry = unit.get(MetricRegistry.class);
-    expect(registry.timer("request")).andReturn(timer);
+    Request request = unit.get(Request.class);
+    expect(request.route()).andReturn(route);
   };
 
-  private Block meter = unit -> {
-    Meter meter = unit.mock(Meter.class);
-    meter.mark();
-
-    MetricRegistry registry = unit.get(MetricRegistry.class);
-    expect(registry.meter("responses.200")).andReturn(meter);
-
-    Response rsp = unit.get(Response.class);
-    expect(rsp.status()).andReturn(Optional.of(Status.OK));
-  };
+  private Block complete(final Status status) {
+    return unit -> {
+      Response rsp = unit.get(Response.class);
+      rsp.complete(unit.capture(Route.Complete.class));
+      expect(rsp.status()).andReturn(Optional.of(status));
+    };
+  }
 
   private Block next = unit -> {
     Request req = unit.get(Request.class);
@@ -76,25 +62,86 @@ public class InstrumentedHandlerTest {
 
   @Test
   public void instrument() throws Exception {
-    new MockUnit(Request.class, Response.class, Route.Chain.class, MetricRegistry.class)
+    new MockUnit(Request.class, Response.class, Route.Chain.class, Route.class)
+        .expect(registry)
+        .expect(route)
+        .expect(complete(Status.OK))
+        .expect(next)
+        .run(unit -> {
+          new InstrumentedHandler().handle(unit.get(Request.class), unit.get(Response.class),
+              unit.get(Route.Chain.class));
+          // response not sent yet
+          assertEquals(1L, metrics.counter("request.actives").getCount());
+          assertEquals(0L, metrics.timer("request").getCount());
+
+          unit.captured(Route.Complete.class).get(0)
+              .handle(unit.get(Request.class), unit.get(Response.class), Optional.empty());
+          assertEquals(0L, metrics.counter("request.actives").getCount());
+          assertEquals(1L, metrics.timer("request").getCount());
+          assertEquals(1L, metrics.timer("routes.GET /pets/:id").getCount());
+          assertEquals(1L, metrics.meter("responses.200").getCount());
+        });
+  }
+
+  @Test
+  public void resolveOnce() throws Exception {
+    new MockUnit(Request.class, Response.class, Route.Chain.class, Route.class)
         .expect(registry)
-        .expect(counter)
-        .expect(timer)
-        .expect(meter)
+        .expect(route)
+        .expect(route)
+        .expect(complete(Status.OK))
+        .expect(complete(Status.NOT_FOUND))
+        .expect(next)
+        .expect(next)
+        .run(unit -> {
+          InstrumentedHandler handler = new InstrumentedHandler();
+          handler.handle(unit.get(Request.class), unit.get(Response.class),
+              unit.get(Route.Chain.class));
+          handler.handle(unit.get(Request.class), unit.get(Response.class),
+              unit.get(Route.Chain.class));
+
+          for (Route.Complete complete : unit.captured(Route.Complete.class)) {
+            complete.handle(unit.get(Request.class), unit.get(Response.class), Optional.empty());
+          }
+
+          assertEquals(2L, metrics.timer("routes.GET /pets/:id").getCount());
+          assertEquals(1L, metrics.meter("responses.200").getCount());
+          assertEquals(1L, metrics.meter("responses.404").getCount());
+        });
+  }
+
+  @Test
+  public void notFound() throws Exception {
+    new MockUnit(Request.class, Response.class, Route.Chain.class, Route.class)
+        .expect(registry)
+        .expect(unit -> {
+          Route route = RouteImpl.notFound("GET", "/missing", MediaType.ALL);
+
+          Request request = unit.get(Request.class);
+          expect(request.route()).andReturn(route);
+        })
+        .expect(complete(Status.NOT_FOUND))
         .expect(next)
         .run(unit -> {
           new InstrumentedHandler().handle(unit.get(Request.class), unit.get(Response.class),
               unit.get(Route.Chain.class));
+
+          unit.captured(Route.Complete.class).get(0)
+              .handle(unit.get(Request.class), unit.get(Response.class), Optional.empty());
+          assertEquals(1L, metrics.timer("request").getCount());
+          assertEquals(0, metrics.getTimers((name, m) -> name.startsWith("routes.")).size());
+          assertEquals(1L, metrics.meter("responses.404").getCount());
         });
   }
 
   @Test(expected = IOException.class)
   public void instrumentWithErr() throws Exception {
-    new MockUnit(Request.class, Response.class, Route.Chain.class, MetricRegistry.class)
+    new MockUnit(Request.class, Response.class, Route.Chain.class, Route.class)
         .expect(registry)
-        .expect(counter)
-        .expect(timer)
-        .expect(meter)
+        .expect(unit -> {
+          Response rsp = unit.get(Response.class);
+          rsp.complete(unit.capture(Route.Complete.class));
+        })
         .expect(nextErr)
         .run(unit -> {
           new InstrumentedHandler().handle(unit.get(Request.class), unit.get(Response.class),
@@ -13,6 +13,7 @@ import org.jooby.Mutant;
 import org.jooby.Request;
 import org.jooby.Response;
 import org.jooby.Status;
+import org.jooby.internal.metrics.RequestMetrics;
 import org.jooby.test.MockUnit;
 import org.jooby.test.MockUnit.Block;
 import org.junit.Test;
@@ -202,6 +203,33 @@ public class MetricHandlerTest {
         });
   }
 
+  @Test
+  public void routes() throws Exception {
+    MetricRegistry registry = new MetricRegistry();
+    RequestMetrics.timer(registry, "routes.GET /pets/:id");
+    registry.timer("t");
+    // result
+    Map<String, Object> result = ImmutableMap.of("GET /pets/:id", ImmutableMap.builder()
+        .put("count", 0L)
+        .put("max", 0D)
+        .put("mean", 0D)
+        .put("p50", 0D)
+        .put("p99", 0D)
+        .put("p999", 0D)
+        .build());
+
+    new MockUnit(Request.class, Response.class)
+        .expect(registry(registry))
+        .expect(name("name", Optional.empty()))
+        .expect(param("type", "routes"))
+        .expect(param("unit", "seconds", "seconds"))
+        .expect(bparam("showSamples", false))
+        .expect(send(Status.OK, result))
+        .run(unit -> {
+          new MetricHandler().handle(unit.get(Request.class), unit.get(Response.class));
+        });
+  }
+
   @Test
   public void histograms() throws Exception {
     MetricRegistry registry = new MetricRegistry();
@@ -0,0 +1,204 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal.netty;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelConfig;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.LastHttpContent;
+
+/**
+ * Request body fed by the IO thread one {@link HttpContent} at a time and consumed by the worker
+ * thread. When the queued bytes go over the buffer size, reads on the channel are suspended until
+ * the consumer catches up.
+ */
+public class NettyBody extends InputStream {
+
+  private final ArrayDeque<HttpContent> queue = new ArrayDeque<>();
+
+  private final Channel channel;
+
+  private final int highWater;
+
+  private final int lowWater;
+
+  private long queued;
+
+  private ByteBuf current;
+
+  private boolean ended;
+
+  private boolean discarded;
+
+  private IOException failure;
+
+  public NettyBody(final Channel channel, final int bufferSize) {
+    this.channel = channel;
+    this.highWater = bufferSize;
+    this.lowWater = bufferSize / 2;
+  }
+
+  /**
+   * Queue a chunk, it must be called from the IO thread. The body takes ownership of the chunk.
+   *
+   * @param chunk Chunk to queue.
+   */
+  public synchronized void offer(final HttpContent chunk) {
+    if (discarded || failure != null) {
+      chunk.release();
+      return;
+    }
+    queue.add(chunk);
+    queued += chunk.content().readableBytes();
+    if (chunk instanceof LastHttpContent) {
+      ended = true;
+    }
+    ChannelConfig config = channel.config();
+    if (queued >= highWater && config.isAutoRead()) {
+      config.setAutoRead(false);
+    }
+    notifyAll();
+  }
+
+  /**
+   * Wait for the next chunk. Caller must release it.
+   *
+   * @return Next chunk or <code>null</code> at the end of the body.
+   * @throws IOException If the connection was closed or the thread interrupted.
+   */
+  public synchronized HttpContent take() throws IOException {
+    while (queue.isEmpty()) {
+      if (failure != null) {
+        throw failure;
+      }
+      if (ended || discarded) {
+        return null;
+      }
+      try {
+        wait();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while reading body", ex);
+      }
+    }
+    HttpContent chunk = queue.poll();
+    queued -= chunk.content().readableBytes();
+    if (queued <= lowWater) {
+      resume();
+    }
+    return chunk;
+  }
+
+  @Override
+  public synchronized int read() throws IOException {
+    if (!next()) {
+      return -1;
+    }
+    return current.readByte() & 0xff;
+  }
+
+  @Override
+  public synchronized int read(final byte[] bytes, final int off, final int len)
+      throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (!next()) {
+      return -1;
+    }
+    int count = Math.min(len, current.readableBytes());
+    current.readBytes(bytes, off, count);
+    return count;
+  }
+
+  @Override
+  public synchronized int available() {
+    long available = current == null ? queued : queued + current.readableBytes();
+    return (int) Math.min(Integer.MAX_VALUE, available);
+  }
+
+  @Override
+  public void close() {
+    discard();
+  }
+
+  /**
+   * Drop queued and future chunks, reads on the channel are resumed. Called once the response
+   * has been sent or by the consumer.
+   */
+  public synchronized void discard() {
+    discarded = true;
+    release();
+    resume();
+    notifyAll();
+  }
+
+  /**
+   * Fail readers, called when the connection is closed before the end of the body.
+   *
+   * @param cause Failure.
+   */
+  public synchronized void abort(final IOException cause) {
+    if (!ended && !discarded) {
+      failure = cause;
+    }
+    release();
+    notifyAll();
+  }
+
+  private boolean next() throws IOException {
+    while (current == null || !current.isReadable()) {
+      if (current != null) {
+        current.release();
+        current = null;
+      }
+      HttpContent chunk = take();
+      if (chunk == null) {
+        return false;
+      }
+      current = chunk.content();
+    }
+    return true;
+  }
+
+  private void release() {
+    if (current != null) {
+      current.release();
+      current = null;
+    }
+    HttpContent chunk;
+    while ((chunk = queue.poll()) != null) {
+      chunk.release();
+    }
+    queued = 0;
+  }
+
+  private void resume() {
+    ChannelConfig config = channel.config();
+    if (!config.isAutoRead()) {
+      config.setAutoRead(true);
+    }
+  }
+
+}
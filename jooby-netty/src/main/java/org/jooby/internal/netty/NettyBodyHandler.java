@@ -0,0 +1,176 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal.netty;
+
+import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.List;
+
+import org.jooby.internal.RoutePattern;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.codec.http.QueryStringDecoder;
+
+/**
+ * Sits in front of the aggregator. Requests with a body whose path matches one of the streaming
+ * patterns are sent upstream right away (as a {@link StreamedRequest}, which the aggregator lets
+ * pass) while their chunks go to a {@link NettyBody}. Everything else is left to the aggregator.
+ */
+public class NettyBodyHandler extends ChannelDuplexHandler {
+
+  /**
+   * A request head with an empty content, the body is read from {@link #body()}.
+   */
+  public static class StreamedRequest extends DefaultFullHttpRequest {
+
+    private final HttpRequest head;
+
+    private final NettyBody body;
+
+    public StreamedRequest(final HttpRequest head, final NettyBody body) {
+      super(head.protocolVersion(), head.method(), head.uri(), Unpooled.EMPTY_BUFFER,
+          head.headers(), new DefaultHttpHeaders(false));
+      setDecoderResult(head.decoderResult());
+      this.head = head;
+      this.body = body;
+    }
+
+    /**
+     * @return Request head as decoded by the codec.
+     */
+    public HttpRequest head() {
+      return head;
+    }
+
+    /**
+     * @return Request body.
+     */
+    public NettyBody body() {
+      return body;
+    }
+  }
+
+  /** Marks a request that isn't streamed. */
+  private static final Object NONE = new Object();
+
+  private final List<RoutePattern> patterns;
+
+  private final int bufferSize;
+
+  /** Requests waiting for a response (more than one with pipelining). */
+  private final ArrayDeque<Object> requests = new ArrayDeque<>();
+
+  /** Body receiving chunks. */
+  private NettyBody body;
+
+  public NettyBodyHandler(final List<RoutePattern> patterns, final int bufferSize) {
+    this.patterns = patterns;
+    this.bufferSize = bufferSize;
+  }
+
+  @Override
+  public void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
+    if (msg instanceof HttpRequest) {
+      HttpRequest req = (HttpRequest) msg;
+      if (!(msg instanceof FullHttpRequest) && hasBody(req) && stream(req)) {
+        if (HttpUtil.is100ContinueExpected(req)) {
+          // worker thread is blocked waiting for the body, so don't leave it to the handler
+          ctx.writeAndFlush(new DefaultFullHttpResponse(HTTP_1_1, HttpResponseStatus.CONTINUE));
+          req.headers().remove(HttpHeaderNames.EXPECT);
+        }
+        body = new NettyBody(ctx.channel(), bufferSize);
+        requests.add(body);
+        ctx.fireChannelRead(new StreamedRequest(req, body));
+        return;
+      }
+      requests.add(NONE);
+    } else if (msg instanceof HttpContent && body != null) {
+      NettyBody body = this.body;
+      if (msg instanceof LastHttpContent) {
+        this.body = null;
+      }
+      body.offer((HttpContent) msg);
+      return;
+    }
+    ctx.fireChannelRead(msg);
+  }
+
+  @Override
+  public void write(final ChannelHandlerContext ctx, final Object msg,
+      final ChannelPromise promise) throws Exception {
+    if (msg instanceof LastHttpContent && !isContinue(msg)) {
+      // response is done: drop what's left of the body and resume reading
+      Object req = requests.poll();
+      if (req instanceof NettyBody) {
+        ((NettyBody) req).discard();
+      }
+    }
+    ctx.write(msg, promise);
+  }
+
+  @Override
+  public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
+    ClosedChannelException cause = new ClosedChannelException();
+    for (Object req : requests) {
+      if (req instanceof NettyBody) {
+        ((NettyBody) req).abort(cause);
+      }
+    }
+    requests.clear();
+    body = null;
+    super.channelInactive(ctx);
+  }
+
+  private boolean stream(final HttpRequest req) {
+    String path = new QueryStringDecoder(req.uri()).path();
+    String key = req.method().name() + path;
+    for (RoutePattern pattern : patterns) {
+      if (pattern.matcher(key).matches()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean hasBody(final HttpRequest req) {
+    return HttpUtil.getContentLength(req, 0L) > 0 || HttpUtil.isTransferEncodingChunked(req);
+  }
+
+  private static boolean isContinue(final Object msg) {
+    return msg instanceof HttpResponse
+        && ((HttpResponse) msg).status().code() == HttpResponseStatus.CONTINUE.code();
+  }
+
+}
@@ -0,0 +1,88 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal.netty;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.multipart.DefaultHttpDataFactory;
+import io.netty.handler.codec.http.multipart.DiskFileUpload;
+import io.netty.handler.codec.http.multipart.FileUpload;
+import io.netty.handler.codec.http.multipart.InterfaceHttpData;
+
+/**
+ * Write file uploads to <code>application.tmpdir</code> while they are decoded. Netty keeps the
+ * directory of {@link DiskFileUpload} in a static field, so the directory is set per upload here
+ * instead of for the whole JVM. Files end up in the same directory as {@link NettyUpload}, so
+ * they are renamed, not copied. Attributes are handled by {@link DefaultHttpDataFactory}.
+ *
+ * A factory is created per request.
+ */
+public class NettyDataFactory extends DefaultHttpDataFactory {
+
+  private final String tmpdir;
+
+  /** Uploads not handed to the application yet, deleted on clean. */
+  private final List<FileUpload> uploads = new ArrayList<>();
+
+  public NettyDataFactory(final String tmpdir) {
+    this.tmpdir = tmpdir;
+  }
+
+  @Override
+  public FileUpload createFileUpload(final HttpRequest request, final String name,
+      final String filename, final String contentType, final String contentTransferEncoding,
+      final Charset charset, final long size) {
+    FileUpload upload = new DiskFileUpload(name, filename, contentType, contentTransferEncoding,
+        charset, size) {
+      @Override
+      protected String getBaseDirectory() {
+        return tmpdir;
+      }
+    };
+    uploads.add(upload);
+    return upload;
+  }
+
+  @Override
+  public void removeHttpDataFromClean(final HttpRequest request, final InterfaceHttpData data) {
+    if (!uploads.remove(data)) {
+      super.removeHttpDataFromClean(request, data);
+    }
+  }
+
+  @Override
+  public void cleanRequestHttpData(final HttpRequest request) {
+    clean();
+    super.cleanRequestHttpData(request);
+  }
+
+  @Override
+  public void cleanAllHttpData() {
+    clean();
+    super.cleanAllHttpData();
+  }
+
+  private void clean() {
+    uploads.forEach(FileUpload::delete);
+    uploads.clear();
+  }
+}
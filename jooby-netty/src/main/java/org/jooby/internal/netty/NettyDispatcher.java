@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal.netty;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jooby.spi.HttpHandler;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.HttpRequest;
+
+/**
+ * Runs on the IO thread. Requests of non-blocking routes (see
+ * {@link HttpHandler#nonBlocking(String, String)}) are handled here, everything else is passed to
+ * the worker handler. A request is handled on the IO thread only when there is no previous
+ * request of the same channel pending on the worker, so responses keep the request order. A worker
+ * request stays pending until its response has been written, see {@link NettyResponse#end()}.
+ */
+public class NettyDispatcher extends ChannelInboundHandlerAdapter {
+
+  private final HttpHandler handler;
+
+  private final NettyHandler inline;
+
+  private final AtomicInteger pending;
+
+  private boolean flush;
+
+  /**
+   * Creates a new dispatcher.
+   *
+   * @param handler Application handler.
+   * @param inline Handler to use on the IO thread.
+   * @param pending Number of requests handed off to the worker handler.
+   */
+  public NettyDispatcher(final HttpHandler handler, final NettyHandler inline,
+      final AtomicInteger pending) {
+    this.handler = handler;
+    this.inline = inline;
+    this.pending = pending;
+  }
+
+  @Override
+  public void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
+    if (msg instanceof HttpRequest) {
+      HttpRequest req = (HttpRequest) msg;
+      if (pending.get() == 0 && nonBlocking(req)) {
+        flush = true;
+        inline.channelRead(ctx, msg);
+        return;
+      }
+      pending.incrementAndGet();
+    }
+    ctx.fireChannelRead(msg);
+  }
+
+  @Override
+  public void channelReadComplete(final ChannelHandlerContext ctx) throws Exception {
+    if (flush) {
+      flush = false;
+      inline.channelReadComplete(ctx);
+    }
+    ctx.fireChannelReadComplete();
+  }
+
+  private boolean nonBlocking(final HttpRequest req) {
+    String uri = req.uri();
+    int q = uri.indexOf('?');
+    String path = q >= 0 ? uri.substring(0, q) : uri;
+    if (path.indexOf('%') >= 0 || path.indexOf('+') >= 0) {
+      try {
+        path = URLDecoder.decode(path, "UTF-8");
+      } catch (UnsupportedEncodingException | IllegalArgumentException ex) {
+        // malformed, the worker replies with 400
+        return false;
+      }
+    }
+    return handler.nonBlocking(req.method().name(), path);
+  }
+
+}
@@ -22,6 +22,7 @@ import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
 import static java.util.Objects.requireNonNull;
 
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jooby.spi.HttpHandler;
 import org.slf4j.Logger;
@@ -29,6 +30,8 @@ import org.slf4j.LoggerFactory;
 
 import com.typesafe.config.Config;
 
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
@@ -62,7 +65,23 @@ public class NettyHandler extends SimpleChannelInboundHandler<Object> {
 
   private int bufferSize;
 
+  private AtomicInteger pending;
+
   public NettyHandler(final HttpHandler handler, final Config config) {
+    this(handler, config, null);
+  }
+
+  /**
+   * Creates a new handler.
+   *
+   * @param handler Application handler.
+   * @param config Application config.
+   * @param pending Number of requests handed off to this handler whose response hasn't been
+   *        written yet, see {@link NettyDispatcher}. Might be <code>null</code>.
+   */
+  public NettyHandler(final HttpHandler handler, final Config config,
+      final AtomicInteger pending) {
+    this.pending = pending;
     this.handler = requireNonNull(handler, "Application handler is required.");
     this.tmpdir = config.getString("application.tmpdir");
     this.bufferSize = config.getBytes("server.http.ResponseBufferSize").intValue();
@@ -89,9 +108,20 @@ public class NettyHandler extends SimpleChannelInboundHandler<Object> {
       try {
         String streamId = req.headers().get(STREAM_ID);
 
-        handler.handle(
-            new NettyRequest(ctx, req, tmpdir, wsMaxMessageSize),
-            new NettyResponse(ctx, bufferSize, keepAlive, streamId));
+        NettyRequest nreq;
+        try {
+          nreq = new NettyRequest(ctx, req, tmpdir, wsMaxMessageSize);
+        } catch (IllegalArgumentException ex) {
+          // malformed path, like: /%zz
+          log.debug("bad request: {}", req.uri(), ex);
+          badRequest(ctx, keepAlive);
+          return;
+        }
+
+        handler.handle(nreq, pending == null
+            ? new NettyResponse(ctx, bufferSize, keepAlive, streamId)
+            // the request is done once the response has been written
+            : new NettyResponse(ctx, bufferSize, keepAlive, streamId, pending::decrementAndGet));
 
       } catch (Throwable ex) {
         exceptionCaught(ctx, ex);
@@ -102,6 +132,20 @@ public class NettyHandler extends SimpleChannelInboundHandler<Object> {
     }
   }
 
+  private void badRequest(final ChannelHandlerContext ctx, final boolean keepAlive) {
+    DefaultFullHttpResponse rsp = new DefaultFullHttpResponse(HTTP_1_1,
+        HttpResponseStatus.BAD_REQUEST);
+    HttpUtil.setContentLength(rsp, 0);
+    HttpUtil.setKeepAlive(rsp, keepAlive);
+    ChannelFuture future = ctx.write(rsp);
+    if (pending != null) {
+      future.addListener((ChannelFutureListener) f -> pending.decrementAndGet());
+    }
+    if (!keepAlive) {
+      future.addListener(ChannelFutureListener.CLOSE);
+    }
+  }
+
   @Override
   public void channelReadComplete(final ChannelHandlerContext ctx) throws Exception {
     Attribute<Boolean> attr = ctx.channel().attr(NettyRequest.NEED_FLUSH);
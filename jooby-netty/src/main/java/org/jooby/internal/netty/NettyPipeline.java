@@ -20,7 +20,10 @@ package org.jooby.internal.netty;
 
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
+import org.jooby.internal.RoutePattern;
 import org.jooby.spi.HttpHandler;
 
 import com.typesafe.config.Config;
@@ -74,6 +77,10 @@ public class NettyPipeline extends ChannelInitializer<SocketChannel> {
 
   private boolean supportH2;
 
+  private List<RoutePattern> streaming;
+
+  private int streamingBuffer;
+
   public NettyPipeline(final EventExecutorGroup executor, final HttpHandler handler,
       final Config conf, final SslContext sslCtx) {
     this.executor = executor;
@@ -86,9 +93,21 @@ public class NettyPipeline extends ChannelInitializer<SocketChannel> {
     maxContentLength = conf.getBytes("netty.http.MaxContentLength").intValue();
     idleTimeOut = conf.getDuration("netty.http.IdleTimeout", TimeUnit.MILLISECONDS);
     supportH2 = conf.getBoolean("server.http2.enabled");
+    streaming = conf.getStringList("netty.http.Streaming").stream()
+        .map(NettyPipeline::streaming)
+        .collect(Collectors.toList());
+    streamingBuffer = conf.getBytes("netty.http.StreamingBuffer").intValue();
     this.sslCtx = sslCtx;
   }
 
+  /** Parse a <code>[METHOD] pattern</code> expression, like <code>POST /upload/**</code>. */
+  private static RoutePattern streaming(final String expression) {
+    String[] parts = expression.trim().split("\\s+", 2);
+    return parts.length == 2
+        ? new RoutePattern(parts[0], parts[1])
+        : new RoutePattern("*", parts[0]);
+  }
+
   @Override
   protected void initChannel(final SocketChannel ch) throws Exception {
     final ChannelPipeline p = ch.pipeline();
@@ -139,11 +158,17 @@ public class NettyPipeline extends ChannelInitializer<SocketChannel> {
   }
 
   private void aggregator(final ChannelPipeline p) {
+    if (streaming.size() > 0) {
+      p.addLast("body", new NettyBodyHandler(streaming, streamingBuffer));
+    }
     p.addLast("aggregator", new HttpObjectAggregator(maxContentLength));
   }
 
   private void jooby(final ChannelPipeline p) {
-    p.addLast(executor, "jooby", new NettyHandler(handler, config));
+    AtomicInteger pending = new AtomicInteger();
+    p.addLast("dispatcher",
+        new NettyDispatcher(handler, new NettyHandler(handler, config), pending));
+    p.addLast(executor, "jooby", new NettyHandler(handler, config, pending));
   }
 
   private Http2ConnectionHandler newHttp2ConnectionHandler(final ChannelPipeline p) {
@@ -54,7 +54,6 @@ import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.QueryStringDecoder;
 import io.netty.handler.codec.http.cookie.Cookie;
 import io.netty.handler.codec.http.cookie.ServerCookieDecoder;
-import io.netty.handler.codec.http.multipart.DefaultHttpDataFactory;
 import io.netty.handler.codec.http.multipart.FileUpload;
 import io.netty.handler.codec.http.multipart.HttpData;
 import io.netty.handler.codec.http.multipart.HttpPostRequestDecoder;
@@ -183,8 +182,19 @@ public class NettyRequest implements NativeRequest {
     return ImmutableList.copyOf(this.files.get(name));
   }
 
+  private NettyBody body() throws IOException {
+    if (ctx.channel().eventLoop().inEventLoop()) {
+      // the IO thread feeds the body, it can't wait for it
+      throw new IOException("Blocking read of request body on the IO thread: " + req.uri());
+    }
+    return ((NettyBodyHandler.StreamedRequest) req).body();
+  }
+
   @Override
   public InputStream in() throws IOException {
+    if (req instanceof NettyBodyHandler.StreamedRequest) {
+      return body();
+    }
     ByteBuf content = ((HttpContent) req).content();
     return new ByteBufInputStream(content);
   }
@@ -271,27 +281,27 @@ public class NettyRequest implements NativeRequest {
             || contentType.startsWith(MediaType.form.name()));
       }
       if (hasBody && formLike) {
+        HttpRequest head = req;
+        NettyBody body = null;
+        if (req instanceof NettyBodyHandler.StreamedRequest) {
+          head = ((NettyBodyHandler.StreamedRequest) req).head();
+          body = body();
+        }
         HttpPostRequestDecoder decoder = new HttpPostRequestDecoder(
-            new DefaultHttpDataFactory(), req);
+            new NettyDataFactory(tmpdir), head);
         try {
-          Function<HttpPostRequestDecoder, Boolean> hasNext = it -> {
-            try {
-              return it.hasNext();
-            } catch (HttpPostRequestDecoder.EndOfDataDecoderException ex) {
-              return false;
-            }
-          };
-          while (hasNext.apply(decoder)) {
-            HttpData field = (HttpData) decoder.next();
-            try {
-              String name = field.getName();
-              if (field.getHttpDataType() == HttpDataType.FileUpload) {
-                files.put(name, new NettyUpload((FileUpload) field, tmpdir));
-              } else {
-                params.put(name, field.getString());
+          if (body == null) {
+            decodeFields(decoder);
+          } else {
+            // feed the decoder as chunks arrive, large files go to disk
+            HttpContent chunk;
+            while ((chunk = body.take()) != null) {
+              try {
+                decoder.offer(chunk);
+              } finally {
+                chunk.release();
               }
-            } finally {
-              field.release();
+              decodeFields(decoder);
             }
           }
         } finally {
@@ -302,6 +312,29 @@ public class NettyRequest implements NativeRequest {
     return params;
   }
 
+  private void decodeFields(final HttpPostRequestDecoder decoder) throws IOException {
+    Function<HttpPostRequestDecoder, Boolean> hasNext = it -> {
+      try {
+        return it.hasNext();
+      } catch (HttpPostRequestDecoder.EndOfDataDecoderException ex) {
+        return false;
+      }
+    };
+    while (hasNext.apply(decoder)) {
+      HttpData field = (HttpData) decoder.next();
+      try {
+        String name = field.getName();
+        if (field.getHttpDataType() == HttpDataType.FileUpload) {
+          files.put(name, new NettyUpload((FileUpload) field, tmpdir));
+        } else {
+          params.put(name, field.getString());
+        }
+      } finally {
+        field.release();
+      }
+    }
+  }
+
   private <T> T ifSecure(final T then, final T otherwise) {
     return ctx.pipeline().get("ssl") != null ? then : otherwise;
   }
@@ -20,25 +20,30 @@ package org.jooby.internal.netty;
 
 import static io.netty.channel.ChannelFutureListener.CLOSE;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileChannel;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
+import org.jooby.Renderer;
 import org.jooby.spi.NativeResponse;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.io.ByteStreams;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.DefaultFileRegion;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpContent;
 import io.netty.handler.codec.http.DefaultHttpHeaders;
 import io.netty.handler.codec.http.DefaultHttpResponse;
 import io.netty.handler.codec.http.HttpHeaderNames;
@@ -66,6 +71,8 @@ public class NettyResponse implements NativeResponse {
 
   private int bufferSize;
 
+  private Runnable done;
+
   public NettyResponse(final ChannelHandlerContext ctx, final int bufferSize,
       final boolean keepAlive) {
     this(ctx, bufferSize, keepAlive, null);
@@ -73,6 +80,22 @@ public class NettyResponse implements NativeResponse {
 
   public NettyResponse(final ChannelHandlerContext ctx, final int bufferSize,
       final boolean keepAlive, final String streamId) {
+    this(ctx, bufferSize, keepAlive, streamId, null);
+  }
+
+  /**
+   * Creates a new response.
+   *
+   * @param ctx Channel context.
+   * @param bufferSize Buffer size.
+   * @param keepAlive True for keep alive connections.
+   * @param streamId HTTP/2 stream ID or <code>null</code>.
+   * @param done Callback to run on the event loop, after the writes of this response. Might be
+   *        <code>null</code>.
+   */
+  public NettyResponse(final ChannelHandlerContext ctx, final int bufferSize,
+      final boolean keepAlive, final String streamId, final Runnable done) {
+    this.done = done;
     this.ctx = ctx;
     this.bufferSize = bufferSize;
     this.keepAlive = keepAlive;
@@ -115,14 +138,27 @@ public class NettyResponse implements NativeResponse {
     send(Unpooled.wrappedBuffer(buffer));
   }
 
+  @Override
+  public void send(final Renderer.BodyWriter writer) throws Exception {
+    ByteBuf buffer = ctx.alloc().buffer();
+    try {
+      writer.write(new ByteBufOutputStream(buffer));
+    } catch (Throwable x) {
+      buffer.release();
+      throw x;
+    }
+    send(buffer);
+  }
+
   @Override
   public void send(final InputStream stream) throws Exception {
-    byte[] chunk = new byte[bufferSize];
-    int count = ByteStreams.read(stream, chunk, 0, bufferSize);
+    // head chunk from pool, ChunkedStream does the same for the rest
+    ByteBuf buffer = ctx.alloc().buffer(bufferSize);
+    int count = read(stream, buffer);
     if (count <= 0) {
+      buffer.release();
       return;
     }
-    ByteBuf buffer = Unpooled.wrappedBuffer(chunk, 0, count);
     if (count < bufferSize) {
       send(buffer);
     } else {
@@ -130,10 +166,9 @@ public class NettyResponse implements NativeResponse {
 
       if (!headers.contains(HttpHeaderNames.CONTENT_LENGTH)) {
         headers.set(HttpHeaderNames.TRANSFER_ENCODING, HttpHeaderValues.CHUNKED);
-      } else {
-        if (keepAlive) {
-          headers.set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
-        }
+      }
+      if (keepAlive) {
+        headers.set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
       }
 
       // dump headers
@@ -162,6 +197,54 @@ public class NettyResponse implements NativeResponse {
     committed = true;
   }
 
+  @Override
+  public OutputStream outputStream() {
+    DefaultHttpResponse rsp = new DefaultHttpResponse(HttpVersion.HTTP_1_1, status);
+
+    if (!headers.contains(HttpHeaderNames.CONTENT_LENGTH)) {
+      headers.set(HttpHeaderNames.TRANSFER_ENCODING, HttpHeaderValues.CHUNKED);
+    }
+    if (keepAlive) {
+      headers.set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
+    }
+
+    // dump headers
+    rsp.headers().set(headers);
+    ChannelHandlerContext ctx = this.ctx;
+    ctx.channel().attr(NettyRequest.NEED_FLUSH).set(false);
+    ctx.write(rsp);
+    committed = true;
+
+    return new OutputStream() {
+      @Override
+      public void write(final int b) throws IOException {
+        write(new byte[]{(byte) b }, 0, 1);
+      }
+
+      @Override
+      public void write(final byte[] bytes, final int off, final int len) throws IOException {
+        if (!ctx.channel().isActive()) {
+          // client is gone, let the writer stop
+          throw new ClosedChannelException();
+        }
+        ByteBuf chunk = ctx.alloc().buffer(len).writeBytes(bytes, off, len);
+        ChannelFuture future = ctx.writeAndFlush(new DefaultHttpContent(chunk));
+        // slow client, wait for the chunk (never from the event loop)
+        if (!ctx.channel().isWritable() && !ctx.channel().eventLoop().inEventLoop()) {
+          future.awaitUninterruptibly();
+        }
+        if (future.isDone() && !future.isSuccess()) {
+          throw new IOException("Write of chunk resulted in error", future.cause());
+        }
+      }
+
+      @Override
+      public void close() {
+        keepAlive(ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT));
+      }
+    };
+  }
+
   @Override
   public void send(final FileChannel channel) throws Exception {
     send(channel, 0, channel.size());
@@ -195,6 +278,23 @@ public class NettyResponse implements NativeResponse {
 
   }
 
+  private int read(final InputStream stream, final ByteBuf buffer) throws Exception {
+    try {
+      int count = 0;
+      while (count < bufferSize) {
+        int read = buffer.writeBytes(stream, bufferSize - count);
+        if (read == -1) {
+          break;
+        }
+        count += read;
+      }
+      return count;
+    } catch (Throwable x) {
+      buffer.release();
+      throw x;
+    }
+  }
+
   private void send(final ByteBuf buffer) throws Exception {
     DefaultFullHttpResponse rsp = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status, buffer);
 
@@ -223,16 +323,23 @@ public class NettyResponse implements NativeResponse {
   }
 
   private void keepAlive(final ChannelFuture future) {
-    if (headers.contains(HttpHeaderNames.CONTENT_LENGTH)) {
-      if (!keepAlive) {
-        future.addListener(CLOSE);
-      }
-    } else {
-      // content len is not set, just close the connection regardless keep alive or not.
+    // a body without length or chunked framing ends when the connection is closed
+    boolean framed = headers.contains(HttpHeaderNames.CONTENT_LENGTH)
+        || headers.contains(HttpHeaderNames.TRANSFER_ENCODING, HttpHeaderValues.CHUNKED, true);
+    if (!keepAlive || !framed) {
       future.addListener(CLOSE);
     }
   }
 
+  @Override
+  public void abort(final Throwable cause) {
+    committed = true;
+    if (ctx != null) {
+      // no last chunk
+      ctx.channel().close();
+    }
+  }
+
   @Override
   public int statusCode() {
     return status.code();
@@ -255,6 +362,7 @@ public class NettyResponse implements NativeResponse {
       if (ws != null && ws.get() != null) {
         status = HttpResponseStatus.SWITCHING_PROTOCOLS;
         ws.get().hankshake();
+        done(ctx);
         ctx = null;
         committed = true;
         return;
@@ -265,11 +373,20 @@ public class NettyResponse implements NativeResponse {
         rsp.headers().set(headers);
         keepAlive(ctx.write(rsp));
       }
+      done(ctx);
       committed = true;
       ctx = null;
     }
   }
 
+  private void done(final ChannelHandlerContext ctx) {
+    if (done != null) {
+      // writes from other threads are queued on the event loop, run after them
+      ctx.channel().eventLoop().execute(done);
+      done = null;
+    }
+  }
+
   @Override
   public void reset() {
     headers.clear();
@@ -0,0 +1,164 @@
+package org.jooby.internal.netty;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.charset.StandardCharsets;
+
+import org.jooby.internal.RoutePattern;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteStreams;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+
+public class NettyBodyHandlerTest {
+
+  @Test
+  public void stream() throws IOException {
+    EmbeddedChannel channel = channel(1024, "/upload/**");
+
+    channel.writeInbound(post("/upload/file?x=1", 10));
+    NettyBodyHandler.StreamedRequest req = channel.readInbound();
+    assertEquals("/upload/file?x=1", req.uri());
+    assertEquals(0, req.content().readableBytes());
+    assertEquals(HttpMethod.POST, req.head().method());
+
+    channel.writeInbound(chunk("12345"));
+    channel.writeInbound(last("67890"));
+    assertNull(channel.readInbound());
+
+    assertEquals("1234567890",
+        new String(ByteStreams.toByteArray(req.body()), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void aggregate() {
+    EmbeddedChannel channel = channel(1024, "/upload/**");
+
+    channel.writeInbound(post("/form", 5));
+    channel.writeInbound(last("12345"));
+    FullHttpRequest req = channel.readInbound();
+    assertFalse(req instanceof NettyBodyHandler.StreamedRequest);
+    assertEquals("12345", req.content().toString(StandardCharsets.UTF_8));
+    req.release();
+  }
+
+  @Test
+  public void noBody() {
+    EmbeddedChannel channel = channel(1024, "/**");
+
+    channel.writeInbound(new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/"));
+    channel.writeInbound(last(""));
+    FullHttpRequest req = channel.readInbound();
+    assertFalse(req instanceof NettyBodyHandler.StreamedRequest);
+    req.release();
+  }
+
+  @Test
+  public void method() {
+    EmbeddedChannel channel = channel(1024, "PUT /upload/**");
+
+    channel.writeInbound(post("/upload/file", 1));
+    channel.writeInbound(last("1"));
+    FullHttpRequest req = channel.readInbound();
+    assertFalse(req instanceof NettyBodyHandler.StreamedRequest);
+    req.release();
+  }
+
+  @Test
+  public void expectContinue() {
+    EmbeddedChannel channel = channel(1024, "/**");
+
+    HttpRequest post = post("/upload", 1);
+    post.headers().set(HttpHeaderNames.EXPECT, "100-continue");
+    channel.writeInbound(post);
+
+    FullHttpResponse rsp = channel.readOutbound();
+    assertEquals(HttpResponseStatus.CONTINUE, rsp.status());
+    NettyBodyHandler.StreamedRequest req = channel.readInbound();
+    assertFalse(req.headers().contains(HttpHeaderNames.EXPECT));
+  }
+
+  @Test
+  public void discardOnResponse() throws IOException {
+    EmbeddedChannel channel = channel(4, "/**");
+
+    channel.writeInbound(post("/upload", 10));
+    NettyBodyHandler.StreamedRequest req = channel.readInbound();
+    HttpContent chunk = chunk("12345");
+    channel.writeInbound(chunk);
+    assertFalse(channel.config().isAutoRead());
+
+    // application ignores the body
+    channel.writeOutbound(new DefaultFullHttpResponse(HttpVersion.HTTP_1_1,
+        HttpResponseStatus.OK));
+    assertTrue(channel.config().isAutoRead());
+    assertEquals(0, chunk.refCnt());
+
+    HttpContent last = last("67890");
+    channel.writeInbound(last);
+    assertEquals(0, last.refCnt());
+    assertEquals(-1, req.body().read());
+
+    // next request on same connection
+    channel.writeInbound(post("/upload", 1));
+    NettyBodyHandler.StreamedRequest next = channel.readInbound();
+    channel.writeInbound(last("x"));
+    assertEquals('x', next.body().read());
+  }
+
+  @Test(expected = ClosedChannelException.class)
+  public void closed() throws IOException {
+    EmbeddedChannel channel = channel(1024, "/**");
+
+    channel.writeInbound(post("/upload", 10));
+    NettyBodyHandler.StreamedRequest req = channel.readInbound();
+    channel.writeInbound(chunk("12345"));
+    channel.close();
+
+    req.body().read();
+  }
+
+  private static EmbeddedChannel channel(final int bufferSize, final String pattern) {
+    String[] parts = pattern.split(" ");
+    RoutePattern route = parts.length == 2
+        ? new RoutePattern(parts[0], parts[1])
+        : new RoutePattern("*", pattern);
+    return new EmbeddedChannel(new NettyBodyHandler(ImmutableList.of(route), bufferSize),
+        new HttpObjectAggregator(1024));
+  }
+
+  private static HttpRequest post(final String uri, final int len) {
+    HttpRequest req = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, uri);
+    req.headers().set(HttpHeaderNames.CONTENT_LENGTH, len);
+    return req;
+  }
+
+  private static HttpContent chunk(final String value) {
+    return new DefaultHttpContent(Unpooled.copiedBuffer(value, StandardCharsets.UTF_8));
+  }
+
+  private static HttpContent last(final String value) {
+    return new DefaultLastHttpContent(Unpooled.copiedBuffer(value, StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,147 @@
+package org.jooby.internal.netty;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.google.common.io.ByteStreams;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.HttpContent;
+
+public class NettyBodyTest {
+
+  @Test
+  public void read() throws IOException {
+    NettyBody body = new NettyBody(new EmbeddedChannel(), 1024);
+    body.offer(chunk("Hello "));
+    body.offer(last("World"));
+
+    assertEquals(11, body.available());
+    assertEquals('H', body.read());
+    assertEquals("ello World",
+        new String(ByteStreams.toByteArray(body), StandardCharsets.UTF_8));
+    assertEquals(-1, body.read());
+    assertEquals(0, body.read(new byte[1], 0, 0));
+  }
+
+  @Test
+  public void take() throws IOException {
+    NettyBody body = new NettyBody(new EmbeddedChannel(), 1024);
+    HttpContent chunk = chunk("a");
+    HttpContent last = last("");
+    body.offer(chunk);
+    body.offer(last);
+    assertEquals(chunk, body.take());
+    assertEquals(last, body.take());
+    assertNull(body.take());
+    chunk.release();
+    last.release();
+  }
+
+  @Test
+  public void backpressure() throws IOException {
+    EmbeddedChannel channel = new EmbeddedChannel();
+    NettyBody body = new NettyBody(channel, 8);
+    body.offer(chunk("1234"));
+    assertTrue(channel.config().isAutoRead());
+    body.offer(chunk("5678"));
+    assertFalse(channel.config().isAutoRead());
+
+    byte[] bytes = new byte[4];
+    assertEquals(4, body.read(bytes, 0, 4));
+    // 4 bytes queued, low water mark
+    assertTrue(channel.config().isAutoRead());
+    body.offer(last("9"));
+    assertEquals("56789", new String(ByteStreams.toByteArray(body), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void waitForChunks() throws Exception {
+    NettyBody body = new NettyBody(new EmbeddedChannel(), 1024);
+    CompletableFuture<String> result = CompletableFuture.supplyAsync(() -> {
+      try {
+        return new String(ByteStreams.toByteArray(body), StandardCharsets.UTF_8);
+      } catch (IOException ex) {
+        throw new IllegalStateException(ex);
+      }
+    });
+    body.offer(chunk("a"));
+    Thread.sleep(50L);
+    body.offer(chunk("b"));
+    body.offer(last("c"));
+    assertEquals("abc", result.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void discard() throws IOException {
+    EmbeddedChannel channel = new EmbeddedChannel();
+    NettyBody body = new NettyBody(channel, 2);
+    HttpContent queued = chunk("1234");
+    body.offer(queued);
+    assertFalse(channel.config().isAutoRead());
+
+    body.discard();
+    assertEquals(0, queued.refCnt());
+    assertTrue(channel.config().isAutoRead());
+
+    HttpContent late = last("5");
+    body.offer(late);
+    assertEquals(0, late.refCnt());
+    assertEquals(-1, body.read());
+  }
+
+  @Test
+  public void close() throws IOException {
+    NettyBody body = new NettyBody(new EmbeddedChannel(), 1024);
+    HttpContent chunk = chunk("1234");
+    body.offer(chunk);
+    assertEquals('1', body.read());
+    body.close();
+    assertEquals(0, chunk.refCnt());
+    assertEquals(-1, body.read());
+  }
+
+  @Test(expected = ClosedChannelException.class)
+  public void abort() throws IOException {
+    NettyBody body = new NettyBody(new EmbeddedChannel(), 1024);
+    HttpContent chunk = chunk("1234");
+    body.offer(chunk);
+    body.abort(new ClosedChannelException());
+    assertEquals(0, chunk.refCnt());
+    body.read();
+  }
+
+  @Test
+  public void abortAfterEnd() throws IOException {
+    NettyBody body = new NettyBody(new EmbeddedChannel(), 1024);
+    body.offer(last("1234"));
+    body.abort(new ClosedChannelException());
+    assertEquals(-1, body.read());
+  }
+
+  private static HttpContent chunk(final String value) {
+    return new DefaultHttpContent(buffer(value));
+  }
+
+  private static HttpContent last(final String value) {
+    return new DefaultLastHttpContent(buffer(value));
+  }
+
+  private static ByteBuf buffer(final String value) {
+    return Unpooled.copiedBuffer(value, StandardCharsets.UTF_8);
+  }
+}
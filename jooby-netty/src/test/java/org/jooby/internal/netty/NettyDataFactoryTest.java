@@ -0,0 +1,67 @@
+package org.jooby.internal.netty;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Test;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.multipart.DiskFileUpload;
+import io.netty.handler.codec.http.multipart.FileUpload;
+
+public class NettyDataFactoryTest {
+
+  private HttpRequest req = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST,
+      "/upload");
+
+  @Test
+  public void uploadToTmpdir() throws Exception {
+    File tmpdir = Files.createTempDirectory("netty-data").toFile();
+    try {
+      NettyDataFactory factory = new NettyDataFactory(tmpdir.getAbsolutePath());
+      FileUpload upload = factory.createFileUpload(req, "file", "f.txt", "text/plain", null,
+          StandardCharsets.UTF_8, 0);
+      upload.addContent(Unpooled.copiedBuffer("abc", StandardCharsets.UTF_8), true);
+
+      File file = upload.getFile();
+      assertEquals(tmpdir, file.getParentFile());
+      assertEquals("abc", upload.getString());
+      // JVM global directory is untouched
+      assertNull(DiskFileUpload.baseDirectory);
+
+      factory.cleanRequestHttpData(req);
+      assertFalse(file.exists());
+    } finally {
+      tmpdir.delete();
+    }
+  }
+
+  @Test
+  public void keepUploadRemovedFromClean() throws Exception {
+    File tmpdir = Files.createTempDirectory("netty-data").toFile();
+    try {
+      NettyDataFactory factory = new NettyDataFactory(tmpdir.getAbsolutePath());
+      FileUpload upload = factory.createFileUpload(req, "file", "f.txt", "text/plain", null,
+          StandardCharsets.UTF_8, 0);
+      upload.addContent(Unpooled.copiedBuffer("abc", StandardCharsets.UTF_8), true);
+      File file = upload.getFile();
+
+      factory.removeHttpDataFromClean(req, upload);
+      factory.cleanRequestHttpData(req);
+      assertTrue(file.exists());
+      upload.delete();
+    } finally {
+      tmpdir.delete();
+    }
+  }
+}
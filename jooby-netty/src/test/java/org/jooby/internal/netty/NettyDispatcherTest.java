@@ -0,0 +1,167 @@
+package org.jooby.internal.netty;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jooby.spi.HttpHandler;
+import org.jooby.spi.NativeRequest;
+import org.jooby.spi.NativeResponse;
+import org.junit.Test;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValueFactory;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+
+public class NettyDispatcherTest {
+
+  private Config conf = ConfigFactory.empty()
+      .withValue("application.tmpdir", ConfigValueFactory.fromAnyRef("target"))
+      .withValue("server.http.ResponseBufferSize", ConfigValueFactory.fromAnyRef("16k"))
+      .withValue("server.ws.MaxTextMessageSize", ConfigValueFactory.fromAnyRef("16k"))
+      .withValue("server.ws.MaxBinaryMessageSize", ConfigValueFactory.fromAnyRef("16k"));
+
+  private List<String> handled = new ArrayList<>();
+
+  private List<String> tested = new ArrayList<>();
+
+  private HttpHandler handler = new HttpHandler() {
+    @Override
+    public void handle(final NativeRequest request, final NativeResponse response)
+        throws Exception {
+      handled.add(request.path());
+    }
+
+    @Override
+    public boolean nonBlocking(final String method, final String path) {
+      tested.add(method + " " + path);
+      return method.equals("GET") && path.startsWith("/io");
+    }
+  };
+
+  @Test
+  public void inline() {
+    AtomicInteger pending = new AtomicInteger();
+    EmbeddedChannel channel = channel(pending);
+
+    channel.writeInbound(get("/io/ping?x=1"));
+
+    assertEquals("[/io/ping]", handled.toString());
+    assertEquals("[GET /io/ping]", tested.toString());
+    assertNull(channel.readInbound());
+    assertEquals(0, pending.get());
+  }
+
+  @Test
+  public void worker() {
+    AtomicInteger pending = new AtomicInteger();
+    EmbeddedChannel channel = channel(pending);
+
+    channel.writeInbound(get("/db"));
+    assertEquals("[]", handled.toString());
+    HttpRequest req = channel.readInbound();
+    assertEquals("/db", req.uri());
+    assertEquals(1, pending.get());
+
+    // wait for previous request
+    channel.writeInbound(get("/io/ping"));
+    assertEquals("[]", handled.toString());
+    req = channel.readInbound();
+    assertEquals("/io/ping", req.uri());
+    assertEquals(2, pending.get());
+  }
+
+  @Test
+  public void pendingUntilResponseEnds() throws Exception {
+    AtomicInteger pending = new AtomicInteger();
+    List<NativeResponse> deferred = new ArrayList<>();
+    HttpHandler worker = new HttpHandler() {
+      @Override
+      public void handle(final NativeRequest request, final NativeResponse response)
+          throws Exception {
+        handled.add(request.path());
+        if (request.path().equals("/db")) {
+          // async response
+          deferred.add(response);
+        } else {
+          response.end();
+        }
+      }
+    };
+    HttpHandler io = new HttpHandler() {
+      @Override
+      public void handle(final NativeRequest request, final NativeResponse response)
+          throws Exception {
+        handled.add("io:" + request.path());
+        response.end();
+      }
+    };
+    EmbeddedChannel channel = new EmbeddedChannel(
+        new NettyDispatcher(handler, new NettyHandler(io, conf), pending),
+        new NettyHandler(worker, conf, pending));
+
+    channel.writeInbound(get("/db"));
+    channel.runPendingTasks();
+    assertEquals(1, pending.get());
+
+    // previous response not written yet, go to the worker
+    channel.writeInbound(get("/io/ping"));
+    channel.runPendingTasks();
+    assertEquals("[/db, /io/ping]", handled.toString());
+    assertEquals(1, pending.get());
+
+    deferred.get(0).end();
+    channel.runPendingTasks();
+    assertEquals(0, pending.get());
+
+    channel.writeInbound(get("/io/ping"));
+    assertEquals("[/db, /io/ping, io:/io/ping]", handled.toString());
+  }
+
+  @Test
+  public void badRequest() {
+    AtomicInteger pending = new AtomicInteger();
+    EmbeddedChannel channel = new EmbeddedChannel(
+        new NettyDispatcher(handler, new NettyHandler(handler, conf), pending),
+        new NettyHandler(handler, conf, pending));
+
+    channel.writeInbound(get("/io/%zz"));
+    channel.runPendingTasks();
+
+    FullHttpResponse rsp = channel.readOutbound();
+    assertEquals(HttpResponseStatus.BAD_REQUEST, rsp.status());
+    assertEquals("[]", handled.toString());
+    assertEquals(0, pending.get());
+  }
+
+  @Test
+  public void decodePath() {
+    EmbeddedChannel channel = channel(new AtomicInteger());
+
+    channel.writeInbound(get("/io/a%20b"));
+    channel.writeInbound(get("/io/%zz"));
+
+    assertEquals("[GET /io/a b]", tested.toString());
+    assertEquals("[/io/a b]", handled.toString());
+  }
+
+  private EmbeddedChannel channel(final AtomicInteger pending) {
+    return new EmbeddedChannel(
+        new NettyDispatcher(handler, new NettyHandler(handler, conf), pending));
+  }
+
+  private HttpRequest get(final String uri) {
+    return new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, uri);
+  }
+}
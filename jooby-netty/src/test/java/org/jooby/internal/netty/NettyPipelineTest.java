@@ -8,7 +8,9 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 
 import org.jooby.internal.netty.NettyPipeline.Http2OrHttpHandler;
@@ -452,11 +454,20 @@ public class NettyPipelineTest {
 
   private Block jooby(final Config conf) {
     return unit -> {
-      NettyHandler handler = unit.constructor(NettyHandler.class)
+      NettyHandler inline = unit.constructor(NettyHandler.class)
           .build(unit.get(HttpHandler.class), conf);
+
+      NettyDispatcher dispatcher = unit.constructor(NettyDispatcher.class)
+          .args(HttpHandler.class, NettyHandler.class, AtomicInteger.class)
+          .build(eq(unit.get(HttpHandler.class)), eq(inline), isA(AtomicInteger.class));
+
+      NettyHandler handler = unit.constructor(NettyHandler.class)
+          .args(HttpHandler.class, Config.class, AtomicInteger.class)
+          .build(eq(unit.get(HttpHandler.class)), eq(conf), isA(AtomicInteger.class));
       unit.registerMock(NettyHandler.class, handler);
 
       ChannelPipeline pipeline = unit.get(ChannelPipeline.class);
+      expect(pipeline.addLast("dispatcher", dispatcher)).andReturn(pipeline);
       expect(pipeline.addLast(unit.get(EventExecutorGroup.class), "jooby", handler))
           .andReturn(pipeline);
     };
@@ -533,6 +544,8 @@ public class NettyPipelineTest {
         .withValue("netty.http.MaxChunkSize", ConfigValueFactory.fromAnyRef(k))
         .withValue("netty.http.MaxContentLength", ConfigValueFactory.fromAnyRef(l))
         .withValue("netty.http.IdleTimeout", ConfigValueFactory.fromAnyRef(m))
+        .withValue("netty.http.Streaming", ConfigValueFactory.fromAnyRef(Collections.emptyList()))
+        .withValue("netty.http.StreamingBuffer", ConfigValueFactory.fromAnyRef("64k"))
         .withValue("server.http2.enabled", ConfigValueFactory.fromAnyRef(http2));
   }
 }
@@ -1,11 +1,11 @@
 package org.jooby.internal.netty;
 
 import static io.netty.channel.ChannelFutureListener.CLOSE;
-import static org.easymock.EasyMock.aryEq;
 import static org.easymock.EasyMock.eq;
 import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.isA;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -28,6 +28,8 @@ import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufOutputStream;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
@@ -140,16 +142,36 @@ public class NettyResponseTest {
     expect(future.addListener(CLOSE)).andReturn(future);
   };
 
+  private Block keepAliveChunked = unit -> {
+    DefaultHttpHeaders headers = unit.get(DefaultHttpHeaders.class);
+
+    expect(headers.contains(HttpHeaderNames.CONTENT_LENGTH)).andReturn(false);
+    expect(headers.contains(HttpHeaderNames.TRANSFER_ENCODING, HttpHeaderValues.CHUNKED, true))
+        .andReturn(true);
+  };
+
   private Block noKeepAliveNoLen = unit -> {
     DefaultHttpHeaders headers = unit.get(DefaultHttpHeaders.class);
 
     expect(headers.contains(HttpHeaderNames.CONTENT_LENGTH)).andReturn(false);
+    expect(headers.contains(HttpHeaderNames.TRANSFER_ENCODING, HttpHeaderValues.CHUNKED, true))
+        .andReturn(false);
 
     ChannelFuture future = unit.get(ChannelFuture.class);
 
     expect(future.addListener(CLOSE)).andReturn(future);
   };
 
+  private Block alloc(final int size) {
+    return unit -> {
+      ByteBufAllocator alloc = unit.mock(ByteBufAllocator.class);
+      expect(alloc.buffer(size)).andReturn(unit.get(ByteBuf.class));
+
+      ChannelHandlerContext ctx = unit.get(ChannelHandlerContext.class);
+      expect(ctx.alloc()).andReturn(alloc);
+    };
+  }
+
   @SuppressWarnings("unchecked")
   private Block async = unit -> {
     Channel channel = unit.get(Channel.class);
@@ -393,19 +415,83 @@ public class NettyResponseTest {
         });
   }
 
+  @Test
+  public void sendWriter() throws Exception {
+    boolean keepAlive = true;
+    new MockUnit(ChannelHandlerContext.class, ByteBuf.class, ChannelFuture.class)
+        .expect(channel)
+        .expect(unit -> {
+          ByteBufAllocator alloc = unit.mock(ByteBufAllocator.class);
+          expect(alloc.buffer()).andReturn(unit.get(ByteBuf.class));
+
+          ChannelHandlerContext ctx = unit.get(ChannelHandlerContext.class);
+          expect(ctx.alloc()).andReturn(alloc);
+        })
+        .expect(unit -> {
+          ByteBufOutputStream out = unit.mockConstructor(ByteBufOutputStream.class,
+              new Class[]{ByteBuf.class }, unit.get(ByteBuf.class));
+          out.write(bytes);
+        })
+        .expect(headers)
+        .expect(deflen)
+        .expect(connkeep)
+        .expect(fullResponse)
+        .expect(async)
+        .expect(unit -> {
+          ChannelFuture future = unit.get(ChannelFuture.class);
+
+          ChannelHandlerContext ctx = unit.get(ChannelHandlerContext.class);
+          expect(ctx.write(unit.get(HttpResponse.class))).andReturn(future);
+        })
+        .expect(keeAliveWithLen)
+        .run(unit -> {
+          new NettyResponse(unit.get(ChannelHandlerContext.class), bufferSize, keepAlive)
+              .send(out -> out.write(bytes));
+        });
+  }
+
+  @Test
+  public void sendWriterErr() throws Exception {
+    boolean keepAlive = true;
+    new MockUnit(ChannelHandlerContext.class, ByteBuf.class)
+        .expect(unit -> {
+          ByteBuf buffer = unit.get(ByteBuf.class);
+          expect(buffer.release()).andReturn(true);
+
+          ByteBufAllocator alloc = unit.mock(ByteBufAllocator.class);
+          expect(alloc.buffer()).andReturn(buffer);
+
+          ChannelHandlerContext ctx = unit.get(ChannelHandlerContext.class);
+          expect(ctx.alloc()).andReturn(alloc);
+
+          unit.mockConstructor(ByteBufOutputStream.class, new Class[]{ByteBuf.class }, buffer);
+        })
+        .run(unit -> {
+          try {
+            new NettyResponse(unit.get(ChannelHandlerContext.class), bufferSize, keepAlive)
+                .send(out -> {
+                  throw new IOException("intentional err");
+                });
+            fail();
+          } catch (IOException x) {
+            assertEquals("intentional err", x.getMessage());
+          }
+        });
+  }
+
   @Test
   public void sendEmptyStream() throws Exception {
     boolean keepAlive = false;
     new MockUnit(ChannelHandlerContext.class, ByteBuf.class, ChannelFuture.class, InputStream.class)
+        .expect(alloc(bufferSize))
         .expect(unit -> {
-          InputStream stream = unit.get(InputStream.class);
-          expect(stream.read(unit.capture(byte[].class), eq(0), eq(bufferSize))).andReturn(-1);
+          ByteBuf buffer = unit.get(ByteBuf.class);
+          expect(buffer.writeBytes(unit.get(InputStream.class), bufferSize)).andReturn(-1);
+          expect(buffer.release()).andReturn(true);
         })
         .run(unit -> {
           new NettyResponse(unit.get(ChannelHandlerContext.class), bufferSize, keepAlive)
               .send(unit.get(InputStream.class));
-        }, unit -> {
-          assertEquals(bufferSize, unit.captured(byte[].class).iterator().next().length);
         });
   }
 
@@ -414,19 +500,12 @@ public class NettyResponseTest {
     boolean keepAlive = false;
     new MockUnit(ChannelHandlerContext.class, ByteBuf.class, ChannelFuture.class, InputStream.class)
         .expect(channel)
-        .expect(
-            unit -> {
-              InputStream stream = unit.get(InputStream.class);
-              expect(stream.read(unit.capture(byte[].class), eq(0), eq(bytes.length))).andReturn(
-                  bytes.length / 2);
-              expect(stream.read(unit.capture(byte[].class), eq(2), eq(3))).andReturn(-1);
-            })
+        .expect(alloc(bytes.length))
         .expect(unit -> {
+          InputStream stream = unit.get(InputStream.class);
           ByteBuf buffer = unit.get(ByteBuf.class);
-
-          unit.mockStatic(Unpooled.class);
-          expect(Unpooled.wrappedBuffer(aryEq(new byte[bytes.length]), eq(0),
-              eq(bytes.length / 2))).andReturn(buffer);
+          expect(buffer.writeBytes(stream, bytes.length)).andReturn(bytes.length / 2);
+          expect(buffer.writeBytes(stream, 3)).andReturn(-1);
         })
         .expect(headers)
         .expect(len)
@@ -451,17 +530,10 @@ public class NettyResponseTest {
     int bufferSize = 10;
     new MockUnit(ChannelHandlerContext.class, ByteBuf.class, ChannelFuture.class, InputStream.class)
         .expect(channel)
-        .expect(unit -> {
-          InputStream stream = unit.get(InputStream.class);
-          expect(stream.read(unit.capture(byte[].class), eq(0), eq(bufferSize))).andReturn(
-              bufferSize);
-        })
+        .expect(alloc(bufferSize))
         .expect(unit -> {
           ByteBuf buffer = unit.get(ByteBuf.class);
-
-          unit.mockStatic(Unpooled.class);
-          expect(Unpooled.wrappedBuffer(aryEq(new byte[bufferSize]), eq(0), eq(bufferSize)))
-              .andReturn(buffer);
+          expect(buffer.writeBytes(unit.get(InputStream.class), bufferSize)).andReturn(bufferSize);
         })
         .expect(headers)
         .expect(unit -> {
@@ -470,6 +542,7 @@ public class NettyResponseTest {
           expect(headers.set(HttpHeaderNames.TRANSFER_ENCODING, HttpHeaderValues.CHUNKED))
               .andReturn(headers);
         })
+        .expect(connkeep)
         .expect(setNeedFlush)
         .expect(unit -> {
           DefaultHttpResponse rsp = unit.mockConstructor(DefaultHttpResponse.class,
@@ -526,7 +599,7 @@ public class NettyResponseTest {
           ChannelHandlerContext ctx = unit.get(ChannelHandlerContext.class);
           expect(ctx.pipeline()).andReturn(pipeline);
         })
-        .expect(noKeepAliveNoLen)
+        .expect(keepAliveChunked)
         .run(unit -> {
           new NettyResponse(unit.get(ChannelHandlerContext.class), bufferSize, keepAlive)
               .send(unit.get(InputStream.class));
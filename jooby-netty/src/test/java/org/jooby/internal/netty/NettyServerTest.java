@@ -4,6 +4,7 @@ import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.isA;
 
 import java.io.File;
+import java.util.Collections;
 import java.util.concurrent.ThreadFactory;
 
 import org.jooby.spi.HttpHandler;
@@ -59,6 +60,8 @@ public class NettyServerTest {
       .withValue("netty.http.MaxHeaderSize", ConfigValueFactory.fromAnyRef("8k"))
       .withValue("netty.http.MaxChunkSize", ConfigValueFactory.fromAnyRef("8k"))
       .withValue("netty.http.IdleTimeout", ConfigValueFactory.fromAnyRef("30s"))
+      .withValue("netty.http.Streaming", ConfigValueFactory.fromAnyRef(Collections.emptyList()))
+      .withValue("netty.http.StreamingBuffer", ConfigValueFactory.fromAnyRef("64k"))
       .withValue("netty.options.CONNECT_TIMEOUT_MILLIS", ConfigValueFactory.fromAnyRef(1000))
       .withValue("application.port", ConfigValueFactory.fromAnyRef(6789))
       .withValue("application.host", ConfigValueFactory.fromAnyRef("0.0.0.0"));
@@ -18,8 +18,6 @@
  */
 package org.jooby.pebble;
 
-import java.io.StringWriter;
-import java.io.Writer;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -42,7 +40,6 @@ class PebbleRenderer implements View.Engine {
   public void render(final View view, final Renderer.Context ctx) throws Exception {
     String vname = view.name();
     PebbleTemplate template = pebble.getTemplate(vname);
-    Writer writer = new StringWriter();
     Map<String, Object> model = new HashMap<>();
     // push locals
     model.putAll(ctx.locals());
@@ -52,9 +49,8 @@ class PebbleRenderer implements View.Engine {
     model.putAll(view.model());
 
     // render and send
-    template.evaluate(writer, model);
     ctx.type(MediaType.html)
-        .send(writer.toString());
+        .write(writer -> template.evaluate(writer, model));
   }
 
   @Override
@@ -3,7 +3,7 @@ package org.jooby.pebble;
 import static org.easymock.EasyMock.expect;
 import static org.junit.Assert.assertEquals;
 
-import java.io.StringWriter;
+import java.io.Writer;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -26,7 +26,7 @@ public class PebbleRendererTest {
   @SuppressWarnings({"rawtypes", "unchecked" })
   @Test
   public void render() throws Exception {
-    new MockUnit(PebbleEngine.class, View.class, Renderer.Context.class)
+    new MockUnit(PebbleEngine.class, View.class, Renderer.Context.class, Writer.class)
         .expect(unit -> {
           Map vmodel = unit.mock(Map.class);
           Map<String, Object> locals = unit.mock(Map.class);
@@ -40,15 +40,13 @@ public class PebbleRendererTest {
           expect(view.name()).andReturn("vname");
           expect(view.model()).andReturn(vmodel);
 
-          StringWriter writer = unit.constructor(StringWriter.class).build();
-
           Renderer.Context ctx = unit.get(Renderer.Context.class);
           expect(ctx.locals()).andReturn(locals);
           expect(ctx.type(MediaType.html)).andReturn(ctx);
-          ctx.send(writer.toString());
+          ctx.write(unit.capture(Renderer.TextWriter.class));
 
           PebbleTemplate template = unit.mock(PebbleTemplate.class);
-          template.evaluate(writer, model);
+          template.evaluate(unit.get(Writer.class), model);
 
           PebbleEngine pebble = unit.get(PebbleEngine.class);
           expect(pebble.getTemplate("vname")).andReturn(template);
@@ -57,6 +55,9 @@ public class PebbleRendererTest {
           PebbleRenderer engine = new PebbleRenderer(unit.get(PebbleEngine.class));
           engine.render(unit.get(View.class), unit.get(Renderer.Context.class));
           assertEquals("pebble", engine.toString());
+        }, unit -> {
+          unit.captured(Renderer.TextWriter.class).iterator().next()
+              .write(unit.get(Writer.class));
         });
   }
 }
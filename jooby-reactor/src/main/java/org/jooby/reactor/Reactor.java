@@ -30,6 +30,9 @@ import org.jooby.Deferred;
 import org.jooby.Env;
 import org.jooby.Jooby;
 import org.jooby.Route;
+import org.jooby.Streaming;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
 
 import com.google.inject.Binder;
 import com.typesafe.config.Config;
@@ -118,6 +121,22 @@ import reactor.core.publisher.Mono;
  * <p>
  * Here every Flux/Mono from a route handler will publish on the <code>concurrent</code> scheduler.
  * </p>
+ * <h2>streaming</h2>
+ * <p>
+ * A {@link Flux} resolves to a single value. Routes marked with
+ * {@link Route.Props#stream(Streaming.Format)} write all the elements as they are emitted, as a
+ * JSON array, new line delimited JSON or server-sent events:
+ * </p>
+ * <pre>{@code
+ * {
+ *   get("/rows", req -> Flux...)
+ *     .stream(Streaming.Format.NDJSON);
+ * }
+ * }</pre>
+ * <p>
+ * Elements are requested as writes complete, so a slow client slows down the flux, see
+ * {@link Streaming}.
+ * </p>
  *
  * @author edgar
  * @since 1.0.0.CR3
@@ -125,6 +144,45 @@ import reactor.core.publisher.Mono;
 @SuppressWarnings("rawtypes")
 public class Reactor implements Jooby.Module {
 
+  static class StreamSubscriber implements Subscriber<Object> {
+
+    private Streaming.Subscriber subscriber;
+
+    public StreamSubscriber(final Streaming.Subscriber subscriber) {
+      this.subscriber = subscriber;
+    }
+
+    @Override
+    public void onSubscribe(final Subscription subscription) {
+      subscriber.onSubscribe(new Streaming.Subscription() {
+        @Override
+        public void request(final long n) {
+          subscription.request(n);
+        }
+
+        @Override
+        public void cancel() {
+          subscription.cancel();
+        }
+      });
+    }
+
+    @Override
+    public void onNext(final Object value) {
+      subscriber.onNext(value);
+    }
+
+    @Override
+    public void onError(final Throwable cause) {
+      subscriber.onError(cause);
+    }
+
+    @Override
+    public void onComplete() {
+      subscriber.onComplete();
+    }
+  }
+
   private Function<Flux, Flux> flux = Function.identity();
 
   private Function<Mono, Mono> mono = Function.identity();
@@ -171,8 +229,9 @@ public class Reactor implements Jooby.Module {
     return Route.Mapper.create("reactor", value -> Match(value).of(
         /** Flux: */
         Case(instanceOf(Flux.class),
-            it -> new Deferred(deferred -> flux.apply(it)
-                .consume(deferred::set, deferred::set))),
+            it -> Streaming.deferred(
+                subscriber -> flux.apply(it).subscribe(new StreamSubscriber(subscriber)),
+                deferred -> flux.apply(it).consume(deferred::set, deferred::set))),
         /** Mono: */
         Case(instanceOf(Mono.class),
             it -> new Deferred(deferred -> mono.apply(it)
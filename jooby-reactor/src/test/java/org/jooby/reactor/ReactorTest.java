@@ -18,6 +18,7 @@ import org.junit.runner.RunWith;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.inject.Binder;
 import com.typesafe.config.Config;
 
@@ -44,6 +45,14 @@ public class ReactorTest {
     unit.registerMock(Flux.class, flux);
   };
 
+  private Block route = unit -> {
+    Route route = unit.mock(Route.class);
+    expect(route.attributes()).andReturn(ImmutableMap.of());
+
+    Request req = unit.get(Request.class);
+    expect(req.route()).andReturn(route);
+  };
+
   @SuppressWarnings({"rawtypes", "unchecked" })
   private Block mono = unit -> {
     Mono mono = unit.powerMock(Mono.class);
@@ -83,6 +92,7 @@ public class ReactorTest {
     new MockUnit(Env.class, Config.class, Binder.class, Router.class, Request.class)
         .expect(map)
         .expect(flux)
+        .expect(route)
         .run(unit -> {
           new Reactor()
               .configure(unit.get(Env.class), unit.get(Config.class), unit.get(Binder.class));
@@ -101,6 +111,7 @@ public class ReactorTest {
         Request.class)
             .expect(map)
             .expect(flux)
+            .expect(route)
             .expect(unit -> {
               Flux flux = unit.get(Flux.class);
               expect(flux.publishOn(unit.get(Scheduler.class))).andReturn(flux);
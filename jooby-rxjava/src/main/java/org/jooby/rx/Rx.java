@@ -33,6 +33,7 @@ import java.util.function.Function;
 import org.jooby.Deferred;
 import org.jooby.Env;
 import org.jooby.Route;
+import org.jooby.Streaming;
 import org.jooby.exec.Exec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -141,6 +142,24 @@ import rx.schedulers.Schedulers;
  * scheduler.
  * </p>
  *
+ * <h2>streaming</h2>
+ * <p>
+ * An {@link Observable} resolves to its first element. Routes marked with
+ * {@link Route.Props#stream(Streaming.Format)} write all the elements as they are emitted, as a
+ * JSON array, new line delimited JSON or server-sent events:
+ * </p>
+ *
+ * <pre>{@code
+ * {
+ *   get("/rows", req -> Observable...)
+ *     .stream(Streaming.Format.NDJSON);
+ * }
+ * }</pre>
+ *
+ * <p>
+ * Elements are requested as writes complete (rxjava back pressure), see {@link Streaming}.
+ * </p>
+ *
  * <h2>schedulers</h2>
  * <p>
  * This module provides the default {@link Scheduler} from
@@ -207,6 +226,45 @@ public class Rx extends Exec {
     }
   }
 
+  static class StreamSubscriber extends Subscriber<Object> {
+
+    private Streaming.Subscriber subscriber;
+
+    public StreamSubscriber(final Streaming.Subscriber subscriber) {
+      this.subscriber = subscriber;
+    }
+
+    @Override
+    public void onStart() {
+      subscriber.onSubscribe(new Streaming.Subscription() {
+        @Override
+        public void request(final long n) {
+          StreamSubscriber.this.request(n);
+        }
+
+        @Override
+        public void cancel() {
+          unsubscribe();
+        }
+      });
+    }
+
+    @Override
+    public void onCompleted() {
+      subscriber.onComplete();
+    }
+
+    @Override
+    public void onError(final Throwable cause) {
+      subscriber.onError(cause);
+    }
+
+    @Override
+    public void onNext(final Object value) {
+      subscriber.onNext(value);
+    }
+  }
+
   /** The logging system. */
   private final Logger log = LoggerFactory.getLogger(getClass());
 
@@ -333,8 +391,9 @@ public class Rx extends Exec {
     return Route.Mapper.create("rx", v -> Match(v).of(
         /** Observable : */
         Case(instanceOf(Observable.class),
-            it -> new Deferred(deferred -> observable.apply(it)
-                .subscribe(new DeferredSubscriber(deferred)))),
+            it -> Streaming.deferred(
+                subscriber -> observable.apply(it).subscribe(new StreamSubscriber(subscriber)),
+                deferred -> observable.apply(it).subscribe(new DeferredSubscriber(deferred)))),
         /** Single : */
         Case(instanceOf(Single.class),
             it -> new Deferred(deferred -> single.apply(it)
@@ -7,6 +7,8 @@ import static org.junit.Assert.assertEquals;
 import java.util.function.Function;
 
 import org.jooby.Deferred;
+import org.jooby.Request;
+import org.jooby.Route;
 import org.jooby.rx.Rx.DeferredSubscriber;
 import org.jooby.test.MockUnit;
 import org.jooby.test.MockUnit.Block;
@@ -15,6 +17,8 @@ import org.junit.runner.RunWith;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import com.google.common.collect.ImmutableMap;
+
 import rx.Completable;
 import rx.Observable;
 import rx.Scheduler;
@@ -74,6 +78,14 @@ public class RxMapperTest {
     value.subscribe(subscriber);
   };
 
+  private Block route = unit -> {
+    Route route = unit.get(Route.class);
+    expect(route.attributes()).andReturn(ImmutableMap.of());
+
+    Request req = unit.get(Request.class);
+    expect(req.route()).andReturn(route);
+  };
+
   private Block scheduler = unit -> {
     Scheduler scheduler = unit.mock(Scheduler.class);
     unit.registerMock(Scheduler.class, scheduler);
@@ -81,20 +93,22 @@ public class RxMapperTest {
 
   @Test
   public void rxObservable() throws Exception {
-    new MockUnit(Observable.class, Subscription.class)
+    new MockUnit(Observable.class, Subscription.class, Request.class, Route.class)
+        .expect(route)
         .expect(obsSubscribeInit)
         .expect(deferredSubscriber)
         .expect(obsSubscribe)
         .run(unit -> {
           Deferred deferred = (Deferred) Rx.rx().map(unit.get(Observable.class));
-          deferred.handler(null, (r, x) -> {
+          deferred.handler(unit.get(Request.class), (r, x) -> {
           });
         });
   }
 
   @Test
   public void rxObservableWithScheduler() throws Exception {
-    new MockUnit(Observable.class, Subscription.class)
+    new MockUnit(Observable.class, Subscription.class, Request.class, Route.class)
+        .expect(route)
         .expect(obsSubscribeInit)
         .expect(deferredSubscriber)
         .expect(scheduler)
@@ -108,7 +122,7 @@ public class RxMapperTest {
           Deferred deferred = (Deferred) Rx
               .rx(o -> o.observeOn(unit.get(Scheduler.class)), Function.identity())
               .map(unit.get(Observable.class));
-          deferred.handler(null, (r, x) -> {
+          deferred.handler(unit.get(Request.class), (r, x) -> {
           });
         });
   }
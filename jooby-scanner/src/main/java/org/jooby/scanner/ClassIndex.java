@@ -0,0 +1,314 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.scanner;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.jooby.internal.RouteMetadata;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+
+/**
+ * Precomputed type information of application classes, so {@link Scanner} doesn't have to scan the
+ * classpath on startup.
+ *
+ * <p>
+ * The index is written at build time (see {@link #write(ClassLoader, Path)}) into
+ * <code>META-INF/jooby/classes.idx</code>. Each line has a class name, all its super types
+ * (super classes and interfaces) and its annotations. MVC metadata of controllers (parameter names
+ * and line numbers) is written into {@link RouteMetadata#INDEX}.
+ * </p>
+ * <p>
+ * The index also records its roots: the top most packages of the indexed classes. An index is
+ * trusted for packages inside its roots only, see {@link #covers(String)}, other packages must be
+ * scanned.
+ * </p>
+ *
+ * @author edgar
+ * @since 1.0.1
+ */
+public class ClassIndex {
+
+  /** Index location. */
+  public static final String LOCATION = "META-INF/jooby/classes.idx";
+
+  private static final String PATH = org.jooby.mvc.Path.class.getName();
+
+  private static final char SEP = ' ';
+
+  private static final String NONE = "-";
+
+  private static final String ROOTS = "@roots";
+
+  private static final Splitter FIELDS = Splitter.on(SEP).omitEmptyStrings();
+
+  private static final Splitter NAMES = Splitter.on(',').omitEmptyStrings();
+
+  /** Class name to [super types, annotations]. */
+  private final Map<String, List<Set<String>>> classes;
+
+  /** Top most packages of the indexed classes. */
+  private final Set<String> roots;
+
+  private ClassIndex(final Map<String, List<Set<String>>> classes, final Set<String> roots) {
+    this.classes = classes;
+    this.roots = roots;
+  }
+
+  /**
+   * @return Names of all the indexed classes.
+   */
+  public Set<String> classes() {
+    return Collections.unmodifiableSet(classes.keySet());
+  }
+
+  /**
+   * @return Top most packages of the indexed classes.
+   */
+  public Set<String> roots() {
+    return Collections.unmodifiableSet(roots);
+  }
+
+  /**
+   * True when the given package is inside one of the index roots, so the index knows all of its
+   * classes. Packages outside the roots (like a parent of a root or packages from dependencies)
+   * must be scanned.
+   *
+   * @param pkg Package name.
+   * @return True when the index covers the package.
+   */
+  public boolean covers(final String pkg) {
+    return roots.stream().anyMatch(root -> pkg.equals(root) || pkg.startsWith(root + "."));
+  }
+
+  /**
+   * Find classes annotated with the given annotation.
+   *
+   * @param annotation Annotation type.
+   * @return Class names.
+   */
+  public List<String> annotatedWith(final Class<?> annotation) {
+    return find(annotation.getName(), 1);
+  }
+
+  /**
+   * Find classes implementing or extending the given type, directly or not.
+   *
+   * @param type Interface or class.
+   * @return Class names.
+   */
+  public List<String> subtypesOf(final Class<?> type) {
+    return find(type.getName(), 0);
+  }
+
+  private List<String> find(final String name, final int field) {
+    return classes.entrySet().stream()
+        .filter(e -> e.getValue().get(field).contains(name))
+        .map(Map.Entry::getKey)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Merge all the indexes found in the class loader.
+   *
+   * @param loader Class loader.
+   * @return An index or empty if there is no index in the classpath.
+   * @throws IOException If an index can't be read.
+   */
+  public static Optional<ClassIndex> load(final ClassLoader loader) throws IOException {
+    Enumeration<URL> resources = loader.getResources(LOCATION);
+    if (!resources.hasMoreElements()) {
+      return Optional.empty();
+    }
+    Map<String, List<Set<String>>> classes = new LinkedHashMap<>();
+    Set<String> roots = new LinkedHashSet<>();
+    while (resources.hasMoreElements()) {
+      try (InputStream in = resources.nextElement().openStream()) {
+        classes.putAll(read(new InputStreamReader(in, StandardCharsets.UTF_8), roots));
+      }
+    }
+    return Optional.of(new ClassIndex(classes, roots));
+  }
+
+  static Map<String, List<Set<String>>> read(final Reader reader, final Set<String> roots)
+      throws IOException {
+    Map<String, List<Set<String>>> classes = new LinkedHashMap<>();
+    BufferedReader lines = new BufferedReader(reader);
+    String line;
+    while ((line = lines.readLine()) != null) {
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      List<String> fields = FIELDS.splitToList(line);
+      if (fields.get(0).equals(ROOTS)) {
+        roots.addAll(names(fields.get(1)));
+        continue;
+      }
+      List<Set<String>> info = new ArrayList<>(2);
+      info.add(names(fields.get(1)));
+      info.add(names(fields.get(2)));
+      classes.put(fields.get(0), info);
+    }
+    return classes;
+  }
+
+  private static Set<String> names(final String field) {
+    if (field.equals(NONE)) {
+      return Collections.emptySet();
+    }
+    return new LinkedHashSet<>(NAMES.splitToList(field));
+  }
+
+  /**
+   * Index all the classes of a directory. Classes are loaded (but not initialized) from the
+   * given class loader, so it must see the directory and the application dependencies.
+   *
+   * @param loader Application class loader.
+   * @param classes Output directory of the application, like <code>target/classes</code>.
+   * @return Number of indexed classes.
+   * @throws IOException If the index can't be written.
+   */
+  public static int write(final ClassLoader loader, final Path classes) throws IOException {
+    List<String> names;
+    try (Stream<Path> files = Files.walk(classes)) {
+      names = files
+          .filter(f -> f.toString().endsWith(".class"))
+          .map(f -> classes.relativize(f).toString())
+          .filter(f -> !f.equals("module-info.class") && !f.endsWith("package-info.class"))
+          .map(f -> f.substring(0, f.length() - ".class".length()).replace('\\', '/')
+              .replace('/', '.'))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+
+    Path location = classes.resolve(LOCATION);
+    Files.createDirectories(location.getParent());
+    Properties mvc = new Properties();
+    int count = 0;
+    try (Writer writer = Files.newBufferedWriter(location, StandardCharsets.UTF_8)) {
+      writer.write("# " + ClassIndex.class.getName() + "\n");
+      writer.write(ROOTS + SEP + join(roots(names)) + "\n");
+      for (String name : names) {
+        String line;
+        try {
+          Class<?> type = Class.forName(name, false, loader);
+          line = name + SEP + join(supertypes(type)) + SEP
+              + join(Stream.of(type.getDeclaredAnnotations())
+                  .map(a -> a.annotationType().getName())
+                  .collect(Collectors.toList()));
+          if (controller(type)) {
+            RouteMetadata.index(type, mvc);
+          }
+        } catch (ClassNotFoundException | LinkageError ex) {
+          // missing optional dependency, not our business
+          continue;
+        }
+        writer.write(line);
+        writer.write('\n');
+        count += 1;
+      }
+    }
+    if (mvc.size() > 0) {
+      try (OutputStream out = Files.newOutputStream(classes.resolve(RouteMetadata.INDEX))) {
+        mvc.store(out, null);
+      }
+    }
+    return count;
+  }
+
+  private static Set<String> roots(final List<String> names) {
+    Set<String> packages = names.stream()
+        .filter(name -> name.indexOf('.') > 0)
+        .map(name -> name.substring(0, name.lastIndexOf('.')))
+        .collect(Collectors.toCollection(TreeSet::new));
+    // sorted, so a parent package comes before its sub packages
+    Set<String> roots = new LinkedHashSet<>();
+    for (String pkg : packages) {
+      if (roots.stream().noneMatch(root -> pkg.startsWith(root + "."))) {
+        roots.add(pkg);
+      }
+    }
+    return roots;
+  }
+
+  private static String join(final Iterable<String> names) {
+    String value = Joiner.on(',').join(names);
+    return value.isEmpty() ? NONE : value;
+  }
+
+  private static Set<String> supertypes(final Class<?> type) {
+    Set<String> result = new LinkedHashSet<>();
+    supertypes(type, result);
+    result.remove(type.getName());
+    result.remove(Object.class.getName());
+    return result;
+  }
+
+  private static void supertypes(final Class<?> type, final Set<String> result) {
+    if (type == null || !result.add(type.getName())) {
+      return;
+    }
+    supertypes(type.getSuperclass(), result);
+    for (Class<?> i : type.getInterfaces()) {
+      supertypes(i, result);
+    }
+  }
+
+  private static boolean controller(final Class<?> type) {
+    Predicate<Annotation[]> path = annotations -> Stream.of(annotations)
+        .anyMatch(a -> a.annotationType().getName().equals(PATH));
+    if (path.test(type.getAnnotations())) {
+      return true;
+    }
+    for (Method method : type.getDeclaredMethods()) {
+      if (path.test(method.getAnnotations())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+}
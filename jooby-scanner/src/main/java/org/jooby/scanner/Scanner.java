@@ -25,6 +25,7 @@ import static javaslang.Predicates.is;
 import static javaslang.Predicates.noneOf;
 
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
@@ -177,11 +178,117 @@ import javaslang.control.Try;
  * when {@link PostConstruct} and {@link PreDestroy} annotations are present.
  * </p>
  *
+ * <h2>class index</h2>
+ * <p>
+ * Scanning runs on every startup. To skip it, generate a class index at build time with the
+ * <code>jooby:index</code> maven goal:
+ * </p>
+ *
+ * <pre>{@code
+ * <plugin>
+ *   <groupId>org.jooby</groupId>
+ *   <artifactId>jooby-maven-plugin</artifactId>
+ *   <executions>
+ *     <execution>
+ *       <goals>
+ *         <goal>index</goal>
+ *       </goals>
+ *     </execution>
+ *   </executions>
+ * </plugin>
+ * }</pre>
+ *
+ * <p>
+ * When a {@link ClassIndex} is present in the classpath, packages covered by the index are not
+ * scanned. Packages outside the indexed roots (like packages of dependencies without an index) are
+ * still scanned. The index is ignored in <code>dev</code>, where classes change often. The index
+ * also keeps parameter names of MVC routes, so they are not read from class files.
+ * </p>
+ *
  * @author edgar
  * @since 1.0.0
  */
 public class Scanner implements Jooby.Module {
 
+  /** Scan result or class index. */
+  @SuppressWarnings("rawtypes")
+  private interface Types {
+
+    List<String> annotatedWith(Class type);
+
+    List<String> implementing(Class type);
+
+    List<String> subclassesOf(Class type);
+
+    static Types of(final ScanResult result) {
+      return new Types() {
+        @Override
+        public List<String> annotatedWith(final Class type) {
+          return result.getNamesOfClassesWithAnnotation(type);
+        }
+
+        @Override
+        public List<String> implementing(final Class type) {
+          return result.getNamesOfClassesImplementing(type);
+        }
+
+        @Override
+        public List<String> subclassesOf(final Class type) {
+          return result.getNamesOfSubclassesOf(type);
+        }
+      };
+    }
+
+    static Types of(final List<Types> types) {
+      Function<Function<Types, List<String>>, List<String>> all = fn -> types.stream()
+          .flatMap(it -> fn.apply(it).stream())
+          .distinct()
+          .collect(Collectors.toList());
+      return new Types() {
+        @Override
+        public List<String> annotatedWith(final Class type) {
+          return all.apply(it -> it.annotatedWith(type));
+        }
+
+        @Override
+        public List<String> implementing(final Class type) {
+          return all.apply(it -> it.implementing(type));
+        }
+
+        @Override
+        public List<String> subclassesOf(final Class type) {
+          return all.apply(it -> it.subclassesOf(type));
+        }
+      };
+    }
+
+    static Types of(final ClassIndex index, final Set<String> spec) {
+      Predicate<String> inSpec = name -> spec.stream().anyMatch(name::startsWith);
+      Function<List<String>, List<String>> filter = names -> names.stream()
+          .filter(inSpec)
+          .collect(Collectors.toList());
+      return new Types() {
+        @Override
+        public List<String> annotatedWith(final Class type) {
+          return filter.apply(index.annotatedWith(type));
+        }
+
+        @Override
+        public List<String> implementing(final Class type) {
+          return filter.apply(index.subtypesOf(type));
+        }
+
+        @Override
+        public List<String> subclassesOf(final Class type) {
+          return filter.apply(index.subtypesOf(type));
+        }
+      };
+    }
+  }
+
+  /** Scan spec entries that add packages (exclusions start with <code>-</code>). */
+  private static final Predicate<String> SCAN_INCLUDE = it -> !it.startsWith("-");
+
   @SuppressWarnings("rawtypes")
   private static final Predicate<Class> A = Class::isAnnotation;
 
@@ -224,8 +331,6 @@ public class Scanner implements Jooby.Module {
     Set<String> spec = Sets.newLinkedHashSet(packages);
     serviceTypes.forEach(it -> spec.add(it.getPackage().getName()));
 
-    FastClasspathScanner scanner = new FastClasspathScanner(spec.toArray(new String[spec.size()]));
-
     Router routes = env.router();
 
     ClassLoader loader = getClass().getClassLoader();
@@ -240,7 +345,30 @@ public class Scanner implements Jooby.Module {
       env.lifeCycle(klass);
     };
 
-    ScanResult result = scanner.scan(conf.getInt("runtime.processors") + 1);
+    // classes change in dev, the index might be out of date
+    Optional<ClassIndex> index = env.name().equals("dev")
+        ? Optional.empty()
+        : Try.of(() -> ClassIndex.load(loader)).get();
+    // trust the index for the packages it covers, scan the rest
+    Set<String> indexed = new LinkedHashSet<>();
+    Set<String> scan = new LinkedHashSet<>();
+    spec.forEach(it -> {
+      if (index.isPresent() && index.get().covers(it)) {
+        indexed.add(it);
+      } else {
+        scan.add(it);
+      }
+    });
+    List<Types> types = new ArrayList<>();
+    if (indexed.size() > 0) {
+      types.add(Types.of(index.get(), indexed));
+    }
+    if (!index.isPresent() || scan.stream().anyMatch(SCAN_INCLUDE)) {
+      FastClasspathScanner scanner = new FastClasspathScanner(
+          scan.toArray(new String[scan.size()]));
+      types.add(Types.of(scanner.scan(conf.getInt("runtime.processors") + 1)));
+    }
+    Types result = types.size() == 1 ? types.get(0) : Types.of(types);
 
     Predicate<String> inPackage = name -> packages.stream()
         .filter(name::startsWith)
@@ -248,7 +376,7 @@ public class Scanner implements Jooby.Module {
         .isPresent();
 
     /** Controllers: */
-    result.getNamesOfClassesWithAnnotation(Path.class)
+    result.annotatedWith(Path.class)
         .stream()
         .filter(once)
         .map(loadClass)
@@ -256,7 +384,7 @@ public class Scanner implements Jooby.Module {
         .forEach(routes::use);
 
     /** Modules: */
-    result.getNamesOfClassesImplementing(Jooby.Module.class)
+    result.implementing(Jooby.Module.class)
         .stream()
         .filter(once)
         .map(loadClass)
@@ -265,7 +393,7 @@ public class Scanner implements Jooby.Module {
             .run(() -> ((Jooby.Module) newObject(klass)).configure(env, conf, binder)).get());
 
     /** Apps: */
-    result.getNamesOfSubclassesOf(Jooby.class)
+    result.subclassesOf(Jooby.class)
         .stream()
         .filter(once)
         .filter(is(conf.getString("application.class")).negate())
@@ -277,7 +405,7 @@ public class Scanner implements Jooby.Module {
     serviceTypes.stream()
         .filter(A)
         .forEach(a -> {
-          result.getNamesOfClassesWithAnnotation(a)
+          result.annotatedWith(a)
               .stream()
               .filter(once)
               .map(loadClass)
@@ -290,7 +418,7 @@ public class Scanner implements Jooby.Module {
         .filter(I)
         .filter(noneOf(type(Jooby.Module.class), type(Module.class), type(Service.class)))
         .forEach(i -> {
-          result.getNamesOfClassesImplementing(i)
+          result.implementing(i)
               .stream()
               .filter(inPackage)
               .filter(once)
@@ -303,7 +431,7 @@ public class Scanner implements Jooby.Module {
     serviceTypes.stream()
         .filter(S)
         .forEach(k -> {
-          result.getNamesOfSubclassesOf(k)
+          result.subclassesOf(k)
               .stream()
               .filter(inPackage)
               .filter(once)
@@ -314,7 +442,7 @@ public class Scanner implements Jooby.Module {
 
     /** Guice modules: */
     if (serviceTypes.contains(Module.class)) {
-      result.getNamesOfClassesImplementing(Module.class)
+      result.implementing(Module.class)
           .stream()
           .filter(inPackage)
           .filter(once)
@@ -326,7 +454,7 @@ public class Scanner implements Jooby.Module {
     /** Guava services: */
     if (serviceTypes.contains(Service.class)) {
       Set<Class<Service>> guavaServices = new HashSet<>();
-      result.getNamesOfClassesImplementing(Service.class)
+      result.implementing(Service.class)
           .stream()
           .filter(inPackage)
           .filter(once)
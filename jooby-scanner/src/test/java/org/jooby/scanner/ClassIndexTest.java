@@ -0,0 +1,123 @@
+package org.jooby.scanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.jooby.Jooby;
+import org.jooby.internal.RouteMetadata;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Sets;
+import com.google.inject.Module;
+
+import app.ns.FooApp;
+import app.ns.FooController;
+import app.ns.FooImpl;
+import app.ns.FooModule;
+import app.ns.FooSub;
+import app.ns.IFoo;
+import app.ns.NamedFoo;
+
+public class ClassIndexTest {
+
+  @Rule
+  public TemporaryFolder tmp = new TemporaryFolder();
+
+  @Test
+  public void read() throws Exception {
+    Set<String> roots = new LinkedHashSet<>();
+    Map<String, List<Set<String>>> classes = ClassIndex.read(new StringReader(
+        "# index\n"
+            + "@roots app\n"
+            + "app.A x.I,x.J -\n"
+            + "app.B app.A,x.I x.Named\n"), roots);
+    assertEquals(Sets.newHashSet("app"), roots);
+    assertEquals(Sets.newHashSet("app.A", "app.B"), classes.keySet());
+    assertEquals(Sets.newHashSet("x.I", "x.J"), classes.get("app.A").get(0));
+    assertEquals(Sets.newHashSet(), classes.get("app.A").get(1));
+    assertEquals(Sets.newHashSet("x.Named"), classes.get("app.B").get(1));
+  }
+
+  @Test
+  public void write() throws Exception {
+    Path classes = tmp.getRoot().toPath();
+    Path source = Paths.get(FooApp.class.getProtectionDomain().getCodeSource().getLocation()
+        .toURI()).resolve("app").resolve("ns");
+    Path target = Files.createDirectories(classes.resolve("app").resolve("ns"));
+    try (Stream<Path> files = Files.list(source)) {
+      files.forEach(f -> {
+        try {
+          Files.copy(f, target.resolve(f.getFileName().toString()));
+        } catch (Exception ex) {
+          throw new IllegalStateException(ex);
+        }
+      });
+    }
+
+    int count = ClassIndex.write(getClass().getClassLoader(), classes);
+    assertTrue(count > 0);
+
+    ClassIndex index;
+    try (InputStream in = Files.newInputStream(classes.resolve(ClassIndex.LOCATION))) {
+      index = load(in);
+    }
+    assertEquals(Sets.newHashSet("app.ns"), index.roots());
+    assertTrue(index.covers("app.ns"));
+    assertTrue(index.covers("app.ns.sub"));
+    assertFalse(index.covers("app"));
+    assertFalse(index.covers("app.nsx"));
+    assertFalse(index.covers("org.jooby"));
+
+    assertEquals(Sets.newHashSet(FooController.class.getName(), "app.ns.AbsController"),
+        Sets.newHashSet(index.annotatedWith(org.jooby.mvc.Path.class)));
+    assertEquals(Sets.newHashSet(NamedFoo.class.getName()),
+        Sets.newHashSet(index.annotatedWith(javax.inject.Named.class)));
+    assertEquals(Sets.newHashSet(FooImpl.class.getName()),
+        Sets.newHashSet(index.subtypesOf(IFoo.class)));
+    assertEquals(Sets.newHashSet(FooModule.class.getName()),
+        Sets.newHashSet(index.subtypesOf(Jooby.Module.class)));
+    assertTrue(index.subtypesOf(Module.class).contains("app.ns.GuiceModule"));
+    assertEquals(Sets.newHashSet(FooApp.class.getName()),
+        Sets.newHashSet(index.subtypesOf(Jooby.class)));
+    assertEquals(Sets.newHashSet(FooSub.class.getName()),
+        Sets.newHashSet(index.subtypesOf(app.ns.AbsFoo.class)));
+
+    Properties mvc = new Properties();
+    try (InputStream in = Files.newInputStream(classes.resolve(RouteMetadata.INDEX))) {
+      mvc.load(in);
+    }
+    assertEquals("", mvc.getProperty(FooController.class.getName() + "#<init>()V.params"));
+  }
+
+  @Test
+  public void noIndex() throws Exception {
+    assertEquals(Optional.empty(), ClassIndex.load(getClass().getClassLoader()));
+  }
+
+  private static ClassIndex load(final InputStream in) throws Exception {
+    Path dir = Files.createTempDirectory("idx");
+    Path file = Files.createDirectories(dir.resolve("META-INF").resolve("jooby"))
+        .resolve("classes.idx");
+    Files.copy(in, file);
+    try (java.net.URLClassLoader loader = new java.net.URLClassLoader(
+        new java.net.URL[]{dir.toUri().toURL() }, null)) {
+      return ClassIndex.load(loader).get();
+    }
+  }
+}
@@ -52,6 +52,7 @@ public class ScannerTest {
 
   private Block routes = unit -> {
     Env env = unit.get(Env.class);
+    expect(env.name()).andReturn("prod");
     expect(env.router()).andReturn(unit.get(Router.class));
   };
 
@@ -20,7 +20,9 @@ package org.jooby.servlet;
 
 import static java.util.Objects.requireNonNull;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
@@ -121,6 +123,11 @@ public class ServletServletResponse implements NativeResponse {
     stream.close();
   }
 
+  @Override
+  public OutputStream outputStream() throws IOException {
+    return rsp.getOutputStream();
+  }
+
   @Override
   public int statusCode() {
     return rsp.getStatus();
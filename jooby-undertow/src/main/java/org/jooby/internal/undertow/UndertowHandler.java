@@ -32,6 +32,9 @@
  */
 package org.jooby.internal.undertow;
 
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+
 import com.typesafe.config.Config;
 
 import io.undertow.server.HttpHandler;
@@ -43,20 +46,40 @@ public class UndertowHandler implements HttpHandler {
 
   private Config config;
 
+  /** False when none of the routes is non-blocking: every request goes to a worker thread. */
+  private boolean hasNonBlocking;
+
   public UndertowHandler(final org.jooby.spi.HttpHandler handler, final Config config) {
     this.handler = handler;
     this.config = config;
+    this.hasNonBlocking = handler.hasNonBlocking();
   }
 
   @Override
   public void handleRequest(final HttpServerExchange exchange) throws Exception {
 
     if (exchange.isInIoThread()) {
-      exchange.dispatch(this);
-      return;
+      if (!hasNonBlocking || !nonBlocking(exchange)) {
+        exchange.dispatch(this);
+        return;
+      }
     }
 
     handler.handle(new UndertowRequest(exchange, config), new UndertowResponse(exchange));
   }
 
+  private boolean nonBlocking(final HttpServerExchange exchange) {
+    // same path as UndertowRequest
+    String path = exchange.getRequestPath();
+    if (path.indexOf('%') >= 0 || path.indexOf('+') >= 0) {
+      try {
+        path = URLDecoder.decode(path, "UTF-8");
+      } catch (UnsupportedEncodingException | IllegalArgumentException ex) {
+        // malformed, the worker replies with 400
+        return false;
+      }
+    }
+    return handler.nonBlocking(exchange.getRequestMethod().toString(), path);
+  }
+
 }
@@ -20,7 +20,9 @@ package org.jooby.internal.undertow;
 
 import static java.util.Objects.requireNonNull;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
@@ -32,6 +34,7 @@ import org.jooby.spi.NativeResponse;
 import org.jooby.spi.NativeWebSocket;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.xnio.IoUtils;
 
 import com.google.common.collect.ImmutableList;
 
@@ -51,6 +54,8 @@ public class UndertowResponse implements NativeResponse {
 
   private volatile boolean endExchange = true;
 
+  private volatile boolean aborted;
+
   public UndertowResponse(final HttpServerExchange exchange) {
     this.exchange = exchange;
   }
@@ -96,6 +101,18 @@ public class UndertowResponse implements NativeResponse {
         new LogIoCallback(IoCallback.END_EXCHANGE));
   }
 
+  @Override
+  public OutputStream outputStream() throws IOException {
+    if (exchange.isInIoThread()) {
+      // blocking IO isn't allowed on IO threads
+      return NativeResponse.super.outputStream();
+    }
+    if (!exchange.isBlocking()) {
+      exchange.startBlocking();
+    }
+    return exchange.getOutputStream();
+  }
+
   @Override
   public void send(final FileChannel channel) throws Exception {
     endExchange = false;
@@ -121,7 +138,15 @@ public class UndertowResponse implements NativeResponse {
 
   @Override
   public boolean committed() {
-    return exchange.isComplete();
+    return aborted || exchange.isComplete();
+  }
+
+  @Override
+  public void abort(final Throwable cause) {
+    aborted = true;
+    // no last chunk
+    endExchange = false;
+    IoUtils.safeClose(exchange.getConnection());
   }
 
   @Override
@@ -114,6 +114,7 @@ import org.jooby.internal.handlers.HeadHandler;
 import org.jooby.internal.handlers.OptionsHandler;
 import org.jooby.internal.handlers.TraceHandler;
 import org.jooby.internal.js.JsJooby;
+import org.jooby.internal.mvc.MvcHandler;
 import org.jooby.internal.mvc.MvcRoutes;
 import org.jooby.internal.parser.BeanParser;
 import org.jooby.internal.parser.DateParser;
@@ -1734,7 +1735,10 @@ public class Jooby implements Router, LifeCycle, Registry {
           .cdn(conf.getString("assets.cdn"))
           .lastModified(conf.getBoolean("assets.lastModified"))
           .etag(conf.getBoolean("assets.etag"))
-          .maxAge(conf.getString("assets.cache.maxAge"));
+          .maxAge(conf.getString("assets.cache.maxAge"))
+          .offHeap(conf.getBoolean("assets.cache.offHeap"))
+          .watch(conf.getBoolean("assets.cache.watch"))
+          .cache(conf.getBytes("assets.cache.maxSize"));
     });
     return assets(path, handler);
   }
@@ -2635,6 +2639,7 @@ public class Jooby implements Router, LifeCycle, Registry {
       renderers.addBinding().toInstance(BuiltinRenderer.stream);
       renderers.addBinding().toInstance(BuiltinRenderer.reader);
       renderers.addBinding().toInstance(BuiltinRenderer.fileChannel);
+      renderers.addBinding().toInstance(BuiltinRenderer.streaming);
 
       /** modules, routes, parsers, renderers and websockets */
       Set<Object> routeClasses = new HashSet<>();
@@ -2688,7 +2693,19 @@ public class Jooby implements Router, LifeCycle, Registry {
             .asEagerSingleton();
       } else {
         binder.bind(SessionManager.class).to(ServerSessionManager.class).asEagerSingleton();
-        if (sstore instanceof Class) {
+        if (finalConfig.getInt("session.writeBehind.queueSize") > 0) {
+          Key<Session.Store> storeKey = Key.get(Session.Store.class, Names.named("session.store"));
+          if (sstore instanceof Class) {
+            binder.bind(storeKey).to((Class<? extends Store>) sstore)
+                .asEagerSingleton();
+          } else {
+            binder.bind(storeKey).toInstance((Store) sstore);
+          }
+          binder.bind(SessionWriteBehind.class).asEagerSingleton();
+          binder.bind(Session.Store.class).to(SessionWriteBehind.class);
+          // flush pending sessions before modules (and their stores) are stopped
+          lifeCycle(SessionWriteBehind.class);
+        } else if (sstore instanceof Class) {
           binder.bind(Session.Store.class).to((Class<? extends Store>) sstore)
               .asEagerSingleton();
         } else {
@@ -2819,6 +2836,9 @@ public class Jooby implements Router, LifeCycle, Registry {
           if (routeClasses.add(routeClass)) {
             binder.bind(routeClass);
           }
+          if (h instanceof MvcHandler) {
+            ((MvcHandler) h).controller(binder.getProvider(routeClass));
+          }
         }
         definitions.addBinding().toInstance(rdef);
       } else if (it instanceof WebSocket.Definition) {
@@ -18,7 +18,9 @@
  */
 package org.jooby;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Iterator;
 import java.util.Map;
@@ -169,6 +171,17 @@ public interface Parser {
      */
     String text() throws IOException;
 
+    /**
+     * Returns the HTTP body as input stream. Unlike {@link #bytes()}, a body bigger than
+     * <code>server.http.RequestBufferSize</code> is read from disk and never loaded in memory.
+     *
+     * @return HTTP body as input stream.
+     * @throws IOException If reading fails.
+     */
+    default InputStream stream() throws IOException {
+      return new ByteArrayInputStream(bytes());
+    }
+
     /**
      * @return Body length.
      */
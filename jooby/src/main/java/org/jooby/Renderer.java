@@ -18,8 +18,12 @@
  */
 package org.jooby;
 
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.channels.FileChannel;
@@ -89,6 +93,42 @@ import com.google.inject.TypeLiteral;
  */
 public interface Renderer {
 
+  /**
+   * Write the response body into an output stream provided by the server.
+   *
+   * @author edgar
+   * @since 1.0.1
+   */
+  interface BodyWriter {
+
+    /**
+     * Write the response body. Don't keep a reference to the output stream, it might be backed
+     * by a pooled buffer.
+     *
+     * @param output Output stream.
+     * @throws Exception When the operation fails.
+     */
+    void write(OutputStream output) throws Exception;
+  }
+
+  /**
+   * Write the response body into a {@link Writer} provided by the server.
+   *
+   * @author edgar
+   * @since 1.0.1
+   */
+  interface TextWriter {
+
+    /**
+     * Write the response body. Don't close or keep a reference to the writer, the body is flushed
+     * once this method returns.
+     *
+     * @param writer Response writer.
+     * @throws Exception When the operation fails.
+     */
+    void write(Writer writer) throws Exception;
+  }
+
   /**
    * Contains a few utility methods for doing the actual rendering and writing.
    *
@@ -240,6 +280,63 @@ public interface Renderer {
      */
     void send(FileChannel file) throws Exception;
 
+    /**
+     * Write bytes into the HTTP response body using an output stream. Servers might provide an
+     * output stream backed by a pooled (and direct) buffer, which saves the intermediate
+     * <code>byte[]</code> of {@link #send(byte[])}.
+     *
+     * It will set a <code>Content-Length</code> if none was set.
+     * It will set a <code>Content-Type</code> to {@link MediaType#octetstream} if none was set.
+     *
+     * @param writer Writer of the response body.
+     * @throws Exception When the operation fails.
+     */
+    default void send(final BodyWriter writer) throws Exception {
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      writer.write(output);
+      send(output.toByteArray());
+    }
+
+    /**
+     * Write a response body of unknown length using an output stream. Bytes are sent to the client
+     * as they are written and flushed, with a <code>Transfer-Encoding: chunked</code> header.
+     * Writes block while the client is slow to read.
+     *
+     * Nothing is sent until the first write, so a failure before it produces a regular error
+     * response. A failure after it closes the connection without ending the body.
+     *
+     * It will set a <code>Content-Type</code> to {@link MediaType#octetstream} if none was set.
+     *
+     * Default implementation buffers the output, like {@link #send(BodyWriter)}.
+     *
+     * @param writer Writer of the response body.
+     * @throws Exception When the operation fails.
+     */
+    default void stream(final BodyWriter writer) throws Exception {
+      send(writer);
+    }
+
+    /**
+     * Write text into the HTTP response body using a writer. Chars are encoded with
+     * {@link #charset()} straight into a response buffer, which saves the intermediate
+     * {@link String} of {@link #send(String)}.
+     *
+     * It will set a <code>Content-Length</code> if the response size is less than the
+     * <code>server.http.ResponseBufferSize</code> (default is: 16k). If the response is larger than
+     * the buffer size, the body is sent in chunks of buffer size and it will set a
+     * <code>Transfer-Encoding: chunked</code> header.
+     *
+     * It will set a <code>Content-Type</code> to {@link MediaType#html} if none was set.
+     *
+     * @param writer Writer of the response body.
+     * @throws Exception When the operation fails.
+     */
+    default void write(final TextWriter writer) throws Exception {
+      StringWriter output = new StringWriter();
+      writer.write(output);
+      send(output.toString());
+    }
+
   }
 
   /** Renderer key. */
@@ -423,6 +423,32 @@ public interface Route {
       return attr(RENDERER, name);
     }
 
+    /**
+     * Mark the route as non-blocking. Servers with an event loop (netty and undertow) execute a
+     * request on the IO thread when all the routes matching it (filters included) are marked as
+     * non-blocking. Otherwise, the request is dispatched to a worker thread.
+     *
+     * A non-blocking route must never block: no request body, no file, database or network
+     * access. Use it for in-memory handlers only.
+     *
+     * @return This instance.
+     */
+    default T nonBlocking() {
+      return attr(NON_BLOCKING, true);
+    }
+
+    /**
+     * Stream a multi-element publisher (like a <code>Flux</code> or <code>Observable</code>)
+     * produced by this route. Elements are written as soon as they are emitted and requested when
+     * the previous writes complete. See {@link Streaming}.
+     *
+     * @param format Output format.
+     * @return This instance.
+     */
+    default T stream(final Streaming.Format format) {
+      return attr(STREAM, format);
+    }
+
     /**
      * Set the route name. Route's name, helpful for debugging but also to implement dynamic and
      * advanced routing. See {@link Route.Chain#next(String, Request, Response)}
@@ -2153,6 +2179,20 @@ public interface Route {
    */
   String RENDERER = "renderer";
 
+  /**
+   * Non-blocking attribute.
+   *
+   * @see Route.Definition#nonBlocking()
+   */
+  String NON_BLOCKING = "nonBlocking";
+
+  /**
+   * Stream attribute.
+   *
+   * @see Route.Definition#stream(Streaming.Format)
+   */
+  String STREAM = "stream";
+
   /**
    * @return Current request path.
    */
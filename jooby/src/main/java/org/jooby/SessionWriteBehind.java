@@ -0,0 +1,445 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.Striped;
+import com.typesafe.config.Config;
+
+/**
+ * <p>
+ * Write-behind session store. Saves are queued and persisted later from a background thread, so
+ * a remote store (redis, mongodb, etc.) is kept out of the request path. Multiple saves of the
+ * same session are coalesced: only the last version is persisted. Reads of a pending session
+ * are served from the queue.
+ * </p>
+ *
+ * <p>
+ * Enabled via <code>session.writeBehind.queueSize</code> (off by default):
+ * </p>
+ *
+ * <pre>
+ * session.writeBehind {
+ *   queueSize = 10000
+ *   batchSize = 128
+ *   flushInterval = 1s
+ * }
+ * </pre>
+ *
+ * <p>
+ * Pending sessions are flushed every <code>flushInterval</code> or as soon as there are
+ * <code>batchSize</code> pending sessions. When the queue is full, sessions are persisted from
+ * the calling thread. Persists of the same session never overlap, while different sessions are
+ * persisted in parallel with the background flush. Pending sessions are flushed on application
+ * shutdown. Counters are available via {@link #stats()}:
+ * </p>
+ *
+ * <pre>{@code
+ * {
+ *   get("/sessions", req -> req.require(SessionWriteBehind.class).stats());
+ * }
+ * }</pre>
+ *
+ * @author edgar
+ * @since 1.0.1
+ */
+public class SessionWriteBehind implements Session.Store {
+
+  /**
+   * Write-behind counters.
+   */
+  public static class Stats {
+
+    private final int queueDepth;
+
+    private final long writes;
+
+    private final long coalesced;
+
+    private final long flushed;
+
+    private final long overflows;
+
+    private final long dropped;
+
+    private final long flushLatency;
+
+    private final long maxFlushLatency;
+
+    Stats(final int queueDepth, final long writes, final long coalesced, final long flushed,
+        final long overflows, final long dropped, final long flushLatency,
+        final long maxFlushLatency) {
+      this.queueDepth = queueDepth;
+      this.writes = writes;
+      this.coalesced = coalesced;
+      this.flushed = flushed;
+      this.overflows = overflows;
+      this.dropped = dropped;
+      this.flushLatency = flushLatency;
+      this.maxFlushLatency = maxFlushLatency;
+    }
+
+    /**
+     * @return Number of sessions waiting to be persisted.
+     */
+    public int queueDepth() {
+      return queueDepth;
+    }
+
+    /**
+     * @return Number of create, save and delete calls.
+     */
+    public long writes() {
+      return writes;
+    }
+
+    /**
+     * @return Number of writes merged into a pending write of the same session.
+     */
+    public long coalesced() {
+      return coalesced;
+    }
+
+    /**
+     * @return Number of writes persisted by the background thread.
+     */
+    public long flushed() {
+      return flushed;
+    }
+
+    /**
+     * @return Number of writes persisted from the calling thread, because the queue was full.
+     */
+    public long overflows() {
+      return overflows;
+    }
+
+    /**
+     * @return Number of writes the store failed to persist from the background thread.
+     */
+    public long dropped() {
+      return dropped;
+    }
+
+    /**
+     * Average time between a write and the moment it is persisted.
+     *
+     * @param unit Time unit.
+     * @return Average flush latency.
+     */
+    public long flushLatency(final TimeUnit unit) {
+      long count = flushed + dropped;
+      return unit.convert(count == 0 ? 0 : flushLatency / count, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param unit Time unit.
+     * @return Max flush latency.
+     */
+    public long maxFlushLatency(final TimeUnit unit) {
+      return unit.convert(maxFlushLatency, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+      return "{queueDepth: " + queueDepth + ", writes: " + writes + ", coalesced: " + coalesced
+          + ", flushed: " + flushed + ", overflows: " + overflows + ", dropped: " + dropped
+          + "}";
+    }
+  }
+
+  private enum Op {
+    CREATE,
+
+    SAVE,
+
+    DELETE
+  }
+
+  /** A pending write, since is the time of the first write that hasn't been persisted. */
+  private static class Write {
+
+    private final String id;
+
+    private final Op op;
+
+    private final Session session;
+
+    private final long since;
+
+    Write(final String id, final Op op, final Session session, final long since) {
+      this.id = id;
+      this.op = op;
+      this.session = session;
+      this.since = since;
+    }
+  }
+
+  /** Max time to wait for a running flush on shutdown. */
+  private static final long STOP_TIMEOUT = 30;
+
+  /** Number of session locks. */
+  private static final int LOCKS = 64;
+
+  private final Logger log = LoggerFactory.getLogger(Session.class);
+
+  private final Session.Store store;
+
+  private final int queueSize;
+
+  private final int batchSize;
+
+  private final ConcurrentMap<String, Write> pending = new ConcurrentHashMap<>();
+
+  /** Session IDs in write order, an ID is here once no matter how many writes it got. */
+  private final Queue<String> queue = new ConcurrentLinkedQueue<>();
+
+  /** Serialize persists of the same session, between the background flush and overflows. */
+  private final Striped<Lock> locks = Striped.lock(LOCKS);
+
+  private final ScheduledExecutorService executor;
+
+  /** True, while an early flush (batchSize was reached) is waiting to run. */
+  private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+  private final LongAdder writes = new LongAdder();
+
+  private final LongAdder coalesced = new LongAdder();
+
+  private final LongAdder flushed = new LongAdder();
+
+  private final LongAdder overflows = new LongAdder();
+
+  private final LongAdder dropped = new LongAdder();
+
+  private final LongAdder flushLatency = new LongAdder();
+
+  private final AtomicLong maxFlushLatency = new AtomicLong();
+
+  /**
+   * Creates a new write-behind store.
+   *
+   * @param store Store where sessions are persisted.
+   * @param queueSize Max number of pending sessions.
+   * @param batchSize Number of pending sessions that triggers a flush.
+   * @param flushInterval Flush interval in millis.
+   */
+  public SessionWriteBehind(final Session.Store store, final int queueSize, final int batchSize,
+      final long flushInterval) {
+    this.store = requireNonNull(store, "A session store is required.");
+    Preconditions.checkArgument(queueSize > 0, "Invalid queue size: %s", queueSize);
+    Preconditions.checkArgument(batchSize > 0, "Invalid batch size: %s", batchSize);
+    Preconditions.checkArgument(flushInterval > 0, "Invalid flush interval: %s", flushInterval);
+    this.queueSize = queueSize;
+    this.batchSize = batchSize;
+    this.executor = Executors.newSingleThreadScheduledExecutor(task -> {
+      Thread thread = new Thread(task, "session-write-behind");
+      thread.setDaemon(true);
+      return thread;
+    });
+    executor.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval,
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Creates a new write-behind store from <code>session.writeBehind</code>.
+   *
+   * @param store Store where sessions are persisted.
+   * @param conf Application configuration.
+   */
+  @Inject
+  public SessionWriteBehind(final @Named("session.store") Session.Store store, final Config conf) {
+    this(store, conf.getInt("session.writeBehind.queueSize"),
+        conf.getInt("session.writeBehind.batchSize"),
+        conf.getDuration("session.writeBehind.flushInterval", TimeUnit.MILLISECONDS));
+  }
+
+  @Override
+  public Session get(final Session.Builder builder) {
+    Write write = pending.get(builder.sessionId());
+    if (write == null) {
+      return store.get(builder);
+    }
+    if (write.op == Op.DELETE) {
+      return null;
+    }
+    Session session = write.session;
+    return builder.set(session.attributes())
+        .createdAt(session.createdAt())
+        .accessedAt(session.accessedAt())
+        .savedAt(session.savedAt())
+        .build();
+  }
+
+  @Override
+  public void create(final Session session) {
+    write(session.id(), Op.CREATE, session);
+  }
+
+  @Override
+  public void save(final Session session) {
+    write(session.id(), Op.SAVE, session);
+  }
+
+  @Override
+  public void delete(final String id) {
+    write(id, Op.DELETE, null);
+  }
+
+  @Override
+  public String generateID() {
+    return store.generateID();
+  }
+
+  /**
+   * @return Current counters.
+   */
+  public Stats stats() {
+    return new Stats(pending.size(), writes.sum(), coalesced.sum(), flushed.sum(),
+        overflows.sum(), dropped.sum(), flushLatency.sum(), maxFlushLatency.get());
+  }
+
+  /**
+   * Persist all the pending sessions. This method is called from the background thread, call it
+   * directly if you need the store to be up to date.
+   */
+  public synchronized void flush() {
+    flushRequested.set(false);
+    String id;
+    while ((id = queue.poll()) != null) {
+      Lock lock = locks.get(id);
+      lock.lock();
+      try {
+        Write write = pending.get(id);
+        if (write != null) {
+          persist(write);
+          // keep serving reads from the queue until persisted, a newer write must be flushed too
+          if (!pending.remove(id, write)) {
+            queue.add(id);
+          }
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Stop the background thread and flush pending sessions.
+   *
+   * @throws InterruptedException If interrupted while waiting for a running flush.
+   */
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    executor.shutdown();
+    executor.awaitTermination(STOP_TIMEOUT, TimeUnit.SECONDS);
+    flush();
+  }
+
+  private void write(final String id, final Op op, final Session session) {
+    writes.increment();
+    if (executor.isShutdown() || (pending.size() >= queueSize && !pending.containsKey(id))) {
+      // full or stopped, persist it now. Hold the session lock: persists of the same session
+      // must not run concurrently or land out of order
+      overflows.increment();
+      Lock lock = locks.get(id);
+      lock.lock();
+      try {
+        Write prev = pending.remove(id);
+        Op merged = op;
+        if (prev != null) {
+          coalesced.increment();
+          merged = merge(prev.op, op);
+        }
+        persist(new Write(id, merged, session, System.nanoTime()), store);
+      } finally {
+        lock.unlock();
+      }
+      return;
+    }
+    boolean[] added = {false };
+    pending.compute(id, (key, it) -> {
+      if (it == null) {
+        added[0] = true;
+        return new Write(id, op, session, System.nanoTime());
+      }
+      return new Write(id, merge(it.op, op), session, it.since);
+    });
+    if (added[0]) {
+      queue.add(id);
+    } else {
+      coalesced.increment();
+    }
+    if (pending.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+      executor.execute(this::flush);
+    }
+  }
+
+  private static Op merge(final Op prev, final Op op) {
+    // a new session that wasn't persisted yet must be created, not saved
+    return prev == Op.CREATE && op == Op.SAVE ? Op.CREATE : op;
+  }
+
+  private void persist(final Write write) {
+    try {
+      persist(write, store);
+      flushed.increment();
+    } catch (Exception x) {
+      dropped.increment();
+      log.error("unable to persist session: {}", write.id, x);
+    }
+    long latency = System.nanoTime() - write.since;
+    flushLatency.add(latency);
+    maxFlushLatency.accumulateAndGet(latency, Math::max);
+  }
+
+  private static void persist(final Write write, final Session.Store store) {
+    switch (write.op) {
+      case CREATE:
+        store.create(write.session);
+        break;
+      case SAVE:
+        store.save(write.session);
+        break;
+      default:
+        store.delete(write.id);
+    }
+  }
+}
@@ -27,6 +27,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -190,6 +191,33 @@ import javaslang.control.Try.CheckedRunnable;
  * generate events every 15s, then the use of keep alive is useless and you can avoid it.
  * </p>
  *
+ * <h2>broadcast</h2>
+ * <p>
+ * A {@link SseTopic} sends the same events to many connections. Events are rendered once, no
+ * matter how many clients are connected:
+ * </p>
+ *
+ * <pre>{@code
+ * {
+ *   SseTopic feed = new SseTopic("feed")
+ *       .replay(100)
+ *       .keepAlive(15, TimeUnit.SECONDS);
+ *
+ *   sse("/feed", sse -> {
+ *     feed.subscribe(sse);
+ *   });
+ *
+ *   post("/feed", req -> {
+ *     feed.event(req.body().value()).id(nextId()).send();
+ *     return "ok";
+ *   });
+ * }
+ * }</pre>
+ *
+ * <p>
+ * Reconnecting clients get the buffered events after their <code>Last-Event-ID</code>.
+ * </p>
+ *
  * <h2>require</h2>
  * <p>
  * The {@link #require(Class)} methods let you access to application services:
@@ -263,11 +291,18 @@ public abstract class Sse implements AutoCloseable {
 
     private Sse sse;
 
+    private SseTopic topic;
+
     private Event(final Sse sse, final Object data) {
       this.sse = sse;
       this.data = data;
     }
 
+    Event(final SseTopic topic, final Object data) {
+      this.topic = topic;
+      this.data = data;
+    }
+
     /**
      * @return Event data (if any).
      */
@@ -405,6 +440,12 @@ public abstract class Sse implements AutoCloseable {
      * @return A future callback.
      */
     public Future<Optional<Object>> send() {
+      if (topic != null) {
+        // event is kept by the topic (replay buffer)
+        SseTopic topic = this.topic;
+        this.topic = null;
+        return topic.publish(this);
+      }
       Future<Optional<Object>> future = sse.send(this);
       this.id = null;
       this.name = null;
@@ -500,7 +541,7 @@ public abstract class Sse implements AutoCloseable {
   }
 
   /** Keep alive scheduler. */
-  private static final ScheduledExecutorService scheduler = Executors
+  static final ScheduledExecutorService scheduler = Executors
       .newSingleThreadScheduledExecutor(r -> {
         Thread thread = new Thread(r, "sse-heartbeat");
         thread.setDaemon(true);
@@ -515,11 +556,11 @@ public abstract class Sse implements AutoCloseable {
 
   private Injector injector;
 
-  private List<Renderer> renderers;
+  List<Renderer> renderers;
 
   private final String id;
 
-  private List<MediaType> produces;
+  List<MediaType> produces;
 
   private Map<String, Object> locals;
 
@@ -529,6 +570,9 @@ public abstract class Sse implements AutoCloseable {
 
   private boolean closed;
 
+  /** Topics of this connection. */
+  final List<SseTopic> topics = new CopyOnWriteArrayList<>();
+
   public Sse() {
     id = UUID.randomUUID().toString();
   }
@@ -858,6 +902,9 @@ public abstract class Sse implements AutoCloseable {
     if (task != null) {
       Try.run(task).onFailure(ex -> log.error("close callback resulted in error", ex));
     }
+    for (SseTopic topic : topics) {
+      topic.unsubscribe(this);
+    }
   }
 
   protected boolean shouldClose(final Throwable ex) {
@@ -0,0 +1,500 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.jooby.Sse.Event;
+import org.jooby.internal.SseRenderer;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import javaslang.concurrent.Future;
+import javaslang.concurrent.Promise;
+import javaslang.control.Try;
+
+/**
+ * Broadcast events to many connections. An event is rendered once, using the renderers and
+ * produces types of the first subscriber, and the encoded bytes are shared by all the
+ * subscribers.
+ *
+ * <p>
+ * Each subscriber has a bounded queue (64 events by default), when a slow client fills it the
+ * {@link Overflow} policy applies. The last events are kept in a replay buffer, so reconnecting
+ * clients get the events after {@link Sse#lastEventId()}. Keep alive messages are sent by a
+ * single task per topic to the idle subscribers.
+ * </p>
+ *
+ * @author edgar
+ * @since 1.0.1
+ */
+public class SseTopic {
+
+  /**
+   * What to do when the queue of a subscriber is full.
+   */
+  public enum Overflow {
+    /** Drop the oldest event of the queue. */
+    DROP_OLDEST,
+
+    /** Drop the new event. */
+    DROP_NEWEST,
+
+    /** Close the connection. */
+    CLOSE
+  }
+
+  private final String name;
+
+  private final Map<Sse, Subscriber> subscribers = new LinkedHashMap<>();
+
+  private int queueSize = 64;
+
+  private Overflow overflow = Overflow.DROP_OLDEST;
+
+  /** Replay buffer. */
+  private Message[] ring = new Message[0];
+
+  /** Next write position in replay buffer. */
+  private int next;
+
+  /** Number of messages in the replay buffer. */
+  private int size;
+
+  private long keepAlive;
+
+  private ScheduledFuture<?> heartbeat;
+
+  private volatile List<Renderer> renderers;
+
+  private List<MediaType> produces;
+
+  /**
+   * Creates a new topic.
+   *
+   * @param name Topic's name.
+   */
+  public SseTopic(final String name) {
+    this.name = requireNonNull(name, "Name required.");
+  }
+
+  /**
+   * @return Topic's name.
+   */
+  public String name() {
+    return name;
+  }
+
+  /**
+   * @return Number of subscribers.
+   */
+  public synchronized int size() {
+    return subscribers.size();
+  }
+
+  /**
+   * Keep the last events in memory and resend them to reconnecting clients, see
+   * {@link Sse#lastEventId()}. Events must have an {@link Event#id(Object)}.
+   *
+   * @param events Max number of events to keep, <code>0</code> turns it off.
+   * @return This topic.
+   */
+  public synchronized SseTopic replay(final int events) {
+    checkArgument(events >= 0, "Replay size must be positive: %s", events);
+    this.ring = new Message[events];
+    this.next = 0;
+    this.size = 0;
+    return this;
+  }
+
+  /**
+   * Set the queue size of each subscriber and what to do when it is full.
+   *
+   * @param events Max number of queued events per subscriber.
+   * @param overflow Overflow policy.
+   * @return This topic.
+   */
+  public synchronized SseTopic queue(final int events, final Overflow overflow) {
+    checkArgument(events > 0, "Queue size must be greater than zero: %s", events);
+    this.queueSize = events;
+    this.overflow = requireNonNull(overflow, "Overflow policy required.");
+    return this;
+  }
+
+  /**
+   * Send a <code>':'</code> message (empty comment) to idle subscribers.
+   *
+   * @param time Keep alive time.
+   * @param unit Time unit.
+   * @return This topic.
+   */
+  public SseTopic keepAlive(final int time, final TimeUnit unit) {
+    return keepAlive(unit.toMillis(time));
+  }
+
+  /**
+   * Send a <code>':'</code> message (empty comment) to idle subscribers.
+   *
+   * @param millis Keep alive time in millis.
+   * @return This topic.
+   */
+  public synchronized SseTopic keepAlive(final long millis) {
+    this.keepAlive = millis;
+    if (heartbeat != null) {
+      heartbeat.cancel(false);
+      heartbeat = null;
+    }
+    heartbeat();
+    return this;
+  }
+
+  /**
+   * Add a connection to this topic. If the connection has a {@link Sse#lastEventId()} the
+   * buffered events after it are sent first (see {@link #replay(int)}). The connection is
+   * removed from the topic once closed.
+   *
+   * @param sse Connection to add.
+   * @return This topic.
+   */
+  public SseTopic subscribe(final Sse sse) {
+    Subscriber subscriber = new Subscriber(this, sse);
+    boolean ready = false;
+    synchronized (this) {
+      if (renderers == null) {
+        this.produces = sse.produces;
+        this.renderers = sse.renderers;
+      }
+      subscribers.put(sse, subscriber);
+      sse.topics.add(this);
+      Optional<String> lastEventId = sse.lastEventId();
+      if (lastEventId.isPresent()) {
+        for (Message message : replay(lastEventId.get())) {
+          // don't drop replayed events
+          ready |= subscriber.offer(message, Integer.MAX_VALUE, overflow);
+        }
+      }
+      heartbeat();
+    }
+    if (ready) {
+      subscriber.drain();
+    }
+    return this;
+  }
+
+  /**
+   * Remove a connection from this topic.
+   *
+   * @param sse Connection to remove.
+   * @return This topic.
+   */
+  public synchronized SseTopic unsubscribe(final Sse sse) {
+    if (subscribers.remove(sse) != null) {
+      sse.topics.remove(this);
+      if (subscribers.isEmpty() && heartbeat != null) {
+        heartbeat.cancel(false);
+        heartbeat = null;
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Send an event to all the subscribers.
+   *
+   * @param data Event data.
+   * @return A future. The success callback contains the {@link Event#id()}, it runs once the
+   *         event was queued.
+   */
+  public Future<Optional<Object>> send(final Object data) {
+    return event(data).send();
+  }
+
+  /**
+   * Send an event to all the subscribers.
+   *
+   * @param data Event data.
+   * @param type Media type, like: json, xml.
+   * @return A future. The success callback contains the {@link Event#id()}, it runs once the
+   *         event was queued.
+   */
+  public Future<Optional<Object>> send(final Object data, final String type) {
+    return send(data, MediaType.valueOf(type));
+  }
+
+  /**
+   * Send an event to all the subscribers.
+   *
+   * @param data Event data.
+   * @param type Media type, like: json, xml.
+   * @return A future. The success callback contains the {@link Event#id()}, it runs once the
+   *         event was queued.
+   */
+  public Future<Optional<Object>> send(final Object data, final MediaType type) {
+    return event(data).type(type).send();
+  }
+
+  /**
+   * Factory method for creating {@link Event} instances. Event won't be sent unless you call
+   * {@link Event#send()}.
+   *
+   * @param data Event data.
+   * @return A new event.
+   */
+  public Event event(final Object data) {
+    return new Event(this, data);
+  }
+
+  Future<Optional<Object>> publish(final Event event) {
+    Promise<Optional<Object>> promise = Promise.make(MoreExecutors.newDirectExecutorService());
+    Message message = new Message(event);
+    if (renderers != null) {
+      // render now and report errors, otherwise it is rendered on first subscriber
+      try {
+        message.bytes(this);
+      } catch (Exception ex) {
+        promise.failure(ex);
+        return promise.future();
+      }
+    }
+    List<Subscriber> ready = new ArrayList<>();
+    synchronized (this) {
+      if (ring.length > 0) {
+        ring[next] = message;
+        next = (next + 1) % ring.length;
+        size = Math.min(size + 1, ring.length);
+      }
+      for (Subscriber subscriber : subscribers.values()) {
+        if (subscriber.offer(message, queueSize, overflow)) {
+          ready.add(subscriber);
+        }
+      }
+    }
+    ready.forEach(Subscriber::drain);
+    promise.success(event.id());
+    return promise.future();
+  }
+
+  private byte[] encode(final Event event) throws Exception {
+    List<MediaType> produces = event.type().<List<MediaType>> map(ImmutableList::of)
+        .orElse(this.produces);
+    return new SseRenderer(renderers, produces, StandardCharsets.UTF_8, ImmutableMap.of())
+        .format(event);
+  }
+
+  /** Buffered messages after the given ID or all them when the ID is unknown. */
+  private List<Message> replay(final String lastEventId) {
+    List<Message> result = new ArrayList<>(size);
+    int start = size < ring.length ? 0 : next;
+    for (int i = 0; i < size; i++) {
+      Message message = ring[(start + i) % ring.length];
+      if (lastEventId.equals(message.key)) {
+        result.clear();
+      } else {
+        result.add(message);
+      }
+    }
+    return result;
+  }
+
+  /** Schedule the keep alive task, if there is none. Must be called with the lock held. */
+  private void heartbeat() {
+    if (keepAlive > 0 && heartbeat == null && subscribers.size() > 0) {
+      heartbeat = Sse.scheduler.scheduleAtFixedRate(this::ping, keepAlive, keepAlive,
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private void ping() {
+    List<Subscriber> ready = new ArrayList<>();
+    synchronized (this) {
+      for (Subscriber subscriber : subscribers.values()) {
+        if (subscriber.ping()) {
+          ready.add(subscriber);
+        }
+      }
+    }
+    ready.forEach(Subscriber::drain);
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+
+  /** An event, rendered once and shared by all the subscribers of a topic. */
+  private static class Message {
+
+    static final Message HEARTBEAT = new Message(Sse.HEART_BEAT);
+
+    private final Event event;
+
+    private final Optional<Object> id;
+
+    /** Event ID as string, for replay. */
+    private final String key;
+
+    private byte[] bytes;
+
+    Message(final Event event) {
+      this.event = event;
+      this.id = event.id();
+      this.key = id.map(Object::toString).orElse(null);
+    }
+
+    private Message(final byte[] bytes) {
+      this.event = null;
+      this.id = Optional.empty();
+      this.key = null;
+      this.bytes = bytes;
+    }
+
+    synchronized byte[] bytes(final SseTopic topic) throws Exception {
+      if (bytes == null) {
+        bytes = topic.encode(event);
+      }
+      return bytes;
+    }
+  }
+
+  /** A connection of a topic with a bounded queue. One message is written at a time. */
+  private static class Subscriber {
+
+    private final SseTopic topic;
+
+    private final Sse sse;
+
+    private final ArrayDeque<Message> queue = new ArrayDeque<>();
+
+    private boolean busy;
+
+    private boolean overflow;
+
+    Subscriber(final SseTopic topic, final Sse sse) {
+      this.topic = topic;
+      this.sse = sse;
+    }
+
+    /**
+     * Queue a message.
+     *
+     * @return True when the caller must call {@link #drain()}.
+     */
+    synchronized boolean offer(final Message message, final int max,
+        final Overflow policy) {
+      if (queue.size() >= max) {
+        if (policy == Overflow.DROP_NEWEST) {
+          return false;
+        }
+        if (policy == Overflow.CLOSE) {
+          overflow = true;
+          queue.clear();
+        } else {
+          queue.poll();
+        }
+      }
+      queue.add(message);
+      return claim();
+    }
+
+    /**
+     * Queue a heartbeat if there is nothing to write.
+     *
+     * @return True when the caller must call {@link #drain()}.
+     */
+    synchronized boolean ping() {
+      if (busy || queue.size() > 0) {
+        return false;
+      }
+      queue.add(Message.HEARTBEAT);
+      return claim();
+    }
+
+    private boolean claim() {
+      if (busy) {
+        return false;
+      }
+      busy = true;
+      return true;
+    }
+
+    void drain() {
+      while (true) {
+        Message message;
+        synchronized (this) {
+          if (overflow) {
+            busy = false;
+            queue.clear();
+            message = null;
+          } else {
+            message = queue.poll();
+            if (message == null) {
+              busy = false;
+              return;
+            }
+          }
+        }
+        if (message == null) {
+          sse.log.debug("closing slow subscriber {} of {}", sse.id(), topic);
+          close();
+          return;
+        }
+        byte[] bytes;
+        try {
+          bytes = message.bytes(topic);
+        } catch (Exception ex) {
+          sse.log.error("rendering of event {} of {} resulted in error", message.id, topic, ex);
+          continue;
+        }
+        Future<Optional<Object>> future = sse.send(message.id, bytes).future();
+        if (!future.isCompleted()) {
+          future.onComplete(result -> {
+            if (result.isFailure()) {
+              close();
+            } else {
+              drain();
+            }
+          });
+          return;
+        }
+        if (future.isFailure()) {
+          close();
+          return;
+        }
+      }
+    }
+
+    private void close() {
+      topic.unsubscribe(sse);
+      Try.run(sse::close);
+    }
+  }
+}
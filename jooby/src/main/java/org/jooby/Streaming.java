@@ -0,0 +1,354 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import org.jooby.internal.StreamingBody;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+
+import javaslang.control.Try;
+
+/**
+ * <h1>streaming</h1>
+ * <p>
+ * Write a multi-element publisher (like a <code>Flux</code> or <code>Observable</code>) as it
+ * emits, instead of collecting it into a list first. Routes opt-in with
+ * {@link Route.Props#stream(Format)}:
+ * </p>
+ *
+ * <pre>{@code
+ * {
+ *   use(new Reactor());
+ *
+ *   get("/rows", req -> Flux...)
+ *     .stream(Streaming.Format.NDJSON);
+ * }
+ * }</pre>
+ *
+ * <h2>formats</h2>
+ * <ul>
+ * <li>{@link Format#JSON}: a JSON array, written one element at a time.</li>
+ * <li>{@link Format#NDJSON}: one JSON document per line.</li>
+ * <li>{@link Format#SSE}: one server-sent event per element, see {@link Sse}.</li>
+ * </ul>
+ * <p>
+ * Elements are rendered with the application renderers, <code>JSON</code> and <code>NDJSON</code>
+ * require a JSON renderer.
+ * </p>
+ *
+ * <h2>back pressure</h2>
+ * <p>
+ * The publisher gets an initial demand of {@link #WINDOW} elements and one more element every time
+ * a write completes, so at most {@link #WINDOW} elements are waiting for the client and a slow
+ * client slows down the publisher.
+ * </p>
+ * <p>
+ * <code>JSON</code> and <code>NDJSON</code> are written as a regular chunked response, see
+ * {@link Renderer.Context#stream(Renderer.BodyWriter)}, and the connection is kept alive once the
+ * publisher completes. Elements are written from the thread that resolves the deferred result,
+ * which blocks while the client is slow to read. Don't mix these formats with non-blocking routes.
+ * A failure before the first element produces a regular error response, a failure after it closes
+ * the connection without ending the body. The publisher is cancelled when the client goes away.
+ * </p>
+ * <p>
+ * <code>SSE</code> is written over a {@link Sse} connection, which is closed once the publisher
+ * completes, fails or the client goes away.
+ * </p>
+ *
+ * @author edgar
+ * @since 1.0.1
+ */
+public class Streaming {
+
+  /**
+   * Output formats.
+   *
+   * @author edgar
+   * @since 1.0.1
+   */
+  public enum Format {
+    /** A JSON array. */
+    JSON("application/json; charset=utf-8"),
+
+    /** New line delimited JSON. */
+    NDJSON("application/x-ndjson; charset=utf-8"),
+
+    /** Server-sent events. */
+    SSE("text/event-stream; charset=utf-8");
+
+    private final String contentType;
+
+    private Format(final String contentType) {
+      this.contentType = contentType;
+    }
+
+    /**
+     * @return Content type.
+     */
+    public String contentType() {
+      return contentType;
+    }
+  }
+
+  /**
+   * Demand of a {@link Subscriber}. Modules adapt the subscription of their reactive library.
+   *
+   * @author edgar
+   * @since 1.0.1
+   */
+  public interface Subscription {
+
+    /**
+     * Request more elements.
+     *
+     * @param n Number of elements.
+     */
+    void request(long n);
+
+    /**
+     * Stop the publisher.
+     */
+    void cancel();
+  }
+
+  /**
+   * Write elements as they are emitted. Calls must be serialized, like in a reactive-streams
+   * subscriber.
+   *
+   * @author edgar
+   * @since 1.0.1
+   */
+  public interface Subscriber {
+
+    /**
+     * Publisher is ready.
+     *
+     * @param subscription Subscription.
+     */
+    void onSubscribe(Subscription subscription);
+
+    /**
+     * Write an element.
+     *
+     * @param value Element.
+     */
+    void onNext(Object value);
+
+    /**
+     * Publisher failed.
+     *
+     * @param cause Failure.
+     */
+    void onError(Throwable cause);
+
+    /**
+     * Publisher completed.
+     */
+    void onComplete();
+  }
+
+  /** Writes elements as server-sent events, one write at a time. */
+  private static class SseWriter implements Subscriber {
+
+    /** The logging system. */
+    private final Logger log = LoggerFactory.getLogger(Streaming.class);
+
+    private final Sse sse;
+
+    private final String path;
+
+    private Subscription subscription;
+
+    /** Elements waiting for the current write. */
+    private final Deque<Object> queue = new ArrayDeque<>();
+
+    private boolean writing;
+
+    private boolean ending;
+
+    private final AtomicBoolean done = new AtomicBoolean(false);
+
+    public SseWriter(final Sse sse, final String path) {
+      this.sse = sse;
+      this.path = path;
+    }
+
+    @Override
+    public void onSubscribe(final Subscription subscription) {
+      this.subscription = subscription;
+      sse.onClose(() -> {
+        if (done.compareAndSet(false, true)) {
+          log.debug("connection lost, cancelling {}", path);
+          subscription.cancel();
+        }
+      });
+      subscription.request(WINDOW);
+    }
+
+    @Override
+    public void onNext(final Object value) {
+      if (done.get()) {
+        return;
+      }
+      boolean write;
+      synchronized (queue) {
+        queue.add(value);
+        write = !writing;
+        writing = true;
+      }
+      if (write) {
+        next();
+      }
+    }
+
+    @Override
+    public void onError(final Throwable cause) {
+      if (done.compareAndSet(false, true)) {
+        log.error("stream of {} resulted in error", path, cause);
+        end();
+      }
+    }
+
+    @Override
+    public void onComplete() {
+      if (done.compareAndSet(false, true)) {
+        end();
+      }
+    }
+
+    private void next() {
+      Object value;
+      boolean close = false;
+      synchronized (queue) {
+        value = queue.poll();
+        if (value == null) {
+          writing = false;
+          close = ending;
+        }
+      }
+      if (value == null) {
+        if (close) {
+          close();
+        }
+        return;
+      }
+      sse.send(value).onSuccess(id -> {
+        // element was written, ask for one more
+        subscription.request(1);
+        next();
+      }).onFailure(cause -> {
+        if (done.compareAndSet(false, true)) {
+          log.debug("write of {} resulted in error", path, cause);
+          subscription.cancel();
+        }
+        close();
+      });
+    }
+
+    private void end() {
+      boolean close;
+      synchronized (queue) {
+        ending = true;
+        close = !writing;
+      }
+      if (close) {
+        close();
+      }
+    }
+
+    private void close() {
+      Try.run(sse::close)
+          .onFailure(cause -> log.debug("close of {} resulted in error", path, cause));
+    }
+  }
+
+  /** Initial demand and max number of pending writes. */
+  public static final int WINDOW = 16;
+
+  /**
+   * Get the streaming format of a route, see {@link Route.Props#stream(Format)}.
+   *
+   * @param route A route.
+   * @return Streaming format or empty.
+   */
+  public static Optional<Format> format(final Route route) {
+    Object value = route.attributes().get(Route.STREAM);
+    return value instanceof Format ? Optional.of((Format) value) : Optional.empty();
+  }
+
+  /**
+   * Creates a deferred result that streams a publisher when the current route has a streaming
+   * format, see {@link Route.Props#stream(Format)}. Otherwise, the fallback initializer is used.
+   *
+   * @param subscribe Subscribe the given subscriber to the publisher.
+   * @param fallback Deferred initializer for non streaming routes.
+   * @return A deferred result.
+   */
+  public static Deferred deferred(final Consumer<Subscriber> subscribe,
+      final Deferred.Initializer0 fallback) {
+    requireNonNull(subscribe, "Subscribe function is required.");
+    requireNonNull(fallback, "Fallback is required.");
+    return new Deferred((req, deferred) -> {
+      Optional<Format> format = format(req.route());
+      if (format.isPresent()) {
+        stream(req, format.get(), subscribe, deferred);
+      } else {
+        fallback.run(deferred);
+      }
+    });
+  }
+
+  /**
+   * Creates a deferred result that streams a publisher in the given format.
+   *
+   * @param format Output format.
+   * @param subscribe Subscribe the given subscriber to the publisher.
+   * @return A deferred result.
+   */
+  public static Deferred deferred(final Format format, final Consumer<Subscriber> subscribe) {
+    requireNonNull(format, "Format is required.");
+    requireNonNull(subscribe, "Subscribe function is required.");
+    return new Deferred((req, deferred) -> stream(req, format, subscribe, deferred));
+  }
+
+  private static void stream(final Request req, final Format format,
+      final Consumer<Subscriber> subscribe, final Deferred deferred) throws Exception {
+    if (format == Format.SSE) {
+      Sse sse = req.require(Sse.class);
+      String path = req.path();
+      sse.handshake(req, () -> Try.run(() -> subscribe.accept(new SseWriter(sse, path)))
+          .onSuccess(deferred::resolve)
+          .onFailure(deferred::reject));
+    } else {
+      List<Renderer> renderers = ImmutableList.copyOf(req.require(Renderer.KEY));
+      deferred.resolve(new StreamingBody(renderers, format, subscribe));
+    }
+  }
+}
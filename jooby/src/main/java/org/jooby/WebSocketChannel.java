@@ -0,0 +1,448 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jooby.internal.WebSocketFrame;
+import org.jooby.internal.WebSocketImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * A group of web sockets. Messages sent to a channel are rendered once, using the renderers and
+ * produces type of a member, and all the members get the same read-only frame buffer:
+ *
+ * <pre>
+ * {
+ *   WebSocketChannel chat = new WebSocketChannel("chat");
+ *
+ *   ws("/chat", ws {@literal ->} {
+ *     chat.join(ws);
+ *
+ *     ws.onMessage(message {@literal ->} {
+ *       chat.broadcast(message.value());
+ *     });
+ *   });
+ * }
+ * </pre>
+ *
+ * <p>
+ * Each member keeps track of the bytes written but not flushed yet. Once a member goes over the
+ * high watermark the {@link Overflow} policy applies. Members leave the channel on close or on
+ * write errors.
+ * </p>
+ *
+ * @author edgar
+ * @since 1.0.1
+ */
+public class WebSocketChannel {
+
+  /**
+   * What to do when a member goes over the high watermark.
+   */
+  public enum Overflow {
+    /** Don't send the message to the member. */
+    DROP,
+
+    /** Close the member connection. */
+    CLOSE,
+
+    /**
+     * Keep sending, but mark the channel as not writable until the member goes below the low
+     * watermark. See {@link WebSocketChannel#isWritable()} and
+     * {@link WebSocketChannel#onWritable(Runnable)}.
+     */
+    PAUSE
+  }
+
+  /**
+   * Channel counters.
+   */
+  public static class Stats {
+
+    private final int members;
+
+    private final long broadcasts;
+
+    private final long frames;
+
+    private final long dropped;
+
+    private final long closed;
+
+    private final long pendingFrames;
+
+    private final long pendingBytes;
+
+    private final long fanoutTime;
+
+    private final long maxFanoutTime;
+
+    Stats(final int members, final long broadcasts, final long frames, final long dropped,
+        final long closed, final long pendingFrames, final long pendingBytes,
+        final long fanoutTime, final long maxFanoutTime) {
+      this.members = members;
+      this.broadcasts = broadcasts;
+      this.frames = frames;
+      this.dropped = dropped;
+      this.closed = closed;
+      this.pendingFrames = pendingFrames;
+      this.pendingBytes = pendingBytes;
+      this.fanoutTime = fanoutTime;
+      this.maxFanoutTime = maxFanoutTime;
+    }
+
+    /**
+     * @return Number of members.
+     */
+    public int members() {
+      return members;
+    }
+
+    /**
+     * @return Number of broadcast calls.
+     */
+    public long broadcasts() {
+      return broadcasts;
+    }
+
+    /**
+     * @return Number of frames written to members.
+     */
+    public long frames() {
+      return frames;
+    }
+
+    /**
+     * @return Number of frames dropped by the {@link Overflow#DROP} policy.
+     */
+    public long dropped() {
+      return dropped;
+    }
+
+    /**
+     * @return Number of members closed by the {@link Overflow#CLOSE} policy.
+     */
+    public long closed() {
+      return closed;
+    }
+
+    /**
+     * @return Frames written but not flushed yet, across all the members.
+     */
+    public long pendingFrames() {
+      return pendingFrames;
+    }
+
+    /**
+     * @return Bytes written but not flushed yet, across all the members.
+     */
+    public long pendingBytes() {
+      return pendingBytes;
+    }
+
+    /**
+     * Average time spent by a broadcast rendering the message and handing it to all members.
+     *
+     * @param unit Time unit.
+     * @return Average fan-out time.
+     */
+    public long fanoutTime(final TimeUnit unit) {
+      return unit.convert(broadcasts == 0 ? 0 : fanoutTime / broadcasts, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param unit Time unit.
+     * @return Max fan-out time.
+     */
+    public long maxFanoutTime(final TimeUnit unit) {
+      return unit.convert(maxFanoutTime, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+      return "{members: " + members + ", broadcasts: " + broadcasts + ", frames: " + frames
+          + ", dropped: " + dropped + ", closed: " + closed + ", pendingFrames: "
+          + pendingFrames + ", pendingBytes: " + pendingBytes + "}";
+    }
+  }
+
+  /** A channel member and its write-buffer usage. */
+  private static class Member {
+
+    private final WebSocketImpl ws;
+
+    private final AtomicLong pending = new AtomicLong();
+
+    private boolean blocked;
+
+    Member(final WebSocketImpl ws) {
+      this.ws = ws;
+    }
+  }
+
+  private final Logger log = LoggerFactory.getLogger(WebSocket.class);
+
+  private final String name;
+
+  private final Map<WebSocket, Member> members = new ConcurrentHashMap<>();
+
+  private volatile long lowWatermark = 32 * 1024;
+
+  private volatile long highWatermark = 64 * 1024;
+
+  private volatile Overflow overflow = Overflow.DROP;
+
+  /** Members over the high watermark, for the pause policy. */
+  private final AtomicInteger blocked = new AtomicInteger();
+
+  private final List<Runnable> onWritable = new CopyOnWriteArrayList<>();
+
+  private final LongAdder broadcasts = new LongAdder();
+
+  private final LongAdder frames = new LongAdder();
+
+  private final LongAdder dropped = new LongAdder();
+
+  private final LongAdder closed = new LongAdder();
+
+  private final AtomicLong pendingFrames = new AtomicLong();
+
+  private final AtomicLong pendingBytes = new AtomicLong();
+
+  private final LongAdder fanoutTime = new LongAdder();
+
+  private final AtomicLong maxFanoutTime = new AtomicLong();
+
+  /**
+   * Creates a new channel.
+   *
+   * @param name Channel's name.
+   */
+  public WebSocketChannel(final String name) {
+    this.name = requireNonNull(name, "Name required.");
+  }
+
+  /**
+   * @return Channel's name.
+   */
+  public String name() {
+    return name;
+  }
+
+  /**
+   * @return Number of members.
+   */
+  public int size() {
+    return members.size();
+  }
+
+  /**
+   * Set the write-buffer watermarks of each member. Defaults are: <code>32k</code> and
+   * <code>64k</code>.
+   *
+   * @param low Low watermark in bytes.
+   * @param high High watermark in bytes.
+   * @return This channel.
+   */
+  public WebSocketChannel watermarks(final long low, final long high) {
+    Preconditions.checkArgument(low >= 0 && low <= high,
+        "Invalid watermarks, low: %s, high: %s", low, high);
+    this.lowWatermark = low;
+    this.highWatermark = high;
+    return this;
+  }
+
+  /**
+   * Set what to do when a member goes over the high watermark. Default is: {@link Overflow#DROP}.
+   *
+   * @param overflow Overflow policy.
+   * @return This channel.
+   */
+  public WebSocketChannel overflow(final Overflow overflow) {
+    this.overflow = requireNonNull(overflow, "Overflow policy required.");
+    return this;
+  }
+
+  /**
+   * Add a web socket to this channel. The web socket leaves the channel once closed.
+   *
+   * @param ws Web socket.
+   * @return This channel.
+   */
+  public WebSocketChannel join(final WebSocket ws) {
+    requireNonNull(ws, "WebSocket required.");
+    Preconditions.checkArgument(ws instanceof WebSocketImpl, "Unsupported web socket: %s", ws);
+    WebSocketImpl impl = (WebSocketImpl) ws;
+    if (members.putIfAbsent(ws, new Member(impl)) == null) {
+      impl.channels().add(this);
+    }
+    return this;
+  }
+
+  /**
+   * Remove a web socket from this channel.
+   *
+   * @param ws Web socket.
+   * @return This channel.
+   */
+  public WebSocketChannel leave(final WebSocket ws) {
+    Member member = members.remove(ws);
+    if (member != null) {
+      member.ws.channels().remove(this);
+      unblock(member);
+    }
+    return this;
+  }
+
+  /**
+   * @return False while a member is over the high watermark and the overflow policy is
+   *         {@link Overflow#PAUSE}.
+   */
+  public boolean isWritable() {
+    return blocked.get() == 0;
+  }
+
+  /**
+   * Callback to run every time the channel becomes writable again, see {@link Overflow#PAUSE}.
+   *
+   * @param callback Callback.
+   * @return This channel.
+   */
+  public WebSocketChannel onWritable(final Runnable callback) {
+    onWritable.add(requireNonNull(callback, "Callback required."));
+    return this;
+  }
+
+  /**
+   * Send a message to all the members.
+   *
+   * @param data Message to send.
+   * @return Number of members the message was written to.
+   * @throws Exception If rendering fails.
+   */
+  public int broadcast(final Object data) throws Exception {
+    requireNonNull(data, "Message required.");
+    Iterator<Member> it = members.values().iterator();
+    if (!it.hasNext()) {
+      return 0;
+    }
+    long start = System.nanoTime();
+    WebSocketFrame frame = it.next().ws.frame(data);
+    int count = 0;
+    for (Member member : members.values()) {
+      if (write(member, frame)) {
+        count += 1;
+      }
+    }
+    long elapsed = System.nanoTime() - start;
+    broadcasts.increment();
+    fanoutTime.add(elapsed);
+    maxFanoutTime.accumulateAndGet(elapsed, Math::max);
+    return count;
+  }
+
+  /**
+   * @return Current counters.
+   */
+  public Stats stats() {
+    return new Stats(members.size(), broadcasts.sum(), frames.sum(), dropped.sum(),
+        closed.sum(), pendingFrames.get(), pendingBytes.get(), fanoutTime.sum(),
+        maxFanoutTime.get());
+  }
+
+  private boolean write(final Member member, final WebSocketFrame frame) {
+    if (member.pending.get() >= highWatermark) {
+      Overflow overflow = this.overflow;
+      if (overflow == Overflow.DROP) {
+        dropped.increment();
+        return false;
+      }
+      if (overflow == Overflow.CLOSE) {
+        log.debug("closing slow member {} of {}", member.ws.path(), name);
+        closed.increment();
+        leave(member.ws);
+        member.ws.close(WebSocket.POLICY_VIOLATION);
+        return false;
+      }
+      synchronized (member) {
+        if (!member.blocked) {
+          member.blocked = true;
+          blocked.incrementAndGet();
+        }
+      }
+    }
+    long length = frame.length();
+    member.pending.addAndGet(length);
+    pendingBytes.addAndGet(length);
+    pendingFrames.incrementAndGet();
+    frames.increment();
+    member.ws.send(frame, () -> written(member, length), cause -> {
+      written(member, length);
+      log.debug("write to {} of {} resulted in error", member.ws.path(), name, cause);
+      leave(member.ws);
+    });
+    return true;
+  }
+
+  private void written(final Member member, final long length) {
+    long pending = member.pending.addAndGet(-length);
+    pendingBytes.addAndGet(-length);
+    pendingFrames.decrementAndGet();
+    if (pending <= lowWatermark) {
+      unblock(member);
+    }
+  }
+
+  private void unblock(final Member member) {
+    synchronized (member) {
+      if (!member.blocked) {
+        return;
+      }
+      member.blocked = false;
+    }
+    if (blocked.decrementAndGet() == 0) {
+      for (Runnable callback : onWritable) {
+        try {
+          callback.run();
+        } catch (Exception ex) {
+          log.error("writable callback of {} resulted in error", name, ex);
+        }
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+}
@@ -36,6 +36,8 @@ import org.jooby.Request;
 import org.jooby.Response;
 import org.jooby.Route;
 import org.jooby.Status;
+import org.jooby.internal.AssetCache;
+import org.jooby.internal.CachedAsset;
 import org.jooby.internal.URLAsset;
 
 import com.google.common.base.Strings;
@@ -79,6 +81,18 @@ import javaslang.control.Try;
  * Resolved assets are redirected to the cdn.
  * </p>
  *
+ * <h1>in-memory cache</h1>
+ * <p>
+ * Assets can be kept in memory via {@link #cache(long)}. Cached assets are served (including
+ * <code>304</code> responses) without touching the class loader. Text assets get a gzip variant
+ * and precompressed <code>.gz</code> and <code>.br</code> siblings are picked up when present. The
+ * variant is selected from the <code>Accept-Encoding</code> header.
+ * </p>
+ *
+ * <pre>
+ * assets.cache.maxSize = 10m
+ * </pre>
+ *
  * @author edgar
  * @since 0.1.0
  */
@@ -100,6 +114,14 @@ public class AssetHandler implements Route.Handler {
 
   private boolean lastModified = true;
 
+  private long cacheSize;
+
+  private boolean offHeap;
+
+  private boolean watch;
+
+  private AssetCache cache;
+
   /**
    * <p>
    * Creates a new {@link AssetHandler}. The handler accepts a location pattern, that serve for
@@ -222,10 +244,56 @@ public class AssetHandler implements Route.Handler {
     return this;
   }
 
+  /**
+   * Keep assets in memory, up to the given size (in bytes). Least recently used assets are evicted
+   * first. Assets bigger than the max size are never cached. Off by default.
+   *
+   * @param maxSize Max size in bytes, <code>0</code> turns off the cache.
+   * @return This handler.
+   */
+  public AssetHandler cache(final long maxSize) {
+    this.cacheSize = maxSize;
+    this.cache = newCache();
+    return this;
+  }
+
+  /**
+   * @param offHeap True, to keep cached assets in direct (off-heap) buffers.
+   * @return This handler.
+   */
+  public AssetHandler offHeap(final boolean offHeap) {
+    this.offHeap = offHeap;
+    this.cache = newCache();
+    return this;
+  }
+
+  /**
+   * Evict cached assets when the file behind them changes. Useful at development time. Only
+   * applies to assets loaded from the file system.
+   *
+   * @param watch True, to check if a cached asset changed on every request.
+   * @return This handler.
+   */
+  public AssetHandler watch(final boolean watch) {
+    this.watch = watch;
+    this.cache = newCache();
+    return this;
+  }
+
   @Override
   public void handle(final Request req, final Response rsp) throws Throwable {
     String path = req.path();
-    URL resource = resolve(req, path);
+    AssetCache cache = cdn == null ? this.cache : null;
+    if (cache != null) {
+      AssetCache.Entry entry = cache.get(path);
+      if (entry != null) {
+        doHandle(req, rsp, entry);
+        return;
+      }
+    }
+
+    String target = fn.apply(req, path);
+    URL resource = resolve(target);
 
     if (resource != null) {
       String localpath = resource.getPath();
@@ -244,12 +312,36 @@ public class AssetHandler implements Route.Handler {
           rsp.redirect(absUrl);
           rsp.end();
         } else {
-          doHandle(req, rsp, asset);
+          AssetCache.Entry entry = cache == null ? null
+              : cache.load(path, target, asset, this::resolve);
+          if (entry == null) {
+            doHandle(req, rsp, asset);
+          } else {
+            doHandle(req, rsp, entry);
+          }
         }
       }
     }
   }
 
+  private void doHandle(final Request req, final Response rsp, final AssetCache.Entry entry)
+      throws Throwable {
+    CachedAsset asset;
+    if (entry.encoded()) {
+      rsp.header("Vary", "Accept-Encoding");
+      // byte ranges apply to the identity content
+      asset = req.header("Range").isSet()
+          ? entry.select(null)
+          : entry.select(req.header("Accept-Encoding").value(null));
+      if (asset.encoding() != null) {
+        rsp.header("Content-Encoding", asset.encoding());
+      }
+    } else {
+      asset = entry.select(null);
+    }
+    doHandle(req, rsp, asset);
+  }
+
   private void doHandle(final Request req, final Response rsp, final Asset asset) throws Throwable {
 
     // handle etag
@@ -301,11 +393,6 @@ public class AssetHandler implements Route.Handler {
     rsp.send(asset);
   }
 
-  private URL resolve(final Request req, final String path) throws Exception {
-    String target = fn.apply(req, path);
-    return resolve(target);
-  }
-
   /**
    * Resolve a path as a {@link URL}.
    *
@@ -317,6 +404,10 @@ public class AssetHandler implements Route.Handler {
     return loader.getResource(path);
   }
 
+  private AssetCache newCache() {
+    return cacheSize > 0 ? new AssetCache(cacheSize, offHeap, watch) : null;
+  }
+
   private void init(final String pattern, final ClassLoader loader) {
     requireNonNull(loader, "Resource loader is required.");
     this.fn = pattern.equals("/")
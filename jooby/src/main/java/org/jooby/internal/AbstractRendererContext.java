@@ -18,6 +18,7 @@
  */
 package org.jooby.internal;
 
+import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.InputStream;
@@ -35,6 +36,7 @@ import org.jooby.Err;
 import org.jooby.MediaType;
 import org.jooby.MediaType.Matcher;
 import org.jooby.Renderer;
+import org.jooby.Renderer.BodyWriter;
 import org.jooby.Status;
 import org.jooby.View;
 
@@ -56,10 +58,17 @@ public abstract class AbstractRendererContext implements Renderer.Context {
 
   private int rsize;
 
+  private RendererCache cache;
 
   public AbstractRendererContext(final List<Renderer> renderers,
       final List<MediaType> produces, final Charset charset, final Map<String, Object> locals) {
+    this(renderers, null, produces, charset, locals);
+  }
+
+  public AbstractRendererContext(final List<Renderer> renderers, final RendererCache cache,
+      final List<MediaType> produces, final Charset charset, final Map<String, Object> locals) {
     this.renderers = renderers;
+    this.cache = cache;
     this.produces = produces;
     this.matcher = MediaType.matcher(produces);
     this.charset = charset;
@@ -68,12 +77,30 @@ public abstract class AbstractRendererContext implements Renderer.Context {
   }
 
   public void render(final Object value) throws Exception {
+    // views are resolved by name, don't cache them
+    boolean cacheable = cache != null && !(value instanceof View);
+    if (cacheable) {
+      Renderer renderer = cache.get(value.getClass(), produces);
+      if (renderer != null) {
+        renderer.render(value, this);
+        if (committed) {
+          return;
+        }
+      }
+    }
+    render(value, cacheable);
+  }
+
+  private void render(final Object value, final boolean cacheable) throws Exception {
     int i = 0;
     List<String> notFound = new ArrayList<>();
     while (!committed && i < rsize) {
       Renderer next = renderers.get(i);
       try {
         next.render(value, this);
+        if (committed && cacheable) {
+          cache.put(value.getClass(), produces, next);
+        }
       } catch (FileNotFoundException ex) {
         // view engine should recover from a template not found
         if (next instanceof View.Engine) {
@@ -176,6 +203,13 @@ public abstract class AbstractRendererContext implements Renderer.Context {
     committed = true;
   }
 
+  @Override
+  public void send(final BodyWriter writer) throws Exception {
+    type(MediaType.octetstream);
+    _send(writer);
+    committed = true;
+  }
+
   protected void setCommitted() {
     committed = true;
   }
@@ -193,4 +227,12 @@ public abstract class AbstractRendererContext implements Renderer.Context {
 
   protected abstract void _send(final InputStream stream) throws Exception;
 
+  protected void _send(final BodyWriter writer) throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    writer.write(output);
+    byte[] bytes = output.toByteArray();
+    length(bytes.length);
+    _send(bytes);
+  }
+
 }
@@ -0,0 +1,288 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.zip.GZIPOutputStream;
+
+import org.jooby.Asset;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.io.ByteStreams;
+
+import javaslang.control.Try.CheckedFunction;
+
+/**
+ * In-memory cache of assets, bounded by size (bytes) with LRU eviction. Text assets get a gzip
+ * variant. Precompressed <code>.br</code> and <code>.gz</code> siblings are used when present.
+ */
+public class AssetCache {
+
+  /**
+   * Cached variants of an asset.
+   */
+  public static class Entry {
+
+    private final CachedAsset identity;
+
+    private final CachedAsset gzip;
+
+    private final CachedAsset br;
+
+    private final File file;
+
+    private final long fileModified;
+
+    private final long fileLength;
+
+    Entry(final CachedAsset identity, final CachedAsset gzip, final CachedAsset br,
+        final File file) {
+      this.identity = identity;
+      this.gzip = gzip;
+      this.br = br;
+      this.file = file;
+      this.fileModified = file == null ? -1 : file.lastModified();
+      this.fileLength = file == null ? -1 : file.length();
+    }
+
+    /**
+     * @return True if there is an encoded variant (response must vary on Accept-Encoding).
+     */
+    public boolean encoded() {
+      return gzip != null || br != null;
+    }
+
+    /**
+     * Pick a variant for the given <code>Accept-Encoding</code> header. Brotli first, then gzip.
+     *
+     * @param acceptEncoding Accept-Encoding header or <code>null</code>.
+     * @return Best variant.
+     */
+    public CachedAsset select(final String acceptEncoding) {
+      if (acceptEncoding != null) {
+        if (br != null && accepts(acceptEncoding, "br")) {
+          return br;
+        }
+        if (gzip != null && accepts(acceptEncoding, "gzip")) {
+          return gzip;
+        }
+      }
+      return identity;
+    }
+
+    int weight() {
+      long weight = identity.length();
+      if (gzip != null) {
+        weight += gzip.length();
+      }
+      if (br != null) {
+        weight += br.length();
+      }
+      return (int) Math.min(Integer.MAX_VALUE, weight);
+    }
+
+    boolean stale() {
+      return file != null
+          && (file.lastModified() != fileModified || file.length() != fileLength);
+    }
+  }
+
+  /** Don't gzip tiny assets, headers cost more than we save. */
+  private static final int MIN_GZIP = 256;
+
+  private final Cache<String, Entry> cache;
+
+  private final long maxSize;
+
+  private final boolean offHeap;
+
+  private final boolean watch;
+
+  /**
+   * Creates a new asset cache.
+   *
+   * @param maxSize Max size in bytes.
+   * @param offHeap True, to keep content in direct buffers.
+   * @param watch True, to evict file system assets when they change.
+   */
+  public AssetCache(final long maxSize, final boolean offHeap, final boolean watch) {
+    this.maxSize = maxSize;
+    this.offHeap = offHeap;
+    this.watch = watch;
+    // reads are lock free, writes are rare: a single segment gives us a global LRU and let us
+    // cache assets up to maxSize (guava splits the max weight between segments)
+    this.cache = CacheBuilder.newBuilder()
+        .concurrencyLevel(1)
+        .maximumWeight(maxSize)
+        .weigher((final String path, final Entry entry) -> entry.weight())
+        .build();
+  }
+
+  /**
+   * Get a cached asset.
+   *
+   * @param path Request path.
+   * @return Cached asset or <code>null</code>.
+   */
+  public Entry get(final String path) {
+    Entry entry = cache.getIfPresent(path);
+    if (entry != null && watch && entry.stale()) {
+      cache.invalidate(path);
+      return null;
+    }
+    return entry;
+  }
+
+  /**
+   * Read an asset and cache it.
+   *
+   * @param path Request path.
+   * @param location Resource location (classpath path) of the asset.
+   * @param asset Asset to cache.
+   * @param resolver Resolve precompressed siblings (like: <code>app.js.gz</code>).
+   * @return Cached asset or <code>null</code> when the asset is too big.
+   * @throws Throwable If read fails.
+   */
+  public Entry load(final String path, final String location, final Asset asset,
+      final CheckedFunction<String, URL> resolver) throws Throwable {
+    if (asset.length() > maxSize) {
+      return null;
+    }
+    byte[] bytes = read(asset.stream());
+    if (bytes.length > maxSize) {
+      return null;
+    }
+    String etag = asset.etag();
+    CachedAsset identity = new CachedAsset(asset, etag, buffer(bytes), null);
+
+    CachedAsset gzip = sibling(resolver, location + ".gz", identity, "gzip");
+    if (gzip == null && asset.type().isText() && bytes.length >= MIN_GZIP) {
+      byte[] gz = gzip(bytes);
+      if (gz.length < bytes.length) {
+        gzip = new CachedAsset(identity, etag(etag, "gzip"), buffer(gz), "gzip");
+      }
+    }
+    CachedAsset br = sibling(resolver, location + ".br", identity, "br");
+
+    File file = null;
+    if ("file".equals(asset.resource().getProtocol())) {
+      file = new File(asset.resource().toURI());
+    }
+    Entry entry = new Entry(identity, gzip, br, file);
+    cache.put(path, entry);
+    return entry;
+  }
+
+  /**
+   * @return Number of cached assets.
+   */
+  public long size() {
+    return cache.size();
+  }
+
+  private CachedAsset sibling(final CheckedFunction<String, URL> resolver, final String location,
+      final CachedAsset asset, final String encoding) throws Throwable {
+    URL url = resolver.apply(location);
+    if (url == null) {
+      return null;
+    }
+    try (InputStream stream = url.openStream()) {
+      return new CachedAsset(asset, etag(asset.etag(), encoding), buffer(read(stream)),
+          encoding);
+    }
+  }
+
+  /** Encoded variants need their own tag: <code>W/"abc"</code> -&gt; <code>W/"abc-gzip"</code>. */
+  private static String etag(final String etag, final String encoding) {
+    if (etag.endsWith("\"")) {
+      return etag.substring(0, etag.length() - 1) + "-" + encoding + "\"";
+    }
+    return etag + "-" + encoding;
+  }
+
+  private ByteBuffer buffer(final byte[] bytes) {
+    if (offHeap) {
+      ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+      buffer.put(bytes);
+      buffer.flip();
+      return buffer;
+    }
+    return ByteBuffer.wrap(bytes);
+  }
+
+  private static byte[] read(final InputStream stream) throws Exception {
+    try (InputStream in = stream) {
+      return ByteStreams.toByteArray(in);
+    }
+  }
+
+  private static byte[] gzip(final byte[] bytes) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2);
+    try (OutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(bytes);
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * True when the Accept-Encoding header contains the given coding and q isn't 0.
+   */
+  static boolean accepts(final String header, final String coding) {
+    int len = header.length();
+    int start = 0;
+    while (start < len) {
+      int end = header.indexOf(',', start);
+      if (end < 0) {
+        end = len;
+      }
+      int semi = header.indexOf(';', start);
+      int tokenEnd = semi >= 0 && semi < end ? semi : end;
+      int s = start;
+      int e = tokenEnd;
+      while (s < e && header.charAt(s) == ' ') {
+        s++;
+      }
+      while (e > s && header.charAt(e - 1) == ' ') {
+        e--;
+      }
+      if (e - s == coding.length() && header.regionMatches(true, s, coding, 0, e - s)) {
+        return tokenEnd == end || !zero(header, tokenEnd + 1, end);
+      }
+      start = end + 1;
+    }
+    return false;
+  }
+
+  /** True for a <code>q=0</code> (or <code>q=0.0</code>) parameter. */
+  private static boolean zero(final String header, final int start, final int end) {
+    String param = header.substring(start, end).trim().replace(" ", "");
+    if (param.startsWith("q=") || param.startsWith("Q=")) {
+      String q = param.substring(2);
+      return q.matches("0(\\.0{0,3})?");
+    }
+    return false;
+  }
+
+}
@@ -18,8 +18,10 @@
  */
 package org.jooby.internal;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -66,6 +68,15 @@ public class BodyReferenceImpl implements Parser.BodyReference {
     }
   }
 
+  @Override
+  public InputStream stream() throws IOException {
+    if (bytes == null) {
+      return new FileInputStream(file);
+    } else {
+      return new ByteArrayInputStream(bytes);
+    }
+  }
+
   @Override
   public String text() throws IOException {
     return new String(bytes(), charset);
@@ -0,0 +1,122 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.jooby.MediaType;
+import org.jooby.Renderer;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteStreams;
+
+/**
+ * Render a value into a byte array, using the application renderers. Used where a value is
+ * written as a part of a larger message, like stream elements or web socket frames.
+ *
+ * @author edgar
+ * @since 1.0.1
+ */
+public class BufferRenderer extends AbstractRendererContext {
+
+  private byte[] bytes;
+
+  public BufferRenderer(final List<Renderer> renderers, final MediaType type,
+      final Charset charset) {
+    super(renderers, ImmutableList.of(type), charset, Collections.emptyMap());
+  }
+
+  /**
+   * Render a value.
+   *
+   * @param renderers Renderers.
+   * @param type Media type.
+   * @param charset Charset.
+   * @param value Value to render.
+   * @return Rendered bytes.
+   * @throws Exception If rendering fails.
+   */
+  public static byte[] render(final List<Renderer> renderers, final MediaType type,
+      final Charset charset, final Object value) throws Exception {
+    BufferRenderer ctx = new BufferRenderer(renderers, type, charset);
+    ctx.render(value);
+    return ctx.bytes;
+  }
+
+  @Override
+  protected void _send(final byte[] bytes) throws Exception {
+    this.bytes = bytes;
+  }
+
+  @Override
+  protected void _send(final ByteBuffer buffer) throws Exception {
+    // copy, renderers might reuse the buffer
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    this.bytes = bytes;
+  }
+
+  @Override
+  protected void _send(final FileChannel file) throws Exception {
+    this.bytes = bytes(file);
+  }
+
+  @Override
+  protected void _send(final InputStream stream) throws Exception {
+    this.bytes = bytes(stream);
+  }
+
+  /**
+   * Read and close a file.
+   *
+   * @param file File to read.
+   * @return File content.
+   * @throws IOException If read fails.
+   */
+  static byte[] bytes(final FileChannel file) throws IOException {
+    try (FileChannel channel = file) {
+      ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+      while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+        // read until the end of the file
+      }
+      return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+  }
+
+  /**
+   * Read and close a stream.
+   *
+   * @param stream Stream to read.
+   * @return Stream content.
+   * @throws IOException If read fails.
+   */
+  static byte[] bytes(final InputStream stream) throws IOException {
+    try (InputStream in = stream) {
+      return ByteStreams.toByteArray(in);
+    }
+  }
+
+}
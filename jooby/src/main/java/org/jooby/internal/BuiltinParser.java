@@ -84,6 +84,11 @@ public enum BuiltinParser implements Parser {
       return ctx.next();
     }
 
+    @Override
+    public Function<String, Object> converter(final Class<?> type) {
+      return parsers.get(type);
+    }
+
     private String toString(final String value) {
       return value;
     }
@@ -229,6 +234,16 @@ public enum BuiltinParser implements Parser {
     public String toString() {
       return "byte[]";
     }
+  };
+
+  /**
+   * Converter of a single value, for parsers who convert a param or body without extra logic.
+   *
+   * @param type Target type.
+   * @return A converter or <code>null</code>.
+   */
+  public Function<String, Object> converter(final Class<?> type) {
+    return null;
   }
 
 }
@@ -36,7 +36,11 @@ public enum BuiltinRenderer implements Renderer {
   asset {
     @Override
     public void render(final Object value, final Context ctx) throws Exception {
-      if (value instanceof Asset) {
+      if (value instanceof CachedAsset) {
+        CachedAsset resource = (CachedAsset) value;
+        ctx.type(resource.type())
+            .send(resource.buffer());
+      } else if (value instanceof Asset) {
         Asset resource = ((Asset) value);
         ctx.type(resource.type())
             .length(resource.length())
@@ -120,6 +124,17 @@ public enum BuiltinRenderer implements Renderer {
     }
   },
 
+  streaming {
+    @Override
+    public void render(final Object object, final Renderer.Context ctx) throws Exception {
+      if (object instanceof StreamingBody) {
+        StreamingBody body = (StreamingBody) object;
+        ctx.type(body.type())
+            .stream(body);
+      }
+    }
+  },
+
   text {
     @Override
     public void render(final Object object, final Renderer.Context ctx) throws Exception {
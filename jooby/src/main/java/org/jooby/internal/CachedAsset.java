@@ -0,0 +1,136 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+
+import org.jooby.Asset;
+import org.jooby.MediaType;
+
+/**
+ * Asset kept in memory by {@link AssetCache}. ETag and last modified are computed once.
+ */
+public class CachedAsset implements Asset {
+
+  private final String path;
+
+  private final URL resource;
+
+  private final MediaType type;
+
+  private final long lastModified;
+
+  private final String etag;
+
+  private final ByteBuffer content;
+
+  private final String encoding;
+
+  public CachedAsset(final Asset asset, final String etag, final ByteBuffer content,
+      final String encoding) {
+    this.path = asset.path();
+    this.resource = asset.resource();
+    this.type = asset.type();
+    this.lastModified = asset.lastModified();
+    this.etag = etag;
+    this.content = content.asReadOnlyBuffer();
+    this.encoding = encoding;
+  }
+
+  @Override
+  public String path() {
+    return path;
+  }
+
+  @Override
+  public URL resource() {
+    return resource;
+  }
+
+  @Override
+  public String etag() {
+    return etag;
+  }
+
+  @Override
+  public long length() {
+    return content.remaining();
+  }
+
+  @Override
+  public long lastModified() {
+    return lastModified;
+  }
+
+  @Override
+  public MediaType type() {
+    return type;
+  }
+
+  /**
+   * @return Content coding (<code>gzip</code> or <code>br</code>) or <code>null</code>.
+   */
+  public String encoding() {
+    return encoding;
+  }
+
+  /**
+   * @return Asset content, a read only view (no copy).
+   */
+  public ByteBuffer buffer() {
+    return content.duplicate();
+  }
+
+  @Override
+  public InputStream stream() {
+    ByteBuffer buffer = buffer();
+    return new InputStream() {
+      @Override
+      public int read() {
+        return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+      }
+
+      @Override
+      public int read(final byte[] bytes, final int off, final int len) {
+        if (len == 0) {
+          return 0;
+        }
+        if (!buffer.hasRemaining()) {
+          return -1;
+        }
+        int count = Math.min(len, buffer.remaining());
+        buffer.get(bytes, off, count);
+        return count;
+      }
+
+      @Override
+      public int available() {
+        return buffer.remaining();
+      }
+    };
+  }
+
+  @Override
+  public String toString() {
+    return path() + "(" + type() + (encoding == null ? "" : ", " + encoding) + ")";
+  }
+
+}
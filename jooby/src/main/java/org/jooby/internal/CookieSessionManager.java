@@ -19,6 +19,7 @@
 package org.jooby.internal;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
@@ -36,16 +37,31 @@ import org.jooby.internal.parser.ParserExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 /**
  * Save session data in a cookie.
  *
+ * The cookie is verified and decoded once per request. Decoded attributes of verified cookies are
+ * kept in a small LRU cache keyed by the raw (signed) value, so repeated requests with the same
+ * cookie skip the HMAC. The cookie is re-encoded and re-signed only if the session changed.
+ *
  * @author edgar
  */
 public class CookieSessionManager implements SessionManager {
 
+  /** Max number of verified cookies to keep. */
+  private static final int CACHE_SIZE = 1000;
+
   /** The logging system. */
   private final Logger log = LoggerFactory.getLogger(SessionManager.class);
 
+  /** Raw cookie value to decoded attributes. */
+  private final Cache<String, Map<String, String>> verified = CacheBuilder.newBuilder()
+      .maximumSize(CACHE_SIZE)
+      .build();
+
   private final ParserExecutor resolver;
 
   private Definition cookie;
@@ -67,7 +83,7 @@ public class CookieSessionManager implements SessionManager {
   public Session create(final Request req, final Response rsp) {
     Session session = new SessionImpl.Builder(resolver, true, Session.COOKIE_SESSION, -1).build();
     log.debug("session created: {}", session);
-    rsp.after(saveCookie());
+    rsp.after(saveCookie(Optional.empty(), Collections.emptyMap()));
     return session;
   }
 
@@ -78,7 +94,7 @@ public class CookieSessionManager implements SessionManager {
           -1);
       Map<String, String> attributes = attributes(raw);
       session.set(attributes);
-      rsp.after(saveCookie());
+      rsp.after(saveCookie(Optional.of(raw), attributes));
       return session.build();
     }).orElse(null);
   }
@@ -99,25 +115,28 @@ public class CookieSessionManager implements SessionManager {
   }
 
   private Map<String, String> attributes(final String raw) {
-    String unsigned = Cookie.Signature.unsign(raw, secret);
-    return Cookie.URL_DECODER.apply(unsigned);
+    Map<String, String> attributes = verified.getIfPresent(raw);
+    if (attributes == null) {
+      String unsigned = Cookie.Signature.unsign(raw, secret);
+      attributes = Collections.unmodifiableMap(Cookie.URL_DECODER.apply(unsigned));
+      verified.put(raw, attributes);
+    }
+    return attributes;
   }
 
-  private Route.After saveCookie() {
+  private Route.After saveCookie(final Optional<String> value,
+      final Map<String, String> initial) {
     return (req, rsp, result) -> {
       req.ifSession().ifPresent(session -> {
-        Optional<String> value = req.cookie(cookie.name().get()).toOptional();
-        Map<String, String> initial = value
-            .map(this::attributes)
-            .orElse(Collections.emptyMap());
         Map<String, String> attributes = session.attributes();
         // is dirty?
-        boolean dirty = !initial.equals(attributes);
+        boolean dirty = isDirty(session) && !initial.equals(attributes);
         log.debug("session dirty: {}", dirty);
         if (dirty) {
           log.debug("saving session cookie");
           String encoded = Cookie.URL_ENCODER.apply(attributes);
           String signed = Cookie.Signature.sign(encoded, secret);
+          verified.put(signed, Collections.unmodifiableMap(new HashMap<>(attributes)));
           rsp.cookie(new Cookie.Definition(cookie).value(signed));
         } else if (timeout > 0) {
           // touch session
@@ -128,4 +147,14 @@ public class CookieSessionManager implements SessionManager {
     };
   }
 
+  private static boolean isDirty(final Session session) {
+    if (session instanceof RequestScopedSession) {
+      return isDirty(((RequestScopedSession) session).session());
+    }
+    if (session instanceof SessionImpl) {
+      return ((SessionImpl) session).isDirty();
+    }
+    return true;
+  }
+
 }
@@ -19,6 +19,7 @@
 package org.jooby.internal;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 
 import org.jooby.Err;
@@ -32,6 +33,11 @@ public class EmptyBodyReference implements Parser.BodyReference {
     throw new Err(Status.BAD_REQUEST);
   }
 
+  @Override
+  public InputStream stream() throws IOException {
+    throw new Err(Status.BAD_REQUEST);
+  }
+
   @Override
   public String text() throws IOException {
     throw new Err(Status.BAD_REQUEST);
@@ -22,18 +22,16 @@ import static java.util.Objects.requireNonNull;
 
 import java.nio.charset.Charset;
 import java.text.MessageFormat;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -63,11 +61,7 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Strings;
 import com.google.common.base.Throwables;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Sets;
 import com.google.inject.Injector;
 import com.google.inject.Key;
 import com.google.inject.name.Names;
@@ -78,44 +72,6 @@ import javaslang.control.Try;
 @Singleton
 public class HttpHandlerImpl implements HttpHandler {
 
-  private static class RouteKey {
-    protected String method;
-
-    protected String path;
-
-    protected MediaType consumes;
-
-    protected List<MediaType> produces;
-
-    private int hc;
-
-    public RouteKey(final String method, final String path, final MediaType consumes,
-        final List<MediaType> produces) {
-      this.method = method;
-      this.path = path;
-      this.consumes = consumes;
-      this.produces = produces;
-      hc = 1;
-      hc = 31 * hc + method.hashCode();
-      hc = 31 * hc + path.hashCode();
-      hc = 31 * hc + consumes.hashCode();
-      hc = 31 * hc + produces.hashCode();
-    }
-
-    @Override
-    public int hashCode() {
-      return hc;
-    }
-
-    @Override
-    public boolean equals(final Object obj) {
-      RouteKey that = (RouteKey) obj;
-      return method.equals(that.method) && path.equals(that.path) && produces.equals(that.produces)
-          && consumes.equals(that.consumes);
-    }
-
-  }
-
   private static final String NO_CACHE = "must-revalidate,no-cache,no-store";
 
   private static final String WEB_SOCKET = "WebSocket";
@@ -140,6 +96,12 @@ public class HttpHandlerImpl implements HttpHandler {
 
   private static final String BYTE_RANGE = "Range";
 
+  /** Initial capacity of request locals: contextPath and path. */
+  private static final int LOCALS_SIZE = 4;
+
+  /** Initial capacity of request scope: request, response, sse, session and a few more. */
+  private static final int SCOPE_SIZE = 8;
+
   /** The logging system. */
   private final Logger log = LoggerFactory.getLogger(HttpHandler.class);
 
@@ -167,7 +129,7 @@ public class HttpHandlerImpl implements HttpHandler {
 
   private List<Locale> locale;
 
-  private final LoadingCache<RouteKey, List<Route>> routeCache;
+  private final RouteCache routeCache;
 
   private final String redirectHttps;
 
@@ -179,15 +141,28 @@ public class HttpHandlerImpl implements HttpHandler {
 
   private final Map<String, Renderer> rendererMap;
 
+  private final RendererCache rendererCache;
+
+  private final int bufferSize;
+
   private StatusCodeProvider sc;
 
   /** Global deferred executor. */
   private Key<Executor> gexec;
 
+  /** Server-sent events, resolved from current request. */
+  private final Provider<Sse> sse;
+
+  /** Session, resolved from current request. */
+  private final Provider<Session> session;
+
+  /** Dev only, warn when a non-blocking route takes longer than this (millis). */
+  private final long nonBlockingWarn;
+
   @Inject
   public HttpHandlerImpl(final Injector injector,
       final RequestScope requestScope,
-      final Set<Route.Definition> routes,
+      final RouteCache routeCache,
       final Set<WebSocket.Definition> sockets,
       final @Named("application.path") String path,
       final ParserExecutor parserExecutor,
@@ -212,9 +187,14 @@ public class HttpHandlerImpl implements HttpHandler {
     this.renderers = ImmutableList.copyOf(renderers);
     rendererMap = new HashMap<>();
     this.renderers.forEach(r -> rendererMap.put(r.name(), r));
-
-    // route cache
-    routeCache = routeCache(routes, config);
+    int rendererCache = config.getInt("server.renderers.Cache");
+    this.rendererCache = rendererCache > 0 ? new RendererCache(rendererCache) : null;
+    this.bufferSize = config.getBytes("server.http.ResponseBufferSize").intValue();
+
+    this.routeCache = requireNonNull(routeCache, "A route cache is required.");
+    this.nonBlockingWarn = config.getString("application.env").equals("dev")
+        ? config.getDuration("server.routes.NonBlockingWarn", TimeUnit.MILLISECONDS)
+        : 0;
     // force https
     String redirectHttps = config.getString("application.redirect_https").trim();
     this.redirectHttps = redirectHttps.length() > 0 ? redirectHttps : null;
@@ -228,15 +208,40 @@ public class HttpHandlerImpl implements HttpHandler {
     }
     // global deferred executor
     this.gexec = Key.get(Executor.class, Names.named(injector.getInstance(DEF_EXEC)));
+
+    this.sse = () -> Try.of(() -> request().upgrade(Sse.class))
+        .getOrElseThrow(() -> new UnsupportedOperationException("Server-sent events"));
+    this.session = () -> request().session();
+  }
+
+  @Override
+  public boolean hasNonBlocking() {
+    // method override might read the body
+    return routeCache.hasNonBlocking() && _method == null;
+  }
+
+  @Override
+  public boolean nonBlocking(final String method, final String path) {
+    if (!hasNonBlocking()) {
+      return false;
+    }
+    String requestPath = normalizeURI(path);
+    if (rpath != null) {
+      requestPath = rpath.apply(requestPath);
+    }
+    if (hasSockets && findSockets(socketDefs, requestPath).isPresent()) {
+      return false;
+    }
+    return routeCache.nonBlocking(method.toUpperCase(), requestPath);
   }
 
   @Override
   public void handle(final NativeRequest request, final NativeResponse response) throws Exception {
     long start = System.currentTimeMillis();
 
-    Map<String, Object> locals = new HashMap<>(16);
+    Map<String, Object> locals = new HashMap<>(LOCALS_SIZE);
 
-    Map<Object, Object> scope = new HashMap<>(16);
+    Map<Object, Object> scope = new HashMap<>(SCOPE_SIZE);
 
     String verb = (_method == null ? request.method() : method(_method, request)).toUpperCase();
     String requestPath = normalizeURI(request.path());
@@ -248,15 +253,14 @@ public class HttpHandlerImpl implements HttpHandler {
     locals.put(CONTEXT_PATH, contextPath);
     locals.put(PATH, requestPath);
 
-    final String path = verb + requestPath;
-
-    Route notFound = RouteImpl.notFound(verb, path, MediaType.ALL);
-
-    RequestImpl req = new RequestImpl(injector, request, contextPath, port, notFound, charset,
-        locale, scope, locals, start);
+    // routes are set by the route chain, not found route is created when nothing matched
+    RequestImpl req = new RequestImpl(injector, parserExecutor, request, contextPath, port,
+        null, charset, locale, scope, locals, start);
+    req.notFound(verb, requestPath);
 
-    ResponseImpl rsp = new ResponseImpl(req, parserExecutor, response, notFound, renderers,
-        rendererMap, locals, req.charset(), request.header(REFERER), request.header(BYTE_RANGE));
+    ResponseImpl rsp = new ResponseImpl(req, parserExecutor, response, null, renderers,
+        rendererCache, rendererMap, locals, req.charset(), request.header(REFERER),
+        request.header(BYTE_RANGE), bufferSize);
 
     MediaType type = req.type();
 
@@ -264,13 +268,8 @@ public class HttpHandlerImpl implements HttpHandler {
     scope.put(REQ, req);
     scope.put(RSP, rsp);
 
-    // seed sse
-    Provider<Sse> sse = () -> Try.of(() -> request.upgrade(Sse.class))
-        .getOrElseThrow(() -> new UnsupportedOperationException("Server-sent events"));
+    // seed sse & session
     scope.put(SSE, sse);
-
-    // seed session
-    Provider<Session> session = () -> req.session();
     scope.put(SESS, session);
 
     boolean deferred = false;
@@ -300,10 +299,9 @@ public class HttpHandlerImpl implements HttpHandler {
       }
 
       // usual req/rsp
-      List<Route> routes = routeCache
-          .getUnchecked(new RouteKey(verb, requestPath, type, req.accept()));
+      RouteCache.RouteList routes = routeCache.routes(verb, requestPath, type, req.accept());
 
-      new RouteChain(req, rsp, routes).next(req, rsp);
+      new RouteChain(req, rsp, routes, routes.hasAttrs()).next(req, rsp);
 
     } catch (DeferredExecution ex) {
       deferred = true;
@@ -312,9 +310,20 @@ public class HttpHandlerImpl implements HttpHandler {
       x = ex;
     } finally {
       cleanup(req, rsp, true, x, !deferred);
+      if (nonBlockingWarn > 0) {
+        long took = System.currentTimeMillis() - start;
+        if (took > nonBlockingWarn && routeCache.nonBlocking(verb, requestPath)) {
+          log.warn("non-blocking route: {}{} took {}ms, it is probably blocking the IO thread",
+              verb, requestPath, took);
+        }
+      }
     }
   }
 
+  private RequestImpl request() {
+    return (RequestImpl) requestScope.get(REQ);
+  }
+
   private boolean upgrade(final NativeRequest request) {
     Optional<String> upgrade = request.header(UPGRADE);
     return upgrade.isPresent() && upgrade.get().equalsIgnoreCase(WEB_SOCKET);
@@ -414,42 +423,6 @@ public class HttpHandlerImpl implements HttpHandler {
     return len > 1 && uri.charAt(len - 1) == '/' ? uri.substring(0, len - 1) : uri;
   }
 
-  private static List<Route> routes(final Set<Route.Definition> routeDefs, final String method,
-      final String path, final MediaType type, final List<MediaType> accept) {
-    List<Route> routes = findRoutes(routeDefs, method, path, type, accept);
-
-    routes.add(RouteImpl.fromStatus((req, rsp, chain) -> {
-      if (!rsp.status().isPresent()) {
-        // 406 or 415
-        Err ex = handle406or415(routeDefs, method, path, type, accept);
-        if (ex != null) {
-          throw ex;
-        }
-        // 405
-        ex = handle405(routeDefs, method, path, type, accept);
-        if (ex != null) {
-          throw ex;
-        }
-        throw new Err(Status.NOT_FOUND, req.path(true));
-      }
-    }, method, path, "err", accept));
-
-    return routes;
-  }
-
-  private static List<Route> findRoutes(final Set<Route.Definition> routeDefs, final String method,
-      final String path, final MediaType type, final List<MediaType> accept) {
-
-    List<Route> routes = new ArrayList<>();
-    for (Route.Definition routeDef : routeDefs) {
-      Optional<Route> route = routeDef.matches(method, path, type, accept);
-      if (route.isPresent()) {
-        routes.add(route.get());
-      }
-    }
-    return routes;
-  }
-
   private static Optional<WebSocket> findSockets(final Set<WebSocket.Definition> sockets,
       final String path) {
     for (WebSocket.Definition socketDef : sockets) {
@@ -461,48 +434,6 @@ public class HttpHandlerImpl implements HttpHandler {
     return Optional.empty();
   }
 
-  private static Err handle405(final Set<Route.Definition> routeDefs, final String method,
-      final String path, final MediaType type, final List<MediaType> accept) {
-
-    if (alternative(routeDefs, method, path).size() > 0) {
-      return new Err(Status.METHOD_NOT_ALLOWED, method);
-    }
-
-    return null;
-  }
-
-  private static List<Route> alternative(final Set<Route.Definition> routeDefs, final String verb,
-      final String uri) {
-    List<Route> routes = new LinkedList<>();
-    Set<String> verbs = Sets.newHashSet(Route.METHODS);
-    verbs.remove(verb);
-    for (String alt : verbs) {
-      findRoutes(routeDefs, alt, uri, MediaType.all, MediaType.ALL)
-          .stream()
-          // skip glob pattern
-          .filter(r -> !r.pattern().contains("*"))
-          .forEach(routes::add);
-
-    }
-    return routes;
-  }
-
-  private static Err handle406or415(final Set<Route.Definition> routeDefs, final String method,
-      final String path, final MediaType contentType, final List<MediaType> accept) {
-    for (Route.Definition routeDef : routeDefs) {
-      Optional<Route> route = routeDef.matches(method, path, MediaType.all, MediaType.ALL);
-      if (route.isPresent() && !route.get().pattern().contains("*")) {
-        if (!routeDef.canProduce(accept)) {
-          return new Err(Status.NOT_ACCEPTABLE, accept.stream()
-              .map(MediaType::name)
-              .collect(Collectors.joining(", ")));
-        }
-        return new Err(Status.UNSUPPORTED_MEDIA_TYPE, contentType.name());
-      }
-    }
-    return null;
-  }
-
   private static String method(final String methodParam, final NativeRequest request)
       throws Exception {
     Optional<String> header = request.header(methodParam);
@@ -513,17 +444,6 @@ public class HttpHandlerImpl implements HttpHandler {
     return param.size() == 0 ? request.method() : param.get(0);
   }
 
-  private static LoadingCache<RouteKey, List<Route>> routeCache(final Set<Route.Definition> routes,
-      final Config conf) {
-    return CacheBuilder.from(conf.getString("server.routes.Cache"))
-        .build(new CacheLoader<RouteKey, List<Route>>() {
-          @Override
-          public List<Route> load(final RouteKey key) throws Exception {
-            return routes(routes, key.method, key.path, key.consumes, key.produces);
-          }
-        });
-  }
-
   private static Function<String, String> rootpath(final String applicationPath) {
     return p -> {
       if (applicationPath.equals(p)) {
@@ -18,7 +18,10 @@
  */
 package org.jooby.internal;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
@@ -30,7 +33,9 @@ import java.util.function.Consumer;
 import org.jooby.Err;
 import org.jooby.MediaType;
 import org.jooby.Renderer;
+import org.jooby.Renderer.BodyWriter;
 import org.jooby.Renderer.Context;
+import org.jooby.Renderer.TextWriter;
 import org.jooby.Status;
 import org.jooby.spi.NativeResponse;
 
@@ -41,6 +46,49 @@ import javaslang.Tuple2;
 
 public class HttpRendererContext extends AbstractRendererContext {
 
+  /** Opens the response output stream on first use, so nothing is sent until then. */
+  private static class ChunkedOutput extends OutputStream {
+
+    private final NativeResponse rsp;
+
+    private OutputStream output;
+
+    ChunkedOutput(final NativeResponse rsp) {
+      this.rsp = rsp;
+    }
+
+    public boolean committed() {
+      return output != null;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+      output().write(b);
+    }
+
+    @Override
+    public void write(final byte[] bytes, final int off, final int len) throws IOException {
+      output().write(bytes, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      output().flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      output().close();
+    }
+
+    private OutputStream output() throws IOException {
+      if (output == null) {
+        output = rsp.outputStream();
+      }
+      return output;
+    }
+  }
+
   private Consumer<Long> length;
 
   private Consumer<MediaType> type;
@@ -49,12 +97,23 @@ public class HttpRendererContext extends AbstractRendererContext {
 
   private Optional<String> byteRange;
 
+  private int bufferSize;
+
   public HttpRendererContext(final List<Renderer> renderers,
       final NativeResponse rsp, final Consumer<Long> len, final Consumer<MediaType> type,
       final Map<String, Object> locals, final List<MediaType> produces, final Charset charset,
       final Optional<String> byteRange) {
-    super(renderers, produces, charset, locals);
+    this(renderers, null, rsp, len, type, locals, produces, charset, byteRange,
+        ResponseImpl.BUFFER_SIZE);
+  }
+
+  public HttpRendererContext(final List<Renderer> renderers, final RendererCache cache,
+      final NativeResponse rsp, final Consumer<Long> len, final Consumer<MediaType> type,
+      final Map<String, Object> locals, final List<MediaType> produces, final Charset charset,
+      final Optional<String> byteRange, final int bufferSize) {
+    super(renderers, cache, produces, charset, locals);
     this.byteRange = byteRange;
+    this.bufferSize = bufferSize;
     this.rsp = rsp;
     this.length = len;
     this.type = type;
@@ -74,7 +133,15 @@ public class HttpRendererContext extends AbstractRendererContext {
 
   @Override
   protected void _send(final ByteBuffer buffer) throws Exception {
-    rsp.send(buffer);
+    Tuple2<Long, Long> byteRange = byteRange();
+    if (byteRange == null) {
+      rsp.send(buffer);
+    } else {
+      ByteBuffer range = buffer.duplicate();
+      range.position(range.position() + byteRange._1.intValue());
+      range.limit(range.position() + byteRange._2.intValue());
+      rsp.send(range.slice());
+    }
   }
 
   @Override
@@ -103,6 +170,64 @@ public class HttpRendererContext extends AbstractRendererContext {
     }
   }
 
+  @Override
+  protected void _send(final BodyWriter writer) throws Exception {
+    if (byteRange.isPresent()) {
+      // a range needs the full length, buffer and go through the byte buffer path
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      writer.write(output);
+      byte[] bytes = output.toByteArray();
+      length(bytes.length);
+      _send(ByteBuffer.wrap(bytes));
+    } else {
+      rsp.send(writer);
+    }
+  }
+
+  @Override
+  public void stream(final BodyWriter writer) throws Exception {
+    if (byteRange.isPresent()) {
+      send(writer);
+      return;
+    }
+    type(MediaType.octetstream);
+    ChunkedOutput output = new ChunkedOutput(rsp);
+    try {
+      writer.write(output);
+    } catch (Throwable x) {
+      if (output.committed()) {
+        // headers and part of the body were sent already, don't end a truncated body
+        rsp.abort(x);
+        setCommitted();
+      }
+      throw x;
+    }
+    output.close();
+    setCommitted();
+  }
+
+  @Override
+  public void write(final TextWriter writer) throws Exception {
+    type(MediaType.html);
+    ResponseWriter output = new ResponseWriter(rsp, charset, bufferSize);
+    try {
+      writer.write(output);
+    } catch (Throwable x) {
+      if (output.committed()) {
+        // headers and part of the body were sent already, don't end a truncated body
+        rsp.abort(x);
+        setCommitted();
+      }
+      throw x;
+    }
+    ByteBuffer body = output.end();
+    if (body != null) {
+      length(body.remaining());
+      _send(body);
+    }
+    setCommitted();
+  }
+
   private <T> Tuple2<Long, Long> byteRange() {
     long len = rsp.header("Content-Length").map(Long::parseLong).orElse(-1L);
     if (len > 0) {
@@ -0,0 +1,228 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Regex-free path pattern, compiled from the {@link RoutePattern} grammar. Supports literals,
+ * <code>?</code>, <code>*</code>, <code>:var</code>, <code>{var}</code>, <code>/**</code>,
+ * <code>/**:var</code> and <code>{var:**}</code>. Matching backtracks like the equivalent regex
+ * does, so captures are identical. Captures are saved as <code>[start, end)</code> offsets in a
+ * flat array: one pair per group.
+ */
+class PathPattern {
+
+  /** A literal. */
+  static final byte LITERAL = 0;
+
+  /** <code>?</code>: a single char, except <code>/</code>. */
+  static final byte CHAR = 1;
+
+  /** <code>*</code>: zero or more chars, except <code>/</code>. */
+  static final byte STAR = 2;
+
+  /** <code>:var</code> or <code>{var}</code>: one or more chars, except <code>/</code>. */
+  static final byte VAR = 3;
+
+  /** <code>/**</code>: end of path or a <code>/</code> followed by anything. */
+  static final byte DEEP = 4;
+
+  /** <code>/**:var</code>: a <code>/</code> followed by anything. Two groups. */
+  static final byte DEEP_VAR = 5;
+
+  /** <code>{var:**}</code>: anything. Two groups. */
+  static final byte ANY = 6;
+
+  static class Builder {
+
+    private List<Byte> kinds = new ArrayList<>();
+
+    private List<String> literals = new ArrayList<>();
+
+    private int groups;
+
+    private List<Integer> vars = new ArrayList<>();
+
+    public Builder literal(final String literal) {
+      if (literal.length() > 0) {
+        add(LITERAL, literal);
+      }
+      return this;
+    }
+
+    public Builder glob(final byte kind) {
+      add(kind, null);
+      groups += 1;
+      return this;
+    }
+
+    public Builder var(final byte kind) {
+      vars.add(groups);
+      add(kind, null);
+      groups += kind == VAR ? 1 : 2;
+      return this;
+    }
+
+    private void add(final byte kind, final String literal) {
+      kinds.add(kind);
+      literals.add(literal);
+    }
+
+    public PathPattern build(final String[] verbs) {
+      byte[] kinds = new byte[this.kinds.size()];
+      for (int i = 0; i < kinds.length; i++) {
+        kinds[i] = this.kinds.get(i);
+      }
+      int[] vars = new int[this.vars.size()];
+      for (int i = 0; i < vars.length; i++) {
+        vars[i] = this.vars.get(i);
+      }
+      return new PathPattern(verbs, kinds, literals.toArray(new String[literals.size()]),
+          groups, vars);
+    }
+  }
+
+  /** Accepted verbs or <code>null</code> for any. */
+  private final String[] verbs;
+
+  private final byte[] kinds;
+
+  private final String[] literals;
+
+  private final int groups;
+
+  private final int[] vars;
+
+  private PathPattern(final String[] verbs, final byte[] kinds, final String[] literals,
+      final int groups, final int[] vars) {
+    this.verbs = verbs;
+    this.kinds = kinds;
+    this.literals = literals;
+    this.groups = groups;
+    this.vars = vars;
+  }
+
+  /**
+   * @return Number of groups.
+   */
+  public int groups() {
+    return groups;
+  }
+
+  /**
+   * @return Group index of each var, in var order.
+   */
+  public int[] vars() {
+    return vars;
+  }
+
+  /**
+   * Match a full path: <code>VERB/path</code>.
+   *
+   * @param fullpath Full path.
+   * @param path Index of the first <code>/</code>, where path starts.
+   * @param offsets Group offsets, must be of <code>groups() * 2</code> size.
+   * @return True if matches.
+   */
+  public boolean matches(final String fullpath, final int path, final int[] offsets) {
+    if (verbs != null && !verb(fullpath, path)) {
+      return false;
+    }
+    return matches(fullpath, 0, path, 0, offsets);
+  }
+
+  private boolean verb(final String fullpath, final int len) {
+    for (String verb : verbs) {
+      if (verb.length() == len && fullpath.startsWith(verb)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean matches(final String s, final int t, final int pos, final int g,
+      final int[] offsets) {
+    if (t == kinds.length) {
+      return pos == s.length();
+    }
+    int len = s.length();
+    switch (kinds[t]) {
+      case LITERAL: {
+        String literal = literals[t];
+        return s.startsWith(literal, pos)
+            && matches(s, t + 1, pos + literal.length(), g, offsets);
+      }
+      case CHAR:
+        if (pos < len && s.charAt(pos) != '/' && matches(s, t + 1, pos + 1, g + 1, offsets)) {
+          return group(offsets, g, pos, pos + 1);
+        }
+        return false;
+      case STAR:
+      case VAR: {
+        int min = kinds[t] == STAR ? pos : pos + 1;
+        int end = s.indexOf('/', pos);
+        for (int i = end == -1 ? len : end; i >= min; i--) {
+          if (matches(s, t + 1, i, g + 1, offsets)) {
+            return group(offsets, g, pos, i);
+          }
+        }
+        return false;
+      }
+      case DEEP:
+        // ($|/.*)
+        if (pos == len && matches(s, t + 1, pos, g + 1, offsets)) {
+          return group(offsets, g, pos, pos);
+        }
+        if (pos < len && s.charAt(pos) == '/') {
+          for (int i = len; i > pos; i--) {
+            if (matches(s, t + 1, i, g + 1, offsets)) {
+              return group(offsets, g, pos, i);
+            }
+          }
+        }
+        return false;
+      case DEEP_VAR:
+        // /(?<v>($|.*))
+        return pos < len && s.charAt(pos) == '/' && any(s, t, pos + 1, g, offsets);
+      default:
+        // (?<v>($|.*))
+        return any(s, t, pos, g, offsets);
+    }
+  }
+
+  private boolean any(final String s, final int t, final int pos, final int g,
+      final int[] offsets) {
+    for (int i = s.length(); i >= pos; i--) {
+      if (matches(s, t + 1, i, g + 2, offsets)) {
+        group(offsets, g, pos, i);
+        return group(offsets, g + 1, pos, i);
+      }
+    }
+    return false;
+  }
+
+  private static boolean group(final int[] offsets, final int g, final int start, final int end) {
+    offsets[g * 2] = start;
+    offsets[g * 2 + 1] = end;
+    return true;
+  }
+
+}
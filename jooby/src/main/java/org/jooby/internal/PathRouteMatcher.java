@@ -0,0 +1,69 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Collections;
+import java.util.Map;
+
+class PathRouteMatcher implements RouteMatcher {
+
+  private final PathPattern pattern;
+
+  private final String[] names;
+
+  private final String fullpath;
+
+  private final int path;
+
+  private int[] offsets;
+
+  public PathRouteMatcher(final PathPattern pattern, final String[] names,
+      final String fullpath, final int path) {
+    this.pattern = requireNonNull(pattern, "A pattern is required.");
+    this.names = requireNonNull(names, "The names are required.");
+    this.fullpath = requireNonNull(fullpath, "A full path is required.");
+    this.path = path;
+  }
+
+  @Override
+  public String path() {
+    return fullpath.substring(path);
+  }
+
+  @Override
+  public boolean matches() {
+    int[] offsets = new int[pattern.groups() * 2];
+    if (pattern.matches(fullpath, path, offsets)) {
+      this.offsets = offsets;
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public Map<Object, String> vars() {
+    if (offsets == null || offsets.length == 0) {
+      return Collections.emptyMap();
+    }
+    return new RouteVars(fullpath, offsets, names, pattern.vars());
+  }
+
+}
@@ -0,0 +1,125 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jooby.MediaType;
+import org.jooby.Renderer;
+
+/**
+ * Remember the renderer that sent a response for a value type and a list of negotiated media
+ * types. {@link AbstractRendererContext} tries that renderer first and falls back to the full
+ * renderer chain when it doesn't send a response. Enabled via <code>server.renderers.Cache</code>.
+ *
+ * There are only a few value types per application, so this is a plain map: entries are never
+ * evicted and new entries are ignored once the map is full. A lookup doesn't allocate.
+ */
+public class RendererCache {
+
+  private static class RendererKey {
+    private Class<?> type;
+
+    private List<MediaType> produces;
+
+    private int hc;
+
+    public RendererKey set(final Class<?> type, final List<MediaType> produces) {
+      this.type = type;
+      this.produces = produces;
+      hc = type.hashCode();
+      // avoid list iterators, produces is a short and random access list
+      for (int i = 0; i < produces.size(); i++) {
+        hc = 31 * hc + produces.get(i).hashCode();
+      }
+      return this;
+    }
+
+    @Override
+    public int hashCode() {
+      return hc;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      RendererKey that = (RendererKey) obj;
+      if (type != that.type) {
+        return false;
+      }
+      if (produces == that.produces) {
+        return true;
+      }
+      int size = produces.size();
+      if (size != that.produces.size()) {
+        return false;
+      }
+      for (int i = 0; i < size; i++) {
+        if (!produces.get(i).equals(that.produces.get(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  private final Map<RendererKey, Renderer> cache = new ConcurrentHashMap<>();
+
+  private final int maxSize;
+
+  /** Per thread lookup key, cache entries always get a new key. */
+  private final ThreadLocal<RendererKey> lookup = ThreadLocal.withInitial(RendererKey::new);
+
+  public RendererCache(final int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * @param type Value type.
+   * @param produces Negotiated media types.
+   * @return Last renderer who sent a response for the given type and media types or
+   *         <code>null</code>.
+   */
+  public Renderer get(final Class<?> type, final List<MediaType> produces) {
+    return cache.get(lookup.get().set(type, produces));
+  }
+
+  /**
+   * Save the renderer who sent a response for the given type and media types.
+   *
+   * @param type Value type.
+   * @param produces Negotiated media types.
+   * @param renderer Renderer.
+   */
+  public void put(final Class<?> type, final List<MediaType> produces, final Renderer renderer) {
+    RendererKey key = lookup.get().set(type, produces);
+    if (cache.get(key) != renderer && (cache.size() < maxSize || cache.containsKey(key))) {
+      cache.put(new RendererKey().set(type, produces), renderer);
+    }
+  }
+
+  /**
+   * @return Number of entries.
+   */
+  public int size() {
+    return cache.size();
+  }
+
+}
@@ -63,6 +63,21 @@ public class RequestImpl implements Request {
 
   private final Map<String, Mutant> params = new HashMap<>();
 
+  private final Map<String, Mutant> headers = new HashMap<>();
+
+  /** Query and form parameter names, read once from the native request. */
+  private String[] pnames;
+
+  /** Parameter values by index of {@link #pnames}, decoded on first access. */
+  private List<String>[] pvalues;
+
+  /** All the parameters, see {@link #params()}. */
+  private Mutant allparams;
+
+  private Mutant body;
+
+  private ParserExecutor parser;
+
   private final List<MediaType> accept;
 
   private final MediaType type;
@@ -77,6 +92,11 @@ public class RequestImpl implements Request {
 
   private Route route;
 
+  /** Method and path of the not found route, created only when no route matched. */
+  private String notFoundMethod;
+
+  private String notFoundPath;
+
   private Optional<Session> reqSession;
 
   private Charset charset;
@@ -96,7 +116,15 @@ public class RequestImpl implements Request {
   public RequestImpl(final Injector injector, final NativeRequest req, final String contextPath,
       final int port, final Route route, final Charset charset, final List<Locale> locale,
       final Map<Object, Object> scope, final Map<String, Object> locals, final long timestamp) {
+    this(injector, null, req, contextPath, port, route, charset, locale, scope, locals, timestamp);
+  }
+
+  public RequestImpl(final Injector injector, final ParserExecutor parser,
+      final NativeRequest req, final String contextPath, final int port, final Route route,
+      final Charset charset, final List<Locale> locale, final Map<Object, Object> scope,
+      final Map<String, Object> locals, final long timestamp) {
     this.injector = injector;
+    this.parser = parser;
     this.req = req;
     this.route = route;
     this.scope = scope;
@@ -142,7 +170,7 @@ public class RequestImpl implements Request {
   @Override
   public boolean matches(final String pattern) {
     RoutePattern p = new RoutePattern("*", pattern);
-    return p.matcher(route.path()).matches();
+    return p.matcher(route().path()).matches();
   }
 
   @Override
@@ -180,21 +208,24 @@ public class RequestImpl implements Request {
 
   @Override
   public Mutant params() {
-    return _params(null);
+    if (allparams == null) {
+      allparams = _params(null);
+    }
+    return allparams;
   }
 
   private Mutant _params(final Function<String, String> xss) {
     Map<String, Mutant> params = new HashMap<>();
-    for (Object segment : route.vars().keySet()) {
+    for (Object segment : route().vars().keySet()) {
       if (segment instanceof String) {
         String name = (String) segment;
         params.put(name, _param(name, xss));
       }
     }
-    for (String name : paramNames()) {
+    for (String name : pnames()) {
       params.put(name, _param(name, xss));
     }
-    return new MutantImpl(require(ParserExecutor.class), params);
+    return new MutantImpl(parser(), params);
   }
 
   @Override
@@ -208,7 +239,8 @@ public class RequestImpl implements Request {
   }
 
   private Mutant _param(final String name, final Function<String, String> xss) {
-    Mutant param = this.params.get(name);
+    // converted values are kept by the mutant, so reuse it unless there is a xss filter.
+    Mutant param = xss == null ? this.params.get(name) : null;
     if (param == null) {
       List<NativeUpload> files = Try.of(() -> req.files(name)).getOrElseThrow(
           ex -> new Err(Status.BAD_REQUEST, "Upload " + name + " resulted in error", ex));
@@ -216,16 +248,18 @@ public class RequestImpl implements Request {
         List<Upload> uploads = files.stream()
             .map(upload -> new UploadImpl(injector, upload))
             .collect(Collectors.toList());
-        param = new MutantImpl(require(ParserExecutor.class), type(),
+        param = new MutantImpl(parser(), type(),
             new UploadParamReferenceImpl(name, uploads));
 
-        this.params.put(name, param);
+        if (xss == null) {
+          this.params.put(name, param);
+        }
       } else {
         StrParamReferenceImpl paramref = new StrParamReferenceImpl("parameter", name,
             params(name, xss));
-        param = new MutantImpl(require(ParserExecutor.class), paramref);
+        param = new MutantImpl(parser(), paramref);
 
-        if (paramref.size() > 0) {
+        if (xss == null && paramref.size() > 0) {
           this.params.put(name, param);
         }
       }
@@ -245,14 +279,19 @@ public class RequestImpl implements Request {
 
   private Mutant _header(final String name, final Function<String, String> xss) {
     requireNonNull(name, "Name required.");
-    List<String> headers = req.headers(name);
-    if (xss != null) {
-      headers = headers.stream()
-          .map(xss::apply)
-          .collect(Collectors.toList());
+    if (xss == null) {
+      Mutant header = this.headers.get(name);
+      if (header == null) {
+        header = new MutantImpl(parser(),
+            new StrParamReferenceImpl("header", name, req.headers(name)));
+        this.headers.put(name, header);
+      }
+      return header;
     }
-    return new MutantImpl(require(ParserExecutor.class),
-        new StrParamReferenceImpl("header", name, headers));
+    List<String> headers = req.headers(name).stream()
+        .map(xss::apply)
+        .collect(Collectors.toList());
+    return new MutantImpl(parser(), new StrParamReferenceImpl("header", name, headers));
   }
 
   @Override
@@ -269,8 +308,7 @@ public class RequestImpl implements Request {
         .map(cookie -> ImmutableList.of(cookie.value().get()))
         .orElse(ImmutableList.of());
 
-    return new MutantImpl(require(ParserExecutor.class),
-        new StrParamReferenceImpl("cookie", name, values));
+    return new MutantImpl(parser(), new StrParamReferenceImpl("cookie", name, values));
   }
 
   @Override
@@ -280,6 +318,14 @@ public class RequestImpl implements Request {
 
   @Override
   public Mutant body() throws Exception {
+    // the body can be read once, keep it along with its converted values.
+    if (body == null) {
+      body = _body();
+    }
+    return body;
+  }
+
+  private Mutant _body() throws Exception {
     long length = length();
     if (length > 0) {
       MediaType type = type();
@@ -291,9 +337,9 @@ public class RequestImpl implements Request {
       int bufferSize = conf.getBytes("server.http.RequestBufferSize").intValue();
       Parser.BodyReference body = new BodyReferenceImpl(length, charset(), fbody, req.in(),
           bufferSize);
-      return new MutantImpl(require(ParserExecutor.class), type, body);
+      return new MutantImpl(parser(), type, body);
     }
-    return new MutantImpl(require(ParserExecutor.class), type, new EmptyBodyReference());
+    return new MutantImpl(parser(), type, new EmptyBodyReference());
   }
 
   @Override
@@ -335,6 +381,9 @@ public class RequestImpl implements Request {
 
   @Override
   public Route route() {
+    if (route == null) {
+      route = RouteImpl.notFound(notFoundMethod, notFoundMethod + notFoundPath, MediaType.ALL);
+    }
     return route;
   }
 
@@ -428,12 +477,40 @@ public class RequestImpl implements Request {
     return route().toString();
   }
 
-  private List<String> paramNames() {
-    try {
-      return req.paramNames();
-    } catch (Exception ex) {
-      throw new Err(Status.BAD_REQUEST, "Unable to get parameter names", ex);
+  private ParserExecutor parser() {
+    if (parser == null) {
+      parser = require(ParserExecutor.class);
     }
+    return parser;
+  }
+
+  @SuppressWarnings("unchecked")
+  private String[] pnames() {
+    if (pnames == null) {
+      try {
+        List<String> names = req.paramNames();
+        pnames = names.toArray(new String[names.size()]);
+        pvalues = new List[pnames.length];
+      } catch (Exception ex) {
+        throw new Err(Status.BAD_REQUEST, "Unable to get parameter names", ex);
+      }
+    }
+    return pnames;
+  }
+
+  private List<String> pvalues(final String name) throws Exception {
+    String[] names = pnames();
+    for (int i = 0; i < names.length; i++) {
+      if (names[i].equals(name)) {
+        List<String> values = pvalues[i];
+        if (values == null) {
+          values = req.params(name);
+          pvalues[i] = values;
+        }
+        return values;
+      }
+    }
+    return Collections.emptyList();
   }
 
   private Function<String, String> xss(final String... xss) {
@@ -443,11 +520,11 @@ public class RequestImpl implements Request {
   private List<String> params(final String name, final Function<String, String> xss) {
     try {
       List<String> values = new ArrayList<>();
-      String pathvar = route.vars().get(name);
+      String pathvar = route().vars().get(name);
       if (pathvar != null) {
         values.add(pathvar);
       }
-      values.addAll(req.params(name));
+      values.addAll(pvalues(name));
       if (xss == null) {
         return values;
       }
@@ -460,7 +537,27 @@ public class RequestImpl implements Request {
     }
   }
 
+  <T> T upgrade(final Class<T> type) throws Exception {
+    return req.upgrade(type);
+  }
+
+  /**
+   * Route to use while no route matched (like a failure before routing), it is created on first
+   * access only.
+   *
+   * @param method HTTP method.
+   * @param path Request path.
+   */
+  void notFound(final String method, final String path) {
+    this.notFoundMethod = method;
+    this.notFoundPath = path;
+  }
+
   void route(final Route route) {
+    if (this.route != route) {
+      // path variables might change
+      this.allparams = null;
+    }
     this.route = route;
   }
 
@@ -38,6 +38,17 @@ public class RequestScope implements Scope {
     scope.remove();
   }
 
+  /**
+   * Get an object from the current scope.
+   *
+   * @param key Object key.
+   * @return Scoped object or <code>null</code>.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T get(final Key<T> key) {
+    return (T) getScopedObjectMap(key).get(key);
+  }
+
   @SuppressWarnings({"unchecked", "rawtypes" })
   @Override
   public <T> Provider<T> scope(final Key<T> key, final Provider<T> unscoped) {
@@ -59,6 +59,9 @@ import javaslang.control.Try;
 
 public class ResponseImpl implements Response {
 
+  /** Default value of <code>server.http.ResponseBufferSize</code>. */
+  static final int BUFFER_SIZE = 16 * 1024;
+
   private static final String LOCATION = "Location";
 
   /** Char encoded content disposition. */
@@ -88,6 +91,8 @@ public class ResponseImpl implements Response {
 
   private Map<String, Renderer> rendererMap;
 
+  private RendererCache rendererCache;
+
   private List<Route.After> after = new ArrayList<>();
 
   private List<Route.Complete> complete = new ArrayList<>();
@@ -98,10 +103,21 @@ public class ResponseImpl implements Response {
 
   private Optional<String> byteRange;
 
+  private int bufferSize;
+
   public ResponseImpl(final RequestImpl req, final ParserExecutor parserExecutor,
       final NativeResponse rsp, final Route route, final List<Renderer> renderers,
       final Map<String, Renderer> rendererMap, final Map<String, Object> locals,
       final Charset charset, final Optional<String> referer, final Optional<String> byteRange) {
+    this(req, parserExecutor, rsp, route, renderers, null, rendererMap, locals, charset, referer,
+        byteRange, BUFFER_SIZE);
+  }
+
+  public ResponseImpl(final RequestImpl req, final ParserExecutor parserExecutor,
+      final NativeResponse rsp, final Route route, final List<Renderer> renderers,
+      final RendererCache rendererCache, final Map<String, Renderer> rendererMap,
+      final Map<String, Object> locals, final Charset charset, final Optional<String> referer,
+      final Optional<String> byteRange, final int bufferSize) {
     this.req = req;
     this.parserExecutor = parserExecutor;
     this.rsp = rsp;
@@ -109,9 +125,11 @@ public class ResponseImpl implements Response {
     this.locals = locals;
     this.renderers = renderers;
     this.rendererMap = rendererMap;
+    this.rendererCache = rendererCache;
     this.charset = charset;
     this.referer = referer;
     this.byteRange = byteRange;
+    this.bufferSize = bufferSize;
   }
 
   @Override
@@ -327,7 +345,7 @@ public class ResponseImpl implements Response {
 
     writeCookies();
 
-    if (Route.HEAD.equals(route.method())) {
+    if (Route.HEAD.equals(route().method())) {
       end();
       return;
     }
@@ -335,7 +353,7 @@ public class ResponseImpl implements Response {
     /**
      * Do we need to figure it out Content-Length?
      */
-    List<MediaType> produces = this.type == null ? route.produces() : ImmutableList.of(type);
+    List<MediaType> produces = this.type == null ? route().produces() : ImmutableList.of(type);
     Object value = finalResult.get(produces);
 
     if (value != null) {
@@ -358,16 +376,18 @@ public class ResponseImpl implements Response {
 
       HttpRendererContext ctx = new HttpRendererContext(
           renderers,
+          rendererCache,
           rsp,
           setLen,
           setType,
           locals,
           produces,
           charset,
-          byteRange);
+          byteRange,
+          bufferSize);
 
       // explicit renderer?
-      Renderer renderer = rendererMap.get(route.attr("renderer"));
+      Renderer renderer = rendererMap.get(route().attr("renderer"));
       if (renderer != null) {
         renderer.render(value, ctx);
       } else {
@@ -408,6 +428,13 @@ public class ResponseImpl implements Response {
     this.route = route;
   }
 
+  /**
+   * @return Current route or the request route when none was set yet.
+   */
+  private Route route() {
+    return route == null ? req.route() : route;
+  }
+
   private void contentDisposition(final String filename) throws IOException {
     List<String> headers = rsp.headers("Content-Disposition");
     if (headers.isEmpty()) {
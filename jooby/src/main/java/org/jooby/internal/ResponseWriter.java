@@ -0,0 +1,160 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+import org.jooby.spi.NativeResponse;
+
+/**
+ * Encode chars straight into a response buffer of <code>server.http.ResponseBufferSize</code>.
+ * If the body fits in the buffer, {@link #end()} returns it and the caller sends it with a
+ * <code>Content-Length</code>. Otherwise, the buffer is written to
+ * {@link NativeResponse#outputStream()} every time it gets full (chunked transfer encoding).
+ *
+ * {@link #flush()} and {@link #close()} are ignored, template engines call them before they are
+ * done. Not thread-safe.
+ */
+public class ResponseWriter extends Writer {
+
+  private static final CharBuffer EMPTY = CharBuffer.allocate(0);
+
+  private final NativeResponse rsp;
+
+  private final CharsetEncoder encoder;
+
+  private final ByteBuffer buffer;
+
+  /** Pending char, when a surrogate pair was split between two writes. */
+  private CharBuffer leftover;
+
+  private OutputStream output;
+
+  public ResponseWriter(final NativeResponse rsp, final Charset charset, final int bufferSize) {
+    this.rsp = rsp;
+    this.encoder = charset.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    this.buffer = ByteBuffer.allocate(bufferSize);
+  }
+
+  @Override
+  public void write(final int c) throws IOException {
+    write(new char[]{(char) c }, 0, 1);
+  }
+
+  @Override
+  public void write(final char[] cbuf, final int off, final int len) throws IOException {
+    encode(CharBuffer.wrap(cbuf, off, len));
+  }
+
+  @Override
+  public void write(final String str, final int off, final int len) throws IOException {
+    encode(CharBuffer.wrap(str, off, off + len));
+  }
+
+  @Override
+  public Writer append(final CharSequence csq) throws IOException {
+    CharSequence chars = csq == null ? "null" : csq;
+    encode(CharBuffer.wrap(chars));
+    return this;
+  }
+
+  @Override
+  public void flush() throws IOException {
+  }
+
+  @Override
+  public void close() throws IOException {
+  }
+
+  /**
+   * @return True, if part of the body was sent to the client.
+   */
+  public boolean committed() {
+    return output != null;
+  }
+
+  /**
+   * Finish the response body.
+   *
+   * @return The whole response body, when it fits in the buffer or <code>null</code> when the
+   *         body was sent in chunks.
+   * @throws IOException If write fails.
+   */
+  public ByteBuffer end() throws IOException {
+    encode(leftover == null ? EMPTY : leftover, true);
+    leftover = null;
+    while (encoder.flush(buffer).isOverflow()) {
+      drain();
+    }
+    if (output == null) {
+      buffer.flip();
+      return buffer;
+    }
+    drain();
+    output.close();
+    return null;
+  }
+
+  private void encode(final CharBuffer chars) throws IOException {
+    CharBuffer in = chars;
+    if (leftover != null) {
+      in = CharBuffer.allocate(leftover.remaining() + chars.remaining());
+      in.put(leftover).put(chars).flip();
+      leftover = null;
+    }
+    encode(in, false);
+    if (in.hasRemaining()) {
+      leftover = CharBuffer.allocate(in.remaining());
+      leftover.put(in).flip();
+    }
+  }
+
+  private void encode(final CharBuffer chars, final boolean endOfInput) throws IOException {
+    while (true) {
+      CoderResult result = encoder.encode(chars, buffer, endOfInput);
+      if (result.isOverflow()) {
+        drain();
+      } else if (result.isUnderflow()) {
+        return;
+      } else {
+        result.throwException();
+      }
+    }
+  }
+
+  private void drain() throws IOException {
+    if (output == null) {
+      output = rsp.outputStream();
+    }
+    buffer.flip();
+    output.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+    buffer.clear();
+  }
+
+}
@@ -0,0 +1,337 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.jooby.Err;
+import org.jooby.MediaType;
+import org.jooby.Route;
+import org.jooby.Status;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.Sets;
+import com.typesafe.config.Config;
+
+/**
+ * Resolve and cache the routes for a request. Routes are cached by request path (default) or by
+ * path shape when <code>server.routes.CacheKey = shape</code>. A shape key replaces path
+ * variables with a marker, so <code>/users/1</code> and <code>/users/2</code> share the same
+ * entry and only path variables are extracted on a cache hit.
+ *
+ * There is one route cache per application, shared by the {@link HttpHandlerImpl} and by anyone
+ * who needs its {@link #stats()}.
+ */
+@Singleton
+public class RouteCache {
+
+  /**
+   * Matching routes of a request. It knows if any of the routes has attributes, so the route
+   * chain doesn't have to look for them on every request.
+   */
+  public static class RouteList extends ArrayList<Route> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean hasAttrs;
+
+    RouteList(final int capacity, final boolean hasAttrs) {
+      super(capacity);
+      this.hasAttrs = hasAttrs;
+    }
+
+    /**
+     * @return True when at least one of the routes has attributes.
+     */
+    public boolean hasAttrs() {
+      return hasAttrs;
+    }
+  }
+
+  /** Route definitions of a path shape. */
+  private static class Shape {
+
+    private final List<Route.Definition> defs;
+
+    private final boolean hasAttrs;
+
+    Shape(final List<Route.Definition> defs) {
+      this.defs = defs;
+      this.hasAttrs = defs.stream().anyMatch(def -> def.attributes().size() > 0);
+    }
+  }
+
+  private static class RouteKey {
+    private String method;
+
+    private String path;
+
+    private MediaType consumes;
+
+    private List<MediaType> produces;
+
+    private int hc;
+
+    public RouteKey set(final String method, final String path, final MediaType consumes,
+        final List<MediaType> produces) {
+      this.method = method;
+      this.path = path;
+      this.consumes = consumes;
+      this.produces = produces;
+      hc = 1;
+      hc = 31 * hc + method.hashCode();
+      hc = 31 * hc + path.hashCode();
+      hc = 31 * hc + consumes.hashCode();
+      hc = 31 * hc + produces.hashCode();
+      return this;
+    }
+
+    public RouteKey copy() {
+      return new RouteKey().set(method, path, consumes, produces);
+    }
+
+    @Override
+    public int hashCode() {
+      return hc;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      RouteKey that = (RouteKey) obj;
+      return method.equals(that.method) && path.equals(that.path) && produces.equals(that.produces)
+          && consumes.equals(that.consumes);
+    }
+
+  }
+
+  private static final String SHAPE = "shape";
+
+  private final RouteIndex index;
+
+  private final Cache<RouteKey, RouteList> paths;
+
+  private final Cache<RouteKey, Shape> shapes;
+
+  /** Non-blocking decisions, null when none of the routes is marked as non-blocking. */
+  private final Cache<RouteKey, Boolean> nonBlocking;
+
+  /** Per thread lookup key, cache entries always get a copy. */
+  private final ThreadLocal<RouteKey> lookup = ThreadLocal.withInitial(RouteKey::new);
+
+  @Inject
+  public RouteCache(final Set<Route.Definition> routes, final Config conf) {
+    this.index = new RouteIndex(routes);
+    String spec = conf.getString("server.routes.Cache");
+    this.paths = CacheBuilder.from(spec)
+        .recordStats()
+        .build();
+    if (conf.getString("server.routes.CacheKey").trim().equalsIgnoreCase(SHAPE)) {
+      this.shapes = CacheBuilder.from(spec)
+          .recordStats()
+          .build();
+    } else {
+      this.shapes = null;
+    }
+    if (routes.stream().anyMatch(RouteCache::nonBlocking)) {
+      this.nonBlocking = CacheBuilder.from(spec).build();
+    } else {
+      this.nonBlocking = null;
+    }
+  }
+
+  /**
+   * @return True when at least one route is marked as non-blocking.
+   */
+  public boolean hasNonBlocking() {
+    return nonBlocking != null;
+  }
+
+  /**
+   * Test if all the routes matching the given method and path are marked as non-blocking. Content
+   * negotiation is ignored here, so routes that might be skipped later by consumes/produces
+   * types must be marked too.
+   *
+   * @param method HTTP method.
+   * @param path Request path.
+   * @return True when there is at least one matching route and all of them are non-blocking.
+   */
+  public boolean nonBlocking(final String method, final String path) {
+    if (!hasNonBlocking()) {
+      return false;
+    }
+    RouteKey key = lookup.get().set(method, path, MediaType.all, MediaType.ALL);
+    Boolean result = nonBlocking.getIfPresent(key);
+    if (result == null) {
+      result = Boolean.FALSE;
+      for (Route.Definition candidate : index.candidates(method, path)) {
+        if (candidate.matches(method, path, MediaType.all, MediaType.ALL).isPresent()) {
+          if (!nonBlocking(candidate)) {
+            result = Boolean.FALSE;
+            break;
+          }
+          result = Boolean.TRUE;
+        }
+      }
+      nonBlocking.put(key.copy(), result);
+    }
+    return result.booleanValue();
+  }
+
+  private static boolean nonBlocking(final Route.Definition route) {
+    return Boolean.TRUE.equals(route.attr(Route.NON_BLOCKING));
+  }
+
+  /**
+   * Find the routes for the given method, path, content type and accept header. The list ends
+   * with a route that reports a 404, 405, 406 or 415 error when none of the previous routes sent
+   * a response.
+   *
+   * @param method HTTP method.
+   * @param path Request path.
+   * @param type Request content type.
+   * @param accept Accept header.
+   * @return Matching routes.
+   */
+  public RouteList routes(final String method, final String path, final MediaType type,
+      final List<MediaType> accept) {
+    RouteKey key = lookup.get();
+    if (shapes != null) {
+      String shapeKey = index.shape(method, path);
+      if (shapeKey != null) {
+        key.set(method, shapeKey, type, accept);
+        Shape shape = shapes.getIfPresent(key);
+        if (shape == null) {
+          List<Route.Definition> defs = new ArrayList<>();
+          for (Route.Definition candidate : index.candidates(method, path)) {
+            if (candidate.matches(method, path, type, accept).isPresent()) {
+              defs.add(candidate);
+            }
+          }
+          shape = new Shape(defs);
+          shapes.put(key.copy(), shape);
+        }
+        RouteList routes = new RouteList(shape.defs.size() + 1, shape.hasAttrs);
+        for (Route.Definition def : shape.defs) {
+          def.matches(method, path, type, accept).ifPresent(routes::add);
+        }
+        routes.add(fallback(index, method, path, type, accept));
+        return routes;
+      }
+    }
+    key.set(method, path, type, accept);
+    RouteList routes = paths.getIfPresent(key);
+    if (routes == null) {
+      routes = routes(index, method, path, type, accept);
+      paths.put(key.copy(), routes);
+    }
+    return routes;
+  }
+
+  /**
+   * @return Hit, miss and eviction counters. When the shape key is enabled this is the sum of
+   *         the shape and path caches.
+   */
+  public CacheStats stats() {
+    CacheStats stats = paths.stats();
+    return shapes == null ? stats : stats.plus(shapes.stats());
+  }
+
+  private static RouteList routes(final RouteIndex routeDefs, final String method,
+      final String path, final MediaType type, final List<MediaType> accept) {
+    List<Route> matches = routeDefs.routes(method, path, type, accept);
+
+    RouteList routes = new RouteList(matches.size() + 1, RouteChain.hasAttrs(matches));
+    routes.addAll(matches);
+    routes.add(fallback(routeDefs, method, path, type, accept));
+
+    return routes;
+  }
+
+  private static Route fallback(final RouteIndex routeDefs, final String method,
+      final String path, final MediaType type, final List<MediaType> accept) {
+    return RouteImpl.fromStatus((req, rsp, chain) -> {
+      if (!rsp.status().isPresent()) {
+        // 406 or 415
+        Err ex = handle406or415(routeDefs, method, path, type, accept);
+        if (ex != null) {
+          throw ex;
+        }
+        // 405
+        ex = handle405(routeDefs, method, path, type, accept);
+        if (ex != null) {
+          throw ex;
+        }
+        throw new Err(Status.NOT_FOUND, req.path(true));
+      }
+    }, method, path, "err", accept);
+  }
+
+  private static Err handle405(final RouteIndex routeDefs, final String method,
+      final String path, final MediaType type, final List<MediaType> accept) {
+
+    if (alternative(routeDefs, method, path).size() > 0) {
+      return new Err(Status.METHOD_NOT_ALLOWED, method);
+    }
+
+    return null;
+  }
+
+  private static List<Route> alternative(final RouteIndex routeDefs, final String verb,
+      final String uri) {
+    List<Route> routes = new LinkedList<>();
+    Set<String> verbs = Sets.newHashSet(Route.METHODS);
+    verbs.remove(verb);
+    for (String alt : verbs) {
+      routeDefs.routes(alt, uri, MediaType.all, MediaType.ALL)
+          .stream()
+          // skip glob pattern
+          .filter(r -> !r.pattern().contains("*"))
+          .forEach(routes::add);
+
+    }
+    return routes;
+  }
+
+  private static Err handle406or415(final RouteIndex routeDefs, final String method,
+      final String path, final MediaType contentType, final List<MediaType> accept) {
+    for (Route.Definition routeDef : routeDefs.candidates(method, path)) {
+      Optional<Route> route = routeDef.matches(method, path, MediaType.all, MediaType.ALL);
+      if (route.isPresent() && !route.get().pattern().contains("*")) {
+        if (!routeDef.canProduce(accept)) {
+          return new Err(Status.NOT_ACCEPTABLE, accept.stream()
+              .map(MediaType::name)
+              .collect(Collectors.joining(", ")));
+        }
+        return new Err(Status.UNSUPPORTED_MEDIA_TYPE, contentType.name());
+      }
+    }
+    return null;
+  }
+
+}
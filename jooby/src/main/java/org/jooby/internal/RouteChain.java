@@ -42,14 +42,34 @@ public class RouteChain implements Route.Chain {
   private boolean hasAttrs;
 
   public RouteChain(final RequestImpl req, final ResponseImpl rsp, final List<Route> routes) {
+    // eager decision if we need to wrap a route to get all the attrs within the change.
+    this(req, rsp, routes, hasAttrs(routes));
+  }
+
+  /**
+   * Creates a route chain.
+   *
+   * @param req Request.
+   * @param rsp Response.
+   * @param routes Routes to execute.
+   * @param hasAttrs True when at least one of the routes has attributes, see
+   *        {@link RouteCache.RouteList#hasAttrs()}.
+   */
+  public RouteChain(final RequestImpl req, final ResponseImpl rsp, final List<Route> routes,
+      final boolean hasAttrs) {
     this.routes = routes;
     this.rreq = req;
     this.rrsp = rsp;
+    this.hasAttrs = hasAttrs;
+  }
 
-    // eager decision if we need to wrap a route to get all the attrs within the change.
-    ImmutableMap.Builder<String, Object> builder = ImmutableMap.builder();
-    routes.forEach(r -> builder.putAll(r.attributes()));
-    this.hasAttrs = builder.build().size() > 0;
+  static boolean hasAttrs(final List<Route> routes) {
+    for (int i = 0; i < routes.size(); i++) {
+      if (routes.get(i).attributes().size() > 0) {
+        return true;
+      }
+    }
+    return false;
   }
 
   @Override
@@ -87,8 +107,14 @@ public class RouteChain implements Route.Chain {
 
   private static Route attrs(final Route route, final List<Route> routes, final int i) {
     ImmutableMap.Builder<String, Object> builder = ImmutableMap.builder();
-    for (int t = i; t < routes.size(); t++) {
-      builder.putAll(routes.get(t).attributes());
+    builder.putAll(route.attributes());
+    for (int t = i + 1; t < routes.size(); t++) {
+      routes.get(t).attributes().forEach((name, value) -> {
+        // non-blocking marker is usually set on every route of a chain, keep the current one
+        if (!Route.NON_BLOCKING.equals(name)) {
+          builder.put(name, value);
+        }
+      });
     }
     Map<String, Object> attrs = builder.build();
     return new Route.Forwarding(route) {
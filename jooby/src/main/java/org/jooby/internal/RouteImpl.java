@@ -23,6 +23,7 @@ import static javaslang.API.Case;
 import static javaslang.API.Match;
 import static javaslang.Predicates.instanceOf;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -36,6 +37,7 @@ import org.jooby.internal.mvc.MvcHandler;
 
 import com.google.common.collect.ImmutableMap;
 
+import javaslang.Lazy;
 import javaslang.control.Option;
 
 public class RouteImpl implements Route, Route.Filter {
@@ -67,13 +69,51 @@ public class RouteImpl implements Route, Route.Filter {
 
   public static RouteImpl fromStatus(final Filter filter, final String method,
       final String path, final String name, final List<MediaType> produces) {
-    return new RouteImpl(filter, new Route.Definition(method, path, filter).name(name), method,
-        path, produces, NO_VARS, null, Source.UNKNOWN) {
-      @Override
-      public boolean apply(final String filter) {
-        return true;
-      }
-    };
+    return new FallbackRoute(filter, method, path, name, produces);
+  }
+
+  /**
+   * Test if a route was created by {@link #fromStatus(Filter, String, String, String, List)},
+   * which is what runs when no other route sent a response (404, 405, 406 or 415).
+   *
+   * @param route Route to test, might be a {@link Route.Forwarding} route.
+   * @return True for a not found route.
+   */
+  public static boolean fallback(final Route route) {
+    return Route.Forwarding.unwrap(route) instanceof FallbackRoute;
+  }
+
+  /** Route executed when nothing else matches. */
+  private static class FallbackRoute extends RouteImpl {
+
+    private final Lazy<Definition> definition;
+
+    FallbackRoute(final Filter filter, final String method, final String path,
+        final String name, final List<MediaType> produces) {
+      super(filter, null, method, path, produces, NO_VARS, null, Source.UNKNOWN);
+      /** Created per request: defer the expensive definition (pattern + source lookup). */
+      this.definition = Lazy.of(() -> new Route.Definition(method, path, filter).name(name));
+    }
+
+    @Override
+    public boolean apply(final String filter) {
+      return true;
+    }
+
+    @Override
+    public Map<String, Object> attributes() {
+      return Collections.emptyMap();
+    }
+
+    @Override
+    public List<MediaType> consumes() {
+      return MediaType.ALL;
+    }
+
+    @Override
+    Definition definition() {
+      return definition.get();
+    }
   }
 
   public RouteImpl(final Filter filter, final Definition route, final String method,
@@ -115,7 +155,7 @@ public class RouteImpl implements Route, Route.Filter {
 
   @Override
   public Map<String, Object> attributes() {
-    return route.attributes();
+    return definition().attributes();
   }
 
   @Override
@@ -130,12 +170,13 @@ public class RouteImpl implements Route, Route.Filter {
 
   @Override
   public String pattern() {
-    return route.pattern().substring(route.pattern().indexOf('/'));
+    String pattern = definition().pattern();
+    return pattern.substring(pattern.indexOf('/'));
   }
 
   @Override
   public String name() {
-    return route.name();
+    return definition().name();
   }
 
   @Override
@@ -145,7 +186,7 @@ public class RouteImpl implements Route, Route.Filter {
 
   @Override
   public List<MediaType> consumes() {
-    return route.consumes();
+    return definition().consumes();
   }
 
   @Override
@@ -155,17 +196,17 @@ public class RouteImpl implements Route, Route.Filter {
 
   @Override
   public boolean glob() {
-    return route.glob();
+    return definition().glob();
   }
 
   @Override
   public String reverse(final Map<String, Object> vars) {
-    return route.reverse(vars);
+    return definition().reverse(vars);
   }
 
   @Override
   public String reverse(final Object... values) {
-    return route.reverse(values);
+    return definition().reverse(values);
   }
 
   @Override
@@ -173,6 +214,10 @@ public class RouteImpl implements Route, Route.Filter {
     return source;
   }
 
+  Definition definition() {
+    return route;
+  }
+
   @Override
   public String toString() {
     return print();
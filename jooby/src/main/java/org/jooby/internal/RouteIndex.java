@@ -0,0 +1,301 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.jooby.MediaType;
+import org.jooby.Route;
+
+import com.google.common.base.Splitter;
+
+/**
+ * Segment trie over a set of {@link Route.Definition}. Definitions are indexed by HTTP verb and
+ * by the static (literal) segments of their path pattern. A lookup walks the request path
+ * segment by segment and collects every definition whose static prefix was visited, so only
+ * those are matched against the path. Result preserves the definition order.
+ */
+public class RouteIndex {
+
+  private static class Node {
+
+    private final Map<String, Node> children = new HashMap<>();
+
+    private final BitSet routes = new BitSet();
+
+    /** True, if one or more routes at this node can't be resolved from the path shape. */
+    private boolean opaque;
+
+    Node child(final String segment) {
+      return children.computeIfAbsent(segment, k -> new Node());
+    }
+  }
+
+  private static final Splitter VERB = Splitter.on('|').trimResults().omitEmptyStrings();
+
+  private static final char VAR = ':';
+
+  private final Route.Definition[] definitions;
+
+  /** One trie per verb. */
+  private final Map<String, Node> verbs = new HashMap<>();
+
+  /** Trie for definitions that accept any verb (<code>*</code>). */
+  private final Node any = new Node();
+
+  /** Literal segments from all the path patterns. */
+  private final Set<String> literals = new HashSet<>();
+
+  public RouteIndex(final Set<Route.Definition> definitions) {
+    this.definitions = definitions.toArray(new Route.Definition[definitions.size()]);
+    for (int i = 0; i < this.definitions.length; i++) {
+      Route.Definition definition = this.definitions[i];
+      String method = definition.method();
+      List<String> segments = staticSegments(definition.pattern());
+      boolean opaque = !shaped(definition, literals);
+      if (method.indexOf('*') >= 0) {
+        index(any, segments, i, opaque);
+      } else {
+        for (String verb : VERB.split(method)) {
+          index(verbs.computeIfAbsent(verb, k -> new Node()), segments, i, opaque);
+        }
+      }
+    }
+  }
+
+  /**
+   * Find all the definitions that might match the given method and path. Definitions are
+   * returned in the same order they were registered.
+   *
+   * @param method HTTP method.
+   * @param path Request path.
+   * @return Candidates, must be tested with
+   *         {@link Route.Definition#matches(String, String, MediaType, List)}.
+   */
+  public List<Route.Definition> candidates(final String method, final String path) {
+    BitSet hits = new BitSet(definitions.length);
+    collect(verbs.get(method), path, hits);
+    collect(any, path, hits);
+    List<Route.Definition> result = new ArrayList<>(hits.cardinality());
+    for (int i = hits.nextSetBit(0); i >= 0; i = hits.nextSetBit(i + 1)) {
+      result.add(definitions[i]);
+    }
+    return result;
+  }
+
+  /**
+   * Find all the routes that matches the given method, path, content type and accept header.
+   * Produces the same output as testing every definition in order.
+   *
+   * @param method HTTP method.
+   * @param path Request path.
+   * @param type Request content type.
+   * @param accept Accept header.
+   * @return Matching routes.
+   */
+  public List<Route> routes(final String method, final String path, final MediaType type,
+      final List<MediaType> accept) {
+    List<Route> routes = new ArrayList<>();
+    for (Route.Definition routeDef : candidates(method, path)) {
+      Optional<Route> route = routeDef.matches(method, path, type, accept);
+      if (route.isPresent()) {
+        routes.add(route.get());
+      }
+    }
+    return routes;
+  }
+
+  /**
+   * Compute the shape of a path: segments that appear as literal in a route pattern are kept,
+   * any other non-empty segment is replaced by <code>:</code>. Paths with the same shape matches
+   * the same route definitions, as long as all the candidates are simple patterns (literal
+   * segments, <code>:var</code>, <code>{var}</code>, <code>*</code> and trailing
+   * <code>**</code>).
+   *
+   * @param method HTTP method.
+   * @param path Request path.
+   * @return Path shape or <code>null</code> when the path can't be resolved by shape.
+   */
+  public String shape(final String method, final String path) {
+    Node vnode = verbs.get(method);
+    Node anode = any;
+    if (opaque(vnode) || opaque(anode)) {
+      return null;
+    }
+    StringBuilder shape = new StringBuilder(path.length());
+    int len = path.length();
+    int start = len > 0 && path.charAt(0) == '/' ? 1 : 0;
+    if (start > 0) {
+      shape.append('/');
+    }
+    while (start <= len) {
+      int end = path.indexOf('/', start);
+      if (end < 0) {
+        end = len;
+      }
+      String segment = path.substring(start, end);
+      if (segment.length() == 0 || literals.contains(segment)) {
+        shape.append(segment);
+        vnode = vnode == null ? null : vnode.children.get(segment);
+        anode = anode == null ? null : anode.children.get(segment);
+        if (opaque(vnode) || opaque(anode)) {
+          return null;
+        }
+      } else {
+        shape.append(VAR);
+        vnode = null;
+        anode = null;
+      }
+      if (end < len) {
+        shape.append('/');
+      }
+      start = end + 1;
+    }
+    return shape.toString();
+  }
+
+  private static boolean opaque(final Node node) {
+    return node != null && node.opaque;
+  }
+
+  private static void index(final Node root, final List<String> segments, final int route,
+      final boolean opaque) {
+    Node node = root;
+    for (String segment : segments) {
+      node = node.child(segment);
+    }
+    node.routes.set(route);
+    node.opaque |= opaque;
+  }
+
+  /**
+   * True, when the definition matches or not a path depending only on the path shape. Literal
+   * segments are saved into the given set.
+   */
+  private static boolean shaped(final Route.Definition definition, final Set<String> literals) {
+    String pattern = definition.pattern();
+    boolean shaped = definition.excludes().isEmpty();
+    if (pattern.equals("/")) {
+      return shaped;
+    }
+    int start = pattern.charAt(0) == '/' ? 1 : 0;
+    int len = pattern.length();
+    while (start <= len) {
+      int end = pattern.indexOf('/', start);
+      if (end < 0) {
+        end = len;
+      }
+      String segment = pattern.substring(start, end);
+      if (literal(segment)) {
+        literals.add(segment);
+      } else if (segment.equals("**") || segment.startsWith("**:")) {
+        // must be the last segment
+        shaped &= end == len;
+      } else {
+        shaped &= segment.equals("*") || (segment.length() > 1 && segment.charAt(0) == ':')
+            || simpleVar(segment);
+      }
+      start = end + 1;
+    }
+    return shaped;
+  }
+
+  private static boolean simpleVar(final String segment) {
+    int len = segment.length();
+    if (len < 3 || segment.charAt(0) != '{' || segment.charAt(len - 1) != '}') {
+      return false;
+    }
+    for (int i = 1; i < len - 1; i++) {
+      char ch = segment.charAt(i);
+      if (ch == ':' || ch == '{' || ch == '}') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void collect(final Node root, final String path, final BitSet hits) {
+    if (root == null) {
+      return;
+    }
+    Node node = root;
+    hits.or(node.routes);
+    int len = path.length();
+    int start = path.length() > 0 && path.charAt(0) == '/' ? 1 : 0;
+    while (start <= len) {
+      int end = path.indexOf('/', start);
+      if (end < 0) {
+        end = len;
+      }
+      node = node.children.get(path.substring(start, end));
+      if (node == null) {
+        return;
+      }
+      hits.or(node.routes);
+      start = end + 1;
+    }
+  }
+
+  /**
+   * Literal segments of a normalized path pattern, up to the first segment with a variable,
+   * wildcard or regex.
+   *
+   * @param pattern A normalized path pattern.
+   * @return Literal prefix segments.
+   */
+  static List<String> staticSegments(final String pattern) {
+    List<String> segments = new ArrayList<>();
+    if (pattern.equals("/")) {
+      return segments;
+    }
+    int start = pattern.charAt(0) == '/' ? 1 : 0;
+    int len = pattern.length();
+    while (start <= len) {
+      int end = pattern.indexOf('/', start);
+      if (end < 0) {
+        end = len;
+      }
+      String segment = pattern.substring(start, end);
+      if (!literal(segment)) {
+        break;
+      }
+      segments.add(segment);
+      start = end + 1;
+    }
+    return segments;
+  }
+
+  private static boolean literal(final String segment) {
+    for (int i = 0; i < segment.length(); i++) {
+      char ch = segment.charAt(i);
+      if (ch == '*' || ch == '?' || ch == ':' || ch == '{' || ch == '}') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+}
@@ -22,9 +22,13 @@ import java.io.InputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Executable;
 import java.lang.reflect.Method;
+import java.net.URL;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Properties;
 
 import org.jooby.Env;
 import org.objectweb.asm.ClassReader;
@@ -44,19 +48,58 @@ import com.google.common.util.concurrent.UncheckedExecutionException;
 
 public class RouteMetadata implements ParameterNameProvider {
 
+  /**
+   * Precomputed metadata, one entry per method: <code>[class]#[method][desc].params</code> and
+   * <code>[class]#[method][desc].startAt</code>. Written at build time, see {@link #index(Class,
+   * Properties)}.
+   */
+  public static final String INDEX = "META-INF/jooby/mvc.idx";
+
   private static final String[] NO_ARG = new String[0];
 
   private final LoadingCache<Class<?>, Map<String, Object>> cache;
 
   public RouteMetadata(final Env env) {
-    CacheLoader<Class<?>, Map<String, Object>> loader = CacheLoader
-        .from(RouteMetadata::extractMetadata);
+    boolean dev = env.name().equals("dev");
+    // classes change in dev, the index might be out of date
+    Map<String, Map<String, Object>> index = dev
+        ? Collections.emptyMap()
+        : readIndex(getClass().getClassLoader());
+    CacheLoader<Class<?>, Map<String, Object>> loader = CacheLoader.from(owner -> {
+      Map<String, Object> md = index.get(owner.getName());
+      return md == null ? extractMetadata(owner) : md;
+    });
 
-    cache = env.name().equals("dev")
+    cache = dev
         ? CacheBuilder.newBuilder().maximumSize(0).build(loader)
         : CacheBuilder.newBuilder().build(loader);
   }
 
+  /**
+   * Add the metadata of the given class to an index.
+   *
+   * @param owner Class to index.
+   * @param index Index.
+   */
+  public static void index(final Class<?> owner, final Properties index) {
+    String prefix = owner.getName() + "#";
+    Properties md = new Properties();
+    for (Map.Entry<String, Object> entry : extractMetadata(owner).entrySet()) {
+      Object value = entry.getValue();
+      if (value instanceof String[]) {
+        String[] names = (String[]) value;
+        if (Arrays.asList(names).contains(null)) {
+          // compiled without -parameters or debug info, leave it to runtime
+          return;
+        }
+        md.setProperty(prefix + entry.getKey(), String.join(",", names));
+      } else {
+        md.setProperty(prefix + entry.getKey(), value.toString());
+      }
+    }
+    index.putAll(md);
+  }
+
   @Override
   public String[] names(final Executable exec) {
     Map<String, Object> md = md(exec);
@@ -92,6 +135,34 @@ public class RouteMetadata implements ParameterNameProvider {
     }
   }
 
+  private static Map<String, Map<String, Object>> readIndex(final ClassLoader loader) {
+    Map<String, Map<String, Object>> index = new HashMap<>();
+    try {
+      Enumeration<URL> resources = loader.getResources(INDEX);
+      while (resources.hasMoreElements()) {
+        Properties properties = new Properties();
+        try (InputStream in = resources.nextElement().openStream()) {
+          properties.load(in);
+        }
+        for (String name : properties.stringPropertyNames()) {
+          int sep = name.indexOf('#');
+          String value = properties.getProperty(name);
+          Map<String, Object> md = index.computeIfAbsent(name.substring(0, sep),
+              k -> new HashMap<>());
+          String key = name.substring(sep + 1);
+          if (key.endsWith(".params")) {
+            md.put(key, value.isEmpty() ? NO_ARG : value.split(","));
+          } else {
+            md.put(key, Integer.valueOf(value));
+          }
+        }
+      }
+    } catch (Exception ex) {
+      throw new IllegalStateException("Can't read: " + INDEX, ex);
+    }
+    return index;
+  }
+
   private static String classfile(final Class<?> owner) {
     StringBuilder sb = new StringBuilder();
     Class<?> dc = owner.getDeclaringClass();
@@ -54,11 +54,15 @@ public class RoutePattern {
   private boolean glob;
 
   public RoutePattern(final String verb, final String pattern) {
+    this(verb, pattern, false);
+  }
+
+  RoutePattern(final String verb, final String pattern, final boolean regex) {
     requireNonNull(verb, "A HTTP verb is required.");
     requireNonNull(pattern, "A path pattern is required.");
     this.pattern = normalize(pattern);
-    Tuple4<Function<String, RouteMatcher>, List<String>, List<String>, Boolean> result = rewrite(this,
-        verb.toUpperCase(), this.pattern.replace("/**/", "/**"));
+    Tuple4<Function<String, RouteMatcher>, List<String>, List<String>, Boolean> result = rewrite(
+        verb.toUpperCase(), this.pattern.replace("/**/", "/**"), regex);
     matcher = result._1;
     vars = result._2;
     reverse = result._3;
@@ -98,39 +102,47 @@ public class RoutePattern {
   }
 
   private static Tuple4<Function<String, RouteMatcher>, List<String>, List<String>, Boolean> rewrite(
-      final RoutePattern owner, final String verb, final String pattern) {
+      final String verb, final String pattern, final boolean forceRegex) {
     List<String> vars = new LinkedList<>();
     String rwrverb = verbs(verb);
     StringBuilder patternBuilder = new StringBuilder(rwrverb);
+    PathPattern.Builder path = new PathPattern.Builder();
     Matcher matcher = GLOB.matcher(pattern);
     int end = 0;
     boolean regex = !rwrverb.equals(verb);
+    // only explicit {var:regex} requires a regex
+    boolean constraint = forceRegex;
     List<String> reverse = new ArrayList<>();
     boolean glob = false;
     while (matcher.find()) {
       String head = pattern.substring(end, matcher.start());
       patternBuilder.append(Pattern.quote(head));
+      path.literal(head);
       reverse.add(head);
       String match = matcher.group();
       if ("?".equals(match)) {
         patternBuilder.append("([^/])");
+        path.glob(PathPattern.CHAR);
         reverse.add(match);
         regex = true;
         glob = true;
       } else if ("*".equals(match)) {
         patternBuilder.append("([^/]*)");
+        path.glob(PathPattern.STAR);
         reverse.add(match);
         regex = true;
         glob = true;
       } else if (match.equals("/**")) {
         reverse.add(match);
         patternBuilder.append("($|/.*)");
+        path.glob(PathPattern.DEEP);
         regex = true;
         glob = true;
       } else if (match.startsWith("/**:")) {
         reverse.add(match.substring(1));
         String varName = match.substring(4);
         patternBuilder.append("/(?<v").append(vars.size()).append(">($|.*))");
+        path.var(PathPattern.DEEP_VAR);
         vars.add(varName);
         regex = true;
         glob = true;
@@ -138,6 +150,7 @@ public class RoutePattern {
         regex = true;
         String varName = match.substring(1);
         patternBuilder.append("(?<v").append(vars.size()).append(">[^/]+)");
+        path.var(PathPattern.VAR);
         vars.add(varName);
         reverse.add(varName);
       } else if (match.startsWith("{") && match.endsWith("}")) {
@@ -146,13 +159,20 @@ public class RoutePattern {
         if (colonIdx == -1) {
           String varName = match.substring(1, match.length() - 1);
           patternBuilder.append("(?<v").append(vars.size()).append(">[^/]+)");
+          path.var(PathPattern.VAR);
           vars.add(varName);
           reverse.add(varName);
         } else {
           String varName = match.substring(1, colonIdx);
           String regexpr = match.substring(colonIdx + 1, match.length() - 1);
           patternBuilder.append("(?<v").append(vars.size()).append(">");
-          patternBuilder.append("**".equals(regexpr) ? "($|.*)" : regexpr);
+          if ("**".equals(regexpr)) {
+            patternBuilder.append("($|.*)");
+            path.var(PathPattern.ANY);
+          } else {
+            patternBuilder.append(regexpr);
+            constraint = true;
+          }
           patternBuilder.append(')');
           vars.add(varName);
           reverse.add(varName);
@@ -163,8 +183,17 @@ public class RoutePattern {
     String tail = pattern.substring(end, pattern.length());
     reverse.add(tail);
     patternBuilder.append(Pattern.quote(tail));
-    return Tuple.of(fn(owner, regex, regex ? patternBuilder.toString() : verb + pattern, vars),
-        vars, reverse, glob);
+    path.literal(tail);
+    Function<String, RouteMatcher> fn;
+    if (!regex) {
+      fn = simple(verb + pattern);
+    } else if (constraint) {
+      fn = regex(patternBuilder.toString(), vars);
+    } else {
+      fn = path(path.build(verb.equals("*") ? null : verb.split("\\|")),
+          vars.toArray(new String[vars.size()]));
+    }
+    return Tuple.of(fn, vars, reverse, glob);
   }
 
   private static String verbs(final String verb) {
@@ -175,19 +204,29 @@ public class RoutePattern {
     return "(?:" + verb + ")";
   }
 
-  private static Function<String, RouteMatcher> fn(final RoutePattern owner, final boolean complex,
-      final String pattern, final List<String> vars) {
-    return new Function<String, RouteMatcher>() {
-      final Pattern regex = complex ? Pattern.compile(pattern) : null;
+  private static Function<String, RouteMatcher> simple(final String pattern) {
+    return fullpath -> new SimpleRouteMatcher(pattern, fullpath.substring(fullpath.indexOf('/')),
+        fullpath);
+  }
 
-      @Override
-      public RouteMatcher apply(final String fullpath) {
-        String path = fullpath.substring(fullpath.indexOf('/'));
-        return complex
-            ? new RegexRouteMatcher(path, regex.matcher(fullpath), vars)
-            : new SimpleRouteMatcher(pattern, path, fullpath);
-      }
-    };
+  private static Function<String, RouteMatcher> path(final PathPattern pattern,
+      final String[] vars) {
+    return fullpath -> new PathRouteMatcher(pattern, vars, fullpath, path(fullpath));
+  }
+
+  private static Function<String, RouteMatcher> regex(final String pattern,
+      final List<String> vars) {
+    Pattern regex = Pattern.compile(pattern);
+    return fullpath -> new RegexRouteMatcher(fullpath.substring(path(fullpath)),
+        regex.matcher(fullpath), vars);
+  }
+
+  private static int path(final String fullpath) {
+    int path = fullpath.indexOf('/');
+    if (path < 0) {
+      throw new StringIndexOutOfBoundsException(path);
+    }
+    return path;
   }
 
   public static String normalize(final String pattern) {
@@ -0,0 +1,145 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Path vars backed by a flat array of group offsets. Values are created on first access. Keys are
+ * the group index (<code>0..n</code>) followed by var names, in that order.
+ */
+class RouteVars extends AbstractMap<Object, String> {
+
+  private final String path;
+
+  private final int[] offsets;
+
+  private final String[] names;
+
+  private final int[] vars;
+
+  private final String[] values;
+
+  public RouteVars(final String path, final int[] offsets, final String[] names,
+      final int[] vars) {
+    this.path = path;
+    this.offsets = offsets;
+    this.names = names;
+    this.vars = vars;
+    this.values = new String[offsets.length / 2 + names.length];
+  }
+
+  @Override
+  public int size() {
+    return values.length;
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return index(key) >= 0;
+  }
+
+  @Override
+  public String get(final Object key) {
+    int index = index(key);
+    return index < 0 ? null : value(index);
+  }
+
+  @Override
+  public Set<Entry<Object, String>> entrySet() {
+    return new AbstractSet<Entry<Object, String>>() {
+      @Override
+      public Iterator<Entry<Object, String>> iterator() {
+        return new Iterator<Entry<Object, String>>() {
+          int index;
+
+          @Override
+          public boolean hasNext() {
+            return index < values.length;
+          }
+
+          @Override
+          public Entry<Object, String> next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+            int i = index++;
+            return new SimpleImmutableEntry<>(key(i), value(i));
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return values.length;
+      }
+    };
+  }
+
+  private int groups() {
+    return offsets.length / 2;
+  }
+
+  private Object key(final int index) {
+    int groups = groups();
+    return index < groups ? (Object) index : names[index - groups];
+  }
+
+  private int index(final Object key) {
+    int groups = groups();
+    if (key instanceof Integer) {
+      int index = (Integer) key;
+      return index >= 0 && index < groups ? index : -1;
+    }
+    // last one wins on duplicated names
+    for (int i = names.length - 1; i >= 0; i--) {
+      if (names[i].equals(key)) {
+        return groups + i;
+      }
+    }
+    return -1;
+  }
+
+  private String value(final int index) {
+    String value = values[index];
+    if (value == null) {
+      int groups = groups();
+      if (index < groups) {
+        value = group(index);
+        // idx vars don't keep the leading slash
+        if (value.startsWith("/")) {
+          value = value.substring(1);
+        }
+      } else {
+        value = group(vars[index - groups]);
+      }
+      values[index] = value;
+    }
+    return value;
+  }
+
+  private String group(final int group) {
+    return path.substring(offsets[group * 2], offsets[group * 2 + 1]);
+  }
+
+}
@@ -175,7 +175,9 @@ public class SessionImpl implements Session {
     requireNonNull(name, "An attribute name is required.");
     requireNonNull(value, "An attribute value is required.");
     String existing = attributes.put(name, value);
-    dirty = existing == null || !existing.equals(value);
+    if (!value.equals(existing)) {
+      dirty = true;
+    }
     return this;
   }
 
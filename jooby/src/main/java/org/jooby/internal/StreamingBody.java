@@ -0,0 +1,154 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+import org.jooby.MediaType;
+import org.jooby.Renderer;
+import org.jooby.Streaming;
+import org.jooby.Streaming.Format;
+import org.jooby.Streaming.Subscriber;
+import org.jooby.Streaming.Subscription;
+
+import com.google.common.base.Throwables;
+
+/**
+ * Response body of a <code>JSON</code> or <code>NDJSON</code> stream. The publisher signals are
+ * queued and written from the thread rendering the response, one element at a time. One more
+ * element is requested after a write, so a slow client (a blocking write) slows down the
+ * publisher.
+ *
+ * @author edgar
+ * @since 1.0.1
+ */
+public class StreamingBody implements Subscriber, Renderer.BodyWriter {
+
+  /** Publisher completed. */
+  private static final Object COMPLETE = new Object();
+
+  /** Publisher failed. */
+  private static class Failure {
+    private final Throwable cause;
+
+    Failure(final Throwable cause) {
+      this.cause = cause;
+    }
+  }
+
+  private final List<Renderer> renderers;
+
+  private final Format format;
+
+  private final Consumer<Subscriber> subscribe;
+
+  /** Signals waiting to be written, bounded by the demand. */
+  private final BlockingQueue<Object> signals = new LinkedBlockingQueue<>();
+
+  private volatile Subscription subscription;
+
+  public StreamingBody(final List<Renderer> renderers, final Format format,
+      final Consumer<Subscriber> subscribe) {
+    this.renderers = renderers;
+    this.format = format;
+    this.subscribe = subscribe;
+  }
+
+  /**
+   * @return Content type of the stream.
+   */
+  public MediaType type() {
+    return MediaType.valueOf(format.contentType());
+  }
+
+  @Override
+  public void onSubscribe(final Subscription subscription) {
+    this.subscription = subscription;
+    subscription.request(Streaming.WINDOW);
+  }
+
+  @Override
+  public void onNext(final Object value) {
+    signals.add(value);
+  }
+
+  @Override
+  public void onError(final Throwable cause) {
+    signals.add(new Failure(cause));
+  }
+
+  @Override
+  public void onComplete() {
+    signals.add(COMPLETE);
+  }
+
+  @Override
+  public void write(final OutputStream output) throws Exception {
+    subscribe.accept(this);
+    boolean first = true;
+    Object signal = null;
+    try {
+      signal = signals.take();
+      while (signal != COMPLETE) {
+        if (signal instanceof Failure) {
+          Throwable cause = ((Failure) signal).cause;
+          Throwables.propagateIfPossible(cause, Exception.class);
+          throw new IllegalStateException(cause);
+        }
+        output.write(encode(signal, first));
+        output.flush();
+        first = false;
+        // element was written, ask for one more
+        subscription.request(1);
+        signal = signals.take();
+      }
+    } catch (Exception x) {
+      if (subscription != null && !(signal instanceof Failure)) {
+        // render or write failure (client is gone), stop the publisher
+        subscription.cancel();
+      }
+      throw x;
+    }
+    if (format == Format.JSON) {
+      output.write(first ? new byte[]{'[', ']' } : new byte[]{']' });
+    }
+  }
+
+  /** Render an element with its separators, so it goes out in a single chunk. */
+  private byte[] encode(final Object value, final boolean first) throws Exception {
+    byte[] json = BufferRenderer.render(renderers, MediaType.json, StandardCharsets.UTF_8, value);
+    int prefix = format == Format.JSON ? 1 : 0;
+    int suffix = format == Format.NDJSON ? 1 : 0;
+    byte[] bytes = new byte[prefix + json.length + suffix];
+    if (prefix > 0) {
+      bytes[0] = (byte) (first ? '[' : ',');
+    }
+    System.arraycopy(json, 0, bytes, prefix, json.length);
+    if (suffix > 0) {
+      bytes[bytes.length - 1] = '\n';
+    }
+    return bytes;
+  }
+
+}
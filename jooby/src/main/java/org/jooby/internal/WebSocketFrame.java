@@ -0,0 +1,155 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.List;
+
+import org.jooby.MediaType;
+import org.jooby.Renderer;
+import org.jooby.WebSocket.ErrCallback;
+import org.jooby.WebSocket.SuccessCallback;
+import org.jooby.spi.NativeWebSocket;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * A rendered web socket message. Frames are immutable and can be sent to many connections, each
+ * send works on a duplicate of the same read-only buffer.
+ *
+ * @author edgar
+ * @since 1.0.1
+ */
+public class WebSocketFrame {
+
+  private static class FrameRenderer extends AbstractRendererContext {
+
+    private MediaType type;
+
+    private WebSocketFrame frame;
+
+    FrameRenderer(final List<Renderer> renderers, final MediaType type, final Charset charset) {
+      super(renderers, ImmutableList.of(type), charset, Collections.emptyMap());
+      this.type = type;
+    }
+
+    @Override
+    public void send(final String text) throws Exception {
+      frame = new WebSocketFrame(ByteBuffer.wrap(text.getBytes(charset)), true);
+      setCommitted();
+    }
+
+    @Override
+    protected void _send(final byte[] bytes) throws Exception {
+      frame = new WebSocketFrame(ByteBuffer.wrap(bytes), type.isText());
+    }
+
+    @Override
+    protected void _send(final ByteBuffer buffer) throws Exception {
+      // copy, renderers might reuse the buffer
+      ByteBuffer copy = ByteBuffer.allocate(buffer.remaining());
+      copy.put(buffer);
+      copy.flip();
+      frame = new WebSocketFrame(copy, type.isText());
+    }
+
+    @Override
+    protected void _send(final FileChannel file) throws Exception {
+      // a frame is sent to many connections, read the file once
+      _send(BufferRenderer.bytes(file));
+    }
+
+    @Override
+    protected void _send(final InputStream stream) throws Exception {
+      _send(BufferRenderer.bytes(stream));
+    }
+  }
+
+  private final ByteBuffer data;
+
+  private final boolean text;
+
+  private WebSocketFrame(final ByteBuffer data, final boolean text) {
+    this.data = data.asReadOnlyBuffer();
+    this.text = text;
+  }
+
+  /**
+   * Render a message.
+   *
+   * @param renderers Renderers.
+   * @param type Media type.
+   * @param charset Charset.
+   * @param value Value to render.
+   * @return A new frame.
+   * @throws Exception If rendering fails.
+   */
+  public static WebSocketFrame render(final List<Renderer> renderers, final MediaType type,
+      final Charset charset, final Object value) throws Exception {
+    FrameRenderer ctx = new FrameRenderer(renderers, type, charset);
+    ctx.render(value);
+    return ctx.frame;
+  }
+
+  /**
+   * @return True for text frames.
+   */
+  public boolean text() {
+    return text;
+  }
+
+  /**
+   * @return Frame size in bytes.
+   */
+  public int length() {
+    return data.remaining();
+  }
+
+  /**
+   * @return A read-only view of the frame data, with its own position and limit.
+   */
+  public ByteBuffer buffer() {
+    return data.duplicate();
+  }
+
+  /**
+   * Write this frame to a web socket.
+   *
+   * @param ws Target web socket.
+   * @param success Success callback.
+   * @param err Error callback.
+   */
+  public void send(final NativeWebSocket ws, final SuccessCallback success,
+      final ErrCallback err) {
+    if (text) {
+      ws.sendText(buffer(), success, err);
+    } else {
+      ws.sendBytes(buffer(), success, err);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return (text ? "text" : "binary") + "[" + length() + "]";
+  }
+}
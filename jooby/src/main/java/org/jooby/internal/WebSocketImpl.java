@@ -20,10 +20,12 @@ package org.jooby.internal;
 
 import static java.util.Objects.requireNonNull;
 
+import java.nio.channels.ClosedChannelException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.jooby.Err;
 import org.jooby.MediaType;
@@ -31,6 +33,7 @@ import org.jooby.Mutant;
 import org.jooby.Renderer;
 import org.jooby.Request;
 import org.jooby.WebSocket;
+import org.jooby.WebSocketChannel;
 import org.jooby.internal.parser.ParserExecutor;
 import org.jooby.spi.NativeWebSocket;
 import org.slf4j.Logger;
@@ -79,6 +82,8 @@ public class WebSocketImpl implements WebSocket {
 
   private List<Renderer> renderers;
 
+  private final List<WebSocketChannel> channels = new CopyOnWriteArrayList<>();
+
   public WebSocketImpl(final FullHandler handler, final String path,
       final String pattern, final Map<Object, String> vars,
       final MediaType consumes, final MediaType produces) {
@@ -92,7 +97,10 @@ public class WebSocketImpl implements WebSocket {
 
   @Override
   public void close(final CloseStatus status) {
-    ws.close(status.code(), status.reason());
+    NativeWebSocket ws = this.ws;
+    if (ws != null) {
+      ws.close(status.code(), status.reason());
+    }
   }
 
   @Override
@@ -132,6 +140,41 @@ public class WebSocketImpl implements WebSocket {
         err).render(data);
   }
 
+  /**
+   * Render a message once, so it can be sent to many web sockets.
+   *
+   * @param data Message to render.
+   * @return A frame.
+   * @throws Exception If rendering fails.
+   */
+  public WebSocketFrame frame(final Object data) throws Exception {
+    return WebSocketFrame.render(renderers, produces, StandardCharsets.UTF_8, data);
+  }
+
+  /**
+   * Send a rendered message.
+   *
+   * @param frame Frame to send.
+   * @param success Success callback.
+   * @param err Error callback.
+   */
+  public void send(final WebSocketFrame frame, final SuccessCallback success,
+      final ErrCallback err) {
+    NativeWebSocket ws = this.ws;
+    if (ws == null) {
+      err.invoke(new ClosedChannelException());
+    } else {
+      frame.send(ws, success, err);
+    }
+  }
+
+  /**
+   * @return Channels of this web socket.
+   */
+  public List<WebSocketChannel> channels() {
+    return channels;
+  }
+
   @Override
   public void onMessage(final Callback<Mutant> callback) throws Exception {
     this.messageCallback = requireNonNull(callback, "Message callback required.");
@@ -157,6 +200,7 @@ public class WebSocketImpl implements WebSocket {
 
     ws.onCloseMessage((code, reason) -> Try
         .run(() -> {
+          leaveChannels();
           if (closeCallback != null) {
             closeCallback.invoke(reason.map(r -> WebSocket.CloseStatus.of(code, r)).orElse(
                 WebSocket.CloseStatus.of(code)));
@@ -238,7 +282,14 @@ public class WebSocketImpl implements WebSocket {
     }
   }
 
+  private void leaveChannels() {
+    for (WebSocketChannel channel : channels) {
+      channel.leave(this);
+    }
+  }
+
   private void cleanup(final Throwable cause) {
+    leaveChannels();
     NativeWebSocket lws = ws;
     this.ws = null;
     this.injector = null;
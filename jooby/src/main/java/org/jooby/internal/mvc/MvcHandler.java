@@ -20,10 +20,15 @@ package org.jooby.internal.mvc;
 
 import static java.util.Objects.requireNonNull;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.List;
 
+import javax.inject.Provider;
+
 import org.jooby.Request;
 import org.jooby.Response;
 import org.jooby.Route;
@@ -33,15 +38,34 @@ import com.google.common.base.Throwables;
 
 public class MvcHandler implements Route.MethodHandler {
 
+  /** (Object target, Object[] args) -> Object. */
+  private static final MethodType INVOKER = MethodType.methodType(Object.class, Object.class,
+      Object[].class);
+
   private Method handler;
 
   private RequestParamProvider provider;
 
+  private Provider<?> controller;
+
+  private MethodHandle invoker;
+
   public MvcHandler(final Method handler, final RequestParamProvider provider) {
     this.handler = requireNonNull(handler, "Handler method is required.");
     this.provider = requireNonNull(provider, "Param prodiver is required.");
   }
 
+  /**
+   * Set the provider of the declaring class, instead of looking up the controller on every call.
+   *
+   * @param controller Controller provider.
+   * @return This handler.
+   */
+  public MvcHandler controller(final Provider<?> controller) {
+    this.controller = requireNonNull(controller, "Controller provider is required.");
+    return this;
+  }
+
   @Override
   public Method method() {
     return handler;
@@ -63,22 +87,52 @@ public class MvcHandler implements Route.MethodHandler {
   }
 
   public Object invoke(final Request req, final Response rsp) throws Throwable {
-    try {
-      Object target = req.require(handler.getDeclaringClass());
-
-      List<RequestParam> parameters = provider.parameters(handler);
-      Object[] args = new Object[parameters.size()];
-      for (int i = 0; i < parameters.size(); i++) {
-        args[i] = parameters.get(i).value(req, rsp);
-      }
+    Provider<?> controller = this.controller;
+    Object target = controller == null
+        ? req.require(handler.getDeclaringClass())
+        : controller.get();
+
+    List<RequestParam> parameters = provider.parameters(handler);
+    Object[] args = new Object[parameters.size()];
+    for (int i = 0; i < args.length; i++) {
+      args[i] = parameters.get(i).value(req, rsp);
+    }
 
-      final Object result = handler.invoke(target, args);
+    MethodHandle invoker = this.invoker;
+    if (invoker == null) {
+      invoker = invoker(handler);
+      this.invoker = invoker;
+    }
+    try {
+      return (Object) invoker.invokeExact(target, args);
+    } catch (Exception | Error ex) {
+      throw ex;
+    } catch (Throwable ex) {
+      throw Throwables.propagate(ex);
+    }
+  }
 
-      return result;
-    } catch (InvocationTargetException ex) {
-      Throwable cause = ex.getCause();
-      Throwables.propagateIfInstanceOf(cause, Exception.class);
-      throw Throwables.propagate(cause);
+  /**
+   * Creates a method handle for the given method, adapted to <code>(Object, Object[])Object</code>.
+   * Void methods return <code>null</code>.
+   *
+   * @param method Method.
+   * @return A method handle.
+   * @throws IllegalAccessException If the method isn't accessible.
+   */
+  static MethodHandle invoker(final Method method) throws IllegalAccessException {
+    MethodHandle handle;
+    try {
+      handle = MethodHandles.publicLookup().unreflect(method);
+    } catch (IllegalAccessException ex) {
+      // public method on a non public class
+      method.setAccessible(true);
+      handle = MethodHandles.lookup().unreflect(method);
+    }
+    if (Modifier.isStatic(method.getModifiers())) {
+      handle = MethodHandles.dropArguments(handle, 0, Object.class);
     }
+    return handle.asSpreader(Object[].class, method.getParameterCount())
+        .asType(INVOKER);
   }
 }
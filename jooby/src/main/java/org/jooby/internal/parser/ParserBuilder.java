@@ -106,10 +106,16 @@ public class ParserBuilder implements Parser.Builder {
     return upload(callback);
   }
 
+  /**
+   * @return Callback for the value type or <code>null</code> when there is none.
+   */
+  public Callback callback() {
+    return strategies.build().get(type);
+  }
+
   @SuppressWarnings("unchecked")
   public Object parse() throws Throwable {
-    Map<TypeLiteral<?>, Callback> map = strategies.build();
-    Callback callback = map.get(type);
+    Callback callback = callback();
     if (callback == null) {
       return ctx.next(toType, value);
     }
@@ -21,6 +21,8 @@ package org.jooby.internal.parser;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import javax.inject.Inject;
 
@@ -33,6 +35,9 @@ import org.jooby.Parser.Callback;
 import org.jooby.Parser.ParamReference;
 import org.jooby.Status;
 import org.jooby.Upload;
+import org.jooby.internal.BodyReferenceImpl;
+import org.jooby.internal.BuiltinParser;
+import org.jooby.internal.EmptyBodyReference;
 import org.jooby.internal.StatusCodeProvider;
 import org.jooby.internal.StrParamReferenceImpl;
 import org.jooby.internal.UploadParamReferenceImpl;
@@ -42,16 +47,80 @@ import com.google.inject.Injector;
 import com.google.inject.Key;
 import com.google.inject.TypeLiteral;
 
+/**
+ * Run the parser chain. The parser who converts a value is resolved once per target type,
+ * content type and value kind (param, body, upload or params) and later conversions start the
+ * chain at that parser. Simple params and bodies resolved by {@link BuiltinParser#Basic} are
+ * converted directly, without creating a parser context.
+ */
 public class ParserExecutor {
 
+  private static class ParserKey {
+    private TypeLiteral<?> type;
+
+    private MediaType contentType;
+
+    private Class<?> kind;
+
+    private int hc;
+
+    public ParserKey set(final TypeLiteral<?> type, final MediaType contentType,
+        final Class<?> kind) {
+      this.type = type;
+      this.contentType = contentType;
+      this.kind = kind;
+      hc = 1;
+      hc = 31 * hc + type.hashCode();
+      hc = 31 * hc + contentType.hashCode();
+      hc = 31 * hc + kind.hashCode();
+      return this;
+    }
+
+    public ParserKey copy() {
+      return new ParserKey().set(type, contentType, kind);
+    }
+
+    @Override
+    public int hashCode() {
+      return hc;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      ParserKey that = (ParserKey) obj;
+      return kind == that.kind && type.equals(that.type) && contentType.equals(that.contentType);
+    }
+  }
+
+  private static class Resolved {
+    /** Index of the parser who converts the value. */
+    private final int parser;
+
+    /** Direct converter or <code>null</code>. */
+    private final Function<String, Object> converter;
+
+    public Resolved(final int parser, final Function<String, Object> converter) {
+      this.parser = parser;
+      this.converter = converter;
+    }
+  }
+
   public static final Object NO_PARSER = new Object();
 
+  /** Content type is part of the key and comes from clients: keep it bounded. */
+  private static final int MAX_RESOLVED = 1024;
+
   private List<Parser> parsers;
 
   private Injector injector;
 
   private StatusCodeProvider sc;
 
+  private final Map<ParserKey, Resolved> resolved = new ConcurrentHashMap<>();
+
+  /** Per thread lookup key, resolved entries always get a copy. */
+  private final ThreadLocal<ParserKey> lookup = ThreadLocal.withInitial(ParserKey::new);
+
   @Inject
   public ParserExecutor(final Injector injector, final Set<Parser> parsers,
       final StatusCodeProvider sc) {
@@ -71,133 +140,202 @@ public class ParserExecutor {
   @SuppressWarnings("unchecked")
   public <T> T convert(final TypeLiteral<?> type, final MediaType contentType, final Object data)
       throws Throwable {
-    Object result = ctx(injector, contentType, type, parsers, data).next(type, data);
-    return (T) result;
-  }
-
-  private static Parser.Context ctx(final Injector injector,
-      final MediaType contentType, final TypeLiteral<?> seedType, final List<Parser> parsers,
-      final Object seed) {
-    return new Parser.Context() {
-      int cursor = 0;
-
-      TypeLiteral<?> type = seedType;
-
-      ParserBuilder builder = new ParserBuilder(this, type, seed);
-
-      @Override
-      public MediaType type() {
-        return contentType;
-      }
-
-      @Override
-      public Builder body(final Callback<Parser.BodyReference> callback) {
-        return builder.body(callback);
-      }
-
-      @Override
-      public Builder ifbody(final Callback<BodyReference> callback) {
-        return builder.ifbody(callback);
-      }
-
-      @Override
-      public Builder upload(final Callback<Parser.ParamReference<Upload>> callback) {
-        return builder.upload(callback);
-      }
-
-      @Override
-      public Builder ifupload(final Callback<ParamReference<Upload>> callback) {
-        return builder.ifupload(callback);
-      }
-
-      @Override
-      public Builder param(final Callback<ParamReference<String>> callback) {
-        return builder.param(callback);
+    ParserKey key = lookup.get().set(type, contentType, kind(data));
+    Resolved resolved = this.resolved.get(key);
+    if (resolved != null) {
+      if (resolved.converter != null) {
+        if (data instanceof StrParamReferenceImpl) {
+          return (T) resolved.converter.apply(((StrParamReferenceImpl) data).get(0));
+        }
+        return (T) resolved.converter.apply(((BodyReference) data).text());
       }
-
-      @Override
-      public Builder ifparam(final Callback<ParamReference<String>> callback) {
-        return builder.ifparam(callback);
+      return (T) new Context(injector, contentType, type, parsers, data, resolved.parser)
+          .next(type, data);
+    }
+    // parsers might convert values too (reentrant call), the lookup key isn't ours anymore
+    ParserKey resolveKey = key.copy();
+    Context ctx = new Context(injector, contentType, type, parsers, data, 0);
+    try {
+      return (T) ctx.next(type, data);
+    } finally {
+      if (ctx.resolved >= 0 && this.resolved.size() < MAX_RESOLVED) {
+        this.resolved.put(resolveKey, resolve(type, resolveKey.kind, ctx.resolved));
       }
+    }
+  }
 
-      @Override
-      public Builder params(final Callback<Map<String, Mutant>> callback) {
-        return builder.params(callback);
-      }
+  private Resolved resolve(final TypeLiteral<?> type, final Class<?> kind, final int index) {
+    Parser parser = parsers.get(index);
+    Function<String, Object> converter = null;
+    boolean simple = kind == StrParamReferenceImpl.class || kind == BodyReferenceImpl.class
+        || kind == EmptyBodyReference.class;
+    if (simple && parser instanceof BuiltinParser) {
+      converter = ((BuiltinParser) parser).converter(type.getRawType());
+    }
+    return new Resolved(index, converter);
+  }
 
-      @Override
-      public Builder ifparams(final Callback<Map<String, Mutant>> callback) {
-        return builder.ifparams(callback);
-      }
+  private static Class<?> kind(final Object data) {
+    return data instanceof Map ? Map.class : data.getClass();
+  }
 
-      @Override
-      public Object next() throws Throwable {
-        return next(builder.toType, builder.value);
+  private static class Context implements Parser.Context {
+
+    private final Injector injector;
+
+    private final MediaType contentType;
+
+    private final List<Parser> parsers;
+
+    private final TypeLiteral<?> seedType;
+
+    private final Object seed;
+
+    private int cursor;
+
+    private TypeLiteral<?> type;
+
+    private ParserBuilder builder;
+
+    /** Index of the parser who converted the seed or <code>-1</code>. */
+    private int resolved = -1;
+
+    public Context(final Injector injector, final MediaType contentType,
+        final TypeLiteral<?> seedType, final List<Parser> parsers, final Object seed,
+        final int cursor) {
+      this.injector = injector;
+      this.contentType = contentType;
+      this.parsers = parsers;
+      this.seedType = seedType;
+      this.seed = seed;
+      this.cursor = cursor;
+      this.type = seedType;
+      this.builder = new ParserBuilder(this, type, seed);
+    }
+
+    @Override
+    public MediaType type() {
+      return contentType;
+    }
+
+    @Override
+    public Builder body(final Callback<Parser.BodyReference> callback) {
+      return builder.body(callback);
+    }
+
+    @Override
+    public Builder ifbody(final Callback<BodyReference> callback) {
+      return builder.ifbody(callback);
+    }
+
+    @Override
+    public Builder upload(final Callback<Parser.ParamReference<Upload>> callback) {
+      return builder.upload(callback);
+    }
+
+    @Override
+    public Builder ifupload(final Callback<ParamReference<Upload>> callback) {
+      return builder.ifupload(callback);
+    }
+
+    @Override
+    public Builder param(final Callback<ParamReference<String>> callback) {
+      return builder.param(callback);
+    }
+
+    @Override
+    public Builder ifparam(final Callback<ParamReference<String>> callback) {
+      return builder.ifparam(callback);
+    }
+
+    @Override
+    public Builder params(final Callback<Map<String, Mutant>> callback) {
+      return builder.params(callback);
+    }
+
+    @Override
+    public Builder ifparams(final Callback<Map<String, Mutant>> callback) {
+      return builder.ifparams(callback);
+    }
+
+    @Override
+    public Object next() throws Throwable {
+      return next(builder.toType, builder.value);
+    }
+
+    @Override
+    public Object next(final TypeLiteral<?> type) throws Throwable {
+      return next(type, builder.value);
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked" })
+    @Override
+    public Object next(final TypeLiteral<?> nexttype, final Object nextval)
+        throws Throwable {
+      if (cursor == parsers.size()) {
+        return NO_PARSER;
       }
-
-      @Override
-      public Object next(final TypeLiteral<?> type) throws Throwable {
-        return next(type, builder.value);
+      if (!type.equals(nexttype)) {
+        // reset cursor on type changes.
+        cursor = 0;
+        type = nexttype;
       }
-
-      @Override
-      public Object next(final TypeLiteral<?> nexttype, final Object nextval)
-          throws Throwable {
-        if (cursor == parsers.size()) {
-          return NO_PARSER;
-        }
-        if (!type.equals(nexttype)) {
-          // reset cursor on type changes.
-          cursor = 0;
-          type = nexttype;
+      int index = cursor;
+      Parser next = parsers.get(cursor);
+      cursor += 1;
+      ParserBuilder current = builder;
+      builder = new ParserBuilder(this, nexttype, wrap(nextval, builder.value));
+      Object result = next.parse(nexttype, this);
+      if (result instanceof ParserBuilder) {
+        // call a parse
+        ParserBuilder parser = (ParserBuilder) result;
+        Callback callback = parser.callback();
+        if (callback == null) {
+          result = next(parser.toType, parser.value);
+        } else {
+          if (resolved < 0 && parser.value == seed && seedType.equals(parser.toType)) {
+            resolved = index;
+          }
+          result = callback.invoke(parser.value);
         }
-        Parser next = parsers.get(cursor);
-        cursor += 1;
-        ParserBuilder current = builder;
-        builder = new ParserBuilder(this, nexttype, wrap(nextval, builder.value));
-        Object result = next.parse(nexttype, this);
-        if (result instanceof ParserBuilder) {
-          // call a parse
-          result = ((ParserBuilder) result).parse();
-        }
-        builder = current;
-        cursor -= 1;
-        return result;
-      }
-
-      @SuppressWarnings("rawtypes")
-      private Object wrap(final Object nextval, final Object value) {
-        if (nextval instanceof String) {
-          ParamReference<?> pref = (ParamReference) value;
-          return new StrParamReferenceImpl(pref.type(), pref.name(),
-              ImmutableList.of((String) nextval));
-        } else if (nextval instanceof Upload) {
-          ParamReference<?> pref = (ParamReference) value;
-          return new UploadParamReferenceImpl(pref.name(), ImmutableList.of((Upload) nextval));
-        }
-        return nextval;
-      }
-
-      @Override
-      public <T> T require(final Key<T> key) {
-        return injector.getInstance(key);
       }
-
-      @Override
-      public <T> T require(final Class<T> type) {
-        return injector.getInstance(type);
-      }
-
-      @Override
-      public <T> T require(final TypeLiteral<T> type) {
-        return injector.getInstance(Key.get(type));
-      }
-
-      @Override
-      public String toString() {
-        return parsers.toString();
+      builder = current;
+      cursor -= 1;
+      return result;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private Object wrap(final Object nextval, final Object value) {
+      if (nextval instanceof String) {
+        ParamReference<?> pref = (ParamReference) value;
+        return new StrParamReferenceImpl(pref.type(), pref.name(),
+            ImmutableList.of((String) nextval));
+      } else if (nextval instanceof Upload) {
+        ParamReference<?> pref = (ParamReference) value;
+        return new UploadParamReferenceImpl(pref.name(), ImmutableList.of((Upload) nextval));
       }
-    };
+      return nextval;
+    }
+
+    @Override
+    public <T> T require(final Key<T> key) {
+      return injector.getInstance(key);
+    }
+
+    @Override
+    public <T> T require(final Class<T> type) {
+      return injector.getInstance(type);
+    }
+
+    @Override
+    public <T> T require(final TypeLiteral<T> type) {
+      return injector.getInstance(Key.get(type));
+    }
+
+    @Override
+    public String toString() {
+      return parsers.toString();
+    }
   }
 
 }
@@ -0,0 +1,56 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.mvc;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Mark a MVC route (or all the routes of a class) as non-blocking. Non-blocking routes are
+ * executed on the IO thread of servers with an event loop (netty and undertow).
+ *
+ * <pre>
+ *   class Resources {
+ *
+ *     &#64;GET
+ *     &#64;NonBlocking
+ *     public Object version() {
+ *      return ...;
+ *     }
+ *   }
+ * </pre>
+ *
+ * @author edgar
+ * @since 1.0.1
+ * @see org.jooby.Route.Props#nonBlocking()
+ */
+@Inherited
+@Target({ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface NonBlocking {
+  /**
+   * @return True for non-blocking routes.
+   */
+  boolean value() default true;
+}
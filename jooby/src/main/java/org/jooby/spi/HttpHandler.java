@@ -37,4 +37,34 @@ public interface HttpHandler {
    */
   void handle(final NativeRequest request, final NativeResponse response) throws Exception;
 
+  /**
+   * Test if a request can be handled on the IO thread. It is true when all the routes matching
+   * the given method and path are marked as non-blocking, see
+   * {@link org.jooby.Route.Props#nonBlocking()}. Servers with an event loop might call
+   * {@link #handle(NativeRequest, NativeResponse)} from the IO thread for such requests, instead
+   * of dispatching them to a worker thread.
+   *
+   * @param method HTTP method.
+   * @param path Decoded request path.
+   * @return True when the request can be handled on the IO thread.
+   */
+  default boolean nonBlocking(final String method, final String path) {
+    return false;
+  }
+
+  /**
+   * Test if {@link #nonBlocking(String, String)} might return true for any request. Servers call
+   * it once at startup, when false requests are dispatched to a worker thread without looking at
+   * the method or path.
+   *
+   * Default is true, so a handler that only overrides {@link #nonBlocking(String, String)} keeps
+   * working.
+   *
+   * @return True when at least one request can be handled on the IO thread.
+   * @since 1.0.1
+   */
+  default boolean hasNonBlocking() {
+    return true;
+  }
+
 }
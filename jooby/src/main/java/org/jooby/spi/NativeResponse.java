@@ -18,12 +18,19 @@
  */
 package org.jooby.spi;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.List;
 import java.util.Optional;
 
+import org.jooby.Renderer;
+
+import com.google.common.base.Throwables;
+
 /**
  * Minimal/basic implementation of HTTP request. A server implementor must provide an implementation
  * of {@link NativeResponse}.
@@ -75,6 +82,60 @@ public interface NativeResponse {
 
   void send(FileChannel channel, long possition, long count) throws Exception;
 
+  /**
+   * Write the response body using an output stream. Default implementation buffers the output and
+   * calls {@link #send(byte[])}. Servers should override it and write into a (pooled) buffer.
+   *
+   * It must set a <code>Content-Length</code> header if none was set.
+   *
+   * @param writer Writer of the response body.
+   * @throws Exception If write fails.
+   */
+  default void send(final Renderer.BodyWriter writer) throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    writer.write(output);
+    byte[] bytes = output.toByteArray();
+    if (!header("Content-Length").isPresent()) {
+      header("Content-Length", Integer.toString(bytes.length));
+    }
+    send(bytes);
+  }
+
+  /**
+   * Output stream for a response body of unknown length. Bytes must be sent to the client as they
+   * are written (<code>Transfer-Encoding: chunked</code> when no <code>Content-Length</code> was
+   * set) and the response ends once the stream is closed.
+   *
+   * Default implementation buffers the output and calls {@link #send(byte[])} on close. Servers
+   * should override it.
+   *
+   * @return Response output stream.
+   * @throws IOException If the output stream can't be opened.
+   */
+  default OutputStream outputStream() throws IOException {
+    return new ByteArrayOutputStream() {
+      @Override
+      public void close() throws IOException {
+        try {
+          send(toByteArray());
+        } catch (Exception x) {
+          Throwables.propagateIfPossible(x, IOException.class);
+          throw new IOException(x);
+        }
+      }
+    };
+  }
+
+  /**
+   * Abort a response whose body was partially written with {@link #outputStream()}. The
+   * connection is closed without ending the body (no last chunk), so the client can tell the body
+   * was truncated. Default implementation does nothing.
+   *
+   * @param cause Reason of the abort.
+   */
+  default void abort(final Throwable cause) {
+  }
+
   /**
    * @return HTTP response status.
    */
@@ -298,6 +298,9 @@ public class JoobyTest {
     LinkedBindingBuilder<Renderer> fchannel = unit.mock(LinkedBindingBuilder.class);
     fchannel.toInstance(BuiltinRenderer.fileChannel);
 
+    LinkedBindingBuilder<Renderer> streaming = unit.mock(LinkedBindingBuilder.class);
+    streaming.toInstance(BuiltinRenderer.streaming);
+
     LinkedBindingBuilder<Renderer> err = unit.mock(LinkedBindingBuilder.class);
     err.toInstance(isA(DefaulErrRenderer.class));
 
@@ -312,6 +315,7 @@ public class JoobyTest {
     expect(multibinder.addBinding()).andReturn(formatStream);
     expect(multibinder.addBinding()).andReturn(reader);
     expect(multibinder.addBinding()).andReturn(fchannel);
+    expect(multibinder.addBinding()).andReturn(streaming);
     expect(multibinder.addBinding()).andReturn(err);
     expect(multibinder.addBinding()).andReturn(formatAny);
 
@@ -2036,6 +2040,9 @@ public class JoobyTest {
           LinkedBindingBuilder<Renderer> fchannel = unit.mock(LinkedBindingBuilder.class);
           fchannel.toInstance(BuiltinRenderer.fileChannel);
 
+          LinkedBindingBuilder<Renderer> streaming = unit.mock(LinkedBindingBuilder.class);
+          streaming.toInstance(BuiltinRenderer.streaming);
+
           LinkedBindingBuilder<Renderer> err = unit.mock(LinkedBindingBuilder.class);
           err.toInstance(isA(DefaulErrRenderer.class));
 
@@ -2050,6 +2057,7 @@ public class JoobyTest {
           expect(multibinder.addBinding()).andReturn(formatStream);
           expect(multibinder.addBinding()).andReturn(reader);
           expect(multibinder.addBinding()).andReturn(fchannel);
+          expect(multibinder.addBinding()).andReturn(streaming);
           expect(multibinder.addBinding()).andReturn(err);
           expect(multibinder.addBinding()).andReturn(formatAny);
         })
@@ -2101,6 +2109,9 @@ public class JoobyTest {
           expect(conf.getBoolean("assets.lastModified")).andReturn(true).times(2);
           expect(conf.getBoolean("assets.etag")).andReturn(true).times(2);
           expect(conf.getString("assets.cache.maxAge")).andReturn("-1").times(2);
+          expect(conf.getBoolean("assets.cache.offHeap")).andReturn(false).times(2);
+          expect(conf.getBoolean("assets.cache.watch")).andReturn(false).times(2);
+          expect(conf.getBytes("assets.cache.maxSize")).andReturn(0L).times(2);
 
           Injector injector = unit.get(Injector.class);
           expect(injector.getInstance(Key.get(Config.class))).andReturn(conf).times(2);
@@ -2172,6 +2183,11 @@ public class JoobyTest {
           expect(binder.bind(GuiceSingletonTestRoute.class)).andReturn(null);
 
           expect(binder.bind(ProtoTestRoute.class)).andReturn(null);
+
+          com.google.inject.Provider provider = unit.mock(com.google.inject.Provider.class);
+          expect(binder.getProvider(SingletonTestRoute.class)).andReturn(provider).times(2);
+          expect(binder.getProvider(GuiceSingletonTestRoute.class)).andReturn(provider).times(2);
+          expect(binder.getProvider(ProtoTestRoute.class)).andReturn(provider);
         })
         .expect(routeHandler)
         .expect(params)
@@ -2434,6 +2450,9 @@ public class JoobyTest {
           LinkedBindingBuilder<Renderer> fchannel = unit.mock(LinkedBindingBuilder.class);
           fchannel.toInstance(BuiltinRenderer.fileChannel);
 
+          LinkedBindingBuilder<Renderer> streaming = unit.mock(LinkedBindingBuilder.class);
+          streaming.toInstance(BuiltinRenderer.streaming);
+
           LinkedBindingBuilder<Renderer> err = unit.mock(LinkedBindingBuilder.class);
           err.toInstance(isA(DefaulErrRenderer.class));
 
@@ -2448,6 +2467,7 @@ public class JoobyTest {
           expect(multibinder.addBinding()).andReturn(formatStream);
           expect(multibinder.addBinding()).andReturn(reader);
           expect(multibinder.addBinding()).andReturn(fchannel);
+          expect(multibinder.addBinding()).andReturn(streaming);
           expect(multibinder.addBinding()).andReturn(customFormatter);
           expect(multibinder.addBinding()).andReturn(err);
           expect(multibinder.addBinding()).andReturn(formatAny);
@@ -354,4 +354,12 @@ public class RouteDefinitionTest {
     assertNull(r.attr("i"));
   }
 
+  @Test
+  public void nonBlockingAttr() throws Exception {
+    Definition def = new Route.Definition("GET", "/", (req, rsp, chain) -> {
+    }).nonBlocking();
+
+    assertEquals(true, def.attr(Route.NON_BLOCKING));
+    assertEquals("{nonBlocking=true}", def.attributes().toString());
+  }
 }
@@ -0,0 +1,234 @@
+package org.jooby;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.jooby.internal.SessionImpl;
+import org.junit.Test;
+
+public class SessionWriteBehindTest {
+
+  /** Large enough to never run in a test, flush is called explicitly. */
+  private static final long NEVER = 3600000L;
+
+  private static class CountingStore extends Session.Mem {
+
+    private List<String> calls = new ArrayList<>();
+
+    private boolean fail;
+
+    @Override
+    public void create(final Session session) {
+      check();
+      calls.add("create:" + session.id());
+      super.create(session);
+    }
+
+    @Override
+    public void save(final Session session) {
+      check();
+      calls.add("save:" + session.id());
+      super.save(session);
+    }
+
+    @Override
+    public void delete(final String id) {
+      check();
+      calls.add("delete:" + id);
+      super.delete(id);
+    }
+
+    private void check() {
+      if (fail) {
+        throw new IllegalStateException("intentional err");
+      }
+    }
+  }
+
+  @Test
+  public void coalesce() throws Exception {
+    CountingStore store = new CountingStore();
+    SessionWriteBehind wb = new SessionWriteBehind(store, 10, 10, NEVER);
+    try {
+      wb.save(session("sid", "v1"));
+      wb.save(session("sid", "v2"));
+      assertEquals(1, wb.stats().queueDepth());
+      assertEquals(2, wb.stats().writes());
+      assertEquals(1, wb.stats().coalesced());
+      assertEquals(0, store.calls.size());
+
+      // read from queue
+      assertEquals("v2", wb.get(builder("sid")).attributes().get("k"));
+
+      wb.flush();
+      assertEquals("[save:sid]", store.calls.toString());
+      assertEquals(0, wb.stats().queueDepth());
+      assertEquals(1, wb.stats().flushed());
+      assertEquals("v2", wb.get(builder("sid")).attributes().get("k"));
+    } finally {
+      wb.stop();
+    }
+  }
+
+  @Test
+  public void createThenSave() throws Exception {
+    CountingStore store = new CountingStore();
+    SessionWriteBehind wb = new SessionWriteBehind(store, 10, 10, NEVER);
+    try {
+      wb.create(session("sid", "v1"));
+      wb.save(session("sid", "v2"));
+      wb.flush();
+      assertEquals("[create:sid]", store.calls.toString());
+    } finally {
+      wb.stop();
+    }
+  }
+
+  @Test
+  public void delete() throws Exception {
+    CountingStore store = new CountingStore();
+    SessionWriteBehind wb = new SessionWriteBehind(store, 10, 10, NEVER);
+    try {
+      wb.save(session("sid", "v1"));
+      wb.delete("sid");
+      assertNull(wb.get(builder("sid")));
+      wb.flush();
+      assertEquals("[delete:sid]", store.calls.toString());
+      assertNull(wb.get(builder("sid")));
+    } finally {
+      wb.stop();
+    }
+  }
+
+  @Test
+  public void overflow() throws Exception {
+    CountingStore store = new CountingStore();
+    SessionWriteBehind wb = new SessionWriteBehind(store, 1, 10, NEVER);
+    try {
+      wb.save(session("s1", "v1"));
+      wb.save(session("s1", "v2"));
+      wb.save(session("s2", "v1"));
+      assertEquals("[save:s2]", store.calls.toString());
+      assertEquals(1, wb.stats().overflows());
+      assertEquals(1, wb.stats().queueDepth());
+    } finally {
+      wb.stop();
+    }
+    assertEquals("[save:s2, save:s1]", store.calls.toString());
+  }
+
+  @Test
+  public void overflowKeepsLastWrite() throws Exception {
+    Session.Mem store = new Session.Mem();
+    SessionWriteBehind wb = new SessionWriteBehind(store, 2, 1, NEVER);
+    int writers = 4;
+    int writes = 200;
+    ExecutorService executor = Executors.newFixedThreadPool(writers);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < writers; i++) {
+        String id = "s" + i;
+        futures.add(executor.submit(() -> {
+          for (int v = 1; v <= writes; v++) {
+            // small queue: some writes are queued, others persisted from here
+            wb.save(session(id, "v" + v));
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+      wb.stop();
+    }
+    for (int i = 0; i < writers; i++) {
+      assertEquals("v" + writes, store.get(builder("s" + i)).attributes().get("k"));
+    }
+  }
+
+  @Test
+  public void overflowDoesntWaitForFlush() throws Exception {
+    CountDownLatch persisting = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Session.Mem store = new Session.Mem() {
+      @Override
+      public void save(final Session session) {
+        if (session.id().equals("slow")) {
+          persisting.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException x) {
+            Thread.currentThread().interrupt();
+          }
+        }
+        super.save(session);
+      }
+    };
+    SessionWriteBehind wb = new SessionWriteBehind(store, 1, 10, NEVER);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      wb.save(session("slow", "v1"));
+      Future<?> flush = executor.submit(wb::flush);
+      persisting.await();
+      // queue is full, this one is persisted from the caller while the flush is still running
+      executor.submit(() -> wb.save(session("fast", "v1"))).get(5, TimeUnit.SECONDS);
+      assertEquals("v1", store.get(builder("fast")).attributes().get("k"));
+      release.countDown();
+      flush.get();
+    } finally {
+      release.countDown();
+      executor.shutdown();
+      wb.stop();
+    }
+    assertEquals("v1", store.get(builder("slow")).attributes().get("k"));
+  }
+
+  @Test
+  public void batch() throws Exception {
+    CountingStore store = new CountingStore();
+    SessionWriteBehind wb = new SessionWriteBehind(store, 10, 2, NEVER);
+    wb.save(session("s1", "v1"));
+    wb.save(session("s2", "v1"));
+    // wait for the early flush
+    wb.stop();
+    assertEquals("[save:s1, save:s2]", store.calls.toString());
+    assertEquals(2, wb.stats().flushed());
+
+    // stopped, persisted right away
+    wb.save(session("s3", "v1"));
+    assertEquals("[save:s1, save:s2, save:s3]", store.calls.toString());
+  }
+
+  @Test
+  public void dropped() throws Exception {
+    CountingStore store = new CountingStore();
+    store.fail = true;
+    SessionWriteBehind wb = new SessionWriteBehind(store, 10, 10, NEVER);
+    try {
+      wb.save(session("sid", "v1"));
+      wb.flush();
+      assertEquals(1, wb.stats().dropped());
+      assertEquals(0, wb.stats().flushed());
+      assertEquals(0, wb.stats().queueDepth());
+    } finally {
+      wb.stop();
+    }
+  }
+
+  private Session session(final String id, final String value) {
+    return builder(id).set("k", value).build();
+  }
+
+  private Session.Builder builder(final String id) {
+    return new SessionImpl.Builder(null, false, id, -1);
+  }
+}
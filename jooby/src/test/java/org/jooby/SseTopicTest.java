@@ -0,0 +1,273 @@
+package org.jooby;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.jooby.SseTopic.Overflow;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.inject.Injector;
+
+import javaslang.concurrent.Promise;
+
+public class SseTopicTest {
+
+  /** Renderer that counts how many times it was called. */
+  private AtomicInteger renders = new AtomicInteger();
+
+  private Renderer renderer = (value, ctx) -> {
+    renders.incrementAndGet();
+    ctx.send(value.toString());
+  };
+
+  private class TestSse extends Sse {
+
+    List<String> sent = Collections.synchronizedList(new ArrayList<>());
+
+    /** Pending writes, completed by {@link #flush()}. */
+    List<Promise<Optional<Object>>> pending = new ArrayList<>();
+
+    boolean async;
+
+    boolean fail;
+
+    boolean closed;
+
+    @Override
+    protected void handshake(final Runnable handler) throws Exception {
+    }
+
+    @Override
+    protected void closeInternal() {
+      closed = true;
+    }
+
+    @Override
+    protected Promise<Optional<Object>> send(final Optional<Object> id, final byte[] data) {
+      Promise<Optional<Object>> promise = Promise.make(MoreExecutors.newDirectExecutorService());
+      if (fail) {
+        promise.failure(new IOException("Broken pipe"));
+        return promise;
+      }
+      sent.add(new String(data, StandardCharsets.UTF_8));
+      if (async) {
+        pending.add(promise);
+      } else {
+        promise.success(id);
+      }
+      return promise;
+    }
+
+    void flush() {
+      List<Promise<Optional<Object>>> promises = new ArrayList<>(pending);
+      pending.clear();
+      promises.forEach(p -> p.success(Optional.empty()));
+    }
+  }
+
+  @Test
+  public void renderOnce() throws Exception {
+    SseTopic topic = new SseTopic("feed");
+    TestSse s1 = sse(null);
+    TestSse s2 = sse(null);
+    TestSse s3 = sse(null);
+    topic.subscribe(s1).subscribe(s2).subscribe(s3);
+    assertEquals(3, topic.size());
+
+    topic.event("hello").id(1).name("greeting").send()
+        .onSuccess(id -> assertEquals(Optional.of(1), id));
+
+    assertEquals(1, renders.get());
+    for (TestSse sse : new TestSse[]{s1, s2, s3 }) {
+      assertEquals("[id:1\nevent:greeting\ndata:hello\n\n]", sse.sent.toString());
+    }
+  }
+
+  @Test
+  public void renderLazily() throws Exception {
+    SseTopic topic = new SseTopic("feed").replay(2);
+    topic.event("x").id(1).send();
+    assertEquals(0, renders.get());
+
+    TestSse sse = sse("0");
+    topic.subscribe(sse);
+    assertEquals(1, renders.get());
+    assertEquals("[id:1\ndata:x\n\n]", sse.sent.toString());
+  }
+
+  @Test
+  public void replayAfterLastEventId() throws Exception {
+    SseTopic topic = new SseTopic("feed").replay(3);
+    topic.subscribe(sse(null));
+    for (int i = 1; i <= 5; i++) {
+      topic.event("e" + i).id(i).send();
+    }
+
+    // resume after 3
+    TestSse sse = sse("3");
+    topic.subscribe(sse);
+    assertEquals("[e4, e5]", data(sse));
+
+    // unknown or too old: everything in buffer
+    sse = sse("1");
+    topic.subscribe(sse);
+    assertEquals("[e3, e4, e5]", data(sse));
+
+    // new client, no replay
+    sse = sse(null);
+    topic.subscribe(sse);
+    assertEquals("[]", data(sse));
+
+    // last one, nothing to replay
+    sse = sse("5");
+    topic.subscribe(sse);
+    assertEquals("[]", data(sse));
+  }
+
+  @Test
+  public void dropOldest() throws Exception {
+    SseTopic topic = new SseTopic("feed").queue(2, Overflow.DROP_OLDEST);
+    TestSse slow = sse(null);
+    slow.async = true;
+    topic.subscribe(slow);
+
+    for (int i = 1; i <= 5; i++) {
+      topic.send("e" + i);
+    }
+    // e1 is in flight, e2 and e3 were dropped
+    assertEquals("[e1]", data(slow));
+    slow.flush();
+    assertEquals("[e1, e4]", data(slow));
+    slow.flush();
+    assertEquals("[e1, e4, e5]", data(slow));
+    slow.flush();
+    assertEquals("[e1, e4, e5]", data(slow));
+  }
+
+  @Test
+  public void dropNewest() throws Exception {
+    SseTopic topic = new SseTopic("feed").queue(2, Overflow.DROP_NEWEST);
+    TestSse slow = sse(null);
+    slow.async = true;
+    topic.subscribe(slow);
+
+    for (int i = 1; i <= 5; i++) {
+      topic.send("e" + i);
+    }
+    slow.flush();
+    slow.flush();
+    slow.flush();
+    assertEquals("[e1, e2, e3]", data(slow));
+  }
+
+  @Test
+  public void closeSlowSubscriber() throws Exception {
+    SseTopic topic = new SseTopic("feed").queue(1, Overflow.CLOSE);
+    TestSse slow = sse(null);
+    slow.async = true;
+    TestSse fast = sse(null);
+    topic.subscribe(slow).subscribe(fast);
+
+    topic.send("e1");
+    topic.send("e2");
+    topic.send("e3");
+    slow.flush();
+
+    assertTrue(slow.closed);
+    assertEquals(1, topic.size());
+    assertEquals("[e1, e2, e3]", data(fast));
+  }
+
+  @Test
+  public void unsubscribeOnFailure() throws Exception {
+    SseTopic topic = new SseTopic("feed");
+    TestSse sse = sse(null);
+    topic.subscribe(sse);
+    sse.fail = true;
+    topic.send("e1");
+
+    assertTrue(sse.closed);
+    assertEquals(0, topic.size());
+  }
+
+  @Test
+  public void unsubscribeOnClose() throws Exception {
+    SseTopic t1 = new SseTopic("t1");
+    SseTopic t2 = new SseTopic("t2");
+    TestSse sse = sse(null);
+    t1.subscribe(sse);
+    t2.subscribe(sse);
+
+    sse.close();
+    assertEquals(0, t1.size());
+    assertEquals(0, t2.size());
+  }
+
+  @Test
+  public void keepAlive() throws Exception {
+    CountDownLatch latch = new CountDownLatch(2);
+    SseTopic topic = new SseTopic("feed").keepAlive(50L);
+    TestSse s1 = new TestSse() {
+      @Override
+      protected Promise<Optional<Object>> send(final Optional<Object> id, final byte[] data) {
+        latch.countDown();
+        return super.send(id, data);
+      }
+    };
+    handshake(s1, null);
+    topic.subscribe(s1);
+
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+    assertEquals(":\n", s1.sent.get(0));
+    topic.unsubscribe(s1);
+  }
+
+  private static String data(final TestSse sse) {
+    return sse.sent.stream()
+        .map(e -> e.substring(e.indexOf("data:") + 5, e.length() - 2))
+        .collect(Collectors.toList())
+        .toString();
+  }
+
+  private TestSse sse(final String lastEventId) throws Exception {
+    TestSse sse = new TestSse();
+    handshake(sse, lastEventId);
+    return sse;
+  }
+
+  private void handshake(final Sse sse, final String lastEventId) throws Exception {
+    Request req = createMock(Request.class);
+    Injector injector = createMock(Injector.class);
+    Route route = createMock(Route.class);
+    Mutant id = createMock(Mutant.class);
+
+    expect(req.require(Injector.class)).andReturn(injector);
+    expect(req.route()).andReturn(route);
+    expect(req.attributes()).andReturn(ImmutableMap.of());
+    expect(req.header("Last-Event-ID")).andReturn(id);
+    expect(route.produces()).andReturn(MediaType.ALL);
+    expect(injector.getInstance(Renderer.KEY)).andReturn(Sets.newHashSet(renderer));
+    expect(id.toOptional(String.class)).andReturn(Optional.ofNullable(lastEventId)).anyTimes();
+
+    replay(req, injector, route, id);
+    sse.handshake(req, () -> {
+    });
+  }
+}
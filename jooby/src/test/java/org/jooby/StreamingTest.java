@@ -0,0 +1,414 @@
+package org.jooby;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.jooby.internal.StreamingBody;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.inject.Injector;
+
+import javaslang.concurrent.Promise;
+import javaslang.control.Try;
+
+public class StreamingTest {
+
+  private Renderer renderer = (value, ctx) -> ctx.send(value.toString());
+
+  private class TestSse extends Sse {
+
+    List<String> sent = Collections.synchronizedList(new ArrayList<>());
+
+    List<Promise<Optional<Object>>> pending = new ArrayList<>();
+
+    boolean async;
+
+    boolean fail;
+
+    boolean closed;
+
+    @Override
+    protected void handshake(final Runnable handler) throws Exception {
+      handler.run();
+    }
+
+    @Override
+    protected void closeInternal() {
+      closed = true;
+    }
+
+    @Override
+    protected Promise<Optional<Object>> send(final Optional<Object> id, final byte[] data) {
+      Promise<Optional<Object>> promise = Promise.make(MoreExecutors.newDirectExecutorService());
+      if (fail) {
+        promise.failure(new IOException("Broken pipe"));
+        ifClose(new IOException("Broken pipe"));
+        return promise;
+      }
+      sent.add(new String(data, StandardCharsets.UTF_8));
+      if (async) {
+        pending.add(promise);
+      } else {
+        promise.success(id);
+      }
+      return promise;
+    }
+
+    void flush() {
+      while (pending.size() > 0) {
+        pending.remove(0).success(Optional.empty());
+      }
+    }
+  }
+
+  private static class TestSubscription implements Streaming.Subscription {
+
+    AtomicLong requested = new AtomicLong();
+
+    AtomicBoolean cancelled = new AtomicBoolean();
+
+    @Override
+    public void request(final long n) {
+      requested.addAndGet(n);
+    }
+
+    @Override
+    public void cancel() {
+      cancelled.set(true);
+    }
+  }
+
+  @Test
+  public void ndjson() throws Exception {
+    TestSubscription subscription = new TestSubscription();
+    StreamingBody body = body(Streaming.Format.NDJSON, subscriber -> {
+      subscriber.onSubscribe(subscription);
+      assertEquals(Streaming.WINDOW, subscription.requested.get());
+      subscriber.onNext(1);
+      subscriber.onNext(2);
+      subscriber.onComplete();
+    });
+    assertEquals("application/x-ndjson", body.type().name());
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    body.write(output);
+    assertEquals("1\n2\n", output.toString("UTF-8"));
+    assertEquals(Streaming.WINDOW + 2, subscription.requested.get());
+    assertEquals(false, subscription.cancelled.get());
+  }
+
+  @Test
+  public void jsonArray() throws Exception {
+    StreamingBody body = body(Streaming.Format.JSON, subscriber -> {
+      subscriber.onSubscribe(new TestSubscription());
+      subscriber.onNext(1);
+      subscriber.onNext(2);
+      subscriber.onNext(3);
+      subscriber.onComplete();
+    });
+    assertEquals("application/json", body.type().name());
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    body.write(output);
+    assertEquals("[1,2,3]", output.toString("UTF-8"));
+  }
+
+  @Test
+  public void emptyJsonArray() throws Exception {
+    StreamingBody body = body(Streaming.Format.JSON, subscriber -> {
+      subscriber.onSubscribe(new TestSubscription());
+      subscriber.onComplete();
+    });
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    body.write(output);
+    assertEquals("[]", output.toString("UTF-8"));
+  }
+
+  @Test
+  public void elementsAreFlushedOneByOne() throws Exception {
+    StreamingBody body = body(Streaming.Format.JSON, subscriber -> {
+      subscriber.onSubscribe(new TestSubscription());
+      subscriber.onNext(1);
+      subscriber.onNext(2);
+      subscriber.onComplete();
+    });
+
+    List<String> chunks = new ArrayList<>();
+    ByteArrayOutputStream output = new ByteArrayOutputStream() {
+      @Override
+      public void flush() {
+        chunks.add(new String(toByteArray(), StandardCharsets.UTF_8));
+        reset();
+      }
+    };
+    body.write(output);
+    assertEquals("[[1, ,2]", chunks.toString());
+    assertEquals("]", output.toString("UTF-8"));
+  }
+
+  @Test
+  public void demandFollowsWrites() throws Exception {
+    TestSubscription subscription = new TestSubscription();
+    CountDownLatch written = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    StreamingBody body = body(Streaming.Format.NDJSON, subscriber -> {
+      subscriber.onSubscribe(subscription);
+      new Thread(() -> {
+        for (int i = 0; i < Streaming.WINDOW; i++) {
+          subscriber.onNext(i);
+        }
+        subscriber.onComplete();
+      }).start();
+    });
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream() {
+      @Override
+      public void flush() {
+        // slow client, block on first element
+        written.countDown();
+        Try.run(release::await);
+      }
+    };
+    Thread writer = new Thread(() -> Try.run(() -> body.write(output)));
+    writer.start();
+    written.await();
+    // nothing was requested while the first write is blocked
+    assertEquals(Streaming.WINDOW, subscription.requested.get());
+
+    release.countDown();
+    writer.join();
+    assertEquals(Streaming.WINDOW * 2, subscription.requested.get());
+  }
+
+  @Test
+  public void errorBeforeFirstElement() throws Exception {
+    IllegalStateException failure = new IllegalStateException("intentional err");
+    TestSubscription subscription = new TestSubscription();
+    StreamingBody body = body(Streaming.Format.JSON, subscriber -> {
+      subscriber.onSubscribe(subscription);
+      subscriber.onError(failure);
+    });
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    try {
+      body.write(output);
+      fail("expecting failure");
+    } catch (IllegalStateException x) {
+      assertSame(failure, x);
+    }
+    // nothing was written, a regular error response can be sent
+    assertEquals(0, output.size());
+    assertEquals(false, subscription.cancelled.get());
+  }
+
+  @Test
+  public void errorLeavesArrayOpen() throws Exception {
+    IllegalStateException failure = new IllegalStateException("intentional err");
+    StreamingBody body = body(Streaming.Format.JSON, subscriber -> {
+      subscriber.onSubscribe(new TestSubscription());
+      subscriber.onNext(1);
+      subscriber.onError(failure);
+    });
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    try {
+      body.write(output);
+      fail("expecting failure");
+    } catch (IllegalStateException x) {
+      assertSame(failure, x);
+    }
+    assertEquals("[1", output.toString("UTF-8"));
+  }
+
+  @Test
+  public void cancelOnConnectionLost() throws Exception {
+    TestSubscription subscription = new TestSubscription();
+    StreamingBody body = body(Streaming.Format.NDJSON, subscriber -> {
+      subscriber.onSubscribe(subscription);
+      subscriber.onNext(1);
+      subscriber.onNext(2);
+    });
+
+    OutputStream output = new OutputStream() {
+      @Override
+      public void write(final int b) throws IOException {
+        throw new IOException("Broken pipe");
+      }
+    };
+    try {
+      body.write(output);
+      fail("expecting failure");
+    } catch (IOException x) {
+      assertEquals("Broken pipe", x.getMessage());
+    }
+    assertTrue(subscription.cancelled.get());
+    assertEquals(Streaming.WINDOW, subscription.requested.get());
+  }
+
+  @Test
+  public void sse() throws Exception {
+    TestSse sse = new TestSse();
+    TestSubscription subscription = new TestSubscription();
+    Streaming.Subscriber subscriber = stream(sse, Streaming.Format.SSE);
+
+    subscriber.onSubscribe(subscription);
+    subscriber.onNext("x");
+    subscriber.onComplete();
+    assertEquals("[data:x\n\n]", sse.sent.toString());
+    assertEquals(Streaming.WINDOW + 1, subscription.requested.get());
+    assertEquals(true, sse.closed);
+  }
+
+  @Test
+  public void sseDemandFollowsWrites() throws Exception {
+    TestSse sse = new TestSse();
+    sse.async = true;
+    TestSubscription subscription = new TestSubscription();
+    Streaming.Subscriber subscriber = stream(sse, Streaming.Format.SSE);
+
+    subscriber.onSubscribe(subscription);
+    for (int i = 0; i < Streaming.WINDOW; i++) {
+      subscriber.onNext(i);
+    }
+    // one write at a time, nothing was written yet
+    assertEquals(1, sse.sent.size());
+    assertEquals(Streaming.WINDOW, subscription.requested.get());
+
+    sse.flush();
+    assertEquals(Streaming.WINDOW * 2, subscription.requested.get());
+
+    // close after pending writes
+    subscriber.onNext("last");
+    subscriber.onComplete();
+    assertEquals(false, sse.closed);
+    sse.flush();
+    assertEquals(true, sse.closed);
+  }
+
+  @Test
+  public void sseErrorCloses() throws Exception {
+    TestSse sse = new TestSse();
+    Streaming.Subscriber subscriber = stream(sse, Streaming.Format.SSE);
+
+    subscriber.onSubscribe(new TestSubscription());
+    subscriber.onNext(1);
+    subscriber.onError(new IllegalStateException("intentional err"));
+    // ignored
+    subscriber.onComplete();
+    assertEquals("[data:1\n\n]", sse.sent.toString());
+    assertEquals(true, sse.closed);
+  }
+
+  @Test
+  public void sseCancelOnConnectionLost() throws Exception {
+    TestSse sse = new TestSse();
+    TestSubscription subscription = new TestSubscription();
+    Streaming.Subscriber subscriber = stream(sse, Streaming.Format.SSE);
+
+    subscriber.onSubscribe(subscription);
+    subscriber.onNext(1);
+    sse.fail = true;
+    subscriber.onNext(2);
+    assertTrue(subscription.cancelled.get());
+    assertEquals(true, sse.closed);
+    assertEquals(Streaming.WINDOW + 1, subscription.requested.get());
+
+    // ignored
+    subscriber.onNext(3);
+    assertEquals("[data:1\n\n]", sse.sent.toString());
+  }
+
+  @Test
+  public void sseCancelOnClose() throws Exception {
+    TestSse sse = new TestSse();
+    TestSubscription subscription = new TestSubscription();
+    Streaming.Subscriber subscriber = stream(sse, Streaming.Format.SSE);
+
+    subscriber.onSubscribe(subscription);
+    sse.close();
+    assertTrue(subscription.cancelled.get());
+  }
+
+  @Test
+  public void format() throws Exception {
+    Route route = createMock(Route.class);
+    expect(route.attributes()).andReturn(ImmutableMap.of(Route.STREAM, Streaming.Format.SSE));
+    expect(route.attributes()).andReturn(ImmutableMap.of());
+    replay(route);
+
+    assertEquals(Optional.of(Streaming.Format.SSE), Streaming.format(route));
+    assertEquals(Optional.empty(), Streaming.format(route));
+  }
+
+  @Test
+  public void streamAttribute() throws Exception {
+    Route.Definition route = new Route.Definition("GET", "/", () -> "")
+        .stream(Streaming.Format.NDJSON);
+    assertEquals(Streaming.Format.NDJSON, route.attributes().get(Route.STREAM));
+  }
+
+  private StreamingBody body(final Streaming.Format format,
+      final Consumer<Streaming.Subscriber> publisher) throws Exception {
+    Deferred deferred = Streaming.deferred(format, publisher);
+
+    Request req = createMock(Request.class);
+    expect(req.require(Renderer.KEY)).andReturn(Sets.newHashSet(renderer));
+    replay(req);
+
+    List<Object> resolved = new ArrayList<>();
+    deferred.handler(req, (result, x) -> resolved.add(x == null ? result.get() : x));
+    assertEquals(1, resolved.size());
+    return (StreamingBody) resolved.get(0);
+  }
+
+  private Streaming.Subscriber stream(final TestSse sse, final Streaming.Format format)
+      throws Exception {
+    List<Streaming.Subscriber> subscribers = new ArrayList<>();
+    Deferred deferred = Streaming.deferred(format, subscribers::add);
+
+    Request req = createMock(Request.class);
+    Injector injector = createMock(Injector.class);
+    Route route = createMock(Route.class);
+    Mutant id = createMock(Mutant.class);
+
+    expect(req.require(Sse.class)).andReturn(sse);
+    expect(req.path()).andReturn("/stream");
+    expect(req.require(Injector.class)).andReturn(injector);
+    expect(req.route()).andReturn(route);
+    expect(req.attributes()).andReturn(ImmutableMap.of());
+    expect(req.header("Last-Event-ID")).andReturn(id);
+    expect(route.produces()).andReturn(MediaType.ALL);
+    expect(injector.getInstance(Renderer.KEY)).andReturn(Sets.newHashSet(renderer));
+
+    replay(req, injector, route, id);
+
+    List<Object> resolved = new ArrayList<>();
+    deferred.handler(req, (result, x) -> resolved.add(x == null ? "ok" : x));
+    assertEquals("[ok]", resolved.toString());
+    assertEquals(1, subscribers.size());
+    return subscribers.get(0);
+  }
+}
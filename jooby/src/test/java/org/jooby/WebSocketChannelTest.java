@@ -0,0 +1,304 @@
+package org.jooby;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import org.jooby.WebSocketChannel.Overflow;
+import org.jooby.internal.WebSocketImpl;
+import org.jooby.spi.NativeWebSocket;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+import com.google.inject.Injector;
+
+public class WebSocketChannelTest {
+
+  /** Renderer that counts how many times it was called. */
+  private AtomicInteger renders = new AtomicInteger();
+
+  private Renderer renderer = (value, ctx) -> {
+    renders.incrementAndGet();
+    ctx.send(value.toString());
+  };
+
+  private static class TestWebSocket implements NativeWebSocket {
+
+    List<String> sent = new ArrayList<>();
+
+    List<ByteBuffer> buffers = new ArrayList<>();
+
+    /** Pending writes, completed by {@link #flush()}. */
+    List<WebSocket.SuccessCallback> pending = new ArrayList<>();
+
+    boolean async;
+
+    boolean fail;
+
+    Integer closed;
+
+    BiConsumer<Integer, Optional<String>> onclose;
+
+    @Override
+    public void close(final int status, final String reason) {
+      closed = status;
+    }
+
+    @Override
+    public void resume() {
+    }
+
+    @Override
+    public void onConnect(final Runnable callback) {
+    }
+
+    @Override
+    public void onTextMessage(final Consumer<String> callback) {
+    }
+
+    @Override
+    public void onBinaryMessage(final Consumer<ByteBuffer> callback) {
+    }
+
+    @Override
+    public void onCloseMessage(final BiConsumer<Integer, Optional<String>> callback) {
+      this.onclose = callback;
+    }
+
+    @Override
+    public void onErrorMessage(final Consumer<Throwable> callback) {
+    }
+
+    @Override
+    public void pause() {
+    }
+
+    @Override
+    public void terminate() throws IOException {
+    }
+
+    @Override
+    public void sendBytes(final ByteBuffer data, final WebSocket.SuccessCallback success,
+        final WebSocket.ErrCallback err) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void sendBytes(final byte[] data, final WebSocket.SuccessCallback success,
+        final WebSocket.ErrCallback err) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void sendText(final String data, final WebSocket.SuccessCallback success,
+        final WebSocket.ErrCallback err) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void sendText(final ByteBuffer data, final WebSocket.SuccessCallback success,
+        final WebSocket.ErrCallback err) {
+      if (fail) {
+        err.invoke(new IOException("Broken pipe"));
+        return;
+      }
+      buffers.add(data);
+      sent.add(StandardCharsets.UTF_8.decode(data.duplicate()).toString());
+      if (async) {
+        pending.add(success);
+      } else {
+        invoke(success);
+      }
+    }
+
+    @Override
+    public void sendText(final byte[] data, final WebSocket.SuccessCallback success,
+        final WebSocket.ErrCallback err) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean isOpen() {
+      return closed == null;
+    }
+
+    void flush() {
+      List<WebSocket.SuccessCallback> callbacks = new ArrayList<>(pending);
+      pending.clear();
+      callbacks.forEach(TestWebSocket::invoke);
+    }
+
+    private static void invoke(final WebSocket.SuccessCallback callback) {
+      try {
+        callback.invoke();
+      } catch (Exception ex) {
+        throw new IllegalStateException(ex);
+      }
+    }
+  }
+
+  @Test
+  public void renderOnce() throws Exception {
+    WebSocketChannel channel = new WebSocketChannel("chat");
+    TestWebSocket n1 = new TestWebSocket();
+    TestWebSocket n2 = new TestWebSocket();
+    TestWebSocket n3 = new TestWebSocket();
+    channel.join(ws(n1)).join(ws(n2)).join(ws(n3));
+    assertEquals(3, channel.size());
+
+    assertEquals(3, channel.broadcast("hello"));
+
+    assertEquals(1, renders.get());
+    for (TestWebSocket n : new TestWebSocket[]{n1, n2, n3 }) {
+      assertEquals("[hello]", n.sent.toString());
+    }
+    // same frame buffer
+    assertTrue(n1.buffers.get(0).isReadOnly());
+    assertEquals(n1.buffers.get(0), n2.buffers.get(0));
+
+    WebSocketChannel.Stats stats = channel.stats();
+    assertEquals(1, stats.broadcasts());
+    assertEquals(3, stats.frames());
+    assertEquals(0, stats.pendingFrames());
+  }
+
+  @Test
+  public void renderStream() throws Exception {
+    renderer = (value, ctx) -> {
+      renders.incrementAndGet();
+      ctx.send(new ByteArrayInputStream(value.toString().getBytes(StandardCharsets.UTF_8)));
+    };
+    WebSocketChannel channel = new WebSocketChannel("chat");
+    TestWebSocket n1 = new TestWebSocket();
+    TestWebSocket n2 = new TestWebSocket();
+    channel.join(ws(n1)).join(ws(n2));
+
+    assertEquals(2, channel.broadcast("hello"));
+
+    assertEquals(1, renders.get());
+    assertEquals("[hello]", n1.sent.toString());
+    assertEquals("[hello]", n2.sent.toString());
+  }
+
+  @Test
+  public void emptyChannel() throws Exception {
+    WebSocketChannel channel = new WebSocketChannel("chat");
+    assertEquals(0, channel.broadcast("hello"));
+    assertEquals(0, renders.get());
+  }
+
+  @Test
+  public void drop() throws Exception {
+    WebSocketChannel channel = new WebSocketChannel("chat")
+        .watermarks(2, 4);
+    TestWebSocket slow = new TestWebSocket();
+    slow.async = true;
+    TestWebSocket fast = new TestWebSocket();
+    channel.join(ws(slow)).join(ws(fast));
+
+    channel.broadcast("e1");
+    channel.broadcast("e2");
+    assertEquals(1, channel.broadcast("e3"));
+    assertEquals(2, channel.stats().pendingFrames());
+    assertEquals(4, channel.stats().pendingBytes());
+
+    slow.flush();
+    channel.broadcast("e4");
+    assertEquals("[e1, e2, e4]", slow.sent.toString());
+    assertEquals("[e1, e2, e3, e4]", fast.sent.toString());
+    assertEquals(1, channel.stats().dropped());
+  }
+
+  @Test
+  public void close() throws Exception {
+    WebSocketChannel channel = new WebSocketChannel("chat")
+        .watermarks(0, 2)
+        .overflow(Overflow.CLOSE);
+    TestWebSocket slow = new TestWebSocket();
+    slow.async = true;
+    channel.join(ws(slow));
+
+    channel.broadcast("e1");
+    channel.broadcast("e2");
+
+    assertEquals(WebSocket.POLICY_VIOLATION.code(), slow.closed.intValue());
+    assertEquals(0, channel.size());
+    assertEquals(1, channel.stats().closed());
+  }
+
+  @Test
+  public void pause() throws Exception {
+    AtomicInteger writable = new AtomicInteger();
+    WebSocketChannel channel = new WebSocketChannel("chat")
+        .watermarks(2, 2)
+        .overflow(Overflow.PAUSE)
+        .onWritable(writable::incrementAndGet);
+    TestWebSocket slow = new TestWebSocket();
+    slow.async = true;
+    channel.join(ws(slow));
+
+    channel.broadcast("e1");
+    assertTrue(channel.isWritable());
+    channel.broadcast("e2");
+    assertFalse(channel.isWritable());
+    assertEquals("[e1, e2]", slow.sent.toString());
+
+    slow.flush();
+    assertTrue(channel.isWritable());
+    assertEquals(1, writable.get());
+  }
+
+  @Test
+  public void leaveOnError() throws Exception {
+    WebSocketChannel channel = new WebSocketChannel("chat");
+    TestWebSocket n = new TestWebSocket();
+    n.fail = true;
+    channel.join(ws(n));
+
+    channel.broadcast("e1");
+    assertEquals(0, channel.size());
+    assertEquals(0, channel.stats().pendingBytes());
+  }
+
+  @Test
+  public void leaveOnClose() throws Exception {
+    WebSocketChannel c1 = new WebSocketChannel("c1");
+    WebSocketChannel c2 = new WebSocketChannel("c2");
+    TestWebSocket n = new TestWebSocket();
+    WebSocketImpl ws = ws(n);
+    c1.join(ws);
+    c2.join(ws);
+
+    n.onclose.accept(1000, Optional.empty());
+    assertEquals(0, c1.size());
+    assertEquals(0, c2.size());
+    assertEquals(Collections.emptyList(), ws.channels());
+  }
+
+  private WebSocketImpl ws(final NativeWebSocket nws) throws Exception {
+    Injector injector = createMock(Injector.class);
+    Request req = createMock(Request.class);
+    expect(injector.getInstance(Renderer.KEY)).andReturn(Sets.newHashSet(renderer));
+    replay(injector, req);
+
+    WebSocketImpl ws = new WebSocketImpl((r, s) -> {
+    }, "/chat", "/chat", Collections.emptyMap(), MediaType.all, MediaType.plain);
+    ws.connect(injector, req, nws);
+    return ws;
+  }
+}
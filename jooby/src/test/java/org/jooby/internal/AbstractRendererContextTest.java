@@ -1,5 +1,7 @@
 package org.jooby.internal;
 
+import static org.junit.Assert.assertEquals;
+
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
@@ -50,4 +52,137 @@ public class AbstractRendererContextTest {
         });
   }
 
+  @Test
+  public void cacheRenderer() throws Throwable {
+    List<String> calls = new ArrayList<>();
+    Renderer skip = (value, ctx) -> calls.add("skip");
+    Renderer text = (value, ctx) -> {
+      calls.add("text");
+      ctx.send(value.toString());
+    };
+    RendererCache cache = new RendererCache(10);
+    List<MediaType> produces = ImmutableList.of(MediaType.html);
+
+    context(ImmutableList.of(skip, text), cache, produces).render("x");
+    assertEquals(ImmutableList.of("skip", "text"), calls);
+    assertEquals(text, cache.get(String.class, produces));
+
+    calls.clear();
+    context(ImmutableList.of(skip, text), cache, produces).render("x");
+    assertEquals(ImmutableList.of("text"), calls);
+  }
+
+  @Test
+  public void cacheFallback() throws Throwable {
+    List<String> calls = new ArrayList<>();
+    Renderer odd = (value, ctx) -> {
+      calls.add("odd");
+      if (((Integer) value) % 2 == 1) {
+        ctx.send(value.toString());
+      }
+    };
+    Renderer text = (value, ctx) -> {
+      calls.add("text");
+      ctx.send(value.toString());
+    };
+    RendererCache cache = new RendererCache(10);
+    List<MediaType> produces = ImmutableList.of(MediaType.html);
+
+    context(ImmutableList.of(odd, text), cache, produces).render(1);
+    assertEquals(odd, cache.get(Integer.class, produces));
+
+    calls.clear();
+    // cached renderer doesn't send, fallback to full chain
+    context(ImmutableList.of(odd, text), cache, produces).render(2);
+    assertEquals(ImmutableList.of("odd", "odd", "text"), calls);
+    assertEquals(text, cache.get(Integer.class, produces));
+  }
+
+  @Test
+  public void cacheIgnoreViews() throws Throwable {
+    Renderer engine = (value, ctx) -> ctx.send(value.toString());
+    RendererCache cache = new RendererCache(10);
+    List<MediaType> produces = ImmutableList.of(MediaType.html);
+
+    context(ImmutableList.of(engine), cache, produces).render(Results.html("view"));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void cacheMaxSize() throws Throwable {
+    Renderer text = (value, ctx) -> ctx.send(value.toString());
+    RendererCache cache = new RendererCache(1);
+    List<MediaType> produces = ImmutableList.of(MediaType.html);
+
+    context(ImmutableList.of(text), cache, produces).render("x");
+    context(ImmutableList.of(text), cache, produces).render(1);
+    assertEquals(1, cache.size());
+    assertEquals(text, cache.get(String.class, produces));
+    assertEquals(null, cache.get(Integer.class, produces));
+  }
+
+  @Test
+  public void sendWriter() throws Throwable {
+    List<Object> calls = new ArrayList<>();
+    Renderer writer = (value, ctx) -> ctx.send(out -> out.write(value.toString().getBytes()));
+    new AbstractRendererContext(ImmutableList.of(writer), ImmutableList.of(MediaType.all),
+        StandardCharsets.UTF_8, Collections.emptyMap()) {
+
+      @Override
+      public Renderer.Context type(final MediaType type) {
+        calls.add(type);
+        return this;
+      }
+
+      @Override
+      public Renderer.Context length(final long length) {
+        calls.add(length);
+        return this;
+      }
+
+      @Override
+      protected void _send(final byte[] bytes) throws Exception {
+        calls.add(new String(bytes));
+      }
+
+      @Override
+      protected void _send(final ByteBuffer buffer) throws Exception {
+      }
+
+      @Override
+      protected void _send(final FileChannel file) throws Exception {
+      }
+
+      @Override
+      protected void _send(final InputStream stream) throws Exception {
+      }
+
+    }.render("body");
+    assertEquals(ImmutableList.of(MediaType.octetstream, 4L, "body"), calls);
+  }
+
+  private AbstractRendererContext context(final List<Renderer> renderers,
+      final RendererCache cache, final List<MediaType> produces) {
+    return new AbstractRendererContext(renderers, cache, produces, StandardCharsets.UTF_8,
+        Collections.emptyMap()) {
+
+      @Override
+      protected void _send(final byte[] bytes) throws Exception {
+      }
+
+      @Override
+      protected void _send(final ByteBuffer buffer) throws Exception {
+      }
+
+      @Override
+      protected void _send(final FileChannel file) throws Exception {
+      }
+
+      @Override
+      protected void _send(final InputStream stream) throws Exception {
+      }
+
+    };
+  }
+
 }
@@ -0,0 +1,214 @@
+package org.jooby.internal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.GZIPInputStream;
+
+import org.jooby.MediaType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.base.Strings;
+import com.google.common.io.ByteStreams;
+
+public class AssetCacheTest {
+
+  @Rule
+  public TemporaryFolder tmp = new TemporaryFolder();
+
+  @Test
+  public void identity() throws Throwable {
+    AssetCache cache = new AssetCache(1024, false, false);
+    File file = file("app.js", "var x = 1;");
+    AssetCache.Entry entry = cache.load("/app.js", "app.js", asset(file, "/app.js", MediaType.js),
+        p -> null);
+
+    assertFalse(entry.encoded());
+    CachedAsset asset = entry.select("gzip, br");
+    assertNull(asset.encoding());
+    assertEquals(10, asset.length());
+    assertEquals("var x = 1;", text(asset.buffer()));
+    assertEquals("var x = 1;", new String(ByteStreams.toByteArray(asset.stream()),
+        StandardCharsets.UTF_8));
+    assertEquals(file.lastModified(), asset.lastModified());
+    assertEquals("/app.js", asset.path());
+    assertEquals(MediaType.js, asset.type());
+    assertSame(entry, cache.get("/app.js"));
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void gzip() throws Throwable {
+    AssetCache cache = new AssetCache(8192, false, false);
+    String content = Strings.repeat("body { color: red; }\n", 50);
+    File file = file("app.css", content);
+    AssetCache.Entry entry = cache.load("/app.css", "app.css",
+        asset(file, "/app.css", MediaType.css), p -> null);
+
+    assertTrue(entry.encoded());
+    CachedAsset identity = entry.select(null);
+    CachedAsset gzip = entry.select("gzip, deflate");
+    assertEquals("gzip", gzip.encoding());
+    assertTrue(gzip.length() < identity.length());
+    assertNotEquals(identity.etag(), gzip.etag());
+    assertTrue(gzip.etag().endsWith("-gzip\""));
+    assertEquals(content, new String(ByteStreams.toByteArray(new GZIPInputStream(
+        gzip.stream())), StandardCharsets.UTF_8));
+
+    assertSame(identity, entry.select("gzip;q=0"));
+    assertSame(identity, entry.select("identity"));
+    assertSame(gzip, entry.select("deflate, GZIP;q=0.5"));
+  }
+
+  @Test
+  public void noGzipForBinaryOrSmallFiles() throws Throwable {
+    AssetCache cache = new AssetCache(8192, false, false);
+    File png = file("app.png", Strings.repeat("x", 1024));
+    assertFalse(cache.load("/app.png", "app.png", asset(png, "/app.png", MediaType.valueOf(
+        "image/png")), p -> null).encoded());
+
+    File css = file("small.css", "body {}");
+    assertFalse(cache.load("/small.css", "small.css", asset(css, "/small.css", MediaType.css),
+        p -> null).encoded());
+  }
+
+  @Test
+  public void precompressed() throws Throwable {
+    AssetCache cache = new AssetCache(8192, false, false);
+    File file = file("app.js", "var x = 1;");
+    File br = file("app.js.br", "brotli");
+    File gz = file("app.js.gz", "gzip");
+    AssetCache.Entry entry = cache.load("/app.js", "app.js", asset(file, "/app.js", MediaType.js),
+        p -> {
+          if (p.equals("app.js.br")) {
+            return br.toURI().toURL();
+          }
+          if (p.equals("app.js.gz")) {
+            return gz.toURI().toURL();
+          }
+          return null;
+        });
+
+    assertTrue(entry.encoded());
+    assertEquals("brotli", text(entry.select("gzip, deflate, br").buffer()));
+    assertEquals("br", entry.select("gzip, deflate, br").encoding());
+    assertEquals("gzip", text(entry.select("gzip, deflate").buffer()));
+    assertEquals("var x = 1;", text(entry.select("").buffer()));
+  }
+
+  @Test
+  public void tooBig() throws Throwable {
+    AssetCache cache = new AssetCache(5, false, false);
+    File file = file("app.js", "var x = 1;");
+    assertNull(cache.load("/app.js", "app.js", asset(file, "/app.js", MediaType.js), p -> null));
+    assertNull(cache.get("/app.js"));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void evict() throws Throwable {
+    AssetCache cache = new AssetCache(15, false, false);
+    cache.load("/a.js", "a.js", asset(file("a.js", "var a = 1;"), "/a.js", MediaType.js),
+        p -> null);
+    cache.load("/b.js", "b.js", asset(file("b.js", "var b = 1;"), "/b.js", MediaType.js),
+        p -> null);
+    assertNull(cache.get("/a.js"));
+    assertEquals("var b = 1;", text(cache.get("/b.js").select(null).buffer()));
+  }
+
+  @Test
+  public void offHeap() throws Throwable {
+    AssetCache cache = new AssetCache(1024, true, false);
+    File file = file("app.js", "var x = 1;");
+    CachedAsset asset = cache.load("/app.js", "app.js", asset(file, "/app.js", MediaType.js),
+        p -> null).select(null);
+    ByteBuffer buffer = asset.buffer();
+    assertTrue(buffer.isDirect());
+    assertTrue(buffer.isReadOnly());
+    assertEquals("var x = 1;", text(buffer));
+    // buffer() returns a fresh view
+    assertEquals(10, asset.buffer().remaining());
+  }
+
+  @Test
+  public void watch() throws Throwable {
+    AssetCache cache = new AssetCache(1024, false, true);
+    File file = file("app.js", "var x = 1;");
+    cache.load("/app.js", "app.js", asset(file, "/app.js", MediaType.js), p -> null);
+    assertTrue(cache.get("/app.js") != null);
+
+    Files.write(file.toPath(), "var x = 12;".getBytes(StandardCharsets.UTF_8));
+    assertNull(cache.get("/app.js"));
+  }
+
+  @Test
+  public void noWatch() throws Throwable {
+    AssetCache cache = new AssetCache(1024, false, false);
+    File file = file("app.js", "var x = 1;");
+    cache.load("/app.js", "app.js", asset(file, "/app.js", MediaType.js), p -> null);
+
+    Files.write(file.toPath(), "var x = 12;".getBytes(StandardCharsets.UTF_8));
+    assertEquals("var x = 1;", text(cache.get("/app.js").select(null).buffer()));
+  }
+
+  @Test
+  public void accepts() {
+    assertTrue(AssetCache.accepts("gzip", "gzip"));
+    assertTrue(AssetCache.accepts("deflate, gzip", "gzip"));
+    assertTrue(AssetCache.accepts("gzip;q=1.0, br;q=0.8", "br"));
+    assertTrue(AssetCache.accepts(" br ; q=0.1", "br"));
+    assertFalse(AssetCache.accepts("gzip; q=0", "gzip"));
+    assertFalse(AssetCache.accepts("gzip;q=0.000", "gzip"));
+    assertFalse(AssetCache.accepts("x-gzip", "gzip"));
+    assertFalse(AssetCache.accepts("", "gzip"));
+  }
+
+  @Test
+  public void streamRead() throws Throwable {
+    AssetCache cache = new AssetCache(1024, false, false);
+    File file = file("app.js", "abc");
+    CachedAsset asset = cache.load("/app.js", "app.js", asset(file, "/app.js", MediaType.js),
+        p -> null).select(null);
+    byte[] bytes = new byte[2];
+    InputStream stream = asset.stream();
+    assertEquals(3, stream.available());
+    assertEquals(0, stream.read(bytes, 0, 0));
+    assertEquals(2, stream.read(bytes, 0, 2));
+    assertArrayEquals("ab".getBytes(), bytes);
+    assertEquals('c', stream.read());
+    assertEquals(-1, stream.read());
+    assertEquals(-1, stream.read(bytes, 0, 2));
+    assertEquals("/app.js(application/javascript)", asset.toString());
+  }
+
+  private URLAsset asset(final File file, final String path, final MediaType type)
+      throws Exception {
+    URL url = file.toURI().toURL();
+    return new URLAsset(url, path, type);
+  }
+
+  private File file(final String name, final String content) throws Exception {
+    File file = tmp.newFile(name);
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    return file;
+  }
+
+  private static String text(final ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.duplicate().get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
@@ -4,6 +4,7 @@ import static org.easymock.EasyMock.expect;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
+import java.util.Map;
 import java.util.Optional;
 
 import org.jooby.Cookie;
@@ -99,7 +100,6 @@ public class CookieSessionManagerTest {
   @Test
   public void saveAfter() throws Exception {
     String secret = "shhh";
-    String signed = "$#!";
     new MockUnit(Session.Definition.class, ParserExecutor.class, Cookie.Definition.class,
         Request.class, Response.class, SessionImpl.class)
             .expect(cookie)
@@ -107,29 +107,47 @@ public class CookieSessionManagerTest {
             .expect(sessionBuilder(Session.COOKIE_SESSION, true, -1))
             .expect(push)
             .expect(unit -> {
-              Cookie.Definition cookie = unit.get(Cookie.Definition.class);
-              expect(cookie.name()).andReturn(Optional.of("sid"));
+              SessionImpl session = unit.get(SessionImpl.class);
 
-              Mutant mutant = unit.mock(Mutant.class);
-              expect(mutant.toOptional()).andReturn(Optional.of(signed));
+              expect(session.isDirty()).andReturn(true);
+              expect(session.attributes()).andReturn(ImmutableMap.of("foo", "2"));
 
               Request req = unit.get(Request.class);
-              expect(req.cookie("sid")).andReturn(mutant);
+              expect(req.ifSession()).andReturn(Optional.of(session));
             })
+            .expect(signCookie(secret, "foo=2", "sss"))
+            .expect(sendCookie())
+            .run(unit -> {
+              Session session = new CookieSessionManager(unit.get(ParserExecutor.class),
+                  unit.get(Session.Definition.class), secret)
+                      .create(unit.get(Request.class), unit.get(Response.class));
+              assertEquals(unit.get(SessionImpl.class), session);
+            }, unit -> {
+              After next = unit.captured(Route.After.class).iterator().next();
+              Result ok = next.handle(unit.get(Request.class), unit.get(Response.class),
+                  org.jooby.Results.ok());
+              assertNotNull(ok);
+            });
+  }
+
+  @Test
+  public void ignoreSaveAfterIfNotDirty() throws Exception {
+    String secret = "shhh";
+    new MockUnit(Session.Definition.class, ParserExecutor.class, Cookie.Definition.class,
+        Request.class, Response.class, SessionImpl.class)
+            .expect(cookie)
+            .expect(maxAge(-1))
+            .expect(sessionBuilder(Session.COOKIE_SESSION, true, -1))
+            .expect(push)
             .expect(unit -> {
               SessionImpl session = unit.get(SessionImpl.class);
 
-              expect(session.attributes()).andReturn(ImmutableMap.of("foo", "2"));
+              expect(session.isDirty()).andReturn(false);
+              expect(session.attributes()).andReturn(ImmutableMap.of());
 
               Request req = unit.get(Request.class);
               expect(req.ifSession()).andReturn(Optional.of(session));
             })
-            .expect(unit -> {
-              unit.mockStatic(Cookie.Signature.class);
-              expect(Cookie.Signature.unsign(signed, secret)).andReturn("foo=1");
-            })
-            .expect(signCookie(secret, "foo=2", "sss"))
-            .expect(sendCookie())
             .run(unit -> {
               Session session = new CookieSessionManager(unit.get(ParserExecutor.class),
                   unit.get(Session.Definition.class), secret)
@@ -177,30 +195,24 @@ public class CookieSessionManagerTest {
         Request.class, Response.class, SessionImpl.class)
             .expect(cookie)
             .expect(maxAge(30))
-            .expect(sessionBuilder(Session.COOKIE_SESSION, true, -1))
-            .expect(push)
+            .expect(cookie("sid", signed))
             .expect(unit -> {
-              Cookie.Definition cookie = unit.get(Cookie.Definition.class);
-              expect(cookie.name()).andReturn(Optional.of("sid"));
-
-              Mutant mutant = unit.mock(Mutant.class);
-              expect(mutant.toOptional()).andReturn(Optional.of(signed));
-
-              Request req = unit.get(Request.class);
-              expect(req.cookie("sid")).andReturn(mutant);
+              unit.mockStatic(Cookie.Signature.class);
+              expect(Cookie.Signature.unsign(signed, secret)).andReturn("foo=1");
             })
+            .expect(sessionBuilder(Session.COOKIE_SESSION, false, -1))
+            .expect(buildSession(ImmutableMap.of("foo", "1")))
+            .expect(push)
             .expect(unit -> {
               SessionImpl session = unit.get(SessionImpl.class);
 
+              // set to the same value
+              expect(session.isDirty()).andReturn(true);
               expect(session.attributes()).andReturn(ImmutableMap.of("foo", "1"));
 
               Request req = unit.get(Request.class);
               expect(req.ifSession()).andReturn(Optional.of(session));
             })
-            .expect(unit -> {
-              unit.mockStatic(Cookie.Signature.class);
-              expect(Cookie.Signature.unsign(signed, secret)).andReturn("foo=1");
-            })
             .expect(unit -> {
               Cookie.Definition cookie = unit.get(Cookie.Definition.class);
               Cookie.Definition newCookie = unit.constructor(Cookie.Definition.class)
@@ -213,7 +225,7 @@ public class CookieSessionManagerTest {
             .run(unit -> {
               Session session = new CookieSessionManager(unit.get(ParserExecutor.class),
                   unit.get(Session.Definition.class), secret)
-                      .create(unit.get(Request.class), unit.get(Response.class));
+                      .get(unit.get(Request.class), unit.get(Response.class));
               assertEquals(unit.get(SessionImpl.class), session);
             }, unit -> {
               After next = unit.captured(Route.After.class).iterator().next();
@@ -223,6 +235,36 @@ public class CookieSessionManagerTest {
             });
   }
 
+  @Test
+  public void verifySignatureOnce() throws Exception {
+    String secret = "shh";
+    String signed = "$#!";
+    new MockUnit(Session.Definition.class, Cookie.Definition.class, ParserExecutor.class,
+        Request.class, Response.class, SessionImpl.class)
+            .expect(cookie)
+            .expect(maxAge(-1))
+            .expect(cookie("sid", signed))
+            .expect(cookie("sid", signed))
+            .expect(unit -> {
+              unit.mockStatic(Cookie.Signature.class);
+              expect(Cookie.Signature.unsign(signed, secret)).andReturn("foo=1");
+            })
+            .expect(sessionBuilder(Session.COOKIE_SESSION, false, -1))
+            .expect(buildSession(ImmutableMap.of("foo", "1")))
+            .expect(sessionBuilder(Session.COOKIE_SESSION, false, -1))
+            .expect(buildSession(ImmutableMap.of("foo", "1")))
+            .expect(push)
+            .expect(push)
+            .run(unit -> {
+              CookieSessionManager sm = new CookieSessionManager(unit.get(ParserExecutor.class),
+                  unit.get(Session.Definition.class), secret);
+              assertEquals(unit.get(SessionImpl.class),
+                  sm.get(unit.get(Request.class), unit.get(Response.class)));
+              assertEquals(unit.get(SessionImpl.class),
+                  sm.get(unit.get(Request.class), unit.get(Response.class)));
+            });
+  }
+
   private Block sendCookie() {
     return unit -> {
       Cookie.Definition cookie = unit.get(Cookie.Definition.class);
@@ -264,26 +306,13 @@ public class CookieSessionManagerTest {
         Session.Store.class, ParserExecutor.class, Request.class, Response.class, SessionImpl.class)
             .expect(cookie)
             .expect(maxAge(-1))
-            .expect(unit -> {
-              Cookie.Definition cookie = unit.get(Cookie.Definition.class);
-              expect(cookie.name()).andReturn(Optional.of("sid"));
-
-              Mutant mutant = unit.mock(Mutant.class);
-              expect(mutant.toOptional()).andReturn(Optional.of(signed));
-
-              Request req = unit.get(Request.class);
-              expect(req.cookie("sid")).andReturn(mutant);
-            })
+            .expect(cookie("sid", signed))
             .expect(unit -> {
               unit.mockStatic(Cookie.Signature.class);
               expect(Cookie.Signature.unsign(signed, secret)).andReturn("foo=1");
             })
             .expect(sessionBuilder(Session.COOKIE_SESSION, false, -1))
-            .expect(unit -> {
-              Session.Builder builder = unit.get(Session.Builder.class);
-              expect(builder.set(ImmutableMap.of("foo", "1"))).andReturn(builder);
-              expect(builder.build()).andReturn(unit.get(SessionImpl.class));
-            })
+            .expect(buildSession(ImmutableMap.of("foo", "1")))
             .expect(push)
             .run(unit -> {
               Session session = new CookieSessionManager(unit.get(ParserExecutor.class),
@@ -293,6 +322,27 @@ public class CookieSessionManagerTest {
             });
   }
 
+  private Block cookie(final String name, final String value) {
+    return unit -> {
+      Cookie.Definition cookie = unit.get(Cookie.Definition.class);
+      expect(cookie.name()).andReturn(Optional.of(name));
+
+      Mutant mutant = unit.mock(Mutant.class);
+      expect(mutant.toOptional()).andReturn(Optional.of(value));
+
+      Request req = unit.get(Request.class);
+      expect(req.cookie(name)).andReturn(mutant);
+    };
+  }
+
+  private Block buildSession(final Map<String, String> attributes) {
+    return unit -> {
+      Session.Builder builder = unit.get(Session.Builder.class);
+      expect(builder.set(attributes)).andReturn(builder);
+      expect(builder.build()).andReturn(unit.get(SessionImpl.class));
+    };
+  }
+
   private Block signCookie(final String secret, final String value, final String signed) {
     return unit -> {
       unit.mockStatic(Cookie.Signature.class);
@@ -0,0 +1,218 @@
+package org.jooby.internal;
+
+import static org.easymock.EasyMock.capture;
+import static org.easymock.EasyMock.expect;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Optional;
+
+import org.easymock.Capture;
+import org.jooby.MediaType;
+import org.jooby.Status;
+import org.jooby.spi.NativeResponse;
+import org.jooby.test.MockUnit;
+import org.junit.Test;
+
+import com.google.common.base.Strings;
+
+public class HttpRendererContextTest {
+
+  @Test
+  public void abortTruncatedBody() throws Exception {
+    IOException failure = new IOException("template failed");
+    ByteArrayOutputStream output = new ByteArrayOutputStream() {
+      @Override
+      public void close() {
+        fail("truncated body must not be ended");
+      }
+    };
+    new MockUnit(NativeResponse.class)
+        .expect(unit -> {
+          NativeResponse rsp = unit.get(NativeResponse.class);
+          expect(rsp.outputStream()).andReturn(output);
+          rsp.abort(failure);
+        })
+        .run(unit -> {
+          HttpRendererContext ctx = context(unit.get(NativeResponse.class), 4);
+          try {
+            ctx.write(writer -> {
+              writer.write(Strings.repeat("x", 10));
+              throw failure;
+            });
+            fail("expecting failure");
+          } catch (IOException x) {
+            assertSame(failure, x);
+          }
+          assertEquals("xxxxxxxx", output.toString("UTF-8"));
+        });
+  }
+
+  @Test
+  public void failureBeforeCommit() throws Exception {
+    IOException failure = new IOException("template failed");
+    new MockUnit(NativeResponse.class)
+        .run(unit -> {
+          HttpRendererContext ctx = context(unit.get(NativeResponse.class), 16);
+          try {
+            ctx.write(writer -> {
+              writer.write("xx");
+              throw failure;
+            });
+            fail("expecting failure");
+          } catch (IOException x) {
+            assertSame(failure, x);
+          }
+        });
+  }
+
+  @Test
+  public void writeByteRange() throws Exception {
+    Capture<ByteBuffer> body = new Capture<>();
+    new MockUnit(NativeResponse.class)
+        .expect(byteRange("10", "bytes 2-4/10", "3"))
+        .expect(unit -> {
+          NativeResponse rsp = unit.get(NativeResponse.class);
+          rsp.send(capture(body));
+        })
+        .run(unit -> {
+          HttpRendererContext ctx = context(unit.get(NativeResponse.class), 16,
+              Optional.of("bytes=2-4"));
+          ctx.write(writer -> writer.write("0123456789"));
+          assertEquals("234", StandardCharsets.UTF_8.decode(body.getValue()).toString());
+        });
+  }
+
+  @Test
+  public void sendWriterByteRange() throws Exception {
+    Capture<ByteBuffer> body = new Capture<>();
+    new MockUnit(NativeResponse.class)
+        .expect(byteRange("10", "bytes 7-9/10", "3"))
+        .expect(unit -> {
+          NativeResponse rsp = unit.get(NativeResponse.class);
+          rsp.send(capture(body));
+        })
+        .run(unit -> {
+          HttpRendererContext ctx = context(unit.get(NativeResponse.class), 16,
+              Optional.of("bytes=-3"));
+          ctx.send(out -> out.write("0123456789".getBytes(StandardCharsets.UTF_8)));
+          assertEquals("789", StandardCharsets.UTF_8.decode(body.getValue()).toString());
+        });
+  }
+
+  @Test
+  public void streamByteRange() throws Exception {
+    Capture<ByteBuffer> body = new Capture<>();
+    new MockUnit(NativeResponse.class)
+        .expect(byteRange("10", "bytes 0-1/10", "2"))
+        .expect(unit -> {
+          NativeResponse rsp = unit.get(NativeResponse.class);
+          rsp.send(capture(body));
+        })
+        .run(unit -> {
+          HttpRendererContext ctx = context(unit.get(NativeResponse.class), 16,
+              Optional.of("bytes=0-1"));
+          ctx.stream(out -> {
+            out.write("01234".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            out.write("56789".getBytes(StandardCharsets.UTF_8));
+          });
+          assertEquals("01", StandardCharsets.UTF_8.decode(body.getValue()).toString());
+        });
+  }
+
+  @Test
+  public void stream() throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new MockUnit(NativeResponse.class)
+        .expect(unit -> {
+          NativeResponse rsp = unit.get(NativeResponse.class);
+          expect(rsp.outputStream()).andReturn(output);
+        })
+        .run(unit -> {
+          HttpRendererContext ctx = context(unit.get(NativeResponse.class), 16);
+          ctx.stream(out -> {
+            out.write("x".getBytes());
+            out.flush();
+            out.write("y".getBytes());
+          });
+          assertEquals("xy", output.toString("UTF-8"));
+        });
+  }
+
+  @Test
+  public void streamAbortTruncatedBody() throws Exception {
+    IOException failure = new IOException("publisher failed");
+    ByteArrayOutputStream output = new ByteArrayOutputStream() {
+      @Override
+      public void close() {
+        fail("truncated body must not be ended");
+      }
+    };
+    new MockUnit(NativeResponse.class)
+        .expect(unit -> {
+          NativeResponse rsp = unit.get(NativeResponse.class);
+          expect(rsp.outputStream()).andReturn(output);
+          rsp.abort(failure);
+        })
+        .run(unit -> {
+          HttpRendererContext ctx = context(unit.get(NativeResponse.class), 16);
+          try {
+            ctx.stream(out -> {
+              out.write("x".getBytes());
+              throw failure;
+            });
+            fail("expecting failure");
+          } catch (IOException x) {
+            assertSame(failure, x);
+          }
+          assertEquals("x", output.toString("UTF-8"));
+        });
+  }
+
+  @Test
+  public void streamFailureBeforeFirstWrite() throws Exception {
+    IOException failure = new IOException("publisher failed");
+    new MockUnit(NativeResponse.class)
+        .run(unit -> {
+          HttpRendererContext ctx = context(unit.get(NativeResponse.class), 16);
+          try {
+            ctx.stream(out -> {
+              throw failure;
+            });
+            fail("expecting failure");
+          } catch (IOException x) {
+            assertSame(failure, x);
+          }
+        });
+  }
+
+  private MockUnit.Block byteRange(final String len, final String range, final String limit) {
+    return unit -> {
+      NativeResponse rsp = unit.get(NativeResponse.class);
+      expect(rsp.header("Content-Length")).andReturn(Optional.of(len));
+      rsp.header("Accept-Ranges", "bytes");
+      rsp.header("Content-Range", range);
+      rsp.header("Content-Length", limit);
+      rsp.statusCode(Status.PARTIAL_CONTENT.value());
+    };
+  }
+
+  private HttpRendererContext context(final NativeResponse rsp, final int bufferSize) {
+    return context(rsp, bufferSize, Optional.empty());
+  }
+
+  private HttpRendererContext context(final NativeResponse rsp, final int bufferSize,
+      final Optional<String> byteRange) {
+    return new HttpRendererContext(Collections.emptyList(), null, rsp, len -> {
+    }, type -> {
+    }, Collections.emptyMap(), MediaType.ALL, StandardCharsets.UTF_8, byteRange,
+        bufferSize);
+  }
+}
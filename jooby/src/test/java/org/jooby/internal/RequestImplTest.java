@@ -2,6 +2,7 @@ package org.jooby.internal;
 
 import static org.easymock.EasyMock.expect;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
 import java.io.IOException;
@@ -10,7 +11,9 @@ import java.util.Locale;
 import java.util.Optional;
 
 import org.jooby.Err;
+import org.jooby.Mutant;
 import org.jooby.Route;
+import org.jooby.internal.parser.ParserExecutor;
 import org.jooby.spi.NativeRequest;
 import org.jooby.test.MockUnit;
 import org.jooby.test.MockUnit.Block;
@@ -152,6 +155,7 @@ public class RequestImplTest {
 
           NativeRequest req = unit.get(NativeRequest.class);
           expect(req.files("p")).andReturn(ImmutableList.of());
+          expect(req.paramNames()).andReturn(ImmutableList.of("p"));
           expect(req.params("p")).andThrow(cause);
         })
         .run(unit -> {
@@ -167,4 +171,34 @@ public class RequestImplTest {
         });
   }
 
+  @Test
+  public void paramTable() throws Exception {
+    new MockUnit(Injector.class, NativeRequest.class, Route.class, ParserExecutor.class)
+        .expect(accept)
+        .expect(acceptLan)
+        .expect(contentType)
+        .expect(unit -> {
+          Route route = unit.get(Route.class);
+          expect(route.vars()).andReturn(ImmutableMap.of()).times(4);
+
+          NativeRequest req = unit.get(NativeRequest.class);
+          expect(req.files("p")).andReturn(ImmutableList.of());
+          expect(req.files("q")).andReturn(ImmutableList.of()).times(2);
+          // names and values are read once
+          expect(req.paramNames()).andReturn(ImmutableList.of("p"));
+          expect(req.params("p")).andReturn(ImmutableList.of("1"));
+        })
+        .run(unit -> {
+          RequestImpl req = new RequestImpl(unit.get(Injector.class),
+              unit.get(ParserExecutor.class), unit.get(NativeRequest.class), "/", 8080,
+              unit.get(Route.class), StandardCharsets.UTF_8, ImmutableList.of(Locale.ENGLISH),
+              ImmutableMap.of(), ImmutableMap.of(), 1L);
+          Mutant p = req.param("p");
+          assertSame(p, req.param("p"));
+          assertSame(req.params(), req.params());
+          assertEquals(false, req.param("q").isSet());
+          assertEquals(false, req.param("q").isSet());
+        });
+  }
+
 }
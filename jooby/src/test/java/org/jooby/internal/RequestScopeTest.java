@@ -23,6 +23,25 @@ public class RequestScopeTest {
     requestScope.exit();
   }
 
+  @Test
+  public void get() {
+    RequestScope requestScope = new RequestScope();
+    Key<Object> key = Key.get(Object.class);
+    Object value = new Object();
+    try {
+      requestScope.enter(Collections.singletonMap(key, value));
+      assertEquals(value, requestScope.get(key));
+      assertEquals(null, requestScope.get(Key.get(String.class)));
+    } finally {
+      requestScope.exit();
+    }
+  }
+
+  @Test(expected = OutOfScopeException.class)
+  public void getOutOfScope() {
+    new RequestScope().get(Key.get(Object.class));
+  }
+
   @SuppressWarnings({"unchecked", "rawtypes" })
   @Test
   public void scopedValue() throws Exception {
@@ -0,0 +1,67 @@
+package org.jooby.internal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.easymock.EasyMock.expect;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+import org.jooby.spi.NativeResponse;
+import org.jooby.test.MockUnit;
+import org.junit.Test;
+
+public class ResponseWriterTest {
+
+  @Test
+  public void fitsInBuffer() throws Exception {
+    new MockUnit(NativeResponse.class)
+        .run(unit -> {
+          ResponseWriter writer = new ResponseWriter(unit.get(NativeResponse.class), UTF_8, 16);
+          writer.write("<p>");
+          writer.append("hey");
+          writer.write('!');
+          writer.flush();
+          writer.close();
+          ByteBuffer body = writer.end();
+          assertFalse(writer.committed());
+          assertEquals("<p>hey!", UTF_8.decode(body).toString());
+        });
+  }
+
+  @Test
+  public void chunks() throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new MockUnit(NativeResponse.class)
+        .expect(unit -> {
+          NativeResponse rsp = unit.get(NativeResponse.class);
+          expect(rsp.outputStream()).andReturn(output);
+        })
+        .run(unit -> {
+          ResponseWriter writer = new ResponseWriter(unit.get(NativeResponse.class), UTF_8, 4);
+          writer.write("0123");
+          assertFalse(writer.committed());
+          writer.write("456789");
+          assertTrue(writer.committed());
+          assertEquals("01234567", output.toString("UTF-8"));
+          assertNull(writer.end());
+          assertEquals("0123456789", output.toString("UTF-8"));
+        });
+  }
+
+  @Test
+  public void splitSurrogatePair() throws Exception {
+    new MockUnit(NativeResponse.class)
+        .run(unit -> {
+          String text = "a\uD83D\uDE00b";
+          ResponseWriter writer = new ResponseWriter(unit.get(NativeResponse.class), UTF_8, 16);
+          writer.write(text.toCharArray(), 0, 2);
+          writer.write(text.toCharArray(), 2, 2);
+          assertEquals(text, UTF_8.decode(writer.end()).toString());
+        });
+  }
+
+}
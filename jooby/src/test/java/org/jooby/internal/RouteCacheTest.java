@@ -0,0 +1,139 @@
+package org.jooby.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.jooby.MediaType;
+import org.jooby.Route;
+import org.junit.Test;
+
+import com.google.common.cache.CacheStats;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValueFactory;
+
+public class RouteCacheTest {
+
+  private static final Route.Handler HANDLER = (req, rsp) -> {
+  };
+
+  @Test
+  public void shapeAndPathProduceSameRoutes() {
+    Set<Route.Definition> defs = routes();
+    RouteCache byPath = new RouteCache(defs, conf("path"));
+    RouteCache byShape = new RouteCache(defs, conf("shape"));
+
+    List<String> paths = Arrays.asList("/", "/users", "/users/1", "/users/2", "/users/me",
+        "/users/1/roles", "/static/js/app.js", "/assets/app.js", "/ids/12", "/ids/x", "/x");
+    for (String method : Arrays.asList("GET", "POST", "PUT")) {
+      for (String path : paths) {
+        // twice: miss and hit
+        for (int i = 0; i < 2; i++) {
+          assertEquals(method + path,
+              patterns(byPath.routes(method, path, MediaType.all, MediaType.ALL)),
+              patterns(byShape.routes(method, path, MediaType.all, MediaType.ALL)));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void shapeHitRate() {
+    RouteCache cache = new RouteCache(routes(), conf("shape"));
+    for (int i = 0; i < 50; i++) {
+      List<Route> routes = cache.routes("GET", "/users/" + i, MediaType.all, MediaType.ALL);
+      assertEquals(String.valueOf(i), routes.get(1).vars().get("id"));
+    }
+    CacheStats stats = cache.stats();
+    assertEquals(1, stats.missCount());
+    assertEquals(49, stats.hitCount());
+  }
+
+  @Test
+  public void pathHitRate() {
+    RouteCache cache = new RouteCache(routes(), conf("path"));
+    for (int i = 0; i < 50; i++) {
+      cache.routes("GET", "/users/" + i, MediaType.all, MediaType.ALL);
+    }
+    cache.routes("GET", "/users/1", MediaType.all, MediaType.ALL);
+    CacheStats stats = cache.stats();
+    assertEquals(50, stats.missCount());
+    assertEquals(1, stats.hitCount());
+  }
+
+  @Test
+  public void hasAttrs() {
+    Set<Route.Definition> defs = routes();
+    defs.add(new Route.Definition("GET", "/attrs/:id", HANDLER).attr("role", "admin"));
+    for (String key : Arrays.asList("path", "shape")) {
+      RouteCache cache = new RouteCache(defs, conf(key));
+      // twice: miss and hit
+      for (int i = 0; i < 2; i++) {
+        assertEquals(key, true,
+            cache.routes("GET", "/attrs/1", MediaType.all, MediaType.ALL).hasAttrs());
+        assertEquals(key, false,
+            cache.routes("GET", "/users/1", MediaType.all, MediaType.ALL).hasAttrs());
+        assertEquals(key, false,
+            cache.routes("GET", "/missing", MediaType.all, MediaType.ALL).hasAttrs());
+      }
+    }
+  }
+
+  @Test
+  public void nonBlocking() {
+    Set<Route.Definition> defs = new LinkedHashSet<>();
+    defs.add(new Route.Definition("*", "/api/**", HANDLER).nonBlocking());
+    defs.add(new Route.Definition("GET", "/api/ping", HANDLER).nonBlocking());
+    defs.add(new Route.Definition("GET", "/api/users", HANDLER));
+    defs.add(new Route.Definition("GET", "/ping", HANDLER).nonBlocking());
+    defs.add(new Route.Definition("GET", "/json", HANDLER).produces("json").nonBlocking());
+    RouteCache cache = new RouteCache(defs, conf("path"));
+
+    for (int i = 0; i < 2; i++) {
+      assertEquals(true, cache.nonBlocking("GET", "/api/ping"));
+      assertEquals(true, cache.nonBlocking("GET", "/ping"));
+      assertEquals(true, cache.nonBlocking("GET", "/json"));
+      assertEquals(true, cache.nonBlocking("POST", "/api/x"));
+      // /api/** is non-blocking, but /api/users isn't
+      assertEquals(false, cache.nonBlocking("GET", "/api/users"));
+      assertEquals(false, cache.nonBlocking("POST", "/ping"));
+      assertEquals(false, cache.nonBlocking("GET", "/missing"));
+    }
+  }
+
+  @Test
+  public void nonBlockingOff() {
+    RouteCache cache = new RouteCache(routes(), conf("path"));
+    assertEquals(false, cache.nonBlocking("GET", "/users/1"));
+  }
+
+  private static Set<Route.Definition> routes() {
+    Set<Route.Definition> defs = new LinkedHashSet<>();
+    defs.add(new Route.Definition("*", "*", HANDLER));
+    defs.add(new Route.Definition("GET", "/users/:id", HANDLER));
+    defs.add(new Route.Definition("GET", "/users/me", HANDLER));
+    defs.add(new Route.Definition("POST", "/users/{id}", HANDLER));
+    defs.add(new Route.Definition("GET", "/users/{id}/roles", HANDLER));
+    defs.add(new Route.Definition("*", "/static/**", HANDLER));
+    defs.add(new Route.Definition("GET", "/assets/*.js", HANDLER));
+    defs.add(new Route.Definition("GET", "/ids/{id:\\d+}", HANDLER));
+    return defs;
+  }
+
+  private static Config conf(final String key) {
+    return ConfigFactory.empty()
+        .withValue("server.routes.Cache", ConfigValueFactory.fromAnyRef("maximumSize=100"))
+        .withValue("server.routes.CacheKey", ConfigValueFactory.fromAnyRef(key));
+  }
+
+  private static List<String> patterns(final List<Route> routes) {
+    return routes.stream()
+        .map(it -> it.method() + it.pattern() + it.vars() + it.name())
+        .collect(Collectors.toList());
+  }
+}
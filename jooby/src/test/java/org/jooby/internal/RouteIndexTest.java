@@ -0,0 +1,121 @@
+package org.jooby.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.jooby.MediaType;
+import org.jooby.Route;
+import org.junit.Test;
+
+public class RouteIndexTest {
+
+  private static final Route.Handler HANDLER = (req, rsp) -> {
+  };
+
+  @Test
+  public void staticSegments() {
+    assertEquals(Arrays.asList(), RouteIndex.staticSegments("/"));
+    assertEquals(Arrays.asList("a"), RouteIndex.staticSegments("/a"));
+    assertEquals(Arrays.asList("a", "b"), RouteIndex.staticSegments("/a/b"));
+    assertEquals(Arrays.asList("a"), RouteIndex.staticSegments("/a/:id"));
+    assertEquals(Arrays.asList("a"), RouteIndex.staticSegments("/a/{id}/c"));
+    assertEquals(Arrays.asList("a"), RouteIndex.staticSegments("/a/**"));
+    assertEquals(Arrays.asList("a"), RouteIndex.staticSegments("/a/*.js"));
+    assertEquals(Arrays.asList("a"), RouteIndex.staticSegments("/a/b?c"));
+    assertEquals(Arrays.asList(), RouteIndex.staticSegments("/**"));
+  }
+
+  @Test
+  public void sameOrderAsLinearScan() {
+    Set<Route.Definition> defs = new LinkedHashSet<>();
+    defs.add(new Route.Definition("*", "*", HANDLER));
+    defs.add(new Route.Definition("GET", "/", HANDLER));
+    defs.add(new Route.Definition("GET", "/users", HANDLER));
+    defs.add(new Route.Definition("GET", "/users/:id", HANDLER));
+    defs.add(new Route.Definition("POST", "/users/:id", HANDLER));
+    defs.add(new Route.Definition("GET|POST", "/users/{id}/roles", HANDLER));
+    defs.add(new Route.Definition("GET", "/users/**", HANDLER));
+    defs.add(new Route.Definition("GET", "/users/me", HANDLER));
+    defs.add(new Route.Definition("GET", "/assets/**/*.js", HANDLER));
+    defs.add(new Route.Definition("GET", "/assets/**:path", HANDLER));
+    defs.add(new Route.Definition("GET", "/:name", HANDLER));
+    defs.add(new Route.Definition("GET", "/{id:\\d+}", HANDLER));
+    defs.add(new Route.Definition("DELETE", "/users/:id", HANDLER).excludes("/users/me"));
+    defs.add(new Route.Definition("GET", "/u?ers", HANDLER));
+    defs.add(new Route.Definition("*", "/users/*", HANDLER));
+
+    RouteIndex index = new RouteIndex(defs);
+
+    List<String> paths = Arrays.asList("/", "/users", "/users/1", "/users/me", "/users/1/roles",
+        "/users/1/roles/x", "/assets/js/app.js", "/assets/app.css", "/assets", "/123",
+        "/x", "/uxers", "/users//1", "/missing/path", "/users" + Route.OUT_OF_PATH);
+    for (String method : Arrays.asList("GET", "POST", "DELETE", "PUT", "PATCH")) {
+      for (String path : paths) {
+        assertEquals(method + path, scan(defs, method, path),
+            patterns(index.routes(method, path, MediaType.all, MediaType.ALL)));
+      }
+    }
+  }
+
+  @Test
+  public void candidatesRespectVerb() {
+    Set<Route.Definition> defs = new LinkedHashSet<>();
+    Route.Definition get = new Route.Definition("GET", "/a/b", HANDLER);
+    Route.Definition post = new Route.Definition("POST", "/a/b", HANDLER);
+    Route.Definition any = new Route.Definition("*", "/a/**", HANDLER);
+    defs.add(get);
+    defs.add(post);
+    defs.add(any);
+
+    RouteIndex index = new RouteIndex(defs);
+
+    assertEquals(Arrays.asList(get, any), index.candidates("GET", "/a/b"));
+    assertEquals(Arrays.asList(post, any), index.candidates("POST", "/a/b"));
+    assertEquals(Arrays.asList(any), index.candidates("PUT", "/a/b"));
+    assertEquals(Arrays.asList(), index.candidates("GET", "/b"));
+  }
+
+  private static List<String> scan(final Set<Route.Definition> defs, final String method,
+      final String path) {
+    return defs.stream()
+        .map(def -> def.matches(method, path, MediaType.all, MediaType.ALL))
+        .filter(Optional::isPresent)
+        .map(it -> it.get().method() + it.get().pattern() + it.get().vars())
+        .collect(Collectors.toList());
+  }
+
+  private static List<String> patterns(final List<Route> routes) {
+    return routes.stream()
+        .map(it -> it.method() + it.pattern() + it.vars())
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void shape() {
+    Set<Route.Definition> defs = new LinkedHashSet<>();
+    defs.add(new Route.Definition("GET", "/users/:id", HANDLER));
+    defs.add(new Route.Definition("GET", "/users/{id}/roles", HANDLER));
+    defs.add(new Route.Definition("*", "/static/**", HANDLER));
+    defs.add(new Route.Definition("GET", "/assets/*.js", HANDLER));
+    defs.add(new Route.Definition("GET", "/ids/{id:\\d+}", HANDLER));
+
+    RouteIndex index = new RouteIndex(defs);
+
+    assertEquals("/users/:", index.shape("GET", "/users/1"));
+    assertEquals("/users/:", index.shape("GET", "/users/2"));
+    assertEquals("/users/:/roles", index.shape("GET", "/users/1/roles"));
+    assertEquals("/users//roles", index.shape("GET", "/users//roles"));
+    assertEquals("/static/:/:", index.shape("POST", "/static/js/app.js"));
+    assertEquals("/", index.shape("GET", "/"));
+    assertEquals("/:", index.shape("GET", "/x"));
+    // partial wildcards and regex can't be resolved by shape
+    assertEquals(null, index.shape("GET", "/assets/app.js"));
+    assertEquals(null, index.shape("GET", "/ids/1"));
+  }
+}
@@ -4,6 +4,9 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
 
@@ -439,4 +442,48 @@ public class RoutePatternTest {
 
   }
 
+  @Test
+  public void sameAsRegex() {
+    List<String> patterns = Arrays.asList("/", "/a", "/a/b", "/:id", "/a/:id", "/a/{id}",
+        "/a/:id/b/:id2", "/a/{id}.json", "/a/*", "/a/*.js", "/a/?", "/a/?/?b", "/**", "/a/**",
+        "/a/**/b", "/a/**/*.js", "/a/**:path", "/a/**:path/x", "/a/{path:**}", "/*", "/*/*",
+        "/a-:id", "/:a/:b/**", "/a/{id}-{name}", "/a/*/b/**:rest");
+    List<String> paths = Arrays.asList("/", "/a", "/a/", "/a/b", "/a/b/", "/a/1", "/a/12",
+        "/a/1.json", "/a/.json", "/a/x.js", "/a/b/c.js", "/a/b/c/d", "/a/1/b/2", "/a/x/b",
+        "/ab", "/a/ab", "/a/a/b", "/a-1", "/a/1-x", "/a/x/b/y/z", "/a//b", "/a/x", "/b/c/d/x",
+        "/a/b/x", "/x/y");
+    for (String verb : Arrays.asList("GET", "*", "GET|POST")) {
+      for (String pattern : patterns) {
+        RoutePattern path = new RoutePattern(verb, pattern);
+        RoutePattern regex = new RoutePattern(verb, pattern, true);
+        for (String method : Arrays.asList("GET", "POST", "PUT")) {
+          for (String candidate : paths) {
+            String message = verb + pattern + " vs " + method + candidate;
+            RouteMatcher expected = regex.matcher(method + candidate);
+            RouteMatcher actual = path.matcher(method + candidate);
+            boolean matches = expected.matches();
+            assertEquals(message, matches, actual.matches());
+            assertEquals(message, expected.path(), actual.path());
+            if (matches) {
+              assertEquals(message, expected.vars(), new HashMap<>(actual.vars()));
+            }
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void varsOrder() {
+    new RoutePathAssert("GET", "/js/*/:name")
+        .matches("GET/js/lib/jquery.js", vars -> {
+          assertEquals(3, vars.size());
+          assertEquals(Arrays.asList(0, 1, "name"), Arrays.asList(vars.keySet().toArray()));
+          assertEquals(Arrays.asList("lib", "jquery.js", "jquery.js"),
+              Arrays.asList(vars.values().toArray()));
+          assertEquals(null, vars.get(2));
+          assertEquals(null, vars.get("id"));
+        });
+  }
+
 }
@@ -1,12 +1,16 @@
 package org.jooby.internal.mvc;
 
 import static org.easymock.EasyMock.expect;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 import java.io.IOException;
 import java.lang.reflect.Method;
 import java.util.Collections;
 import java.util.List;
 
+import javax.inject.Provider;
+
 import org.jooby.Request;
 import org.jooby.Response;
 import org.jooby.Status;
@@ -99,6 +103,75 @@ public class MvcHandlerTest {
         });
   }
 
+  @SuppressWarnings({"rawtypes", "unchecked" })
+  @Test
+  public void handleWithController() throws Exception {
+    Class handlerClass = MvcHandlerTest.class;
+    MvcHandlerTest handler = new MvcHandlerTest();
+    Method method = handlerClass.getDeclaredMethod("strhandle");
+    new MockUnit(RequestParamProvider.class, Request.class, Response.class, Provider.class)
+        .expect(unit -> {
+          Provider provider = unit.get(Provider.class);
+          expect(provider.get()).andReturn(handler);
+        })
+        .expect(unit -> {
+          Response rsp = unit.get(Response.class);
+          expect(rsp.status(Status.OK)).andReturn(rsp);
+          rsp.send("strhandle");
+        })
+        .expect(unit -> {
+          List<RequestParam> params = Collections.emptyList();
+          RequestParamProvider paramProvider = unit.get(RequestParamProvider.class);
+          expect(paramProvider.parameters(method)).andReturn(params);
+        })
+        .run(unit -> {
+          new MvcHandler(method, unit.get(RequestParamProvider.class))
+              .controller(unit.get(Provider.class))
+              .handle(unit.get(Request.class), unit.get(Response.class));
+        });
+  }
+
+  @Test
+  public void invoker() throws Throwable {
+    MvcHandlerTest handler = new MvcHandlerTest();
+    assertEquals("strhandle", MvcHandler
+        .invoker(MvcHandlerTest.class.getDeclaredMethod("strhandle"))
+        .invokeExact((Object) handler, new Object[0]));
+
+    assertEquals(3, MvcHandler
+        .invoker(MvcHandlerTest.class.getDeclaredMethod("sum", int.class, Integer.class))
+        .invokeExact((Object) handler, new Object[]{1, 2 }));
+
+    assertEquals("x", MvcHandler
+        .invoker(MvcHandlerTest.class.getDeclaredMethod("statichandle", String.class))
+        .invokeExact((Object) null, new Object[]{"x" }));
+
+    assertNull(MvcHandler
+        .invoker(MvcHandlerTest.class.getDeclaredMethod("voidhandle"))
+        .invokeExact((Object) handler, new Object[0]));
+
+    assertEquals("hidden", MvcHandler
+        .invoker(Hidden.class.getDeclaredMethod("hidden"))
+        .invokeExact((Object) new Hidden(), new Object[0]));
+  }
+
+  static class Hidden {
+    public String hidden() {
+      return "hidden";
+    }
+  }
+
+  public int sum(final int a, final Integer b) {
+    return a + b;
+  }
+
+  public static String statichandle(final String value) {
+    return value;
+  }
+
+  public void voidhandle() {
+  }
+
   public String strhandle() throws Exception {
     return "strhandle";
   }
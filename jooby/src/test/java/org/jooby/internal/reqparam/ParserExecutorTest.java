@@ -2,18 +2,30 @@ package org.jooby.internal.reqparam;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
 import java.util.Set;
 
+import org.jooby.MediaType;
 import org.jooby.Parser;
 import org.jooby.Upload;
+import org.jooby.internal.BodyReferenceImpl;
+import org.jooby.internal.BuiltinParser;
 import org.jooby.internal.StatusCodeProvider;
+import org.jooby.internal.StrParamReferenceImpl;
 import org.jooby.internal.UploadParamReferenceImpl;
 import org.jooby.internal.parser.ParserExecutor;
 import org.jooby.test.MockUnit;
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.google.inject.Injector;
@@ -62,4 +74,134 @@ public class ParserExecutorTest {
         });
   }
 
+  private static class Skip implements Parser {
+
+    List<TypeLiteral<?>> calls = new ArrayList<>();
+
+    @Override
+    public Object parse(final TypeLiteral<?> type, final Context ctx) throws Throwable {
+      calls.add(type);
+      return ctx.next();
+    }
+  }
+
+  @Test
+  public void resolveOnce() throws Throwable {
+    Skip skip = new Skip();
+    ParserExecutor parser = new ParserExecutor(null,
+        ImmutableSet.of(skip, BuiltinParser.Basic), null);
+    TypeLiteral<Integer> type = TypeLiteral.get(int.class);
+
+    assertEquals(1, (int) parser.convert(type, param("1")));
+    assertEquals(2, (int) parser.convert(type, param("2")));
+    assertEquals(3, (int) parser.convert(type, param("3")));
+    assertEquals(ImmutableList.of(type), skip.calls);
+  }
+
+  @Test
+  public void resolveNested() throws Throwable {
+    Skip skip = new Skip();
+    ParserExecutor parser = new ParserExecutor(null,
+        ImmutableSet.of(skip, BuiltinParser.Optional, BuiltinParser.Basic), null);
+    TypeLiteral<Optional<Integer>> type = new TypeLiteral<Optional<Integer>>() {
+    };
+
+    assertEquals(Optional.of(1), parser.convert(type, param("1")));
+    assertEquals(Optional.of(2), parser.convert(type, param("2")));
+    assertEquals(Optional.empty(), parser.convert(type, param()));
+    // nested int conversion still runs the whole chain
+    assertEquals(ImmutableList.of(type, TypeLiteral.get(Integer.class),
+        TypeLiteral.get(Integer.class)), skip.calls);
+  }
+
+  @Test
+  public void resolveByContentType() throws Throwable {
+    Parser json = new Parser() {
+      @Override
+      public Object parse(final TypeLiteral<?> type, final Context ctx) throws Throwable {
+        if (ctx.type().equals(MediaType.json)) {
+          return ctx.param(values -> -1);
+        }
+        return ctx.next();
+      }
+    };
+    ParserExecutor parser = new ParserExecutor(null,
+        ImmutableSet.of(json, BuiltinParser.Basic), null);
+    TypeLiteral<Integer> type = TypeLiteral.get(int.class);
+
+    assertEquals(1, (int) parser.convert(type, MediaType.plain, param("1")));
+    assertEquals(-1, (int) parser.convert(type, MediaType.json, param("1")));
+    assertEquals(2, (int) parser.convert(type, MediaType.plain, param("2")));
+    assertEquals(-1, (int) parser.convert(type, MediaType.json, param("2")));
+  }
+
+  @Test
+  public void reentrant() throws Throwable {
+    ParserExecutor[] executor = new ParserExecutor[1];
+    Parser point = new Parser() {
+      @Override
+      public Object parse(final TypeLiteral<?> type, final Context ctx) throws Throwable {
+        if (type.getRawType() == List.class) {
+          // convert values via executor, like the bean parser does
+          return ctx.param(values -> ImmutableList.of(
+              executor[0].convert(TypeLiteral.get(int.class), param(values.get(0))),
+              executor[0].convert(TypeLiteral.get(int.class), param(values.get(1)))));
+        }
+        return ctx.next();
+      }
+    };
+    ParserExecutor parser = new ParserExecutor(null,
+        ImmutableSet.of(BuiltinParser.Basic, point), null);
+    executor[0] = parser;
+    TypeLiteral<List<Integer>> type = new TypeLiteral<List<Integer>>() {
+    };
+
+    assertEquals(ImmutableList.of(1, 2), parser.convert(type, param("1", "2")));
+    assertEquals(ImmutableList.of(3, 4), parser.convert(type, param("3", "4")));
+    assertEquals(5, (int) parser.convert(TypeLiteral.get(int.class), param("5")));
+  }
+
+  @Test
+  public void body() throws Throwable {
+    ParserExecutor parser = new ParserExecutor(null, ImmutableSet.of(BuiltinParser.Basic), null);
+    TypeLiteral<String> type = TypeLiteral.get(String.class);
+
+    assertEquals("a", parser.convert(type, body("a")));
+    assertEquals("b", parser.convert(type, body("b")));
+  }
+
+  @Test
+  public void missing() throws Throwable {
+    ParserExecutor parser = new ParserExecutor(null, ImmutableSet.of(BuiltinParser.Basic), null);
+    TypeLiteral<Integer> type = TypeLiteral.get(int.class);
+
+    assertEquals(1, (int) parser.convert(type, param("1")));
+    try {
+      parser.convert(type, param());
+    } catch (NoSuchElementException ex) {
+      assertEquals("p", ex.getMessage());
+      return;
+    }
+    throw new AssertionError("expected NoSuchElementException");
+  }
+
+  @Test
+  public void noparser() throws Throwable {
+    ParserExecutor parser = new ParserExecutor(null, ImmutableSet.of(BuiltinParser.Basic), null);
+    TypeLiteral<ParserExecutorTest> type = TypeLiteral.get(ParserExecutorTest.class);
+
+    assertEquals(ParserExecutor.NO_PARSER, parser.convert(type, param("x")));
+    assertEquals(ParserExecutor.NO_PARSER, parser.convert(type, param("x")));
+  }
+
+  private static StrParamReferenceImpl param(final String... values) {
+    return new StrParamReferenceImpl("parameter", "p", ImmutableList.copyOf(values));
+  }
+
+  private static BodyReferenceImpl body(final String value) throws Exception {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    return new BodyReferenceImpl(bytes.length, StandardCharsets.UTF_8, null,
+        new ByteArrayInputStream(bytes), bytes.length + 1);
+  }
+
 }